@@ -0,0 +1,65 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.collect;
+
+
+/**
+ * Open addressing scheme of hash containers.
+ *
+ * @see HashConfig#withAlgorithm(HashAlgorithm)
+ */
+public enum HashAlgorithm {
+
+    /**
+     * Double hashing over prime capacities. Index and probe step are computed
+     * by integer division, that works well even for poorly distributed keys.
+     */
+    DOUBLE_HASHING,
+
+    /**
+     * Double hashing over power-of-two capacities. Key hashes are mixed and then
+     * masked to obtain index and odd probe step, so lookups don't perform division.
+     * Tables are up to 2 times larger than with {@link #DOUBLE_HASHING} for the same
+     * load factor, because capacity is rounded up to the next power of 2.
+     */
+    POWER_OF_TWO_DOUBLE_HASHING,
+
+    /**
+     * Linear probing over power-of-two capacities with mixed key hashes. Removal shifts
+     * the following keys back instead of marking the slot as removed, so continuous
+     * insertions and removals don't degrade lookups and don't cause periodic rehashes.
+     * Probes touch adjacent slots, but the probe sequences are longer than
+     * with double hashing when the load factor is high.
+     *
+     * <p>Supported only by containers with primitive keys, containers with object keys
+     * use {@link #DOUBLE_HASHING} instead.
+     */
+    LINEAR_PROBING,
+
+    /**
+     * Robin Hood variant of {@link #LINEAR_PROBING}: a key being inserted takes the slot
+     * of the first key which is closer to its own home slot, and the rest of the cluster
+     * is shifted by one slot. This bounds the variance of probe lengths, and searches
+     * of absent keys stop early, so tables could be used with load factors of 0.8-0.9.
+     * Insertions are somewhat more expensive than with plain linear probing.
+     *
+     * <p>Supported only by containers with primitive keys, containers with object keys
+     * use {@link #DOUBLE_HASHING} instead.
+     */
+    ROBIN_HOOD_HASHING
+}
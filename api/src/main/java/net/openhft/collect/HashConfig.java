@@ -28,21 +28,38 @@ public final class HashConfig {
 
     /**
      * Config with {@literal 0.5f} load factor, {@code null} shrink condition,
-     * default expected size is 10.
+     * default expected size is 10, {@link HashAlgorithm#DOUBLE_HASHING} algorithm,
+     * {@code null} key mixing, {@literal 0.0f} min load (no shrink on removals),
+     * {@code null} maintenance listener, no perfect hashing.
      */
-    public static final HashConfig DEFAULT = new HashConfig(0.5f, null, 10);
+    public static final HashConfig DEFAULT = new HashConfig(
+            0.5f, null, 10, HashAlgorithm.DOUBLE_HASHING, null, 0.0f, null, false);
 
 
     private final float loadFactor;
     @Nullable
     private final Predicate<HashContainer> shrinkCondition;
     private final int defaultExpectedSize;
+    private final HashAlgorithm algorithm;
+    @Nullable
+    private final KeyMixing keyMixing;
+    private final float minLoad;
+    @Nullable
+    private final HashMaintenanceListener maintenanceListener;
+    private final boolean perfectHashing;
 
     private HashConfig(float loadFactor, @Nullable Predicate<HashContainer> shrinkCondition,
-            int defaultExpectedSize) {
+            int defaultExpectedSize, HashAlgorithm algorithm, @Nullable KeyMixing keyMixing,
+            float minLoad, @Nullable HashMaintenanceListener maintenanceListener,
+            boolean perfectHashing) {
         this.loadFactor = loadFactor;
         this.shrinkCondition = shrinkCondition;
         this.defaultExpectedSize = defaultExpectedSize;
+        this.algorithm = algorithm;
+        this.keyMixing = keyMixing;
+        this.minLoad = minLoad;
+        this.maintenanceListener = maintenanceListener;
+        this.perfectHashing = perfectHashing;
     }
 
     /**
@@ -55,7 +72,8 @@ public final class HashConfig {
     }
 
     /**
-     * Load factor should be in (0.0, 1.0) range.
+     * Load factor should be in (0.0, 1.0) range, and greater than twice the {@linkplain
+     * #getMinLoad() min load}.
      * @see #getLoadFactor()
      */
     public HashConfig withLoadFactor(float loadFactor) {
@@ -64,7 +82,11 @@ public final class HashConfig {
         if (Float.isNaN(loadFactor) || loadFactor <= 0.0f || loadFactor >= 1.0f)
             throw new IllegalArgumentException("Load factor must be in (0.0, 1.0) range, " +
                     loadFactor + " given.");
-        return new HashConfig(loadFactor, shrinkCondition, defaultExpectedSize);
+        if (minLoad >= loadFactor / 2)
+            throw new IllegalArgumentException("Load factor must be greater than twice " +
+                    "the min load " + minLoad + ", " + loadFactor + " given.");
+        return new HashConfig(loadFactor, shrinkCondition, defaultExpectedSize, algorithm,
+                keyMixing, minLoad, maintenanceListener, perfectHashing);
     }
 
     /**
@@ -100,7 +122,8 @@ public final class HashConfig {
     public HashConfig withShrinkCondition(@Nullable Predicate<HashContainer> condition) {
         if (NullableObjects.equals(this.shrinkCondition, condition))
             return this;
-        return new HashConfig(loadFactor, condition, defaultExpectedSize);
+        return new HashConfig(loadFactor, condition, defaultExpectedSize, algorithm,
+                keyMixing, minLoad, maintenanceListener, perfectHashing);
     }
 
     /**
@@ -118,16 +141,189 @@ public final class HashConfig {
         if (defaultExpectedSize < 0)
             throw new IllegalArgumentException("Default expected hash size must be positive, " +
                     defaultExpectedSize + " given");
-        return new HashConfig(loadFactor, shrinkCondition, defaultExpectedSize);
+        return new HashConfig(loadFactor, shrinkCondition, defaultExpectedSize, algorithm,
+                keyMixing, minLoad, maintenanceListener, perfectHashing);
+    }
+
+    /**
+     * Hash containers, created by factories with this config, use this open addressing
+     * algorithm.
+     *
+     * @return hash algorithm
+     * @see #withAlgorithm(HashAlgorithm)
+     */
+    public HashAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Returns hash config with the specified hash algorithm.
+     *
+     * @param algorithm hash algorithm
+     * @return hash config with the specified hash algorithm
+     * @throws java.lang.IllegalArgumentException if {@code algorithm} is {@code null}
+     * @see #getAlgorithm()
+     */
+    public HashConfig withAlgorithm(HashAlgorithm algorithm) {
+        if (this.algorithm == algorithm)
+            return this;
+        if (algorithm == null)
+            throw new IllegalArgumentException("Hash algorithm must be non-null");
+        return new HashConfig(loadFactor, shrinkCondition, defaultExpectedSize, algorithm,
+                keyMixing, minLoad, maintenanceListener, perfectHashing);
     }
 
+    /**
+     * Hash containers with primitive keys, created by factories with this config, apply this
+     * function to the keys before computing slot indexes. Containers with object keys
+     * ignore this setting.
+     *
+     * <p>{@code null} key mixing stands for the default of the {@linkplain #getAlgorithm()
+     * hash algorithm}: {@link KeyMixing#NONE} for {@link HashAlgorithm#DOUBLE_HASHING},
+     * {@link KeyMixing#MULTIPLY_SHIFT} for the algorithms over power-of-two capacities.
+     *
+     * @return key mixing, or {@code null} if the algorithm default is used
+     * @see #withKeyMixing(KeyMixing)
+     */
+    public @Nullable KeyMixing getKeyMixing() {
+        return keyMixing;
+    }
+
+    /**
+     * Returns hash config with the specified key mixing.
+     *
+     * @param keyMixing key mixing, {@code null} to use the default of the hash algorithm
+     * @return hash config with the specified key mixing
+     * @see #getKeyMixing()
+     */
+    public HashConfig withKeyMixing(@Nullable KeyMixing keyMixing) {
+        if (this.keyMixing == keyMixing)
+            return this;
+        return new HashConfig(loadFactor, shrinkCondition, defaultExpectedSize, algorithm,
+                keyMixing, minLoad, maintenanceListener, perfectHashing);
+    }
+
+
+    /**
+     * Mutable hash containers, created by factories with this config, shrink when the ratio
+     * of their size to their capacity falls below this value after removal of keys. Unlike
+     * the {@linkplain #getShrinkCondition() shrink condition}, which is checked once after
+     * construction, this policy is applied during the whole life of a container, so a
+     * long-lived container, which grew during a burst and then drained, gives the memory
+     * back.
+     *
+     * <p>A container is shrunk to the capacity, at which its load is about a half of
+     * the {@linkplain #getLoadFactor() load factor}, therefore after shrink the container
+     * should either grow twice or lose a good part of its keys before it is rehashed again.
+     * The closer the min load is to the half of the load factor, the more often shrinks
+     * happen.
+     *
+     * <p>Containers are shrunk by single key removals and bulk removals, such as
+     * {@code removeIf()} and {@code removeAll()}, but not by removals through iterators
+     * and cursors. {@code clear()} doesn't shrink containers either.
+     *
+     * @return min load, a value in [0.0, load factor / 2) range, {@literal 0.0f} means that
+     *         containers don't shrink on removals
+     * @see #withMinLoad(float)
+     */
+    public float getMinLoad() {
+        return minLoad;
+    }
+
+    /**
+     * Returns hash config with the specified min load. Min load should be in
+     * [0.0, {@linkplain #getLoadFactor() load factor} / 2) range.
+     *
+     * @param minLoad min load, {@literal 0.0f} to never shrink containers on removals
+     * @return hash config with the specified min load
+     * @throws IllegalArgumentException if {@code minLoad} is out of the range
+     * @see #getMinLoad()
+     */
+    public HashConfig withMinLoad(float minLoad) {
+        if (this.minLoad == minLoad)
+            return this;
+        if (Float.isNaN(minLoad) || minLoad < 0.0f || minLoad >= loadFactor / 2)
+            throw new IllegalArgumentException("Min load must be in [0.0, " + loadFactor / 2 +
+                    ") range, " + minLoad + " given.");
+        return new HashConfig(loadFactor, shrinkCondition, defaultExpectedSize, algorithm,
+                keyMixing, minLoad, maintenanceListener, perfectHashing);
+    }
+
+    /**
+     * Mutable hash containers, created by factories with this config, notify this listener
+     * about rehashes and other maintenance operations over their tables, which take time
+     * linear in the capacity. Containers copied or deserialized by other means than
+     * the factories don't have the listener.
+     *
+     * @return maintenance listener, or {@code null} if containers don't notify any listener
+     * @see #withMaintenanceListener(HashMaintenanceListener)
+     */
+    public @Nullable HashMaintenanceListener getMaintenanceListener() {
+        return maintenanceListener;
+    }
+
+    /**
+     * Returns hash config with the specified maintenance listener.
+     *
+     * @param listener maintenance listener, {@code null} to not notify any listener
+     * @return hash config with the specified maintenance listener
+     * @see #getMaintenanceListener()
+     */
+    public HashConfig withMaintenanceListener(@Nullable HashMaintenanceListener listener) {
+        if (this.maintenanceListener == listener)
+            return this;
+        return new HashConfig(loadFactor, shrinkCondition, defaultExpectedSize, algorithm,
+                keyMixing, minLoad, listener, perfectHashing);
+    }
+
+    /**
+     * Immutable hash containers with primitive keys, created by factories with this config,
+     * are built with a minimal perfect hash function of their keys: the table has exactly
+     * as many slots as the container has keys, and a lookup, successful or not, reads a word
+     * of the hash function (two words for about one key of a hundred) and a single slot
+     * of the table, without probing. Such containers take about a half of the memory
+     * of ordinary immutable containers with the default {@linkplain #getLoadFactor() load
+     * factor} and report {@literal 1.0} load factor. The layout of the table depends only
+     * on the keys, it is the same in every run.
+     *
+     * <p>Building of the function takes about ten times longer than building of an ordinary
+     * immutable container, it pays off for large, long-lived containers of static data,
+     * for example lookup tables loaded once on startup. Mutable and updatable containers,
+     * and immutable containers with object keys aren't affected by this option.
+     *
+     * @return {@code true} if immutable containers are built with minimal perfect hashing
+     * @see #withPerfectHashing(boolean)
+     */
+    public boolean isPerfectHashing() {
+        return perfectHashing;
+    }
+
+    /**
+     * Returns hash config with the specified perfect hashing option.
+     *
+     * @param perfectHashing {@code true} to build immutable containers with minimal perfect
+     *        hashing
+     * @return hash config with the specified perfect hashing option
+     * @see #isPerfectHashing()
+     */
+    public HashConfig withPerfectHashing(boolean perfectHashing) {
+        if (this.perfectHashing == perfectHashing)
+            return this;
+        return new HashConfig(loadFactor, shrinkCondition, defaultExpectedSize, algorithm,
+                keyMixing, minLoad, maintenanceListener, perfectHashing);
+    }
 
     @Override
     public int hashCode() {
         int hashCode = 17;
         hashCode = hashCode * 31 + Float.floatToIntBits(loadFactor);
         hashCode = hashCode * 31 + NullableObjects.hashCode(shrinkCondition);
-        return hashCode * 31 + defaultExpectedSize;
+        hashCode = hashCode * 31 + defaultExpectedSize;
+        hashCode = hashCode * 31 + algorithm.hashCode();
+        hashCode = hashCode * 31 + NullableObjects.hashCode(keyMixing);
+        hashCode = hashCode * 31 + Float.floatToIntBits(minLoad);
+        hashCode = hashCode * 31 + NullableObjects.hashCode(maintenanceListener);
+        return hashCode * 31 + (perfectHashing ? 1 : 0);
     }
 
     @Override
@@ -140,7 +336,12 @@ public final class HashConfig {
             HashConfig conf = (HashConfig) obj;
             return loadFactor == conf.loadFactor &&
                     defaultExpectedSize == conf.defaultExpectedSize &&
-                    NullableObjects.equals(shrinkCondition, conf.shrinkCondition);
+                    algorithm == conf.algorithm &&
+                    keyMixing == conf.keyMixing &&
+                    minLoad == conf.minLoad &&
+                    perfectHashing == conf.perfectHashing &&
+                    NullableObjects.equals(shrinkCondition, conf.shrinkCondition) &&
+                    NullableObjects.equals(maintenanceListener, conf.maintenanceListener);
         } else {
             return false;
         }
@@ -150,6 +351,11 @@ public final class HashConfig {
     public String toString() {
         return "HashConfig[loadFactor[loadFactor=" + loadFactor +
                 ",shrinkCondition=" + shrinkCondition +
-                ",defaultExpectedSize=" + defaultExpectedSize + "]";
+                ",defaultExpectedSize=" + defaultExpectedSize +
+                ",algorithm=" + algorithm +
+                ",keyMixing=" + keyMixing +
+                ",minLoad=" + minLoad +
+                ",maintenanceListener=" + maintenanceListener +
+                ",perfectHashing=" + perfectHashing + "]";
     }
 }
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Hashtable;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Thread-safe {@link HashMaintenanceListener}, which aggregates notifications of all
+ * containers it is set for into counters, optionally exposed as an MBean of the platform
+ * MBean server. Use a separate instance per factory config to see, containers of which
+ * factory spend time on maintenance of their tables.
+ *
+ * <p>Example:
+ * <pre> {@code
+ * HashMaintenanceCounters counters = new HashMaintenanceCounters();
+ * counters.register("quantitiesById");
+ * HashLongIntMapFactory factory = HashLongIntMaps.getDefaultFactory().withConfig(
+ *         LongHashConfig.DEFAULT.withHashConfig(
+ *                 HashConfig.DEFAULT.withMaintenanceListener(counters)));
+ * }</pre>
+ */
+public final class HashMaintenanceCounters
+        implements HashMaintenanceListener, HashMaintenanceCountersMXBean {
+
+    /** The domain of the names of the registered counters. */
+    public static final String JMX_DOMAIN = "net.openhft.collect";
+
+    private final AtomicLong[] rehashCounts = new AtomicLong[RehashReason.values().length];
+    private final AtomicLong movedEntryCount = new AtomicLong();
+    private final AtomicLong rehashNanos = new AtomicLong();
+    private final AtomicLong maxRehashNanos = new AtomicLong();
+    private final AtomicLong maxCapacity = new AtomicLong();
+    private final AtomicLong freeValueChangeCount = new AtomicLong();
+    private final AtomicLong removedValueChangeCount = new AtomicLong();
+    private final AtomicLong valueChangeNanos = new AtomicLong();
+
+    public HashMaintenanceCounters() {
+        for (int i = 0; i < rehashCounts.length; i++) {
+            rehashCounts[i] = new AtomicLong();
+        }
+    }
+
+    /**
+     * Registers these counters in the platform MBean server with the name
+     * {@code net.openhft.collect:type=HashMaintenanceCounters,name="<name>"}.
+     *
+     * @param name the value of the {@code name} key of the object name, should be
+     *        unique among the registered counters
+     * @return the object name of the registered MBean
+     * @throws IllegalStateException if the registration failed, e. g. counters with the same
+     *         name are already registered
+     */
+    public ObjectName register(String name) {
+        try {
+            Hashtable<String, String> keys = new Hashtable<String, String>();
+            keys.put("type", "HashMaintenanceCounters");
+            keys.put("name", ObjectName.quote(name));
+            ObjectName objectName = new ObjectName(JMX_DOMAIN, keys);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Unregisters the MBean with the given name from the platform MBean server, if it is
+     * registered.
+     *
+     * @param objectName the name, returned by {@link #register(String)}
+     */
+    public static void unregister(ObjectName objectName) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(objectName))
+                server.unregisterMBean(objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void onRehash(HashContainer hash, RehashReason reason, int oldCapacity,
+            int newCapacity, int movedEntries, long durationNanos) {
+        rehashCounts[reason.ordinal()].incrementAndGet();
+        movedEntryCount.addAndGet(movedEntries);
+        rehashNanos.addAndGet(durationNanos);
+        updateMax(maxRehashNanos, durationNanos);
+        updateMax(maxCapacity, newCapacity);
+    }
+
+    @Override
+    public void onFreeValueChange(HashContainer hash, int capacity, long durationNanos) {
+        freeValueChangeCount.incrementAndGet();
+        valueChangeNanos.addAndGet(durationNanos);
+    }
+
+    @Override
+    public void onRemovedValueChange(HashContainer hash, int capacity, long durationNanos) {
+        removedValueChangeCount.incrementAndGet();
+        valueChangeNanos.addAndGet(durationNanos);
+    }
+
+    private static void updateMax(AtomicLong max, long value) {
+        long cur;
+        while ((cur = max.get()) < value && !max.compareAndSet(cur, value));
+    }
+
+    @Override
+    public long getRehashCount() {
+        long count = 0L;
+        for (AtomicLong reasonCount : rehashCounts) {
+            count += reasonCount.get();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of rehashes for the given reason.
+     */
+    public long getRehashCount(RehashReason reason) {
+        return rehashCounts[reason.ordinal()].get();
+    }
+
+    @Override
+    public long getGrowthRehashCount() {
+        return getRehashCount(RehashReason.GROWTH);
+    }
+
+    @Override
+    public long getRemovedSlotsCleanupRehashCount() {
+        return getRehashCount(RehashReason.REMOVED_SLOTS_CLEANUP);
+    }
+
+    @Override
+    public long getEnsureCapacityRehashCount() {
+        return getRehashCount(RehashReason.ENSURE_CAPACITY);
+    }
+
+    @Override
+    public long getShrinkRehashCount() {
+        return getRehashCount(RehashReason.SHRINK);
+    }
+
+    @Override
+    public long getMinLoadShrinkRehashCount() {
+        return getRehashCount(RehashReason.MIN_LOAD_SHRINK);
+    }
+
+    @Override
+    public long getMovedEntryCount() {
+        return movedEntryCount.get();
+    }
+
+    @Override
+    public long getRehashNanos() {
+        return rehashNanos.get();
+    }
+
+    @Override
+    public long getMaxRehashNanos() {
+        return maxRehashNanos.get();
+    }
+
+    @Override
+    public long getMaxCapacity() {
+        return maxCapacity.get();
+    }
+
+    @Override
+    public long getFreeValueChangeCount() {
+        return freeValueChangeCount.get();
+    }
+
+    @Override
+    public long getRemovedValueChangeCount() {
+        return removedValueChangeCount.get();
+    }
+
+    @Override
+    public long getValueChangeNanos() {
+        return valueChangeNanos.get();
+    }
+
+    @Override
+    public void reset() {
+        for (AtomicLong reasonCount : rehashCounts) {
+            reasonCount.set(0L);
+        }
+        movedEntryCount.set(0L);
+        rehashNanos.set(0L);
+        maxRehashNanos.set(0L);
+        maxCapacity.set(0L);
+        freeValueChangeCount.set(0L);
+        removedValueChangeCount.set(0L);
+        valueChangeNanos.set(0L);
+    }
+
+    @Override
+    public String toString() {
+        return "HashMaintenanceCounters[rehashCount=" + getRehashCount() +
+                ",movedEntryCount=" + getMovedEntryCount() +
+                ",rehashNanos=" + getRehashNanos() +
+                ",maxRehashNanos=" + getMaxRehashNanos() +
+                ",maxCapacity=" + getMaxCapacity() +
+                ",freeValueChangeCount=" + getFreeValueChangeCount() +
+                ",removedValueChangeCount=" + getRemovedValueChangeCount() +
+                ",valueChangeNanos=" + getValueChangeNanos() + "]";
+    }
+}
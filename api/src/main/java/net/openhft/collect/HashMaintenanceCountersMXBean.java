@@ -0,0 +1,96 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect;
+
+
+/**
+ * Management interface of {@link HashMaintenanceCounters}. All counters are accumulated since
+ * the counters were created or {@linkplain #reset() reset}.
+ */
+public interface HashMaintenanceCountersMXBean {
+
+    /**
+     * Returns the total number of rehashes, for all {@linkplain RehashReason reasons}.
+     */
+    long getRehashCount();
+
+    /**
+     * Returns the number of rehashes for {@link RehashReason#GROWTH}.
+     */
+    long getGrowthRehashCount();
+
+    /**
+     * Returns the number of rehashes for {@link RehashReason#REMOVED_SLOTS_CLEANUP}.
+     */
+    long getRemovedSlotsCleanupRehashCount();
+
+    /**
+     * Returns the number of rehashes for {@link RehashReason#ENSURE_CAPACITY}.
+     */
+    long getEnsureCapacityRehashCount();
+
+    /**
+     * Returns the number of rehashes for {@link RehashReason#SHRINK}.
+     */
+    long getShrinkRehashCount();
+
+    /**
+     * Returns the number of rehashes for {@link RehashReason#MIN_LOAD_SHRINK}.
+     */
+    long getMinLoadShrinkRehashCount();
+
+    /**
+     * Returns the total number of entries moved by rehashes.
+     */
+    long getMovedEntryCount();
+
+    /**
+     * Returns the total duration of rehashes in nanoseconds.
+     */
+    long getRehashNanos();
+
+    /**
+     * Returns the duration of the longest rehash in nanoseconds.
+     */
+    long getMaxRehashNanos();
+
+    /**
+     * Returns the largest table capacity after a rehash.
+     */
+    long getMaxCapacity();
+
+    /**
+     * Returns the number of replacements of the values, marking free slots.
+     */
+    long getFreeValueChangeCount();
+
+    /**
+     * Returns the number of replacements of the values, marking removed slots.
+     */
+    long getRemovedValueChangeCount();
+
+    /**
+     * Returns the total duration of replacements of the values, marking free and removed slots,
+     * in nanoseconds.
+     */
+    long getValueChangeNanos();
+
+    /**
+     * Sets all counters to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect;
+
+
+/**
+ * Receives notifications about the maintenance of the tables of mutable hash containers:
+ * rehashes and replacements of the values, which mark free and removed slots in the tables
+ * of containers with primitive keys. These operations take time linear in the capacity
+ * and show up as latency spikes of single insertions or removals.
+ *
+ * <p>The listener is set in the {@link HashConfig#withMaintenanceListener(
+ * HashMaintenanceListener) config} of the factory, containers created by the factory call it
+ * in the thread which performed the operation, after the operation is completed. A listener
+ * shared by containers, used from several threads, must be thread-safe. Listeners should be
+ * cheap and shouldn't throw exceptions, exceptions are propagated to the caller of the
+ * operation on the container.
+ *
+ * <p>{@link HashMaintenanceCounters} aggregates notifications and exposes them via JMX.
+ * Applications could also forward notifications to their profiling or tracing tools,
+ * e. g. commit Java Flight Recorder events on JDK 11 and later.
+ */
+public interface HashMaintenanceListener {
+
+    /**
+     * Called after the container rebuilt its table.
+     *
+     * @param hash the container, the listener shouldn't modify it
+     * @param reason the reason of the rehash
+     * @param oldCapacity the capacity of the table before the rehash
+     * @param newCapacity the capacity of the table after the rehash
+     * @param movedEntries the number of entries moved to the new table
+     * @param durationNanos the duration of the rehash in nanoseconds
+     */
+    void onRehash(HashContainer hash, RehashReason reason, int oldCapacity, int newCapacity,
+            int movedEntries, long durationNanos);
+
+    /**
+     * Called after the container replaced the value, marking free slots in the table,
+     * because the key equal to the value was inserted. The whole table is scanned.
+     *
+     * @param hash the container, the listener shouldn't modify it
+     * @param capacity the capacity of the scanned table
+     * @param durationNanos the duration of the replacement in nanoseconds
+     */
+    void onFreeValueChange(HashContainer hash, int capacity, long durationNanos);
+
+    /**
+     * Called after the container replaced the value, marking removed slots in the table,
+     * because the key equal to the value was inserted. The whole table is scanned,
+     * if it has removed slots.
+     *
+     * @param hash the container, the listener shouldn't modify it
+     * @param capacity the capacity of the scanned table
+     * @param durationNanos the duration of the replacement in nanoseconds
+     */
+    void onRemovedValueChange(HashContainer hash, int capacity, long durationNanos);
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect;
+
+import org.jetbrains.annotations.NotNull;
+
+
+/**
+ * Snapshot of the state of the internal table of a hash set or map, which helps
+ * to tell whether a slow hash suffers from poorly distributed keys (long probe sequences
+ * and clusters), accumulated removed slots, or a too high load factor.
+ *
+ * <p>Probe length is the number of slots read by a lookup, i. e. a key found in its home
+ * slot has the probe length 1. Successful probe lengths are measured exactly for each key
+ * in the table. Unsuccessful probe lengths are measured for a lookup of an absent key
+ * starting from each slot of the table, as if absent keys were uniformly distributed;
+ * for double hashing algorithms probe steps of these lookups are pseudo-random.
+ *
+ * <p>Cluster is a maximal run of adjacent occupied or removed slots, the table is treated
+ * as circular.
+ *
+ * <p>Stats are computed by {@link net.openhft.collect.set.hash.HashCharSet#stats()},
+ * {@link net.openhft.collect.map.hash.HashCharShortMap#stats()} and the similar methods
+ * of the hash sets and maps of the other types in a single pass over the table, they don't
+ * change with the hash.
+ */
+public interface HashStats {
+
+    /**
+     * Returns the number of slots in the table.
+     */
+    int capacity();
+
+    /**
+     * Returns the number of keys in the table.
+     */
+    int size();
+
+    /**
+     * Returns the number of free slots in the table.
+     */
+    int freeSlots();
+
+    /**
+     * Returns the number of removed slots in the table, i. e. slots which held keys,
+     * removed since the last rehash. Removed slots are skipped by lookups, but not reused
+     * by them as free slots. Always 0 for hashes which shift keys back on removal
+     * and for immutable hashes.
+     */
+    int removedSlots();
+
+    /**
+     * Returns the ratio of {@linkplain #removedSlots() removed slots} to the capacity.
+     */
+    double removedRatio();
+
+    /**
+     * Returns a new array with the number of keys found by each probe length, i. e.
+     * the element {@code i} is the number of keys, lookup of which reads {@code i} slots.
+     * The element 0 is always 0, the length of the array is {@link #maxProbeLength()} + 1.
+     */
+    @NotNull
+    int[] probeLengthHistogram();
+
+    /**
+     * Returns the maximum probe length of a successful lookup, 0 if the table is empty.
+     */
+    int maxProbeLength();
+
+    /**
+     * Returns the mean probe length of a successful lookup, 0 if the table is empty.
+     */
+    double meanProbeLength();
+
+    /**
+     * Returns the maximum probe length of an unsuccessful lookup.
+     */
+    int maxUnsuccessfulProbeLength();
+
+    /**
+     * Returns the mean probe length of an unsuccessful lookup.
+     */
+    double meanUnsuccessfulProbeLength();
+
+    /**
+     * Returns the number of clusters in the table.
+     */
+    int clusterCount();
+
+    /**
+     * Returns the size of the largest cluster, 0 if the table has no clusters.
+     */
+    int maxClusterSize();
+
+    /**
+     * Returns the mean size of the clusters, 0 if the table has no clusters.
+     */
+    double meanClusterSize();
+
+    /**
+     * Returns the number of rehashes of the hash since it was created, copied or deserialized,
+     * including rehashes which only cleaned up removed slots. Always 0 for immutable hashes.
+     */
+    int rehashCount();
+
+    /**
+     * Returns the number of times the value, marking free slots in the table, was replaced,
+     * because the key equal to the value was inserted. Always 0 for hashes with object keys
+     * and for immutable hashes.
+     */
+    int freeValueChangeCount();
+
+    /**
+     * Returns the number of times the value, marking removed slots in the table, was replaced,
+     * because the key equal to the value was inserted. Always 0 for hashes with object keys
+     * and for immutable hashes.
+     */
+    int removedValueChangeCount();
+}
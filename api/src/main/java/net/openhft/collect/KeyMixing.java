@@ -0,0 +1,52 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect;
+
+
+/**
+ * Function applied to hash codes of primitive keys before they are reduced to slot indexes.
+ * Keys with regular patterns, like sequential ids, timestamps or multiples of a power of 2,
+ * form long probe chains if hash codes are used as is.
+ *
+ * @see HashConfig#withKeyMixing(KeyMixing)
+ */
+public enum KeyMixing {
+
+    /**
+     * Keys are used as is ({@code long} keys are folded to {@code int} by xor
+     * of the higher and the lower halves). The cheapest option, works well
+     * with {@link HashAlgorithm#DOUBLE_HASHING}, because index computation modulo
+     * a prime capacity spreads regular keys well. With power-of-two capacities
+     * only low bits of keys matter, so strided keys collide.
+     */
+    NONE,
+
+    /**
+     * Multiplication by the golden ratio constant (Fibonacci hashing),
+     * followed by xor of the higher half bits into the lower half.
+     * Cheap and sufficient for sequential and strided keys.
+     */
+    MULTIPLY_SHIFT,
+
+    /**
+     * Murmur3 finalizer ({@code fmix32} for {@code int} and smaller keys, {@code fmix64}
+     * for {@code long} keys). Every input bit affects every output bit, the most robust
+     * option against adversarial key patterns, about twice as expensive
+     * as {@link #MULTIPLY_SHIFT}.
+     */
+    MURMUR3
+}
@@ -39,6 +39,13 @@ public interface ObjCollection<E> extends Collection<E>, Container {
     @NotNull
     ObjCursor<E> cursor();
 
+    /**
+     * Returns a spliterator over the elements of this collection, see
+     * {@link CharCollection#charSpliterator()}.
+     */
+    @NotNull
+    ObjSpliterator<E> objSpliterator();
+
     /* if JDK8 jdk //@Override// endif */
     boolean removeIf(Predicate<? super E> filter);
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect;
+
+import net.openhft.function.Consumer;
+import org.jetbrains.annotations.Nullable;
+
+
+/**
+ * The version of {@link CharSpliterator} for object elements.
+ */
+public interface ObjSpliterator<E> {
+
+    boolean tryAdvance(Consumer<? super E> action);
+
+    void forEachRemaining(Consumer<? super E> action);
+
+    @Nullable
+    ObjSpliterator<E> trySplit();
+
+    long estimateSize();
+
+    long getExactSizeIfKnown();
+}
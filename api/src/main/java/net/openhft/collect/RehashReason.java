@@ -0,0 +1,55 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect;
+
+
+/**
+ * The reason, why a mutable hash container rebuilt its table.
+ *
+ * @see HashMaintenanceListener#onRehash(HashContainer, RehashReason, int, int, int, long)
+ */
+public enum RehashReason {
+
+    /**
+     * An insertion took the last free slot, allowed by the {@linkplain
+     * HashContainer#loadFactor() load factor}, the table grows.
+     */
+    GROWTH,
+
+    /**
+     * An insertion took the last free slot, allowed by the load factor, while the table had
+     * removed slots. The table is rebuilt to get rid of the removed slots, the capacity
+     * could stay the same or even decrease.
+     */
+    REMOVED_SLOTS_CLEANUP,
+
+    /**
+     * {@link HashContainer#ensureCapacity(int)} was called.
+     */
+    ENSURE_CAPACITY,
+
+    /**
+     * {@link HashContainer#shrink()} was called, explicitly or by the {@linkplain
+     * HashConfig#getShrinkCondition() shrink condition}.
+     */
+    SHRINK,
+
+    /**
+     * The size fell below the {@linkplain HashConfig#getMinLoad() min load} after removals.
+     */
+    MIN_LOAD_SHRINK
+}
@@ -110,6 +110,18 @@ public interface CharCollection extends Collection<Character>, Container {
     @NotNull
     CharCursor cursor();
 
+    /**
+     * Returns a spliterator over the elements of this collection, which splits them
+     * for traversal in parallel.
+     *
+     * <p>The name of this method is "charSpliterator", not "spliterator", because
+     * "spliterator" conflicts with {@code java.util.Collection.spliterator()} since Java 8.
+     *
+     * @return a spliterator over the elements of this collection
+     */
+    @NotNull
+    CharSpliterator charSpliterator();
+
     /* if JDK8 jdk //@Override// endif */
     void forEach(CharConsumer action);
 
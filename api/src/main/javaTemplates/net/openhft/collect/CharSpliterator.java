@@ -0,0 +1,107 @@
+/* with char|byte|short|int|long|float|double elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect;
+
+import net.openhft.function.CharConsumer;
+import org.jetbrains.annotations.Nullable;
+
+
+/**
+ * An object for traversing and partitioning the elements of a {@link CharCollection},
+ * the primitive specialization of {@code java.util.Spliterator}, available on Java 6 and 7.
+ *
+ * <p>{@link #trySplit()} hands off a part of the elements to a new spliterator, so that
+ * the parts could be traversed in parallel, for example by the tasks
+ * of a {@code java.util.concurrent.ForkJoinPool}. Spliterators of hash collections split
+ * the slots of the table in halves, without copying the elements. In the Java 8 flavor
+ * of the library this interface extends {@code java.util.Spliterator}, so the spliterators
+ * could back {@code java.util.stream} streams.
+ */
+public interface CharSpliterator
+        /* if int|long|double elem JDK8 jdk //extends java.util.Spliterator.OfChar
+        // elif JDK8 jdk //extends java.util.Spliterator<Character>// endif */ {
+
+    /**
+     * If a remaining element exists, performs the given action on it, returning {@code true},
+     * otherwise returns {@code false}.
+     *
+     * @param action the action
+     * @return {@code false} if no remaining elements existed
+     * @throws java.util.ConcurrentModificationException if the collection has been
+     *         structurally modified since this spliterator was created
+     */
+    boolean tryAdvance(CharConsumer action);
+
+    /* if int|long|double elem JDK8 jdk */
+    @Override
+    default boolean tryAdvance(java.util.function.CharConsumer action) {
+        return tryAdvance(action instanceof CharConsumer ? (CharConsumer) action :
+                (CharConsumer) action::accept);
+    }
+    /* elif JDK8 jdk */
+    @Override
+    default boolean tryAdvance(java.util.function.Consumer<? super Character> action) {
+        return tryAdvance((CharConsumer) action::accept);
+    }
+    /* endif */
+
+    /**
+     * Performs the given action for each remaining element.
+     *
+     * @param action the action
+     * @throws java.util.ConcurrentModificationException if the collection has been
+     *         structurally modified since this spliterator was created
+     */
+    void forEachRemaining(CharConsumer action);
+
+    /* if int|long|double elem JDK8 jdk */
+    @Override
+    default void forEachRemaining(java.util.function.CharConsumer action) {
+        forEachRemaining(action instanceof CharConsumer ? (CharConsumer) action :
+                (CharConsumer) action::accept);
+    }
+    /* elif JDK8 jdk */
+    @Override
+    default void forEachRemaining(java.util.function.Consumer<? super Character> action) {
+        forEachRemaining((CharConsumer) action::accept);
+    }
+    /* endif */
+
+    /**
+     * Returns a spliterator covering a part of the remaining elements, which will no longer
+     * be covered by this spliterator, or {@code null} if the elements can't be split.
+     */
+    /* if JDK8 jdk //@Override// endif */
+    @Nullable
+    CharSpliterator trySplit();
+
+    /**
+     * Returns an estimate of the number of remaining elements. The estimate is exact,
+     * if {@link #getExactSizeIfKnown()} doesn't return {@code -1}.
+     */
+    /* if JDK8 jdk //@Override// endif */
+    long estimateSize();
+
+    /**
+     * Returns the number of remaining elements, if it is known exactly, otherwise {@code -1}.
+     * The size of a spliterator of a whole hash collection is exact, the sizes of the split
+     * parts are estimates, because the elements aren't spread evenly over the table.
+     */
+    /* if JDK8 jdk //@Override// endif */
+    long getExactSizeIfKnown();
+}
@@ -0,0 +1,226 @@
+/* with char|byte|short|int|long|float|double elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.collect.list;
+
+import net.openhft.collect.CharCollection;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.List;
+
+
+/**
+ * List of primitive char elements. Elements are compared as by
+ * {@link Character#equals(Object)}// if float|double elem //: {@code NaN} is equal to itself,
+ * {@code -0.0} is not equal to {@code 0.0}// endif //, so the primitive methods
+ * of this list are consistent with the boxed ones.
+ *
+ * <p>Besides the {@link java.util.List} contract, lists are {@link net.openhft.collect.Container}s:
+ * {@link #ensureCapacity(int)} reserves room for the elements to be added,
+ * {@link #shrink()} trims the list to its size.
+ *
+ * @see CharLists
+ */
+public interface CharList extends CharCollection, List<Character> {
+
+    /**
+     * Need to override this method, because List.add(Object) -- erasure! -- conflicts with
+     * {@code CharCollection.add(Character)}
+     */
+    @Override
+    @Deprecated
+    boolean add(Character e);
+
+    /**
+     * @deprecated Use specialization {@link #getChar(int)} instead
+     */
+    @Override
+    @Deprecated
+    Character get(int index);
+
+    /**
+     * Returns the element at the specified position in this list.
+     *
+     * @param index index of the element to return
+     * @return the element at the specified position in this list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    char getChar(int index);
+
+    /**
+     * @deprecated Use specialization {@link #set(int, char)} instead
+     */
+    @Override
+    @Deprecated
+    Character set(int index, Character element);
+
+    /**
+     * Replaces the element at the specified position in this list with the specified
+     * element (optional operation).
+     *
+     * @param index index of the element to replace
+     * @param element element to be stored at the specified position
+     * @return the element previously at the specified position
+     * @throws UnsupportedOperationException if the {@code set} operation
+     *         is not supported by this list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    char set(int index, char element);
+
+    /**
+     * @deprecated Use specialization {@link #add(int, char)} instead
+     */
+    @Override
+    @Deprecated
+    void add(int index, Character element);
+
+    /**
+     * Inserts the specified element at the specified position in this list (optional
+     * operation). Shifts the element currently at that position (if any) and any
+     * subsequent elements to the right (adds one to their indices).
+     *
+     * @param index index at which the specified element is to be inserted
+     * @param element element to be inserted
+     * @throws UnsupportedOperationException if the {@code add} operation
+     *         is not supported by this list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index > size()})
+     */
+    void add(int index, char element);
+
+    /**
+     * @deprecated Use specialization {@link #removeCharAt(int)} instead
+     */
+    @Override
+    @Deprecated
+    Character remove(int index);
+
+    /**
+     * Removes the element at the specified position in this list (optional operation).
+     * Shifts any subsequent elements to the left (subtracts one from their indices).
+     *
+     * <p>The name of this method is "removeCharAt", not "remove", because "remove"
+     * conflicts with {@link #removeChar(char)} in lists of {@code int}s.
+     *
+     * @param index the index of the element to be removed
+     * @return the element previously at the specified position
+     * @throws UnsupportedOperationException if the {@code remove} operation
+     *         is not supported by this list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    char removeCharAt(int index);
+
+    /**
+     * @deprecated Use specialization {@link #indexOf(char)} instead
+     */
+    @Override
+    @Deprecated
+    int indexOf(Object o);
+
+    /**
+     * Returns the index of the first occurrence of the specified element in this list,
+     * or -1 if this list does not contain the element.
+     *
+     * @param v element to search for
+     * @return the index of the first occurrence of the specified element in this list,
+     *         or -1 if this list does not contain the element
+     */
+    int indexOf(char v);
+
+    /**
+     * @deprecated Use specialization {@link #lastIndexOf(char)} instead
+     */
+    @Override
+    @Deprecated
+    int lastIndexOf(Object o);
+
+    /**
+     * Returns the index of the last occurrence of the specified element in this list,
+     * or -1 if this list does not contain the element.
+     *
+     * @param v element to search for
+     * @return the index of the last occurrence of the specified element in this list,
+     *         or -1 if this list does not contain the element
+     */
+    int lastIndexOf(char v);
+
+    /**
+     * Appends all of the elements of the specified array to the end of this list,
+     * in the order of the array (optional operation).
+     *
+     * @param elements the elements to be added to this list
+     * @return {@code true} if this list changed as a result of the call
+     * @throws UnsupportedOperationException if the {@code addAll} operation
+     *         is not supported by this list
+     */
+    boolean addAll(@NotNull char[] elements);
+
+    /**
+     * Appends {@code length} elements of the specified array, starting from
+     * {@code offset}, to the end of this list (optional operation).
+     *
+     * @param elements the array of the elements to be added to this list
+     * @param offset the index of the first element to add in the array
+     * @param length the number of elements to add
+     * @return {@code true} if this list changed as a result of the call
+     * @throws UnsupportedOperationException if the {@code addAll} operation
+     *         is not supported by this list
+     * @throws IndexOutOfBoundsException if {@code offset} or {@code length} is negative,
+     *         or {@code offset + length} is greater than {@code elements.length}
+     */
+    boolean addAll(@NotNull char[] elements, int offset, int length);
+
+    /**
+     * Inserts all of the elements in the specified collection into this list at the
+     * specified position (optional operation), in the order they are returned by the
+     * collection's iterator. Elements of a {@code CharCollection} are copied in bulk,
+     * without boxing.
+     */
+    @Override
+    boolean addAll(int index, @NotNull Collection<? extends Character> c);
+
+    /**
+     * Sorts this list into the ascending order (optional operation)// if float|double elem //,
+     * as by {@link java.util.Arrays#sort(char[])}: {@code -0.0} before {@code 0.0},
+     * {@code NaN} after all other elements// endif //.
+     *
+     * @throws UnsupportedOperationException if the {@code sort} operation
+     *         is not supported by this list
+     */
+    void sort();
+
+    /**
+     * Searches this list for the specified element using the binary search algorithm.
+     * The list must be sorted into the ascending order, as by {@link #sort()}, prior
+     * to making this call, otherwise the result is undefined. If the list contains
+     * several elements equal to the specified one, there is no guarantee which one
+     * will be found.
+     *
+     * @param key the element to be searched for
+     * @return index of the search key, if it is contained in the list; otherwise,
+     *         {@code (-(insertion point) - 1)}, where the insertion point is the index
+     *         of the first element greater than the key, or {@code size()} if all
+     *         elements in the list are less than the specified key
+     * @see java.util.Arrays#binarySearch(char[], char)
+     */
+    int binarySearch(char key);
+}
@@ -0,0 +1,50 @@
+/* with char|byte|short|int|long|float|double elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.collect.list;
+
+
+/**
+ * Factory of {@link CharList}s.
+ *
+ * @see CharLists
+ */
+public interface CharListFactory {
+
+    CharList newMutableList();
+
+    /**
+     * @param expectedSize the number of elements, the list should hold without reallocation
+     *        of the backing array
+     */
+    CharList newMutableList(int expectedSize);
+
+    /* with Mutable|Immutable mutability */
+
+    /**
+     * Returns a new list of the given elements, in the order they are returned by
+     * the iterator of {@code elements}.
+     */
+    CharList newMutableList(Iterable<Character> elements);
+
+    /**
+     * Returns a new list of the elements of the given array. The array is copied.
+     */
+    CharList newMutableList(char[] elements);
+    /* endwith */
+}
@@ -0,0 +1,58 @@
+/* with char|byte|short|int|long|float|double elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.collect.list;
+
+import java.util.ServiceLoader;
+
+
+public final class CharLists {
+    private static final ServiceLoader<CharListFactory> LOADER =
+            ServiceLoader.load(CharListFactory.class);
+    private static CharListFactory defaultFactory = null;
+
+    public static CharListFactory getDefaultFactory() {
+        if (defaultFactory != null) {
+            return defaultFactory;
+        } else {
+            // synchronization?
+            return defaultFactory = LOADER.iterator().next();
+        }
+    }
+
+    public static CharList newMutableList() {
+        return getDefaultFactory().newMutableList();
+    }
+
+    public static CharList newMutableList(int expectedSize) {
+        return getDefaultFactory().newMutableList(expectedSize);
+    }
+
+    /* with Mutable|Immutable mutability */
+
+    public static CharList newMutableList(Iterable<Character> elements) {
+        return getDefaultFactory().newMutableList(elements);
+    }
+
+    public static CharList newMutableList(char[] elements) {
+        return getDefaultFactory().newMutableList(elements);
+    }
+    /* endwith */
+
+    private CharLists() {}
+}
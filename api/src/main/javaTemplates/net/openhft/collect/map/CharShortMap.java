@@ -116,6 +116,25 @@ public interface CharShortMap/*<>*/ extends Map<Character, Short>, Container {
     short getOrDefault(/* raw */char key, short defaultValue);
     /* endif */
 
+    /* if !(float|double|obj key) && !(obj value) */
+    /**
+     * Looks up the values of the specified keys in bulk: for each index {@code i} of
+     * {@code keys}, stores the value to which {@code keys[i]} is mapped, or
+     * {@link #defaultValue()} if this map contains no mapping for the key,
+     * to {@code values[i]}.
+     *
+     * <p>The result is the same as of calling {@link #get(char)} for each key in turn,
+     * but implementations could look up several keys at once, so that the memory accesses
+     * of lookups of different keys overlap. This pays off when the map is much larger than
+     * the processor caches.
+     *
+     * @param keys the keys whose associated values are to be returned
+     * @param values the array to store the values to, at the indexes of the keys
+     * @throws IllegalArgumentException if {@code values} is shorter than {@code keys}
+     */
+    void getAll(char[] keys, short[] values);
+    /* endif */
+
 
     /* if !(obj key obj value) && JDK8 jdk */
     /**
@@ -103,6 +103,21 @@ public interface CharShortMapFactory/*<>*/ {
     /*p1*/ CharShortMap/*p2*/ newMutableMap(/*pk*/char/**/[] keys, /*pv*/short/**/[] values,
             int expectedSize);
 
+    /* if !(obj key) && !(obj value) */
+    /**
+     * Returns a new map with the entries of the parallel {@code keys} and {@code values}
+     * arrays, the values of duplicate keys are merged with {@code mergeFunction}: the function
+     * returning its first argument keeps the first value of the key, the function returning
+     * the sum of the arguments sums the values, etc. The other methods, constructing maps
+     * from keys and values, keep the last value of the key.
+     *
+     * @throws IllegalArgumentException if {@code keys} and {@code values} arrays
+     *         have different lengths
+     */
+    /*p1*/ CharShortMap/*p2*/ newMutableMap(char[] keys, short[] values,
+            /*f*/ShortBinaryOperator mergeFunction);
+    /* endif */
+
     /* if !(obj key obj value) */
     /*p1*/ CharShortMap/*p2*/ newMutableMap(/*gk*/Character/**/[] keys, /*gv*/Short/**/[] values);
 
@@ -0,0 +1,174 @@
+/* with
+ char|byte|short|int|long|float|double key
+ short|byte|char|int|long|float|double value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map;
+
+import net.openhft.function.*;
+import org.jetbrains.annotations.NotNull;
+
+
+/**
+ * Map with char keys and short values, which keeps the entries in the ascending order
+ * of the keys and answers range queries: the least and the greatest keys, the nearest keys
+ * to a given one, and views of the entries in a range of keys. Keys of floating point types
+ * are ordered as by {@code Double.compare()}: {@code -0.0} before {@code 0.0}, {@code NaN}
+ * after all other keys.
+ *
+ * <p>Primitive methods of this map have the same contracts as the methods of
+ * {@link CharShortMap} with the same signatures. This map doesn't implement
+ * {@link java.util.Map}, entries are traversed with {@link #cursor()},
+ * {@link #forEach(CharShortConsumer)} and {@link #forEachWhile(CharShortPredicate)},
+ * in the ascending order of the keys.
+ *
+ * <p>Sorted maps are not thread-safe.
+ *
+ * @see CharShortSortedMaps
+ */
+public interface CharShortSortedMap {
+
+    short defaultValue();
+
+    /**
+     * Returns the number of entries in this map. Takes time linear in the number of entries
+     * for {@linkplain #subMap(char, boolean, char, boolean) range views}.
+     */
+    int size();
+
+    boolean isEmpty();
+
+    boolean containsKey(char key);
+
+    short get(char key);
+
+    short getOrDefault(char key, short defaultValue);
+
+    /**
+     * @throws IllegalArgumentException if this map is a range view and the key is outside
+     *         of the range
+     */
+    short put(char key, short value);
+
+    /**
+     * @throws IllegalArgumentException if this map is a range view and the key is outside
+     *         of the range
+     */
+    short incrementValue(char key, short increment);
+
+    short remove(char key);
+
+    void clear();
+
+    void forEach(/*f*/CharShortConsumer action);
+
+    boolean forEachWhile(/*f*/CharShortPredicate predicate);
+
+    /**
+     * Returns a cursor over the entries of this map in the ascending order of the keys.
+     * The cursor supports {@link CharShortCursor#remove()} and
+     * {@link CharShortCursor#setValue(short)}.
+     */
+    @NotNull
+    CharShortCursor cursor();
+
+    /**
+     * Returns the least key in this map.
+     *
+     * @throws java.util.NoSuchElementException if this map is empty
+     */
+    char firstKey();
+
+    /**
+     * Returns the greatest key in this map.
+     *
+     * @throws java.util.NoSuchElementException if this map is empty
+     */
+    char lastKey();
+
+    /**
+     * Returns the greatest key in this map strictly less than the given key.
+     *
+     * @throws java.util.NoSuchElementException if there is no such key
+     */
+    char lowerKey(char key);
+
+    /**
+     * Returns the greatest key in this map less than or equal to the given key.
+     *
+     * @throws java.util.NoSuchElementException if there is no such key
+     */
+    char floorKey(char key);
+
+    /**
+     * Returns the least key in this map greater than or equal to the given key.
+     *
+     * @throws java.util.NoSuchElementException if there is no such key
+     */
+    char ceilingKey(char key);
+
+    /**
+     * Returns the least key in this map strictly greater than the given key.
+     *
+     * @throws java.util.NoSuchElementException if there is no such key
+     */
+    char higherKey(char key);
+
+    /**
+     * Returns a view of the entries of this map with keys in the given range. The view
+     * is backed by this map, changes in one are visible in the other. Putting a key outside
+     * of the range into the view throws {@code IllegalArgumentException}.
+     *
+     * @throws IllegalArgumentException if {@code fromKey} is greater than {@code toKey},
+     *         or the range is outside of the range of this map, if it is a view
+     */
+    @NotNull
+    CharShortSortedMap subMap(char fromKey, boolean fromInclusive,
+            char toKey, boolean toInclusive);
+
+    /**
+     * Returns a view of the entries of this map with keys less than (or equal to,
+     * if {@code inclusive} is {@code true}) {@code toKey}.
+     *
+     * @see #subMap(char, boolean, char, boolean)
+     */
+    @NotNull
+    CharShortSortedMap headMap(char toKey, boolean inclusive);
+
+    /**
+     * Returns a view of the entries of this map with keys greater than (or equal to,
+     * if {@code inclusive} is {@code true}) {@code fromKey}.
+     *
+     * @see #subMap(char, boolean, char, boolean)
+     */
+    @NotNull
+    CharShortSortedMap tailMap(char fromKey, boolean inclusive);
+
+    /**
+     * Compares the specified object with this map for equality. Returns {@code true} if
+     * the given object is also a {@code CharShortSortedMap} with the same entries.
+     */
+    @Override
+    boolean equals(Object o);
+
+    /**
+     * Returns the hash code of this map, defined as in {@link java.util.Map#hashCode()}.
+     */
+    @Override
+    int hashCode();
+}
@@ -0,0 +1,54 @@
+/* with
+ char|byte|short|int|long|float|double key
+ short|byte|char|int|long|float|double value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map;
+
+import java.util.Map;
+
+
+/**
+ * Factory of {@link CharShortSortedMap}s. Maps are B+-trees: the entries are stored
+ * in primitive arrays of leaves, several cache lines each, chained in the order of the keys,
+ * so range scans read memory sequentially.
+ *
+ * @see CharShortSortedMaps#getDefaultFactory()
+ */
+public interface CharShortSortedMapFactory {
+
+    short getDefaultValue();
+
+    CharShortSortedMapFactory withDefaultValue(short defaultValue);
+
+    CharShortSortedMap newMutableMap();
+
+    CharShortSortedMap newMutableMap(Map<Character, Short> map);
+
+    /**
+     * Returns a new map with the given entries. If the keys are in strictly ascending order,
+     * the tree is built bottom-up, with full leaves, in linear time.
+     *
+     * @param keys the keys of the map
+     * @param values the values of the map, each value is associated with the key
+     *        at the same index
+     * @throws IllegalArgumentException if {@code keys} and {@code values} arrays
+     *         have different lengths
+     */
+    CharShortSortedMap newMutableMap(char[] keys, short[] values);
+}
@@ -0,0 +1,55 @@
+/* with
+ char|byte|short|int|long|float|double key
+ short|byte|char|int|long|float|double value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map;
+
+import java.util.Map;
+import java.util.ServiceLoader;
+
+
+public final class CharShortSortedMaps {
+
+    private static final ServiceLoader<CharShortSortedMapFactory> LOADER =
+            ServiceLoader.load(CharShortSortedMapFactory.class);
+    private static CharShortSortedMapFactory defaultFactory = null;
+
+    public static CharShortSortedMapFactory getDefaultFactory() {
+        if (defaultFactory != null) {
+            return defaultFactory;
+        } else {
+            // synchronization?
+            return defaultFactory = LOADER.iterator().next();
+        }
+    }
+
+    public static CharShortSortedMap newMutableMap() {
+        return getDefaultFactory().newMutableMap();
+    }
+
+    public static CharShortSortedMap newMutableMap(Map<Character, Short> map) {
+        return getDefaultFactory().newMutableMap(map);
+    }
+
+    public static CharShortSortedMap newMutableMap(char[] keys, short[] values) {
+        return getDefaultFactory().newMutableMap(keys, values);
+    }
+
+    private CharShortSortedMaps() {}
+}
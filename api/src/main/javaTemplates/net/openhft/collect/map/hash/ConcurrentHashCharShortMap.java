@@ -0,0 +1,235 @@
+/* with
+ char|byte|short|int|long|float|double key
+ short|byte|char|int|long|float|double|obj value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map.hash;
+
+import net.openhft.collect.Equivalence;
+import net.openhft.collect.HashContainer;
+import net.openhft.function.*;
+import org.jetbrains.annotations.NotNull;
+
+
+/**
+ * Thread-safe hash map with // raw //char keys and // raw //short values.
+ *
+ * <p>Keys are partitioned between independently locked hash tables (segments), so updates
+ * of keys from different segments don't contend, and reads of a segment are shared.
+ * All single-key operations, including {@code compute()}, {@code merge()}
+ // if !(obj value) //
+ * and {@code incrementValue()}
+ // endif //
+ * are atomic. The functions passed to them are applied under the segment lock, they should
+ * be fast and must not access the map.
+ *
+ * <p>Bulk operations ({@code forEach()}, {@code removeIf()}, {@link #snapshot()}, etc.)
+ * are atomic per segment, but not for the whole map: they reflect the state of each segment
+ * at some moment during the operation. Likewise {@link #size()} is an estimate, if the map
+ * is concurrently modified.
+ *
+ * <p>This map doesn't implement {@link java.util.Map}, because collection views couldn't
+ * provide the guarantees of the {@link net.openhft.collect.map.CharShortMap} interface.
+ * Use {@link #snapshot()} to obtain a regular map.
+ *
+ * @see HashCharShortMapFactory#newConcurrentMap(int, int)
+ */
+public interface ConcurrentHashCharShortMap/*<>*/ extends HashContainer {
+
+    /* if obj value */
+    Equivalence<Short> valueEquivalence();
+    /* elif !(obj value) */
+    short defaultValue();
+    /* endif */
+
+    /* define nullValue //
+    {@code // if obj value //null// elif !(obj value) //defaultValue()// endif //}
+    // enddefine */
+
+    /**
+     * Returns the number of entries in this map. If the map is concurrently modified,
+     * the result is not guaranteed to be the size of the map at any moment.
+     */
+    @Override
+    int size();
+
+    boolean isEmpty();
+
+    boolean containsKey(char key);
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or // nullValue // if this map contains no mapping for the key.
+     */
+    short get(char key);
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or {@code defaultValue} if this map contains no mapping for the key.
+     */
+    short getOrDefault(char key, short defaultValue);
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     *
+     * @return the previous value associated with {@code key},
+     *         or // nullValue // if there was no mapping for {@code key}
+     */
+    short put(char key, short value);
+
+    /**
+     * If the specified key is not already associated with a value, associates it
+     * with the given value and returns // nullValue //, else returns the current value.
+     */
+    short putIfAbsent(char key, short value);
+
+    /**
+     * Atomically computes a new mapping for the specified key and its current
+     * mapped value (or // nullValue // if there is no current mapping).
+     // if obj value //
+     * If the function returns {@code null}, the mapping is removed (or remains absent).
+     // endif //
+     *
+     * @return the new value associated with the specified key
+     */
+    short compute(char key, /*f*/CharShortToShortFunction remappingFunction);
+
+    /**
+     * If the specified key is not already associated with a value, atomically computes
+     * its value using the given mapping function and enters it into this map
+     * // if obj value // unless {@code null}// endif //.
+     *
+     * @return the current (existing or computed) value associated with the specified key
+     */
+    short computeIfAbsent(char key, /*f*/CharToShortFunction mappingFunction);
+
+    /**
+     * If the value for the specified key is present, atomically computes a new mapping
+     * given the key and its current mapped value.
+     // if obj value //
+     * If the function returns {@code null}, the mapping is removed.
+     // endif //
+     *
+     * @return the new value associated with the specified key, or // nullValue //
+     */
+    short computeIfPresent(char key, /*f*/CharShortToShortFunction remappingFunction);
+
+    /**
+     * If the specified key is not already associated with a value, associates it
+     * with the given value. Otherwise, atomically replaces the value with the result
+     * of the given remapping function.
+     // if obj value //
+     * If the function returns {@code null}, the mapping is removed.
+     // endif //
+     *
+     * @return the new value associated with the specified key
+     */
+    short merge(char key, short value, /*f*/ShortBinaryOperator remappingFunction);
+
+    /* if !(obj value) */
+    /**
+     * Atomically adds {@code increment} to the value associated with the specified key,
+     * or associates {@code defaultValue() + increment} with it if there is no mapping.
+     *
+     * @return the new value associated with the specified key
+     */
+    short incrementValue(char key, short increment);
+
+    /**
+     * Atomically adds {@code increment} to the value associated with the specified key,
+     * or associates {@code defaultValue + increment} with it if there is no mapping.
+     *
+     * @return the new value associated with the specified key
+     */
+    short incrementValue(char key, short increment, short defaultValue);
+    /* endif */
+
+    /**
+     * Replaces the entry for the specified key only if it is currently mapped to some value.
+     *
+     * @return the previous value associated with the specified key,
+     *         or // nullValue // if there was no mapping for the key
+     */
+    short replace(char key, short value);
+
+    /**
+     * Replaces the entry for the specified key only if currently mapped to {@code oldValue}.
+     *
+     * @return {@code true} if the value was replaced
+     */
+    boolean replace(char key, short oldValue, short newValue);
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @return the previous value associated with the specified key,
+     *         or // nullValue // if there was no mapping for the key
+     */
+    short remove(char key);
+
+    /**
+     * Removes the entry for the specified key only if it is currently
+     * mapped to the specified value.
+     *
+     * @return {@code true} if the value was removed
+     */
+    boolean remove(char key, /* raw */short value);
+
+    /**
+     * Performs the given {@code action} on each entry in this map. The action is called
+     * under the lock of the segment the entry belongs to, it must not access the map.
+     */
+    void forEach(/*f*/CharShortConsumer action);
+
+    /**
+     * Checks the given {@code predicate} on each entry in this map until all entries
+     * have been processed or the predicate returns {@code false} for some entry.
+     * The predicate is called under the lock of the segment the entry belongs to,
+     * it must not access the map.
+     *
+     * @return {@code true} if the predicate returned {@code true} for all entries of the map,
+     *         {@code false} otherwise
+     */
+    boolean forEachWhile(/*f*/CharShortPredicate predicate);
+
+    /**
+     * Replaces each entry's value with the result of invoking the given function
+     * on that entry. Each segment is updated atomically.
+     */
+    void replaceAll(/*f*/CharShortToShortFunction function);
+
+    /**
+     * Removes all of the entries of this map that satisfy the given predicate.
+     * Each segment is updated atomically.
+     *
+     * @return {@code true} if any entries were removed
+     */
+    boolean removeIf(/*f*/CharShortPredicate filter);
+
+    /**
+     * Removes all of the mappings from this map. Each segment is cleared atomically.
+     */
+    void clear();
+
+    /**
+     * Returns a new mutable, not thread-safe map with the entries of this map.
+     * Each segment is copied atomically.
+     */
+    @NotNull
+    HashCharShortMap/*<>*/ snapshot();
+}
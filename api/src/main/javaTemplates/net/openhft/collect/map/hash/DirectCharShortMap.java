@@ -0,0 +1,76 @@
+/* with
+ char|byte|short key
+ short|byte|char|int|long|float|double value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map.hash;
+
+import org.jetbrains.annotations.NotNull;
+
+
+/**
+ * Map with char keys and short values over a direct-address table: the slot of a key is
+ * its offset from the lower bound of the keys domain of the config, see
+ * {@link net.openhft.collect.CharHashConfig#withKeysDomain(char, char)}. A bitmap tells which
+ * keys are present, values are stored in a primitive array of the size of the domain.
+ * Lookups and updates take a fixed number of operations, without hashing, probing, rehashes
+ * and free and removed slot sentinels, so the table never overflows, even if all keys
+ * of the domain are present.
+ *
+ * <p>The table takes one value and one bit for each key of the domain, regardless
+ * of the number of entries. Narrow the domain of the config to what the keys could be.
+ * Iteration follows the order of the slots, from the lower bound of the domain.
+ *
+ * <p>Methods of this map have the same contracts as the methods of {@link HashCharShortMap},
+ * except that insertion of a key outside of the domain throws
+ * {@code IllegalArgumentException}. The capacity of the table is the size of the domain:
+ * {@link #loadFactor()} is 1.0, {@link #currentLoad()} is the size of the map divided
+ * by the size of the domain, {@link #ensureCapacity(int)} and {@link #shrink()} never
+ * change the table and return {@code false}. {@link #stats()} report a single slot read
+ * by each lookup and no removed slots.
+ *
+ * <p>Like hash maps, direct-address maps are not thread-safe.
+ *
+ * @see HashCharShortMapFactory#newDirectMap()
+ */
+public interface DirectCharShortMap extends HashCharShortMap {
+
+    /**
+     * @throws IllegalArgumentException if the key is outside of the keys domain of this map
+     */
+    @Override
+    short put(char key, short value);
+
+    /**
+     * @throws IllegalArgumentException if the key is outside of the keys domain of this map
+     */
+    @Override
+    short putIfAbsent(char key, short value);
+
+    /**
+     * @throws IllegalArgumentException if the key is outside of the keys domain of this map
+     */
+    @Override
+    short incrementValue(char key, short increment);
+
+    /**
+     * Returns a new mutable hash map with the entries of this map.
+     */
+    @NotNull
+    HashCharShortMap snapshot();
+}
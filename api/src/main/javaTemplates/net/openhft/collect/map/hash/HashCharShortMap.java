@@ -21,6 +21,7 @@
 package net.openhft.collect.map.hash;
 
 import net.openhft.collect.HashContainer;
+import net.openhft.collect.HashStats;
 import net.openhft.collect.map.CharShortMap;
 import net.openhft.collect.set.hash.HashCharSet;
 import net.openhft.collect.set.hash.HashObjSet;
@@ -38,4 +39,14 @@ public interface HashCharShortMap/*<>*/ extends CharShortMap/*<>*/, HashContaine
     @Override
     @NotNull
     HashObjSet<Entry<Character, Short>> entrySet();
+
+    /**
+     * Computes the statistics of the internal table of this map: probe lengths, clusters,
+     * removed slots and the number of rehashes. Takes time linear in the capacity of the hash,
+     * intended for diagnostics, not for the hot paths.
+     *
+     * @return the new snapshot of the table statistics
+     */
+    @NotNull
+    HashStats stats();
 }
@@ -25,6 +25,10 @@ import net.openhft.function.*;
 import net.openhft.collect.map.*;
 import org.jetbrains.annotations.Nullable;
 
+/* if !(obj|float|double key) && !(obj value) */
+import java.io.File;
+import java.io.IOException;
+/* endif */
 import java.util.Map;
 
 
@@ -76,6 +80,109 @@ public interface HashCharShortMapFactory/*<>*/ extends CharShortMapFactory/*<>*/
     HashCharShortMapFactory/*<>*/ withConfig(/* if !(float|double key) */CharHashConfig
             /* elif float|double key //HashConfig// endif */ config);
 
+    /* if !(obj key) */
+    /**
+     * Returns a new thread-safe map, striped over the number of segments, which is a power of 2
+     * not less than the available processors count. Each segment is a hash map with the config
+     * and the default value of this factory.
+     */
+    /*p1*/ ConcurrentHashCharShortMap/*p2*/ newConcurrentMap();
+
+    /**
+     * Returns a new thread-safe map, striped over the number of segments, which is
+     * the least power of 2 not less than {@code concurrencyLevel}. Each segment is a hash map
+     * with the config and the default value of this factory, expected to hold
+     * {@code expectedSize / segments} entries.
+     *
+     * @param expectedSize the expected size of the whole map
+     * @param concurrencyLevel the estimated number of concurrently updating threads
+     * @throws IllegalArgumentException if {@code expectedSize} is negative
+     *         or {@code concurrencyLevel} is not positive
+     */
+    /*p1*/ ConcurrentHashCharShortMap/*p2*/ newConcurrentMap(int expectedSize,
+            int concurrencyLevel);
+    /* endif */
+
+    /* if !(obj|float|double key) && !(obj value) */
+    /**
+     * Returns a new map with the config and the default value of this factory, which keeps
+     * its table outside of the Java heap.
+     */
+    OffHeapHashCharShortMap newOffHeapMap();
+
+    /**
+     * Returns a new map with the config and the default value of this factory, which keeps
+     * its table outside of the Java heap, expected to hold {@code expectedSize} entries.
+     * The algorithm of the config is ignored, the map is always a linear probing table.
+     *
+     * @param expectedSize the expected size of the map
+     * @throws IllegalArgumentException if {@code expectedSize} is negative
+     */
+    OffHeapHashCharShortMap newOffHeapMap(int expectedSize);
+
+    /**
+     * Writes the entries of the given map to the file, replacing its contents, and returns
+     * the map, mapped from this file. The file could be opened later by
+     * {@link #openMappedMap(File)}, in this or another process.
+     *
+     * <p>The load factor and the key mixing of the config of this factory are stored
+     * in the file, the default value is not.
+     *
+     * @param file the file to write the map to
+     * @param map the entries of the written map
+     * @throws IOException if an I/O error occurs
+     */
+    MappedHashCharShortMap newMappedMap(File file, Map<Character, Short> map)
+            throws IOException;
+
+    /**
+     * Maps the map, written by {@link #newMappedMap(File, Map)}, from the file. The returned map
+     * has the default value of this factory.
+     *
+     * @param file the file of the map
+     * @throws IOException if the file is not a map file, or holds a map with other key
+     *         or value type, or an I/O error occurs
+     */
+    MappedHashCharShortMap openMappedMap(File file) throws IOException;
+    /* endif */
+
+    /* if !(obj|float|double key) && !(obj|float|double value) */
+    /**
+     * Returns a new incremental map with the config and the default value of this factory.
+     */
+    IncrementalHashCharShortMap newIncrementalMap();
+
+    /**
+     * Returns a new incremental map with the config and the default value of this factory,
+     * expected to hold {@code expectedSize} entries. Linear probing and Robin Hood hashing
+     * algorithms of the config are replaced with double hashing, because removal from these
+     * tables shifts keys, which would break the migration of entries between the tables.
+     *
+     * @param expectedSize the expected size of the map
+     * @throws IllegalArgumentException if {@code expectedSize} is negative
+     * @see IncrementalHashCharShortMap
+     */
+    IncrementalHashCharShortMap newIncrementalMap(int expectedSize);
+    /* endif */
+
+    /* if byte|char|short key && !(obj value) */
+    /**
+     * Returns a new direct-address map with the default value of this factory, which table
+     * spans the keys domain of the config of this factory. The hash config, i. e. load factors
+     * and the hash algorithm, doesn't apply to direct-address maps.
+     *
+     * @see DirectCharShortMap
+     */
+    DirectCharShortMap newDirectMap();
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>If the keys domain of the config of this factory has at most 64 keys, returns
+     * a {@linkplain #newDirectMap() direct-address map}, which takes less memory than
+     * a hash table for a few dozen entries and never rehashes.
+     */
+    /* endif */
     @Override
     /*p1*/ HashCharShortMap/*p2*/ newMutableMap();
 
@@ -111,6 +218,12 @@ public interface HashCharShortMapFactory/*<>*/ extends CharShortMapFactory/*<>*/
     /*p1*/ HashCharShortMap/*p2*/ newMutableMap(/*pk*/char/**/[] keys, /*pv*/short/**/[] values,
             int expectedSize);
 
+    /* if !(obj key) && !(obj value) */
+    @Override
+    /*p1*/ HashCharShortMap/*p2*/ newMutableMap(char[] keys, short[] values,
+            /*f*/ShortBinaryOperator mergeFunction);
+    /* endif */
+
     /* if !(obj key obj value) */
     @Override
     /*p1*/ HashCharShortMap/*p2*/ newMutableMap(
@@ -22,6 +22,10 @@ package net.openhft.collect.map.hash;
 
 import net.openhft.function.*;
 
+/* if !(obj|float|double key) && !(obj value) */
+import java.io.File;
+import java.io.IOException;
+/* endif */
 import java.util.Map;
 import java.util.ServiceLoader;
 
@@ -63,6 +67,52 @@ public final class HashCharShortMaps {
         return getDefaultFactory().newMutableMap();
     }
 
+    /* if !(obj key) */
+    public static /*<>*/ ConcurrentHashCharShortMap/*<>*/ newConcurrentMap() {
+        return getDefaultFactory().newConcurrentMap();
+    }
+
+    public static /*<>*/ ConcurrentHashCharShortMap/*<>*/ newConcurrentMap(int expectedSize,
+            int concurrencyLevel) {
+        return getDefaultFactory().newConcurrentMap(expectedSize, concurrencyLevel);
+    }
+    /* endif */
+
+    /* if !(obj|float|double key) && !(obj value) */
+    public static OffHeapHashCharShortMap newOffHeapMap() {
+        return getDefaultFactory().newOffHeapMap();
+    }
+
+    public static OffHeapHashCharShortMap newOffHeapMap(int expectedSize) {
+        return getDefaultFactory().newOffHeapMap(expectedSize);
+    }
+
+    public static MappedHashCharShortMap newMappedMap(File file, Map<Character, Short> map)
+            throws IOException {
+        return getDefaultFactory().newMappedMap(file, map);
+    }
+
+    public static MappedHashCharShortMap openMappedMap(File file) throws IOException {
+        return getDefaultFactory().openMappedMap(file);
+    }
+    /* endif */
+
+    /* if !(obj|float|double key) && !(obj|float|double value) */
+    public static IncrementalHashCharShortMap newIncrementalMap() {
+        return getDefaultFactory().newIncrementalMap();
+    }
+
+    public static IncrementalHashCharShortMap newIncrementalMap(int expectedSize) {
+        return getDefaultFactory().newIncrementalMap(expectedSize);
+    }
+    /* endif */
+
+    /* if byte|char|short key && !(obj value) */
+    public static DirectCharShortMap newDirectMap() {
+        return getDefaultFactory().newDirectMap();
+    }
+    /* endif */
+
     /* with Mutable|Immutable mutability */
     public static /*<>*/ HashCharShortMap/*<>*/ newMutableMap(Map/*ep*/<Character, Short>/**/ map) {
         return getDefaultFactory().newMutableMap(map);
@@ -99,6 +149,13 @@ public final class HashCharShortMaps {
         return getDefaultFactory().newMutableMap(keys, values, expectedSize);
     }
 
+    /* if !(obj key) && !(obj value) */
+    public static HashCharShortMap newMutableMap(
+            char[] keys, short[] values, /*f*/ShortBinaryOperator mergeFunction) {
+        return getDefaultFactory().newMutableMap(keys, values, mergeFunction);
+    }
+    /* endif */
+
     /* if !(obj key obj value) */
     public static /*<>*/ HashCharShortMap/*<>*/ newMutableMap(
             Character[] keys, Short[] values) {
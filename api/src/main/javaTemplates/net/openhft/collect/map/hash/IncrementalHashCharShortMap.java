@@ -0,0 +1,60 @@
+/* with
+ char|byte|short|int|long key
+ short|byte|char|int|long value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map.hash;
+
+import org.jetbrains.annotations.NotNull;
+
+
+/**
+ * Hash map with char keys and short values, which doesn't rehash the whole table at once.
+ * When the table is full, a larger one is allocated, and the entries are moved from the old
+ * table to the new one by a bounded number of slots on each subsequent update, so a single
+ * insertion doesn't stall for the time of copying of a large table. Until the migration
+ * completes, queries consult both tables, iteration traverses the new table, then the old one.
+ *
+ * <p>While the migration is in progress, {@link #stats()} describes the new table only.
+ * {@link #ensureCapacity(int)} starts the migration to a larger table and returns without
+ * moving the entries, {@link #shrink()} finishes the migration and rehashes the table at once.
+ *
+ * <p>Like ordinary hash maps, incremental maps are not thread-safe.
+ *
+ * @see HashCharShortMapFactory#newIncrementalMap(int)
+ */
+public interface IncrementalHashCharShortMap extends HashCharShortMap {
+
+    /**
+     * Returns a new mutable map with the entries of this map.
+     */
+    @NotNull
+    HashCharShortMap snapshot();
+
+    /**
+     * Returns {@code true} if the entries are being moved from the old table to the new one,
+     * i. e. queries consult both tables.
+     */
+    boolean isRehashing();
+
+    /**
+     * Moves all entries, left in the old table, to the new one at once, if the migration
+     * is in progress.
+     */
+    void finishRehash();
+}
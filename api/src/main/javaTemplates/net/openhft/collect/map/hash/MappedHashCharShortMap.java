@@ -0,0 +1,79 @@
+/* with
+ char|byte|short|int|long key
+ short|byte|char|int|long|float|double value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map.hash;
+
+import net.openhft.collect.HashContainer;
+import net.openhft.function.*;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+
+
+/**
+ * Immutable hash map with char keys and short values, which is queried in place
+ * in a memory-mapped file. Opening such a map takes a time independent of its size:
+ * the file is not read or deserialized, the operating system pages in the parts
+ * of the table as they are accessed.
+ *
+ * <p>The file is written once by {@link HashCharShortMapFactory#newMappedMap(java.io.File,
+ * java.util.Map)} and could be opened by any number of processes concurrently with
+ * {@link HashCharShortMapFactory#openMappedMap(java.io.File)}. The file must not be modified
+ * while it is mapped.
+ *
+ * <p>The mapping is released by {@link #close()}. Any other operation on a closed map throws
+ * {@link IllegalStateException}.
+ *
+ * <p>Query methods of this map have the same contracts as the methods of
+ * {@link net.openhft.collect.map.CharShortMap} with the same signatures. This map doesn't
+ * implement {@link java.util.Map}, because its collection views and iterators could outlive
+ * the mapping. Use {@link #snapshot()} to obtain a regular, on-heap map.
+ *
+ * <p>{@link #ensureCapacity(int)} and {@link #shrink()} throw
+ * {@link UnsupportedOperationException}.
+ */
+public interface MappedHashCharShortMap extends HashContainer, Closeable {
+
+    short defaultValue();
+
+    boolean isEmpty();
+
+    boolean containsKey(char key);
+
+    short get(char key);
+
+    short getOrDefault(char key, short defaultValue);
+
+    void forEach(/*f*/CharShortConsumer action);
+
+    boolean forEachWhile(/*f*/CharShortPredicate predicate);
+
+    /**
+     * Returns a new on-heap mutable map with the entries of this map.
+     */
+    @NotNull
+    HashCharShortMap snapshot();
+
+    /**
+     * Unmaps the file of this map. Subsequent calls have no effect.
+     */
+    @Override
+    void close();
+}
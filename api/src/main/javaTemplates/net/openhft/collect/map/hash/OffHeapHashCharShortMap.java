@@ -0,0 +1,60 @@
+/* with
+ char|byte|short|int|long key
+ short|byte|char|int|long|float|double value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map.hash;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+
+
+/**
+ * Hash map with char keys and short values, which keeps its table outside of the Java heap,
+ * so the table doesn't add to garbage collection pauses, regardless of its size.
+ *
+ * <p>The memory is freed by {@link #close()}. Any other operation on a closed map, including
+ * the operations of its collection views and cursors, throws {@link IllegalStateException}.
+ * Iterators and spliterators of the views traverse the entries, copied when they are
+ * created, so they don't read the memory of the map, only their {@code remove()} and
+ * {@code setValue()} of the iterated entries throw after the map is closed. If a map isn't
+ * closed, its memory is freed when the map is garbage collected, as the memory of any
+ * direct {@link java.nio.ByteBuffer}.
+ *
+ * <p>{@link #snapshot()} returns a regular, on-heap copy of the map, which is independent
+ * of the memory of this map.
+ *
+ * <p>Like ordinary hash maps, off-heap maps are not thread-safe.
+ *
+ * @see HashCharShortMapFactory#newOffHeapMap(int)
+ */
+public interface OffHeapHashCharShortMap extends HashCharShortMap, Closeable {
+
+    /**
+     * Returns a new on-heap mutable map with the entries of this map.
+     */
+    @NotNull
+    HashCharShortMap snapshot();
+
+    /**
+     * Frees the off-heap memory of this map. Subsequent calls have no effect.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,98 @@
+/* with
+ char|byte|short|int|long key
+ short|byte|char|int|long|float|double value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map.hash;
+
+import net.openhft.function.CharShortConsumer;
+import net.openhft.function.CharShortPredicate;
+import net.openhft.function.CharShortToShortFunction;
+
+import java.util.concurrent.ForkJoinPool;
+
+
+/**
+ * {@link HashCharShortMap}, which bulk operations could be run in the tasks
+ * of a {@link ForkJoinPool}.
+ *
+ * <p>These operations are kept apart from {@code HashCharShortMap} because
+ * {@code ForkJoinPool} requires Java 7, while the rest of the library runs on Java 6.
+ * The maps, returned by the default {@link HashCharShortMapFactory}, implement this
+ * interface, use {@link ParallelHashCharShortMaps} to run the operations
+ * on any {@code HashCharShortMap}.
+ */
+public interface ParallelHashCharShortMap extends HashCharShortMap {
+
+    /**
+     * Performs the given {@code action} on each entry in this map, in the tasks
+     * of the given pool. The table of the map is split into ranges of slots, and the entries
+     * of each range are processed by a separate task, so the action is called concurrently
+     * from several threads, in no particular order. Small maps are processed sequentially,
+     * in the calling thread. The map must not be modified until the method returns.
+     *
+     * @param action the thread-safe action to be performed for each entry
+     * @param pool the pool to run the tasks in
+     * @throws java.util.ConcurrentModificationException if the map is structurally modified
+     *         while the action is performed
+     * @see HashCharShortMap#forEach(CharShortConsumer)
+     */
+    void parallelForEach(CharShortConsumer action, ForkJoinPool pool);
+
+    /**
+     * Checks the given {@code predicate} on the entries in this map, in the tasks of the given
+     * pool, like {@link #parallelForEach(CharShortConsumer, ForkJoinPool)}. When
+     * the predicate returns {@code false} for some entry, the tasks stop, but the predicate
+     * could still be checked for a few entries, concurrently with or after that entry.
+     *
+     * @param predicate the thread-safe predicate to be checked for the entries
+     * @param pool the pool to run the tasks in
+     * @return {@code true} if the predicate returned {@code true} for all entries of the map,
+     *         {@code false} otherwise
+     * @see HashCharShortMap#forEachWhile(CharShortPredicate)
+     */
+    boolean parallelForEachWhile(CharShortPredicate predicate, ForkJoinPool pool);
+
+    /**
+     * Replaces the value of each entry with the result of the given {@code function},
+     * in the tasks of the given pool, like {@link #parallelForEach(CharShortConsumer,
+     * ForkJoinPool)}. Values are replaced in place, entries don't move in the table, so
+     * the tasks don't synchronize.
+     *
+     * @param function the thread-safe function to compute the new values
+     * @param pool the pool to run the tasks in
+     * @throws UnsupportedOperationException if this map is immutable
+     * @see HashCharShortMap#replaceAll(CharShortToShortFunction)
+     */
+    void parallelReplaceAll(CharShortToShortFunction function, ForkJoinPool pool);
+
+    /**
+     * Removes all of the entries of this map which satisfy the given {@code filter},
+     * in the tasks of the given pool, like {@link #parallelForEach(CharShortConsumer,
+     * ForkJoinPool)}. Maps, which shift entries back on removal (linear probing and Robin Hood
+     * hashing), remove the entries sequentially, in the calling thread.
+     *
+     * @param filter the thread-safe predicate which returns {@code true} for the entries
+     *        to be removed
+     * @param pool the pool to run the tasks in
+     * @return {@code true} if any entries were removed
+     * @throws UnsupportedOperationException if this map is immutable
+     * @see HashCharShortMap#removeIf(CharShortPredicate)
+     */
+    boolean parallelRemoveIf(CharShortPredicate filter, ForkJoinPool pool);
+}
@@ -0,0 +1,57 @@
+/* with
+ char|byte|short|int|long key
+ short|byte|char|int|long|float|double value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map.hash;
+
+import java.util.concurrent.ForkJoinPool;
+
+
+/**
+ * {@link HashCharShortMapFactory}, which could build immutable maps in the tasks
+ * of a {@link ForkJoinPool}. Kept apart from {@code HashCharShortMapFactory} because
+ * {@code ForkJoinPool} requires Java 7, see {@link ParallelHashCharShortMaps}.
+ */
+public interface ParallelHashCharShortMapFactory extends HashCharShortMapFactory {
+
+    /**
+     * Returns a new immutable map with the entries of the parallel {@code keys} and
+     * {@code values} arrays, built by the tasks in the given pool. The map is
+     * indistinguishable from the map returned by
+     * {@link HashCharShortMapFactory#newImmutableMap(char[], short[])}: it has the same
+     * entries, the same capacity and the same iteration order, the last value
+     * of a duplicate key is kept.
+     *
+     * <p>Only {@linkplain net.openhft.collect.HashAlgorithm#LINEAR_PROBING linear probing}
+     * tables are built in parallel, the table is split into regions, the keys are partitioned
+     * by the regions of their first slots and inserted by a task per region. Keys, which
+     * probing leaves the region, continue probing in the following rounds, then the keys
+     * of each cluster of occupied slots are reordered to the slots of the sequential build.
+     * Tables of other algorithms, and small arrays, are built sequentially, because
+     * the slots of colliding keys depend on the insertion order.
+     *
+     * @param keys the keys of the returned map
+     * @param values the values of the returned map, each value corresponds to the key
+     *        at the same index
+     * @param pool the pool to run the tasks in
+     * @throws IllegalArgumentException if {@code keys} and {@code values} arrays
+     *         have different lengths
+     */
+    HashCharShortMap newImmutableMap(char[] keys, short[] values, ForkJoinPool pool);
+}
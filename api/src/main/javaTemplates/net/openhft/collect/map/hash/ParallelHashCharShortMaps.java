@@ -0,0 +1,113 @@
+/* with
+ char|byte|short|int|long key
+ short|byte|char|int|long|float|double value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map.hash;
+
+import net.openhft.function.CharShortConsumer;
+import net.openhft.function.CharShortPredicate;
+import net.openhft.function.CharShortToShortFunction;
+
+import java.util.concurrent.ForkJoinPool;
+
+
+/**
+ * Entry points to the parallel operations of {@link ParallelHashCharShortMap}
+ * and {@link ParallelHashCharShortMapFactory}. If the given map or factory doesn't support
+ * parallel operations, they are performed sequentially, in the calling thread.
+ * Requires Java 7.
+ */
+public final class ParallelHashCharShortMaps {
+
+    /**
+     * Returns a new immutable map with the entries of the parallel {@code keys}
+     * and {@code values} arrays, built by the tasks in the given pool by
+     * the {@linkplain HashCharShortMaps#getDefaultFactory() default factory}.
+     * The map is indistinguishable from the map, returned by
+     * {@link HashCharShortMaps#newImmutableMap(char[], short[])}.
+     *
+     * @see ParallelHashCharShortMapFactory#newImmutableMap(char[], short[], ForkJoinPool)
+     */
+    public static HashCharShortMap newImmutableMap(char[] keys, short[] values,
+            ForkJoinPool pool) {
+        return newImmutableMap(HashCharShortMaps.getDefaultFactory(), keys, values, pool);
+    }
+
+    /**
+     * Returns a new immutable map with the entries of the parallel {@code keys}
+     * and {@code values} arrays, built by the given factory in the tasks of the given pool,
+     * or sequentially, if the factory doesn't implement {@link ParallelHashCharShortMapFactory}.
+     *
+     * @see ParallelHashCharShortMapFactory#newImmutableMap(char[], short[], ForkJoinPool)
+     */
+    public static HashCharShortMap newImmutableMap(HashCharShortMapFactory factory,
+            char[] keys, short[] values, ForkJoinPool pool) {
+        if (factory instanceof ParallelHashCharShortMapFactory) {
+            return ((ParallelHashCharShortMapFactory) factory)
+                    .newImmutableMap(keys, values, pool);
+        }
+        return factory.newImmutableMap(keys, values);
+    }
+
+    /**
+     * @see ParallelHashCharShortMap#parallelForEach(CharShortConsumer, ForkJoinPool)
+     */
+    public static void forEach(HashCharShortMap map, CharShortConsumer action,
+            ForkJoinPool pool) {
+        if (map instanceof ParallelHashCharShortMap) {
+            ((ParallelHashCharShortMap) map).parallelForEach(action, pool);
+        } else {
+            map.forEach(action);
+        }
+    }
+
+    /**
+     * @see ParallelHashCharShortMap#parallelForEachWhile(CharShortPredicate, ForkJoinPool)
+     */
+    public static boolean forEachWhile(HashCharShortMap map, CharShortPredicate predicate,
+            ForkJoinPool pool) {
+        if (map instanceof ParallelHashCharShortMap)
+            return ((ParallelHashCharShortMap) map).parallelForEachWhile(predicate, pool);
+        return map.forEachWhile(predicate);
+    }
+
+    /**
+     * @see ParallelHashCharShortMap#parallelReplaceAll(CharShortToShortFunction, ForkJoinPool)
+     */
+    public static void replaceAll(HashCharShortMap map, CharShortToShortFunction function,
+            ForkJoinPool pool) {
+        if (map instanceof ParallelHashCharShortMap) {
+            ((ParallelHashCharShortMap) map).parallelReplaceAll(function, pool);
+        } else {
+            map.replaceAll(function);
+        }
+    }
+
+    /**
+     * @see ParallelHashCharShortMap#parallelRemoveIf(CharShortPredicate, ForkJoinPool)
+     */
+    public static boolean removeIf(HashCharShortMap map, CharShortPredicate filter,
+            ForkJoinPool pool) {
+        if (map instanceof ParallelHashCharShortMap)
+            return ((ParallelHashCharShortMap) map).parallelRemoveIf(filter, pool);
+        return map.removeIf(filter);
+    }
+
+    private ParallelHashCharShortMaps() {}
+}
@@ -0,0 +1,142 @@
+/* with char|byte|short|int|long|float|double elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.collect.queue;
+
+import net.openhft.collect.CharCollection;
+import net.openhft.collect.CharIterator;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Deque;
+
+
+/**
+ * Double ended queue of primitive char elements. Elements are compared as by
+ * {@link Character#equals(Object)}// if float|double elem //: {@code NaN} is equal to itself,
+ * {@code -0.0} is not equal to {@code 0.0}// endif //.
+ *
+ * <p>Primitive methods, which remove or return the first or the last element, throw
+ * {@code NoSuchElementException} if the deque is empty, there are no primitive versions
+ * of {@code poll} and {@code peek} methods, which return {@code null} in this case.
+ *
+ * @see CharQueues#newMutableDeque()
+ */
+public interface CharDeque extends CharCollection, Deque<Character> {
+
+    /**
+     * Need to override this method, because Deque.add(Object) -- erasure! -- conflicts with
+     * {@code CharCollection.add(Character)}
+     */
+    @Override
+    @Deprecated
+    boolean add(Character e);
+
+    /**
+     * Inserts the specified element at the front of this deque.
+     *
+     * @param e the element to add
+     */
+    void addFirst(char e);
+
+    /**
+     * Inserts the specified element at the end of this deque.
+     *
+     * @param e the element to add
+     */
+    void addLast(char e);
+
+    /**
+     * Inserts the specified element at the front of this deque.
+     *
+     * @param e the element to add
+     * @return {@code true}, deques of primitives are not capacity-restricted
+     */
+    boolean offerFirst(char e);
+
+    /**
+     * Inserts the specified element at the end of this deque.
+     *
+     * @param e the element to add
+     * @return {@code true}, deques of primitives are not capacity-restricted
+     */
+    boolean offerLast(char e);
+
+    /**
+     * Retrieves and removes the first element of this deque.
+     *
+     * @return the head of this deque
+     * @throws java.util.NoSuchElementException if this deque is empty
+     */
+    char removeFirstChar();
+
+    /**
+     * Retrieves and removes the last element of this deque.
+     *
+     * @return the tail of this deque
+     * @throws java.util.NoSuchElementException if this deque is empty
+     */
+    char removeLastChar();
+
+    /**
+     * Retrieves, but does not remove, the first element of this deque.
+     *
+     * @return the head of this deque
+     * @throws java.util.NoSuchElementException if this deque is empty
+     */
+    char getFirstChar();
+
+    /**
+     * Retrieves, but does not remove, the last element of this deque.
+     *
+     * @return the tail of this deque
+     * @throws java.util.NoSuchElementException if this deque is empty
+     */
+    char getLastChar();
+
+    /**
+     * Removes the first occurrence of the specified element from this deque, if it is present.
+     *
+     * @param v element to be removed from this deque, if present
+     * @return {@code true} if an element was removed as a result of this call
+     */
+    boolean removeFirstOccurrence(char v);
+
+    /**
+     * Removes the last occurrence of the specified element from this deque, if it is present.
+     *
+     * @param v element to be removed from this deque, if present
+     * @return {@code true} if an element was removed as a result of this call
+     */
+    boolean removeLastOccurrence(char v);
+
+    /**
+     * Returns an iterator over the elements in this deque, from the first (head)
+     * to the last (tail).
+     */
+    @NotNull
+    @Override
+    CharIterator iterator();
+
+    /**
+     * Returns an iterator over the elements in this deque in reverse sequential order,
+     * from the last (tail) to the first (head).
+     */
+    @NotNull
+    @Override
+    CharIterator descendingIterator();
+}
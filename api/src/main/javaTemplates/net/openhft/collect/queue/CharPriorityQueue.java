@@ -0,0 +1,90 @@
+/* with char|byte|short|int|long|float|double elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.queue;
+
+import net.openhft.function.CharConsumer;
+
+
+/**
+ * Priority queue of primitive char elements, which takes the least element first,
+ * a d-ary min-heap in a primitive array. Each node of the heap has 4 children, adjacent
+ * in the array, so the children compared on the way down share a cache line, and the heap
+ * is half as deep as a binary one.
+ * // if float|double elem //Elements are ordered as by {@code Character.compare()}:
+ * {@code -0.0} before {@code 0.0}, {@code NaN} after all other elements.// endif //
+ *
+ * <p>Priority queues are not thread-safe.
+ *
+ * @see CharQueues#newPriorityQueue()
+ * @see CharShortIndexedPriorityQueue
+ */
+public interface CharPriorityQueue {
+
+    int size();
+
+    boolean isEmpty();
+
+    void clear();
+
+    /**
+     * Inserts the specified element into this queue, in {@code O(log(size))} time.
+     *
+     * @param e the element to add
+     */
+    void add(char e);
+
+    /**
+     * Inserts all elements of the specified array into this queue. If the array is large
+     * compared to this queue, the heap is rebuilt bottom-up, in linear time.
+     *
+     * @param elements the elements to add
+     */
+    void addAll(char[] elements);
+
+    /**
+     * Returns the least element of this queue.
+     *
+     * @throws java.util.NoSuchElementException if this queue is empty
+     */
+    char min();
+
+    /**
+     * Retrieves and removes the least element of this queue, in {@code O(log(size))} time.
+     *
+     * @throws java.util.NoSuchElementException if this queue is empty
+     */
+    char removeMin();
+
+    /**
+     * Performs the given action for each element of this queue, in no particular order.
+     */
+    void forEach(CharConsumer action);
+
+    /**
+     * Returns an array of the elements of this queue, in no particular order.
+     */
+    char[] toCharArray();
+
+    /**
+     * Prepares this queue to hold the specified number of elements without reallocation
+     * of the heap array.
+     *
+     * @return {@code true} if the heap array was reallocated
+     */
+    boolean ensureCapacity(int minSize);
+}
@@ -0,0 +1,123 @@
+/* with char|byte|short|int|long|float|double elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.collect.queue;
+
+import net.openhft.function.CharConsumer;
+
+
+/**
+ * Bounded lock-free queue of primitive char elements, to pass elements between threads
+ * without boxing and locking. Depending on the implementation, one or several threads
+ * could offer elements concurrently (producers), but only one thread at a time could take
+ * them (the consumer), see {@link CharQueues#newSpscQueue(int)} and
+ * {@link CharQueues#newMpscQueue(int)}.
+ *
+ * <p>Batch methods {@link #offerAll(char[], int, int)} and {@link #drainTo(char[], int, int)}
+ * transfer a chunk of elements at the cost of a single element, if the queue is not
+ * contended: they publish the moved chunk with a single ordered write of the index.
+ *
+ * <p>All actions of a producer before offering an element happen-before the actions of
+ * the consumer after taking that element.
+ */
+public interface CharQueue {
+
+    /**
+     * Returns the maximum number of elements, this queue could hold, a power of 2.
+     */
+    int capacity();
+
+    /**
+     * Returns the number of elements in this queue. The result is only an estimate,
+     * if producers or the consumer run concurrently.
+     */
+    int size();
+
+    boolean isEmpty();
+
+    /**
+     * Inserts the specified element at the tail of this queue, if it is not full.
+     * Could be called by producer threads.
+     *
+     * @param e the element to add
+     * @return {@code true} if the element was added, {@code false} if this queue is full
+     */
+    boolean offer(char e);
+
+    /**
+     * Inserts as many elements of the specified array to the tail of this queue as there
+     * is room for, in the order of the array. Could be called by producer threads.
+     *
+     * @param elements the elements to add
+     * @return the number of added elements, the prefix of the array
+     */
+    int offerAll(char[] elements);
+
+    /**
+     * Inserts as many of {@code length} elements of the specified array, starting from
+     * {@code offset}, to the tail of this queue as there is room for. Could be called
+     * by producer threads.
+     *
+     * @param elements the array of the elements to add
+     * @param offset the index of the first element to add in the array
+     * @param length the number of elements to add
+     * @return the number of added elements
+     * @throws IndexOutOfBoundsException if {@code offset} or {@code length} is negative,
+     *         or {@code offset + length} is greater than {@code elements.length}
+     */
+    int offerAll(char[] elements, int offset, int length);
+
+    /**
+     * Retrieves and removes the head of this queue. Could be called by the consumer thread.
+     *
+     * @return the head of this queue
+     * @throws java.util.NoSuchElementException if this queue is empty
+     */
+    char remove();
+
+    /**
+     * Removes up to {@code a.length} elements from the head of this queue
+     * into the specified array. Could be called by the consumer thread.
+     *
+     * @param a the array to store the elements to, starting from the index 0
+     * @return the number of removed elements
+     */
+    int drainTo(char[] a);
+
+    /**
+     * Removes up to {@code length} elements from the head of this queue into the specified
+     * array, starting from {@code offset}. Could be called by the consumer thread.
+     *
+     * @param a the array to store the elements to
+     * @param offset the index in the array, to store the first removed element to
+     * @param length the maximum number of elements to remove
+     * @return the number of removed elements
+     * @throws IndexOutOfBoundsException if {@code offset} or {@code length} is negative,
+     *         or {@code offset + length} is greater than {@code a.length}
+     */
+    int drainTo(char[] a, int offset, int length);
+
+    /**
+     * Removes all available elements from the head of this queue and passes them to
+     * the specified action, in the order of the queue. Could be called by the consumer thread.
+     *
+     * @param action the action to be performed for each removed element
+     * @return the number of removed elements
+     */
+    int drain(CharConsumer action);
+}
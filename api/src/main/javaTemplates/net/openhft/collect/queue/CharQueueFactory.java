@@ -0,0 +1,69 @@
+/* with char|byte|short|int|long|float|double elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.collect.queue;
+
+
+/**
+ * Factory of {@link CharDeque}s, {@link CharQueue}s and {@link CharPriorityQueue}s.
+ *
+ * @see CharQueues
+ */
+public interface CharQueueFactory {
+
+    /**
+     * Returns a new array-backed deque, which grows as needed.
+     */
+    CharDeque newMutableDeque();
+
+    /**
+     * Returns a new array-backed deque, which grows as needed.
+     *
+     * @param expectedSize the number of elements, the deque should hold without reallocation
+     *        of the backing array
+     */
+    CharDeque newMutableDeque(int expectedSize);
+
+    /**
+     * Returns a new queue, which could be used by one producer and one consumer thread
+     * concurrently.
+     *
+     * @param capacity the minimum capacity of the queue, rounded up to a power of 2
+     * @throws IllegalArgumentException if the capacity is not positive or greater than
+     *         {@code 2^30}
+     */
+    CharQueue newSpscQueue(int capacity);
+
+    /**
+     * Returns a new queue, which could be used by several producer threads and one consumer
+     * thread concurrently.
+     *
+     * @param capacity the minimum capacity of the queue, rounded up to a power of 2
+     * @throws IllegalArgumentException if the capacity is not positive or greater than
+     *         {@code 2^30}
+     */
+    CharQueue newMpscQueue(int capacity);
+
+    CharPriorityQueue newPriorityQueue();
+
+    /**
+     * @param expectedSize the number of elements, the queue should hold without reallocation
+     *        of the heap array
+     */
+    CharPriorityQueue newPriorityQueue(int expectedSize);
+}
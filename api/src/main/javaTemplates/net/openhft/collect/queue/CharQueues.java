@@ -0,0 +1,63 @@
+/* with char|byte|short|int|long|float|double elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.collect.queue;
+
+import java.util.ServiceLoader;
+
+
+public final class CharQueues {
+    private static final ServiceLoader<CharQueueFactory> LOADER =
+            ServiceLoader.load(CharQueueFactory.class);
+    private static CharQueueFactory defaultFactory = null;
+
+    public static CharQueueFactory getDefaultFactory() {
+        if (defaultFactory != null) {
+            return defaultFactory;
+        } else {
+            // synchronization?
+            return defaultFactory = LOADER.iterator().next();
+        }
+    }
+
+    public static CharDeque newMutableDeque() {
+        return getDefaultFactory().newMutableDeque();
+    }
+
+    public static CharDeque newMutableDeque(int expectedSize) {
+        return getDefaultFactory().newMutableDeque(expectedSize);
+    }
+
+    public static CharQueue newSpscQueue(int capacity) {
+        return getDefaultFactory().newSpscQueue(capacity);
+    }
+
+    public static CharQueue newMpscQueue(int capacity) {
+        return getDefaultFactory().newMpscQueue(capacity);
+    }
+
+    public static CharPriorityQueue newPriorityQueue() {
+        return getDefaultFactory().newPriorityQueue();
+    }
+
+    public static CharPriorityQueue newPriorityQueue(int expectedSize) {
+        return getDefaultFactory().newPriorityQueue(expectedSize);
+    }
+
+    private CharQueues() {}
+}
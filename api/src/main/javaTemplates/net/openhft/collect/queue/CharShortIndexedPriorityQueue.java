@@ -0,0 +1,121 @@
+/* with
+ char|byte|short|int|long|float|double key
+ short|byte|char|int|long|float|double value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.queue;
+
+import net.openhft.function.CharShortConsumer;
+
+
+/**
+ * Priority queue of char ids with short priorities, which takes the id with the least
+ * priority first, and changes the priority of an id in the queue in {@code O(log(size))}
+ * time, that is "decrease-key" of Dijkstra's and Prim's algorithms and of timer schedulers.
+ * Each id is in the queue at most once.
+ *
+ * <p>Like {@link CharPriorityQueue}, this queue is a 4-ary min-heap, of ids and priorities
+ * in parallel primitive arrays. The position of each id in the heap is kept in
+ * a {@linkplain net.openhft.collect.map.hash.HashCharIntMap hash map}, open-addressed, with
+ * primitive keys and values, so neither the heap nor the index box ids or allocate entries.
+ * // if float|double value //Priorities are ordered as by {@code Short.compare()}:
+ * {@code -0.0} before {@code 0.0}, {@code NaN} after all other priorities.// endif //
+ *
+ * <p>Priority queues are not thread-safe.
+ *
+ * @see CharShortIndexedPriorityQueues
+ */
+public interface CharShortIndexedPriorityQueue {
+
+    int size();
+
+    boolean isEmpty();
+
+    void clear();
+
+    boolean contains(char id);
+
+    /**
+     * Returns the priority of the specified id.
+     *
+     * @throws java.util.NoSuchElementException if the id is not in this queue
+     */
+    short priority(char id);
+
+    /**
+     * Inserts the specified id with the specified priority into this queue, if the id is not
+     * in this queue yet.
+     *
+     * @return {@code true} if the id was added, {@code false} if it is already in this queue,
+     *         its priority is left unchanged then
+     */
+    boolean add(char id, short priority);
+
+    /**
+     * Lowers the priority of the specified id to the specified one, if it is less than
+     * the current priority of the id. The id moves towards the head of the queue.
+     *
+     * @return {@code true} if the priority was lowered, {@code false} if the specified priority
+     *         is not less than the current one
+     * @throws java.util.NoSuchElementException if the id is not in this queue
+     */
+    boolean decreasePriority(char id, short priority);
+
+    /**
+     * Sets the priority of the specified id, either lower or greater than the current one.
+     *
+     * @return the previous priority of the id
+     * @throws java.util.NoSuchElementException if the id is not in this queue
+     */
+    short changePriority(char id, short priority);
+
+    /**
+     * Removes the specified id from this queue, if it is present.
+     *
+     * @return {@code true} if the id was removed
+     */
+    boolean remove(char id);
+
+    /**
+     * Returns the id with the least priority in this queue.
+     *
+     * @throws java.util.NoSuchElementException if this queue is empty
+     */
+    char minId();
+
+    /**
+     * Returns the least priority in this queue.
+     *
+     * @throws java.util.NoSuchElementException if this queue is empty
+     */
+    short minPriority();
+
+    /**
+     * Retrieves and removes the id with the least priority in this queue.
+     *
+     * @return the removed id
+     * @throws java.util.NoSuchElementException if this queue is empty
+     */
+    char removeMin();
+
+    /**
+     * Performs the given action for each id and its priority in this queue,
+     * in no particular order.
+     */
+    void forEach(CharShortConsumer action);
+}
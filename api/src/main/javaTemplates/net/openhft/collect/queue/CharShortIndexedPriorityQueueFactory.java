@@ -0,0 +1,38 @@
+/* with
+ char|byte|short|int|long|float|double key
+ short|byte|char|int|long|float|double value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.queue;
+
+
+/**
+ * Factory of {@link CharShortIndexedPriorityQueue}s.
+ *
+ * @see CharShortIndexedPriorityQueues#getDefaultFactory()
+ */
+public interface CharShortIndexedPriorityQueueFactory {
+
+    CharShortIndexedPriorityQueue newIndexedPriorityQueue();
+
+    /**
+     * @param expectedSize the number of ids, the queue should hold without reallocation
+     *        of the heap arrays and rehash of the index
+     */
+    CharShortIndexedPriorityQueue newIndexedPriorityQueue(int expectedSize);
+}
@@ -0,0 +1,50 @@
+/* with
+ char|byte|short|int|long|float|double key
+ short|byte|char|int|long|float|double value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.queue;
+
+import java.util.ServiceLoader;
+
+
+public final class CharShortIndexedPriorityQueues {
+
+    private static final ServiceLoader<CharShortIndexedPriorityQueueFactory> LOADER =
+            ServiceLoader.load(CharShortIndexedPriorityQueueFactory.class);
+    private static CharShortIndexedPriorityQueueFactory defaultFactory = null;
+
+    public static CharShortIndexedPriorityQueueFactory getDefaultFactory() {
+        if (defaultFactory != null) {
+            return defaultFactory;
+        } else {
+            // synchronization?
+            return defaultFactory = LOADER.iterator().next();
+        }
+    }
+
+    public static CharShortIndexedPriorityQueue newIndexedPriorityQueue() {
+        return getDefaultFactory().newIndexedPriorityQueue();
+    }
+
+    public static CharShortIndexedPriorityQueue newIndexedPriorityQueue(int expectedSize) {
+        return getDefaultFactory().newIndexedPriorityQueue(expectedSize);
+    }
+
+    private CharShortIndexedPriorityQueues() {}
+}
@@ -38,4 +38,22 @@ public interface CharSet/*<>*/ extends CharCollection/*<>*/, Set<Character> {
     @Deprecated
     boolean add(Character e);
     /* endif */
+
+    /* if !(float|double|obj elem) */
+    /**
+     * Checks for the specified elements in bulk: for each index {@code i} of
+     * {@code elements}, stores {@code true} to {@code results[i]} if this set contains
+     * {@code elements[i]}, {@code false} otherwise.
+     *
+     * <p>The result is the same as of calling {@link #contains(char)} for each element
+     * in turn, but implementations could look up several elements at once, so that
+     * the memory accesses of lookups of different elements overlap. This pays off when
+     * the set is much larger than the processor caches.
+     *
+     * @param elements the elements whose presence in this set is to be tested
+     * @param results the array to store the results to, at the indexes of the elements
+     * @throws IllegalArgumentException if {@code results} is shorter than {@code elements}
+     */
+    void containsAll(char[] elements, boolean[] results);
+    /* endif */
 }
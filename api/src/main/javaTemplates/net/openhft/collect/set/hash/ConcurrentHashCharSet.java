@@ -0,0 +1,96 @@
+/* with char|byte|short|int|long elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.set.hash;
+
+import net.openhft.collect.HashContainer;
+import net.openhft.function.CharConsumer;
+import net.openhft.function.CharPredicate;
+import org.jetbrains.annotations.NotNull;
+
+
+/**
+ * Non-blocking thread-safe hash set of {@code char} elements.
+ *
+ * <p>{@link #add(char)}, {@link #removeChar(char)} and {@link #contains(char)} are lock-free
+ * and linearizable. The table is resized concurrently: threads, which meet the resize
+ * in progress, help to move the elements to the new table instead of waiting for it.
+ *
+ * <p>Bulk operations ({@link #forEach(CharConsumer)}, {@link #removeIf(CharPredicate)},
+ * {@link #snapshot()}, etc.) are weakly consistent: they reflect all elements,
+ * which are present in the set during the whole operation, and may or may not reflect
+ * the elements, added or removed concurrently. Likewise {@link #size()} is an estimate,
+ * if the set is concurrently modified.
+ *
+ * <p>This set doesn't implement {@link java.util.Set}, use {@link #snapshot()}
+ * to obtain a regular set.
+ *
+ * @see HashCharSetFactory#newConcurrentSet(int)
+ */
+public interface ConcurrentHashCharSet extends HashContainer {
+
+    /**
+     * Returns the number of elements in this set. If the set is concurrently modified,
+     * the result is not guaranteed to be the size of the set at any moment.
+     */
+    @Override
+    int size();
+
+    boolean isEmpty();
+
+    boolean contains(char e);
+
+    /**
+     * Adds the specified element to this set if it is not already present.
+     *
+     * @return {@code true} if this set did not already contain the specified element
+     */
+    boolean add(char e);
+
+    /**
+     * Removes the specified element from this set if it is present.
+     *
+     * @return {@code true} if this set contained the specified element
+     */
+    boolean removeChar(char e);
+
+    void forEach(CharConsumer action);
+
+    /**
+     * Checks the given {@code predicate} on each element of this set until all elements
+     * have been processed or the predicate returns {@code false} for some element.
+     *
+     * @return {@code true} if the predicate returned {@code true} for all elements of the set,
+     *         {@code false} otherwise
+     */
+    boolean forEachWhile(CharPredicate predicate);
+
+    /**
+     * Removes all of the elements of this set that satisfy the given predicate.
+     *
+     * @return {@code true} if any elements were removed
+     */
+    boolean removeIf(CharPredicate filter);
+
+    void clear();
+
+    /**
+     * Returns a new mutable, not thread-safe set with the elements of this set.
+     */
+    @NotNull
+    HashCharSet snapshot();
+}
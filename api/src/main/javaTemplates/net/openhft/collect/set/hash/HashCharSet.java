@@ -18,8 +18,20 @@
 package net.openhft.collect.set.hash;
 
 import net.openhft.collect.HashContainer;
+import net.openhft.collect.HashStats;
 import net.openhft.collect.set.CharSet;
+import org.jetbrains.annotations.NotNull;
 
 
 public interface HashCharSet/*<>*/ extends CharSet/*<>*/, HashContainer {
+
+    /**
+     * Computes the statistics of the internal table of this set: probe lengths, clusters,
+     * removed slots and the number of rehashes. Takes time linear in the capacity of the hash,
+     * intended for diagnostics, not for the hot paths.
+     *
+     * @return the new snapshot of the table statistics
+     */
+    @NotNull
+    HashStats stats();
 }
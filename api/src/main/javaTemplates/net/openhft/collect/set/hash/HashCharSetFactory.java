@@ -51,6 +51,23 @@ public interface HashCharSetFactory/*<>*/ extends CharSetFactory/*<>*/ {
     @Override
     /*p1*/ HashCharSet/*p2*/ newMutableSet(int expectedSize);
 
+    /* if !(float|double|obj elem) */
+    /**
+     * Returns a new lock-free thread-safe set with the config of this factory.
+     */
+    ConcurrentHashCharSet newConcurrentSet();
+
+    /**
+     * Returns a new lock-free thread-safe set with the config of this factory, expected
+     * to hold {@code expectedSize} elements. The algorithm of the config is ignored, the set
+     * is always a linear probing table.
+     *
+     * @param expectedSize the expected size of the set
+     * @throws IllegalArgumentException if {@code expectedSize} is negative
+     */
+    ConcurrentHashCharSet newConcurrentSet(int expectedSize);
+    /* endif */
+
     /* with Mutable|Immutable mutability */
 
     @Override
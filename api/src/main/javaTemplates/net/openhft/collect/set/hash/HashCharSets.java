@@ -49,6 +49,16 @@ public final class HashCharSets {
         return getDefaultFactory().newMutableSet(expectedSize);
     }
 
+    /* if !(float|double|obj elem) */
+    public static ConcurrentHashCharSet newConcurrentSet() {
+        return getDefaultFactory().newConcurrentSet();
+    }
+
+    public static ConcurrentHashCharSet newConcurrentSet(int expectedSize) {
+        return getDefaultFactory().newConcurrentSet(expectedSize);
+    }
+    /* endif */
+
     /* with Mutable|Immutable mutability */
 
     public static /*<>*/ HashCharSet/*<>*/ newMutableSet(Iterable/*ep*/<Character>/**/ elements) {
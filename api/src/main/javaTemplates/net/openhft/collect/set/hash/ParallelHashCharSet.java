@@ -0,0 +1,77 @@
+/* with char|byte|short|int|long elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.set.hash;
+
+import net.openhft.function.CharConsumer;
+import net.openhft.function.CharPredicate;
+
+import java.util.concurrent.ForkJoinPool;
+
+
+/**
+ * {@link HashCharSet}, which bulk operations could be run in the tasks
+ * of a {@link ForkJoinPool}.
+ *
+ * <p>These operations are kept apart from {@code HashCharSet} because {@code ForkJoinPool}
+ * requires Java 7, while the rest of the library runs on Java 6. The sets, returned
+ * by the default {@link HashCharSetFactory}, implement this interface, use
+ * {@link ParallelHashCharSets} to run the operations on any {@code HashCharSet}.
+ */
+public interface ParallelHashCharSet extends HashCharSet {
+
+    /**
+     * Performs the given {@code action} on each element of this set, in the tasks
+     * of the given pool. The table of the set is split into ranges of slots, and the elements
+     * of each range are processed by a separate task, so the action is called concurrently
+     * from several threads, in no particular order. Small sets are processed sequentially,
+     * in the calling thread. The set must not be modified until the method returns.
+     *
+     * @param action the thread-safe action to be performed for each element
+     * @param pool the pool to run the tasks in
+     * @throws java.util.ConcurrentModificationException if the set is structurally modified
+     *         while the action is performed
+     */
+    void parallelForEach(CharConsumer action, ForkJoinPool pool);
+
+    /**
+     * Checks the given {@code predicate} on the elements of this set, in the tasks of the given
+     * pool, like {@link #parallelForEach(CharConsumer, ForkJoinPool)}. When the predicate
+     * returns {@code false} for some element, the tasks stop, but the predicate could still
+     * be checked for a few elements, concurrently with or after that element.
+     *
+     * @param predicate the thread-safe predicate to be checked for the elements
+     * @param pool the pool to run the tasks in
+     * @return {@code true} if the predicate returned {@code true} for all elements of the set,
+     *         {@code false} otherwise
+     */
+    boolean parallelForEachWhile(CharPredicate predicate, ForkJoinPool pool);
+
+    /**
+     * Removes all of the elements of this set which satisfy the given {@code filter},
+     * in the tasks of the given pool, like {@link #parallelForEach(CharConsumer,
+     * ForkJoinPool)}. Sets, which shift elements back on removal (linear probing and Robin Hood
+     * hashing), remove the elements sequentially, in the calling thread.
+     *
+     * @param filter the thread-safe predicate which returns {@code true} for the elements
+     *        to be removed
+     * @param pool the pool to run the tasks in
+     * @return {@code true} if any elements were removed
+     * @throws UnsupportedOperationException if this set is immutable
+     */
+    boolean parallelRemoveIf(CharPredicate filter, ForkJoinPool pool);
+}
@@ -0,0 +1,48 @@
+/* with char|byte|short|int|long elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.set.hash;
+
+import java.util.concurrent.ForkJoinPool;
+
+
+/**
+ * {@link HashCharSetFactory}, which could build immutable sets in the tasks
+ * of a {@link ForkJoinPool}. Kept apart from {@code HashCharSetFactory} because
+ * {@code ForkJoinPool} requires Java 7, see {@link ParallelHashCharSets}.
+ */
+public interface ParallelHashCharSetFactory extends HashCharSetFactory {
+
+    /**
+     * Returns a new immutable set with the given elements, built by the tasks in the given
+     * pool. The set is indistinguishable from the set returned by
+     * {@link HashCharSetFactory#newImmutableSet(char[])}: it has the same elements, the same
+     * capacity and the same iteration order.
+     *
+     * <p>Only {@linkplain net.openhft.collect.HashAlgorithm#LINEAR_PROBING linear probing}
+     * tables are built in parallel, the table is split into regions, the elements are
+     * partitioned by the regions of their first slots and inserted by a task per region.
+     * Elements, which probing leaves the region, continue probing in the following rounds,
+     * then the elements of each cluster of occupied slots are reordered to the slots
+     * of the sequential build. Tables of other algorithms, and small arrays, are built
+     * sequentially, because the slots of colliding elements depend on the insertion order.
+     *
+     * @param elements the elements of the returned set
+     * @param pool the pool to run the tasks in
+     */
+    HashCharSet newImmutableSet(char[] elements, ForkJoinPool pool);
+}
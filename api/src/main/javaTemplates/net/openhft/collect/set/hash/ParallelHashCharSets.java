@@ -0,0 +1,91 @@
+/* with char|byte|short|int|long elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.set.hash;
+
+import net.openhft.function.CharConsumer;
+import net.openhft.function.CharPredicate;
+
+import java.util.concurrent.ForkJoinPool;
+
+
+/**
+ * Entry points to the parallel operations of {@link ParallelHashCharSet}
+ * and {@link ParallelHashCharSetFactory}. If the given set or factory doesn't support
+ * parallel operations, they are performed sequentially, in the calling thread.
+ * Requires Java 7.
+ */
+public final class ParallelHashCharSets {
+
+    /**
+     * Returns a new immutable set with the given elements, built by the tasks in the given
+     * pool by the {@linkplain HashCharSets#getDefaultFactory() default factory}.
+     * The set is indistinguishable from the set, returned by
+     * {@link HashCharSets#newImmutableSet(char[])}.
+     *
+     * @see ParallelHashCharSetFactory#newImmutableSet(char[], ForkJoinPool)
+     */
+    public static HashCharSet newImmutableSet(char[] elements, ForkJoinPool pool) {
+        return newImmutableSet(HashCharSets.getDefaultFactory(), elements, pool);
+    }
+
+    /**
+     * Returns a new immutable set with the given elements, built by the given factory
+     * in the tasks of the given pool, or sequentially, if the factory doesn't implement
+     * {@link ParallelHashCharSetFactory}.
+     *
+     * @see ParallelHashCharSetFactory#newImmutableSet(char[], ForkJoinPool)
+     */
+    public static HashCharSet newImmutableSet(HashCharSetFactory factory, char[] elements,
+            ForkJoinPool pool) {
+        if (factory instanceof ParallelHashCharSetFactory)
+            return ((ParallelHashCharSetFactory) factory).newImmutableSet(elements, pool);
+        return factory.newImmutableSet(elements);
+    }
+
+    /**
+     * @see ParallelHashCharSet#parallelForEach(CharConsumer, ForkJoinPool)
+     */
+    public static void forEach(HashCharSet set, CharConsumer action, ForkJoinPool pool) {
+        if (set instanceof ParallelHashCharSet) {
+            ((ParallelHashCharSet) set).parallelForEach(action, pool);
+        } else {
+            set.forEach(action);
+        }
+    }
+
+    /**
+     * @see ParallelHashCharSet#parallelForEachWhile(CharPredicate, ForkJoinPool)
+     */
+    public static boolean forEachWhile(HashCharSet set, CharPredicate predicate,
+            ForkJoinPool pool) {
+        if (set instanceof ParallelHashCharSet)
+            return ((ParallelHashCharSet) set).parallelForEachWhile(predicate, pool);
+        return set.forEachWhile(predicate);
+    }
+
+    /**
+     * @see ParallelHashCharSet#parallelRemoveIf(CharPredicate, ForkJoinPool)
+     */
+    public static boolean removeIf(HashCharSet set, CharPredicate filter, ForkJoinPool pool) {
+        if (set instanceof ParallelHashCharSet)
+            return ((ParallelHashCharSet) set).parallelRemoveIf(filter, pool);
+        return set.removeIf(filter);
+    }
+
+    private ParallelHashCharSets() {}
+}
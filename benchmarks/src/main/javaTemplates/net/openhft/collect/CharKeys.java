@@ -0,0 +1,84 @@
+/* with char|byte|short|int|long|float|double elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect;
+
+import net.openhft.collect.set.hash.HashCharSet;
+import net.openhft.collect.set.hash.HashCharSets;
+
+import java.util.Random;
+
+
+/**
+ * Random key samples for benchmarks.
+ */
+public final class CharKeys {
+
+    /**
+     * Max number of keys a benchmark could query as present, the same number
+     * of keys is reserved to query as absent.
+     */
+    public static final int MAX_PRESENT =
+            /* if byte|char|short elem */(1 << Character.SIZE) / 2
+            /* elif !(byte|char|short elem) //Integer.MAX_VALUE / 2// endif */;
+
+    public static final long SEED = 42L;
+
+    /**
+     * Returns {@code count} distinct pseudo-random keys, deterministic for the given seed.
+     */
+    public static char[] distinct(int count, long seed) {
+        HashCharSet set = HashCharSets.newMutableSet(count);
+        Random random = new Random(seed);
+        char[] keys = new char[count];
+        for (int i = 0; i < count; ) {
+            char key = (char) random./* if !(long|double elem) */nextInt()
+                                     /* elif long|double elem //nextLong()// endif */;
+            if (set.add(key))
+                keys[i++] = key;
+        }
+        return keys;
+    }
+
+    /**
+     * Returns {@code count} keys {@code 0, stride, 2 * stride, ...}, the keys are distinct
+     * if {@code count * stride} fits the key type. With power-of-two {@code stride} this is
+     * the worst pattern for hash tables indexing by the low bits of unmixed keys.
+     */
+    public static char[] strided(int count, int stride) {
+        char[] keys = new char[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = (char) (i * (long) stride);
+        }
+        return keys;
+    }
+
+    /**
+     * Shuffles the keys in place, deterministic for the given seed.
+     */
+    public static void shuffle(char[] keys, long seed) {
+        Random random = new Random(seed);
+        for (int i = keys.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            char key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+        }
+    }
+
+    private CharKeys() {}
+}
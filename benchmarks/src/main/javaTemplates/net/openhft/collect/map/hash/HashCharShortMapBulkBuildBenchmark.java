@@ -0,0 +1,115 @@
+/* with
+ char|byte|short|int|long key
+ short|byte|char|int|long value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map.hash;
+
+import net.openhft.collect.*;
+import net.openhft.function.ShortBinaryOperator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static net.openhft.collect.CharKeys.SEED;
+
+
+/**
+ * Building maps from parallel arrays of keys and values, compared with the loop
+ * of {@code put()} calls. Huge sizes need a heap of several gigabytes, for example
+ * 10^9 {@code int} keys and values take 8 GB, and the map built of them
+ * takes 16 GB more, with the default load factor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HashCharShortMapBulkBuildBenchmark {
+
+    private static final ShortBinaryOperator SUM = new ShortBinaryOperator() {
+        @Override
+        public short applyAsShort(short left, short right) {
+            return (short) (left + right);
+        }
+    };
+
+    @Param({"10000000", "100000000", "1000000000"})
+    public int size;
+
+    @Param({"DOUBLE_HASHING", "POWER_OF_TWO_DOUBLE_HASHING", "LINEAR_PROBING",
+            "ROBIN_HOOD_HASHING"})
+    public HashAlgorithm algorithm;
+
+    private HashCharShortMapFactory factory;
+    private char[] keys;
+    private short[] values;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        factory = HashCharShortMaps.getDefaultFactory().withConfig(CharHashConfig.DEFAULT
+                .withHashConfig(HashConfig.DEFAULT.withAlgorithm(algorithm)));
+        // random keys, duplicates are possible
+        Random random = new Random(SEED);
+        keys = new char[size];
+        values = new short[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = (char) random./* if !(long key) */nextInt()
+                                    /* elif long key //nextLong()// endif */;
+            values[i] = (short) random.nextInt();
+        }
+        pool = new ForkJoinPool();
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public HashCharShortMap putLoop() {
+        HashCharShortMap map = factory.newMutableMap(keys.length);
+        char[] keys = this.keys;
+        short[] values = this.values;
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], values[i]);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public HashCharShortMap newMutableMap() {
+        return factory.newMutableMap(keys, values);
+    }
+
+    @Benchmark
+    public HashCharShortMap newMutableMapMerging() {
+        return factory.newMutableMap(keys, values, SUM);
+    }
+
+    @Benchmark
+    public HashCharShortMap newImmutableMap() {
+        return factory.newImmutableMap(keys, values);
+    }
+
+    @Benchmark
+    public HashCharShortMap newImmutableMapInParallel() {
+        return ParallelHashCharShortMaps.newImmutableMap(factory, keys, values, pool);
+    }
+}
@@ -0,0 +1,154 @@
+/* with
+ char|byte|short|int|long|float|double key
+ short|byte|char|int|long|float|double value
+ Mutable|Immutable mutability
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map.hash;
+
+import net.openhft.collect.*;
+import net.openhft.collect.map.CharShortCursor;
+import net.openhft.function.CharShortConsumer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static net.openhft.collect.CharKeys.SEED;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MutableHashCharShortMapBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000", "100000000"})
+    public int size;
+
+    @Param({"0.3", "0.5", "0.7", "0.9"})
+    public float loadFactor;
+
+    @Param({"DOUBLE_HASHING", "POWER_OF_TWO_DOUBLE_HASHING", "LINEAR_PROBING",
+            "ROBIN_HOOD_HASHING"})
+    public HashAlgorithm algorithm;
+
+    private HashCharShortMap map;
+    private char[] presentKeys;
+    private char[] absentKeys;
+    private int presentIndex;
+    private int absentIndex;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        int n = Math.min(size, CharKeys.MAX_PRESENT);
+        char[] keys = CharKeys.distinct(2 * n, SEED);
+        presentKeys = Arrays.copyOf(keys, n);
+        absentKeys = Arrays.copyOfRange(keys, n, 2 * n);
+        Random random = new Random(SEED);
+        short[] values = new short[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = (short) random.nextInt();
+        }
+        HashConfig hashConfig = HashConfig.DEFAULT.withLoadFactor(loadFactor)
+                .withAlgorithm(algorithm);
+        HashCharShortMapFactory factory = HashCharShortMaps.getDefaultFactory().withConfig(
+                /* if !(float|double key) */CharHashConfig.DEFAULT.withHashConfig(hashConfig)
+                /* elif float|double key //hashConfig// endif */);
+        map = factory.newMutableMap(presentKeys, values);
+    }
+
+    private char nextPresentKey() {
+        int i = presentIndex;
+        char[] keys = presentKeys;
+        char key = keys[i];
+        presentIndex = ++i == keys.length ? 0 : i;
+        return key;
+    }
+
+    private char nextAbsentKey() {
+        int i = absentIndex;
+        char[] keys = absentKeys;
+        char key = keys[i];
+        absentIndex = ++i == keys.length ? 0 : i;
+        return key;
+    }
+
+    @Benchmark
+    public short getPresent() {
+        return map.get(nextPresentKey());
+    }
+
+    @Benchmark
+    public short getAbsent() {
+        return map.get(nextAbsentKey());
+    }
+
+    @Benchmark
+    public boolean containsKeyPresent() {
+        return map.containsKey(nextPresentKey());
+    }
+
+    /* if Mutable mutability */
+    @Benchmark
+    public short putPresent() {
+        char key = nextPresentKey();
+        return map.put(key, (short) key);
+    }
+
+    /**
+     * Insert-remove pairs keeping the size constant, the second use-pattern
+     * from {@code MutableDHash} rehash logic description.
+     */
+    @Benchmark
+    public short removeAndPut() {
+        char key = nextPresentKey();
+        short value = map.remove(key);
+        map.put(key, value);
+        return value;
+    }
+    /* endif */
+
+    @Benchmark
+    public void forEach(final Blackhole bh) {
+        map.forEach(new CharShortConsumer() {
+            @Override
+            public void accept(char key, short value) {
+                bh.consume(key);
+                bh.consume(value);
+            }
+        });
+    }
+
+    @Benchmark
+    public void cursor(Blackhole bh) {
+        for (CharShortCursor cur = map.cursor(); cur.moveNext();) {
+            bh.consume(cur.key());
+            bh.consume(cur.value());
+        }
+    }
+
+    @Benchmark
+    public void keySetIterator(Blackhole bh) {
+        for (Iterator<Character> it = map.keySet().iterator(); it.hasNext();) {
+            bh.consume(it.next());
+        }
+    }
+}
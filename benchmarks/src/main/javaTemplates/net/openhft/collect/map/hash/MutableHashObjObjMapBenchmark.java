@@ -0,0 +1,145 @@
+/* with Mutable|Immutable mutability */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map.hash;
+
+import net.openhft.collect.*;
+import net.openhft.collect.map.ObjObjCursor;
+import net.openhft.function.BiConsumer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import static net.openhft.collect.IntKeys.SEED;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MutableHashObjObjMapBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000", "100000000"})
+    public int size;
+
+    @Param({"0.3", "0.5", "0.7", "0.9"})
+    public float loadFactor;
+
+    @Param({"DOUBLE_HASHING", "POWER_OF_TWO_DOUBLE_HASHING"})
+    public HashAlgorithm algorithm;
+
+    private HashObjObjMap<Integer, Integer> map;
+    private Integer[] presentKeys;
+    private Integer[] absentKeys;
+    private int presentIndex;
+    private int absentIndex;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        int[] keys = IntKeys.distinct(2 * size, SEED);
+        presentKeys = new Integer[size];
+        absentKeys = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            presentKeys[i] = keys[i];
+            absentKeys[i] = keys[size + i];
+        }
+        Integer[] values = Arrays.copyOf(absentKeys, size);
+        HashObjObjMapFactory<Object, Object> factory = HashObjObjMaps.getDefaultFactory()
+                .withConfig(ObjHashConfig.DEFAULT.withHashConfig(
+                        HashConfig.DEFAULT.withLoadFactor(loadFactor).withAlgorithm(algorithm)));
+        map = factory.newMutableMap(presentKeys, values);
+    }
+
+    private Integer nextPresentKey() {
+        int i = presentIndex;
+        Integer[] keys = presentKeys;
+        Integer key = keys[i];
+        presentIndex = ++i == keys.length ? 0 : i;
+        return key;
+    }
+
+    private Integer nextAbsentKey() {
+        int i = absentIndex;
+        Integer[] keys = absentKeys;
+        Integer key = keys[i];
+        absentIndex = ++i == keys.length ? 0 : i;
+        return key;
+    }
+
+    @Benchmark
+    public Integer getPresent() {
+        return map.get(nextPresentKey());
+    }
+
+    @Benchmark
+    public Integer getAbsent() {
+        return map.get(nextAbsentKey());
+    }
+
+    @Benchmark
+    public boolean containsKeyPresent() {
+        return map.containsKey(nextPresentKey());
+    }
+
+    /* if Mutable mutability */
+    @Benchmark
+    public Integer putPresent() {
+        Integer key = nextPresentKey();
+        return map.put(key, key);
+    }
+
+    /**
+     * Insert-remove pairs keeping the size constant, the second use-pattern
+     * from {@code MutableDHash} rehash logic description.
+     */
+    @Benchmark
+    public Integer removeAndPut() {
+        Integer key = nextPresentKey();
+        Integer value = map.remove(key);
+        map.put(key, value);
+        return value;
+    }
+    /* endif */
+
+    @Benchmark
+    public void forEach(final Blackhole bh) {
+        map.forEach(new BiConsumer<Integer, Integer>() {
+            @Override
+            public void accept(Integer key, Integer value) {
+                bh.consume(key);
+                bh.consume(value);
+            }
+        });
+    }
+
+    @Benchmark
+    public void cursor(Blackhole bh) {
+        for (ObjObjCursor<Integer, Integer> cur = map.cursor(); cur.moveNext();) {
+            bh.consume(cur.key());
+            bh.consume(cur.value());
+        }
+    }
+
+    @Benchmark
+    public void keySetIterator(Blackhole bh) {
+        for (Iterator<Integer> it = map.keySet().iterator(); it.hasNext();) {
+            bh.consume(it.next());
+        }
+    }
+}
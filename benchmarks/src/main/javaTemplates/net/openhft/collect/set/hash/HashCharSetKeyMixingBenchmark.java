@@ -0,0 +1,124 @@
+/* with char|byte|short|int|long elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.set.hash;
+
+import net.openhft.collect.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static net.openhft.collect.CharKeys.SEED;
+
+
+/**
+ * Compares {@link KeyMixing} functions on key distributions typical for primitive keys:
+ * sequential ids, keys with a power-of-two stride and random keys.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HashCharSetKeyMixingBenchmark {
+
+    public enum KeyDistribution {SEQUENTIAL, STRIDED, RANDOM}
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"0.5", "0.8"})
+    public float loadFactor;
+
+    @Param({"DOUBLE_HASHING", "POWER_OF_TWO_DOUBLE_HASHING", "LINEAR_PROBING",
+            "ROBIN_HOOD_HASHING"})
+    public HashAlgorithm algorithm;
+
+    @Param({"NONE", "MULTIPLY_SHIFT", "MURMUR3"})
+    public KeyMixing keyMixing;
+
+    @Param({"SEQUENTIAL", "STRIDED", "RANDOM"})
+    public KeyDistribution distribution;
+
+    private HashCharSetFactory factory;
+    private HashCharSet set;
+    private char[] presentKeys;
+    private char[] absentKeys;
+    private int presentIndex;
+    private int absentIndex;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        int n = Math.min(size, CharKeys.MAX_PRESENT);
+        char[] keys;
+        switch (distribution) {
+            case SEQUENTIAL:
+                keys = CharKeys.strided(2 * n, 1);
+                break;
+            case STRIDED:
+                keys = CharKeys.strided(2 * n, Integer.highestOneBit(CharKeys.MAX_PRESENT / n));
+                break;
+            default:
+                keys = CharKeys.distinct(2 * n, SEED);
+        }
+        presentKeys = Arrays.copyOf(keys, n);
+        absentKeys = Arrays.copyOfRange(keys, n, 2 * n);
+        HashConfig hashConfig = HashConfig.DEFAULT.withLoadFactor(loadFactor)
+                .withAlgorithm(algorithm).withKeyMixing(keyMixing);
+        factory = HashCharSets.getDefaultFactory()
+                .withConfig(CharHashConfig.DEFAULT.withHashConfig(hashConfig));
+        set = factory.newMutableSet(presentKeys);
+        // query in the random order, otherwise sequential keys are queried
+        // in the memory order with the NONE mixing
+        CharKeys.shuffle(presentKeys, SEED);
+        CharKeys.shuffle(absentKeys, SEED);
+    }
+
+    private char nextPresentKey() {
+        int i = presentIndex;
+        char[] keys = presentKeys;
+        char key = keys[i];
+        presentIndex = ++i == keys.length ? 0 : i;
+        return key;
+    }
+
+    private char nextAbsentKey() {
+        int i = absentIndex;
+        char[] keys = absentKeys;
+        char key = keys[i];
+        absentIndex = ++i == keys.length ? 0 : i;
+        return key;
+    }
+
+    @Benchmark
+    public boolean containsPresent() {
+        return set.contains(nextPresentKey());
+    }
+
+    @Benchmark
+    public boolean containsAbsent() {
+        return set.contains(nextAbsentKey());
+    }
+
+    /**
+     * Builds the set of all present keys, the time is dominated by collisions
+     * if the mixing is poor for the distribution.
+     */
+    @Benchmark
+    public HashCharSet build() {
+        return factory.newMutableSet(presentKeys);
+    }
+}
@@ -0,0 +1,137 @@
+/* with
+ char|byte|short|int|long|float|double elem
+ Mutable|Immutable mutability
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.set.hash;
+
+import net.openhft.collect.*;
+import net.openhft.function.CharConsumer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import static net.openhft.collect.CharKeys.SEED;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MutableHashCharSetBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000", "100000000"})
+    public int size;
+
+    @Param({"0.3", "0.5", "0.7", "0.9"})
+    public float loadFactor;
+
+    @Param({"DOUBLE_HASHING", "POWER_OF_TWO_DOUBLE_HASHING", "LINEAR_PROBING",
+            "ROBIN_HOOD_HASHING"})
+    public HashAlgorithm algorithm;
+
+    private HashCharSet set;
+    private char[] presentKeys;
+    private char[] absentKeys;
+    private int presentIndex;
+    private int absentIndex;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        int n = Math.min(size, CharKeys.MAX_PRESENT);
+        char[] keys = CharKeys.distinct(2 * n, SEED);
+        presentKeys = Arrays.copyOf(keys, n);
+        absentKeys = Arrays.copyOfRange(keys, n, 2 * n);
+        HashConfig hashConfig = HashConfig.DEFAULT.withLoadFactor(loadFactor)
+                .withAlgorithm(algorithm);
+        HashCharSetFactory factory = HashCharSets.getDefaultFactory().withConfig(
+                /* if !(float|double elem) */CharHashConfig.DEFAULT.withHashConfig(hashConfig)
+                /* elif float|double elem //hashConfig// endif */);
+        set = factory.newMutableSet(presentKeys);
+    }
+
+    private char nextPresentKey() {
+        int i = presentIndex;
+        char[] keys = presentKeys;
+        char key = keys[i];
+        presentIndex = ++i == keys.length ? 0 : i;
+        return key;
+    }
+
+    private char nextAbsentKey() {
+        int i = absentIndex;
+        char[] keys = absentKeys;
+        char key = keys[i];
+        absentIndex = ++i == keys.length ? 0 : i;
+        return key;
+    }
+
+    @Benchmark
+    public boolean containsPresent() {
+        return set.contains(nextPresentKey());
+    }
+
+    @Benchmark
+    public boolean containsAbsent() {
+        return set.contains(nextAbsentKey());
+    }
+
+    /* if Mutable mutability */
+    @Benchmark
+    public boolean addPresent() {
+        return set.add(nextPresentKey());
+    }
+
+    /**
+     * Insert-remove pairs keeping the size constant, the second use-pattern
+     * from {@code MutableDHash} rehash logic description.
+     */
+    @Benchmark
+    public boolean removeAndAdd() {
+        char key = nextPresentKey();
+        set.removeChar(key);
+        return set.add(key);
+    }
+    /* endif */
+
+    @Benchmark
+    public void forEach(final Blackhole bh) {
+        set.forEach(new CharConsumer() {
+            @Override
+            public void accept(char key) {
+                bh.consume(key);
+            }
+        });
+    }
+
+    @Benchmark
+    public void cursor(Blackhole bh) {
+        for (CharCursor cur = set.cursor(); cur.moveNext();) {
+            bh.consume(cur.elem());
+        }
+    }
+
+    @Benchmark
+    public void iterator(Blackhole bh) {
+        for (Iterator<Character> it = set.iterator(); it.hasNext();) {
+            bh.consume(it.next());
+        }
+    }
+}
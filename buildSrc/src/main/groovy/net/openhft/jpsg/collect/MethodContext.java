@@ -27,6 +27,10 @@ public class MethodContext {
 
     static final SimpleOption NULL = new SimpleOption("null");
 
+    private static final SimpleOption P_HASH = new SimpleOption("PHash");
+    private static final SimpleOption L_HASH = new SimpleOption("LHash");
+    private static final SimpleOption R_HASH = new SimpleOption("RHash");
+
     private static SimpleOption keyView = new SimpleOption("key");
     private static SimpleOption valueView = new SimpleOption("value");
     private static SimpleOption mapView = new SimpleOption("map");
@@ -236,6 +240,49 @@ public class MethodContext {
         return getOption("mutability").equals(MUTABLE);
     }
 
+    /**
+     * @return {@code true} if the hash has power of 2 capacity, so index and probe step
+     *         should be masked rather than computed by division
+     */
+    public boolean powerOfTwoCapacity() {
+        Option hash = getOption("hash");
+        return P_HASH.equals(hash) || L_HASH.equals(hash) || R_HASH.equals(hash);
+    }
+
+    /**
+     * @return {@code true} if the hash probes slots one by one, in this case keys are moved
+     *         back on removal to fill the gap, rather than removed slots are marked
+     */
+    public boolean linearProbing() {
+        Option hash = getOption("hash");
+        return L_HASH.equals(hash) || R_HASH.equals(hash);
+    }
+
+    /**
+     * @return {@code true} if the hash keeps keys of each cluster ordered by their home slots
+     *         ({@linkplain #linearProbing() linear probing} Robin Hood hashing), so the search
+     *         could stop as soon as a key with a shorter probe distance is met
+     */
+    public boolean robinHood() {
+        return R_HASH.equals(getOption("hash"));
+    }
+
+    /**
+     * @return {@code true} if the hash could contain removed slots, i. e. is mutable
+     *         and not {@linkplain #linearProbing() linear probing}
+     */
+    public boolean hasRemovedSlots() {
+        return mutable() && !linearProbing();
+    }
+
+    /**
+     * @return {@code true} if the container keeps the elements in an array, in the order
+     *         of indexes, rather than in a hash table
+     */
+    public boolean arrayBacked() {
+        return getOption("hash") == null;
+    }
+
     public boolean genericVersion() {
         return GENERIC.equals(getOption("version"));
     }
@@ -17,6 +17,7 @@
 package net.openhft.jpsg.collect;
 
 import net.openhft.jpsg.*;
+import net.openhft.jpsg.collect.algo.array.ArrayBulkMethodGenerator;
 import net.openhft.jpsg.collect.algo.hash.*;
 import net.openhft.jpsg.collect.bulk.*;
 import net.openhft.jpsg.collect.iter.IterMethod;
@@ -110,7 +111,9 @@ public class MethodGeneratingProcessor extends TemplateProcessor {
             try {
                 method = methodClass.newInstance();
                 if (method instanceof BulkMethod) {
-                    generator = new HashBulkMethodGenerator();
+                    generator = new MethodContext(cxt).arrayBacked() ?
+                            new ArrayBulkMethodGenerator() :
+                            new HashBulkMethodGenerator();
                 } else if (method instanceof MapQueryUpdateMethod) {
                     generator = new HashMapQueryUpdateMethodGenerator();
                 } else {
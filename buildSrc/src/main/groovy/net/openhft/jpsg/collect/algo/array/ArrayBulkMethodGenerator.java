@@ -0,0 +1,111 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.jpsg.collect.algo.array;
+
+import net.openhft.jpsg.collect.*;
+import net.openhft.jpsg.collect.bulk.*;
+
+
+/**
+ * Generates bulk methods of array-backed collections: {@code elements} array, of which
+ * the first {@code size} are the elements of the collection, stored as is (floating point
+ * elements are not converted to bits). Elements are traversed in the order of indexes.
+ */
+public class ArrayBulkMethodGenerator extends BulkMethodGenerator {
+
+    private BulkMethod method;
+
+    @Override
+    public void generateLines(Method m) {
+        this.method = (BulkMethod) m;
+
+        method.beginning();
+
+        if (cxt.mutable()) {
+            lines("int mc = modCount();");
+        }
+        lines(cxt.keyType() + "[] elements = this.elements;");
+
+        method.rightBeforeLoop();
+
+        lines("for (int i = 0, end = this.size; i < end; i++)").block();
+        method.loopBody();
+        blockEnd();
+
+        if (cxt.mutable()) {
+            lines(
+                    "if (mc != modCount())",
+                    "    throw new java.util.ConcurrentModificationException();"
+            );
+        }
+
+        method.end();
+    }
+
+    @Override
+    public String viewValues() {
+        if (!cxt.isKeyView()) throw new IllegalStateException();
+        return key();
+    }
+
+    @Override
+    public String viewElem() {
+        return viewValues();
+    }
+
+    @Override
+    public String key() {
+        return "elements[i]";
+    }
+
+    @Override
+    public String unwrappedKey() {
+        return unwrapKey(key());
+    }
+
+    /**
+     * Elements are the values of a list, {@link HashCode} takes both the key and the value
+     * and uses the one of the view.
+     */
+    @Override
+    public String value() {
+        return key();
+    }
+
+    @Override
+    public String unwrappedValue() {
+        return unwrappedKey();
+    }
+
+    @Override
+    public BulkMethodGenerator remove() {
+        // removals shift the tail of the array, bulk removals are written by hand
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public BulkMethodGenerator setValue(String newValue) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public BulkMethodGenerator clear() {
+        lines("clear();");
+        permissions.add(Permission.CLEAR);
+        return this;
+    }
+}
@@ -20,10 +20,12 @@ import net.openhft.jpsg.PrimitiveType;
 import net.openhft.jpsg.collect.*;
 import net.openhft.jpsg.collect.bulk.*;
 
+import java.util.Arrays;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static net.openhft.jpsg.collect.algo.hash.HashMethodGeneratorCommons.free;
+import static net.openhft.jpsg.collect.algo.hash.HashMethodGeneratorCommons.isNotFree;
 import static net.openhft.jpsg.collect.algo.hash.HashMethodGeneratorCommons.removed;
 
 
@@ -52,18 +54,23 @@ public class HashBulkMethodGenerator extends BulkMethodGenerator {
         }
         if (cxt.isIntegralKey()) {
             lines(cxt.keyType() + " free = freeValue;");
-            if (cxt.mutable()) {
+            if (cxt.hasRemovedSlots()) {
                 lines(cxt.keyType() + " removed = removedValue;");
             }
         }
         lines(cxt.keyUnwrappedRawType() + "[] keys = set;");
         int beforeLoops = lines.size();
 
+        boolean splitLoops = cxt.hasRemovedSlots() && !cxt.isFloatingKey();
+        // rehash resets the slot counts of the hash before the loop
+        boolean noRemovedBeforeLoop = splitLoops && method instanceof Rehash;
+        if (noRemovedBeforeLoop)
+            lines("boolean noRemoved = noRemoved();");
+
         method.rightBeforeLoop();
 
-        boolean splitLoops = cxt.mutable() && !cxt.isFloatingKey();
         if (splitLoops) {
-            lines("if (noRemoved()) {");
+            lines(noRemovedBeforeLoop ? "if (noRemoved) {" : "if (noRemoved()) {");
             indent();
         }
         bulkLoop();
@@ -88,6 +95,8 @@ public class HashBulkMethodGenerator extends BulkMethodGenerator {
                     "if (mc != modCount())",
                     "    throw new java.util.ConcurrentModificationException();"
             );
+            if (permissions.contains(Permission.REMOVE))
+                lines("shrinkIfTooSparse();");
         }
 
         method.end();
@@ -119,6 +128,7 @@ public class HashBulkMethodGenerator extends BulkMethodGenerator {
     }
 
     private void bulkLoop() {
+        int loopStart = lines.size();
         lines("for (int i = keys.length - 1; i >= 0; i--)");
         block();
         int bodyStart = lines.size();
@@ -192,6 +202,24 @@ public class HashBulkMethodGenerator extends BulkMethodGenerator {
         }
 
         blockEnd();
+        if (cxt.linearProbing() && permissions.contains(Permission.REMOVE))
+            startLoopFromFreeSlot(loopStart);
+    }
+
+    /**
+     * See {@link HashIterMethodGeneratorCommons#startFromFreeSlot}, the current slot
+     * is checked again after removal in {@link #remove()}.
+     */
+    private void startLoopFromFreeSlot(int loopStart) {
+        String loopIndent = indent;
+        lines.set(loopStart, loopIndent + "for (int i = (firstFree - 1) & capacityMask; " +
+                "i != firstFree; i = (i - 1) & capacityMask) {");
+        lines.addAll(loopStart, Arrays.asList(
+                loopIndent + "int capacityMask = keys.length - 1;",
+                loopIndent + "int firstFree = capacityMask;",
+                loopIndent + "while (" + isNotFree(cxt, "keys[firstFree]") + ")",
+                loopIndent + "    firstFree--;"
+        ));
     }
 
     private String copyValueArray() {
@@ -266,6 +294,16 @@ public class HashBulkMethodGenerator extends BulkMethodGenerator {
 
     @Override
     public BulkMethodGenerator remove() {
+        if (cxt.linearProbing()) {
+            lines(
+                    "removeAt(i);",
+                    "mc++;",
+                    "// check the slot again, a key could be shifted into it",
+                    "i = (i + 1) & capacityMask;"
+            );
+            permissions.add(Permission.REMOVE);
+            return this;
+        }
         lines("keys[i] = " + removed(cxt) + ";");
         if (cxt.isObjectValue()) {
             lines("vals[i] = null;");
@@ -45,6 +45,8 @@ public class HashCursorMethodGenerator extends CursorMethodGenerator {
                     "// noinspection unchecked",
                     "this.keys = (" + cxt.keyUnwrappedType() + "[]) set;"
             );
+        } else if (startFromFreeSlot(cxt)) {
+            this.lines(cxt.keyUnwrappedType() + "[] keys = this.keys = set;");
         } else {
             this.lines("this.keys = set;");
         }
@@ -54,19 +56,34 @@ public class HashCursorMethodGenerator extends CursorMethodGenerator {
         if (cxt.isIntegralKey()) {
             this.lines(cxt.keyUnwrappedType() + " " + free(cxt) +
                     " = this." + free(cxt) + " = freeValue;");
-            if (cxt.mutable()) {
+            if (cxt.hasRemovedSlots()) {
                 this.lines("this." + removed(cxt) + " = removedValue;");
             }
         }
+        if (startFromFreeSlot(cxt)) {
+            findFirstFree(this, cxt);
+            lines("index = firstFree;");
+        } else {
+            lines("index = keys.length;");
+        }
         lines("curKey = " + free(cxt) + ";");
     }
 
+    private void loop() {
+        if (startFromFreeSlot(cxt)) {
+            lines("for (int i = index; i >= 0 && (i = (i - 1) & capacityMask) != firstFree;)");
+        } else {
+            lines("for (int i = index - 1; i >= 0; i--)");
+        }
+        block();
+    }
+
     @Override
     public void generateMoveNext() {
         checkModCount(this, cxt, false);
         copyArrays(this, cxt);
         copySpecials(this, cxt);
-        lines("for (int i = index - 1; i >= 0; i--)").block();
+        loop();
         ifKeyNotFreeOrRemoved(this, cxt, "i", true);
         lines(
                 "index = i;",
@@ -133,6 +150,17 @@ public class HashCursorMethodGenerator extends CursorMethodGenerator {
             ifBlock(isNotFree(cxt, "curKey"));
         }
         ifBlock("expectedModCount++ == " + modCount());
+        if (startFromFreeSlot(cxt)) {
+            lines(
+                    "removeAt(index);",
+                    "// a key could be shifted to the removed slot, check it again in moveNext()",
+                    "index = (index + 1) & capacityMask;",
+                    "curKey = " + free(cxt) + ";"
+            );
+            endOfModCountCheck(this, cxt);
+            endOfIllegalStateCheck(this, cxt);
+            return;
+        }
         if (cxt.isObjectValue())
             lines("int index;");
         String indexAssignment = cxt.isObjectValue() ? "index = this.index" : "index";
@@ -155,7 +183,7 @@ public class HashCursorMethodGenerator extends CursorMethodGenerator {
         copyArrays(this, cxt);
         copySpecials(this, cxt);
         lines("int index = this.index;");
-        lines("for (int i = index - 1; i >= 0; i--)").block();
+        loop();
         ifKeyNotFreeOrRemoved(this, cxt, "i", false);
         if (cxt.isObjectKey())
             lines("// noinspection unchecked");
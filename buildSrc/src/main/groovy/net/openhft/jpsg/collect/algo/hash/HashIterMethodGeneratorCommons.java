@@ -34,15 +34,40 @@ public final class HashIterMethodGeneratorCommons {
         }
         if (cxt.isIntegralKey()) {
             g.lines("final " + cxt.keyType() + " " + free(cxt) + ";");
-            if (cxt.mutable()) {
+            if (cxt.hasRemovedSlots()) {
                 g.lines("final " + cxt.keyType() + " " + removed(cxt) + ";");
             }
         }
+        if (startFromFreeSlot(cxt)) {
+            g.lines(
+                    "final int capacityMask;",
+                    "final int firstFree;"
+            );
+        }
         if (cxt.mutable()) {
             g.lines("int expectedModCount;");
         }
     }
 
+    /**
+     * Backward shift deletion moves keys from the slots below to the removed one. If iteration
+     * starts right below a free slot and wraps around the array, keys are never shifted
+     * from not yet visited slots to already visited ones, except the current one.
+     */
+    static boolean startFromFreeSlot(MethodContext cxt) {
+        return cxt.mutable() && cxt.linearProbing();
+    }
+
+    static void findFirstFree(MethodGenerator g, MethodContext cxt) {
+        g.lines(
+                "int capacityMask = this.capacityMask = keys.length - 1;",
+                "int firstFree = capacityMask;",
+                "while (" + isNotFree(cxt, "keys[firstFree]") + ")",
+                "    firstFree--;",
+                "this.firstFree = firstFree;"
+        );
+    }
+
     static void commonConstructorOps(MethodGenerator g, MethodContext cxt, boolean copyModCount) {
         if (cxt.mutable()) {
             String mc;
@@ -153,6 +178,12 @@ public final class HashIterMethodGeneratorCommons {
                 g.lines(cxt.keyType() + " " + removed(cxt) + " = this." + removed(cxt) + ";");
             }
         }
+        if (startFromFreeSlot(cxt)) {
+            g.lines(
+                    "int capacityMask = this.capacityMask;",
+                    "int firstFree = this.firstFree;"
+            );
+        }
     }
 
     static void copyArrays(MethodGenerator g, MethodContext cxt) {
@@ -39,7 +39,11 @@ public class HashIteratorMethodGenerator extends IteratorMethodGenerator {
     }
 
     private void loop() {
-        lines("while (--nextI >= 0)").block();
+        if (startFromFreeSlot(cxt)) {
+            lines("while ((nextI = (nextI - 1) & capacityMask) != firstFree)").block();
+        } else {
+            lines("while (--nextI >= 0)").block();
+        }
         ifKeyNotFreeOrRemoved(this, cxt, "nextI", false);
         if (cxt.isObjectKey())
             lines("// noinspection unchecked");
@@ -65,25 +69,30 @@ public class HashIteratorMethodGenerator extends IteratorMethodGenerator {
         }
         if (cxt.isIntegralKey()) {
             this.lines(cxt.keyType() + " " + free(cxt) + " = this." + free(cxt) + " = freeValue;");
-            if (cxt.mutable()) {
+            if (cxt.hasRemovedSlots()) {
                 this.lines(
                         (noRemoved(cxt) ? "" : cxt.keyType() + " " + removed(cxt) + " = ") +
                         "this." + removed(cxt) + " = removedValue;");
             }
         }
-        lines("int nextI = keys.length;");
+        if (startFromFreeSlot(cxt)) {
+            findFirstFree(this, cxt);
+            lines("int nextI = firstFree;");
+        } else {
+            lines("int nextI = keys.length;");
+        }
         loop();
     }
 
     @Override
     public void generateHasNext() {
-        ret("nextIndex >= 0");
+        ret(startFromFreeSlot(cxt) ? "nextIndex != firstFree" : "nextIndex >= 0");
     }
 
     @Override
     public void generateNext() {
         lines("int nextI;");
-        ifBlock("(nextI = nextIndex) >= 0");
+        ifBlock("(nextI = nextIndex) " + (startFromFreeSlot(cxt) ? "!= firstFree" : ">= 0"));
         checkModCount(this, cxt, true);
         if (cxt.mutable())
             lines("index = nextI;");
@@ -104,6 +113,24 @@ public class HashIteratorMethodGenerator extends IteratorMethodGenerator {
         lines("int i;");
         ifBlock("(i = index) >= 0");
         ifBlock("expectedModCount++ == " + modCount());
+        if (startFromFreeSlot(cxt)) {
+            lines(
+                    "index = -1;",
+                    "removeAt(i);"
+            );
+            if (cxt.isEntryView())
+                lines("int mc = expectedModCount;");
+            ifKeyNotFreeOrRemoved(this, cxt, "i", false);
+            lines(
+                    "// a key is shifted to the removed slot from the slots not visited yet",
+                    "nextIndex = i;",
+                    "next = " + makeNext(cxt, "i") + ";"
+            );
+            blockEnd();
+            endOfModCountCheck(this, cxt);
+            endOfIllegalStateCheck(this, cxt);
+            return;
+        }
         String keys = cxt.isObjectKey() ? "((Object[]) keys)" : "keys";
         lines(keys + "[i] = " + removed(cxt) + ";");
         if (cxt.isObjectValue()) {
@@ -123,7 +150,11 @@ public class HashIteratorMethodGenerator extends IteratorMethodGenerator {
         copyArrays(this, cxt);
         copySpecials(this, cxt);
         lines("int nextI = nextIndex;");
-        lines("for (int i = nextI; i >= 0; i--)").block();
+        if (startFromFreeSlot(cxt)) {
+            lines("for (int i = nextI; i != firstFree; i = (i - 1) & capacityMask)").block();
+        } else {
+            lines("for (int i = nextI; i >= 0; i--)").block();
+        }
         ifKeyNotFreeOrRemoved(this, cxt, "i", false);
         if (cxt.isObjectKey())
             lines("// noinspection unchecked");
@@ -135,7 +166,14 @@ public class HashIteratorMethodGenerator extends IteratorMethodGenerator {
         ifBlock(concurrentModCond);
         concurrentMod();
         blockEnd();
-        lines((cxt.mutable() ? "index = " : "") + "nextIndex = -1;");
+        if (startFromFreeSlot(cxt)) {
+            lines(
+                    "index = -1;",
+                    "nextIndex = firstFree;"
+            );
+        } else {
+            lines((cxt.mutable() ? "index = " : "") + "nextIndex = -1;");
+        }
     }
 
     private String elemType() {
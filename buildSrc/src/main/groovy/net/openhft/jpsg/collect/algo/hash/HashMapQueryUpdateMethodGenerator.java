@@ -72,6 +72,12 @@ public class HashMapQueryUpdateMethodGenerator extends MapQueryUpdateMethodGener
     public void insert(String value) {
         permissions.add(Permission.INSERT);
         if (method.inline()) {
+            if (cxt.robinHood()) {
+                // the key is inserted before the keys farther from their home slots
+                ifBlock(isNotFree(cxt, "keys[index]"));
+                lines("shiftForInsertion(index);");
+                blockEnd();
+            }
             lines("keys[" + index() + "] = " + unwrappedKey() + ";");
             if (cxt.isMapView())
                 lines(values() + "[" + index() + "] = " + unwrapValue(value) + ";");
@@ -243,7 +249,7 @@ public class HashMapQueryUpdateMethodGenerator extends MapQueryUpdateMethodGener
     private void generateAbsent(boolean removedSlot, boolean replaceValues) {
         String time = method.baseOp() == INSERT && !method.inline() ? "was" : "is";
         String comment = "// key " + time + " absent";
-        if (cxt.mutable() && method.inline()) {
+        if (cxt.hasRemovedSlots() && method.inline()) {
             comment += removedSlot ? ", removed slot" : ", free slot";
         }
         lines(comment);
@@ -381,6 +387,13 @@ public class HashMapQueryUpdateMethodGenerator extends MapQueryUpdateMethodGener
 
     @Override
     public MethodGenerator remove() {
+        permissions.add(REMOVE);
+        if (cxt.linearProbing()) {
+            // backward shift deletion is implemented by removeAt() of linear probing hashes
+            lines("removeAt(index);");
+            lines("shrinkIfTooSparse();");
+            return this;
+        }
         String keys;
         if (method.inline()) {
             keys = "keys";
@@ -395,7 +408,8 @@ public class HashMapQueryUpdateMethodGenerator extends MapQueryUpdateMethodGener
             lines(values() + "[index] = null;");
         }
         lines("postRemoveHook();");
-        permissions.add(REMOVE);
+        // the operation doesn't access the table after removal
+        lines("shrinkIfTooSparse();");
         return this;
     }
 
@@ -466,7 +480,7 @@ public class HashMapQueryUpdateMethodGenerator extends MapQueryUpdateMethodGener
     }
 
     private void innerInline() {
-        if (cxt.mutable() && (cxt.isObjectKey() || method.baseOp() != GET)) {
+        if (cxt.hasRemovedSlots() && (cxt.isObjectKey() || method.baseOp() != GET)) {
             if (method.baseOp() != GET)
                 lines("int firstRemoved;");
             if (!cxt.isObjectKey()) {
@@ -547,7 +561,8 @@ public class HashMapQueryUpdateMethodGenerator extends MapQueryUpdateMethodGener
         earlyAbsentLabel = false;
         if (cxt.isIntegralKey()) {
             if (method.baseOp() == GET) {
-                boolean isRemoveOp = permissions.contains(Permission.REMOVE);
+                boolean isRemoveOp = permissions.contains(Permission.REMOVE) &&
+                        cxt.hasRemovedSlots();
                 lines(cxt.keyType() + " free" + (isRemoveOp ? ", removed" : "") + ";");
                 if (separateAbsent) {
                     lines("keyAbsent:");
@@ -556,14 +571,14 @@ public class HashMapQueryUpdateMethodGenerator extends MapQueryUpdateMethodGener
 
                 String removed = isRemoveOp ? "(removed = removedValue)" : "removedValue";
                 ifBlock(unwrappedKey() + " != (free = freeValue)" +
-                        (cxt.mutable() ? " && " + unwrappedKey() + " != " + removed : ""));
+                        (cxt.hasRemovedSlots() ? " && " + unwrappedKey() + " != " + removed : ""));
             } else {
                 lines(cxt.keyType() + " free;");
-                if (cxt.mutable())
+                if (cxt.hasRemovedSlots())
                     lines(cxt.keyType() + " removed = removedValue;");
                 ifBlock(unwrappedKey() + " == (free = freeValue)");
                 lines("free = changeFree();");
-                if (cxt.mutable()) {
+                if (cxt.hasRemovedSlots()) {
                     elseIf(unwrappedKey() + " == removed");
                     lines("removed = changeRemoved();");
                 }
@@ -604,8 +619,8 @@ public class HashMapQueryUpdateMethodGenerator extends MapQueryUpdateMethodGener
     }
 
     private void countStep() {
-        if (!cxt.isNullKey()) {
-            lines(step());
+        if (!cxt.isNullKey() && !cxt.linearProbing()) {
+            lines(step(cxt));
         }
     }
 
@@ -615,7 +630,7 @@ public class HashMapQueryUpdateMethodGenerator extends MapQueryUpdateMethodGener
         if (method.mostProbableBranch() == KEY_PRESENT) {
             ifBlock("(cur = keys[index]) == " + unwrappedKey());
             generateOrGoToPresent();
-            elseIf(isFree(cxt, "cur"));
+            elseIf(absentCond("cur"));
             generateOrGoToAbsent(false);
             blockEnd();
             if (cxt.isObjectKey()) {
@@ -624,7 +639,7 @@ public class HashMapQueryUpdateMethodGenerator extends MapQueryUpdateMethodGener
                 blockEnd();
             }
         } else {
-            ifBlock(isFree(cxt, "(cur = keys[index])"));
+            ifBlock(absentCond("(cur = keys[index])"));
             generateOrGoToAbsent(false);
             String presentCond = "cur == " + unwrappedKey();
             if (cxt.isObjectKey()) {
@@ -637,9 +652,16 @@ public class HashMapQueryUpdateMethodGenerator extends MapQueryUpdateMethodGener
         blockEnd();
     }
 
+    private String absentCond(String cur) {
+        String cond = isFree(cxt, cur);
+        if (cxt.robinHood())
+            cond += " || " + shorterProbeDistance(cxt, "cur", "index");
+        return cond;
+    }
+
     private void nextIndex() {
         if (!cxt.isNullKey()) {
-            lines(HashMethodGeneratorCommons.nextIndex());
+            lines(HashMethodGeneratorCommons.nextIndex(cxt));
         } else {
             lines("index++;");
         }
@@ -721,7 +743,7 @@ public class HashMapQueryUpdateMethodGenerator extends MapQueryUpdateMethodGener
     }
 
     private String absentLabel() {
-        if (method.baseOp() != GET && cxt.mutable()) {
+        if (method.baseOp() != GET && cxt.hasRemovedSlots()) {
             return "keyAbsentFreeSlot";
         } else {
             return "keyAbsent";
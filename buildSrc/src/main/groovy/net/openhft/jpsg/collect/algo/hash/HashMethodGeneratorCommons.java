@@ -16,10 +16,8 @@
 
 package net.openhft.jpsg.collect.algo.hash;
 
-import net.openhft.jpsg.PrimitiveType;
 import net.openhft.jpsg.collect.MethodContext;
 
-import static java.lang.String.format;
 
 
 public final class HashMethodGeneratorCommons {
@@ -37,20 +35,67 @@ public final class HashMethodGeneratorCommons {
             String capacityAssignment = capacityAssigned ?
                     "capacity" :
                     ("(capacity = " + keys + ".length)");
-            String hashAssignment = "(hash = " + positiveKeyHash(cxt, key) + ")";
-            indexAssignment = "index = " + hashAssignment + " % " + capacityAssignment;
+            if (cxt.powerOfTwoCapacity()) {
+                String hashAssignment = "(hash = " + mixedKeyHash(cxt, key) + ")";
+                indexAssignment =
+                        "index = " + hashAssignment + " & (" + capacityAssignment + " - 1)";
+            } else {
+                String hashAssignment = "(hash = " + positiveKeyHash(cxt, key) + ")";
+                indexAssignment = "index = " + hashAssignment + " % " + capacityAssignment;
+            }
         } else {
             indexAssignment = "index = 0";
         }
         return keys + "[" + indexAssignment + "]";
     }
 
-    static String step() {
-        return "int step = (hash % (capacity - 2)) + 1;";
+    static String step(MethodContext cxt) {
+        if (cxt.linearProbing()) {
+            // step is always 1, see nextIndex()
+            throw new IllegalStateException();
+        } else if (cxt.powerOfTwoCapacity()) {
+            // odd step is coprime with power of 2 capacity, so probing visits all slots
+            return "int step = ((hash >>> 16) | 1) & (capacity - 1);";
+        } else {
+            return "int step = (hash % (capacity - 2)) + 1;";
+        }
+    }
+
+    static String nextIndex(MethodContext cxt) {
+        if (cxt.linearProbing()) {
+            return "index = (index - 1) & (capacity - 1); // nextIndex";
+        } else if (cxt.powerOfTwoCapacity()) {
+            return "index = (index - step) & (capacity - 1); // nextIndex";
+        } else {
+            return "if ((index -= step) < 0) index += capacity; // nextIndex";
+        }
+    }
+
+    /**
+     * Robin Hood hashes only: the probe distance of a key with the given {@code hash}
+     * (not masked), found in the slot {@code index}. Indexes descend on probing,
+     * see {@link #nextIndex(MethodContext)}.
+     */
+    static String probeDistance(String hash, String index) {
+        return "((" + hash + " - " + index + ") & (capacity - 1))";
     }
 
-    static String nextIndex() {
-        return "if ((index -= step) < 0) index += capacity; // nextIndex";
+    /**
+     * Robin Hood hashes only: the condition that the key {@code cur} in the slot {@code index}
+     * is closer to its home slot than the searched key with the {@code hash} would be,
+     * i. e. the searched key is absent and {@code index} is the slot to insert it to.
+     */
+    static String shorterProbeDistance(MethodContext cxt, String cur, String index) {
+        return probeDistance(mixedKeyHash(cxt, cur), index) + " < " +
+                probeDistance("hash", index);
+    }
+
+    private static String mixedKeyHash(MethodContext cxt, String key) {
+        if (cxt.isObjectKey()) {
+            return "HashMixing.mix(keyHashCode(" + key + "))";
+        } else {
+            return primitiveKeyMix(key);
+        }
     }
 
     private static String positiveKeyHash(MethodContext cxt, String key) {
@@ -59,23 +104,18 @@ public final class HashMethodGeneratorCommons {
         } else if (cxt.isNullKey()) {
             return "0";
         } else {
-            PrimitiveType keyOption = (PrimitiveType) cxt.keyOption();
-            switch (keyOption) {
-                case BYTE: return key + " & BYTE_MASK";
-                case SHORT: return key + " & SHORT_MASK";
-                case CHAR: return key;
-                case INT:
-                case FLOAT:
-                    return key + " & Integer.MAX_VALUE";
-                case LONG:
-                case DOUBLE:
-                    return format("((int) (%s ^ (%s >>> 32))) & Integer.MAX_VALUE", key, key);
-                default:
-                    throw new IllegalStateException();
-            }
+            return primitiveKeyMix(key) + " & Integer.MAX_VALUE";
         }
     }
 
+    /**
+     * Primitive keys are mixed as configured, see {@code KeyMixing}, by the {@code KeyMixer}
+     * resolved once per hash. mix(long) for long and double bits, mix(int) for other primitives.
+     */
+    private static String primitiveKeyMix(String key) {
+        return "keyMixer().mix(" + key + ")";
+    }
+
     static String isFree(MethodContext cxt, String key) {
         return key + " == " + free(cxt);
     }
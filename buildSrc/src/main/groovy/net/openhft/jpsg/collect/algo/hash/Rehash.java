@@ -38,10 +38,15 @@ public class Rehash extends BulkMethod {
     public void loopBody() {
         String key = gen.unwrappedKey();
         gen.lines("int hash, index;");
+        if (cxt.robinHood()) {
+            robinHoodLoopBody(key);
+            return;
+        }
         gen.ifBlock(isNotFree(cxt, firstKey(cxt, "newKeys", key, true)));
-        gen.lines(step());
+        if (!cxt.linearProbing())
+            gen.lines(step(cxt));
         gen.lines("do").block();
-        gen.lines(nextIndex());
+        gen.lines(nextIndex(cxt));
         gen.unIndent();
         gen.lines("} while (" + isNotFree(cxt, "newKeys[index]") + ");");
         gen.blockEnd();
@@ -49,4 +54,21 @@ public class Rehash extends BulkMethod {
         if (cxt.isMapView())
             gen.lines("newVals[index] = " + gen.unwrappedValue() + ";");
     }
+
+    private void robinHoodLoopBody(String key) {
+        gen.ifBlock(isNotFree(cxt, firstKey(cxt, "newKeys", key, true)));
+        gen.lines(cxt.keyUnwrappedRawType() + " cur;");
+        gen.lines("do").block();
+        gen.lines(nextIndex(cxt));
+        gen.unIndent();
+        gen.lines("} while (" + isNotFree(cxt, "(cur = newKeys[index])") + " &&");
+        gen.lines("        !(" + shorterProbeDistance(cxt, "cur", "index") + "));");
+        gen.ifBlock(isNotFree(cxt, "cur"));
+        gen.lines("shiftForInsertion(index);");
+        gen.blockEnd();
+        gen.blockEnd();
+        gen.lines("newKeys[index] = " + key + ";");
+        if (cxt.isMapView())
+            gen.lines("newVals[index] = " + gen.unwrappedValue() + ";");
+    }
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.hash;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+
+/**
+ * Allocation and explicit release of direct buffers, backing off-heap hashes.
+ *
+ * <p>There is no public API to free the memory of a direct buffer before it is garbage
+ * collected, so {@link #release(ByteBuffer)} calls the buffer cleaner reflectively:
+ * via {@code sun.misc.Unsafe.invokeCleaner()} on Java 9+, or via the {@code cleaner()} method
+ * of the buffer on older JVMs. If neither is accessible, the memory is freed by the garbage
+ * collector, as usual.
+ */
+final class DirectBuffers {
+
+    private static final byte[] ZEROS = new byte[4096];
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+    private static final Method CLEANER;
+    private static final Method CLEAN;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+        } catch (Exception e) {
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+
+        Method cleaner = null;
+        Method clean = null;
+        if (invokeCleaner == null) {
+            try {
+                cleaner = ByteBuffer.allocateDirect(1).getClass().getMethod("cleaner");
+                cleaner.setAccessible(true);
+                clean = cleaner.getReturnType().getMethod("clean");
+                clean.setAccessible(true);
+            } catch (Exception e) {
+                cleaner = null;
+            }
+        }
+        CLEANER = cleaner;
+        CLEAN = clean;
+    }
+
+    /**
+     * Allocates a zeroed direct buffer of the given size, with the native byte order.
+     */
+    static ByteBuffer allocate(int size) {
+        return ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+    }
+
+    static void zero(ByteBuffer buffer) {
+        ByteBuffer b = buffer.duplicate();
+        b.clear();
+        while (b.remaining() > ZEROS.length) {
+            b.put(ZEROS);
+        }
+        b.put(ZEROS, 0, b.remaining());
+    }
+
+    /**
+     * Frees the memory of the given direct buffer. The buffer, and all views of it,
+     * must not be accessed after this call.
+     */
+    static void release(ByteBuffer buffer) {
+        try {
+            if (INVOKE_CLEANER != null) {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            } else if (CLEANER != null) {
+                Object cleaner = CLEANER.invoke(buffer);
+                if (cleaner != null)
+                    CLEAN.invoke(cleaner);
+            }
+        } catch (Exception e) {
+            // the memory will be freed when the buffer is garbage collected
+        }
+    }
+
+    private DirectBuffers() {}
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.hash;
+
+import net.openhft.collect.KeyMixing;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.nio.ByteBuffer;
+
+
+/**
+ * Binary format of externalized hashes.
+ *
+ * <p>A hash is written as the format version byte, followed by the fields of the hash
+ * classes, from {@link MutableDHash}/{@link ImmutableDHash} down to the concrete class,
+ * including the raw arrays of the table. Reading restores the table exactly as it was,
+ * with the same capacity, free and removed values and slot positions, so no element is
+ * rehashed.
+ *
+ * <p>Arrays are written as the length, followed by the elements in big-endian order.
+ * The reading side reads the length with {@link #readLength(ObjectInput)}, allocates
+ * the array and fills it with {@code readArray()}. Lengths of the arrays, parallel to
+ * the table, are checked against its capacity. Elements are converted through a small
+ * buffer to bytes, so a large array is written and read with a few bulk operations,
+ * not an operation per element.
+ */
+final class Externalization {
+
+    static final int VERSION = 2;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    static void writeVersion(ObjectOutput out) throws IOException {
+        out.writeByte(VERSION);
+    }
+
+    static void readVersion(ObjectInput in) throws IOException {
+        int version = in.readByte();
+        if (version != VERSION)
+            throw new InvalidObjectException("Unsupported hash format version: " + version);
+    }
+
+    static void writeKeyMixing(ObjectOutput out, KeyMixing keyMixing) throws IOException {
+        out.writeByte(keyMixing.ordinal());
+    }
+
+    static KeyMixing readKeyMixing(ObjectInput in) throws IOException {
+        int ordinal = in.readByte();
+        KeyMixing[] values = KeyMixing.values();
+        if (ordinal < 0 || ordinal >= values.length)
+            throw new InvalidObjectException("Unknown key mixing: " + ordinal);
+        return values[ordinal];
+    }
+
+
+    static void writeArray(ObjectOutput out, byte[] a) throws IOException {
+        out.writeInt(a.length);
+        out.write(a);
+    }
+
+    static void readArray(ObjectInput in, byte[] a) throws IOException {
+        in.readFully(a);
+    }
+
+    static void writeArray(ObjectOutput out, char[] a) throws IOException {
+        out.writeInt(a.length);
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        int chunk = BUFFER_SIZE / 2;
+        for (int from = 0; from < a.length; from += chunk) {
+            int len = Math.min(chunk, a.length - from);
+            buffer.asCharBuffer().put(a, from, len);
+            out.write(buffer.array(), 0, len * 2);
+        }
+    }
+
+    static void readArray(ObjectInput in, char[] a) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        int chunk = BUFFER_SIZE / 2;
+        for (int from = 0; from < a.length; from += chunk) {
+            int len = Math.min(chunk, a.length - from);
+            in.readFully(buffer.array(), 0, len * 2);
+            buffer.asCharBuffer().get(a, from, len);
+        }
+    }
+
+    static void writeArray(ObjectOutput out, short[] a) throws IOException {
+        out.writeInt(a.length);
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        int chunk = BUFFER_SIZE / 2;
+        for (int from = 0; from < a.length; from += chunk) {
+            int len = Math.min(chunk, a.length - from);
+            buffer.asShortBuffer().put(a, from, len);
+            out.write(buffer.array(), 0, len * 2);
+        }
+    }
+
+    static void readArray(ObjectInput in, short[] a) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        int chunk = BUFFER_SIZE / 2;
+        for (int from = 0; from < a.length; from += chunk) {
+            int len = Math.min(chunk, a.length - from);
+            in.readFully(buffer.array(), 0, len * 2);
+            buffer.asShortBuffer().get(a, from, len);
+        }
+    }
+
+    static void writeArray(ObjectOutput out, int[] a) throws IOException {
+        out.writeInt(a.length);
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        int chunk = BUFFER_SIZE / 4;
+        for (int from = 0; from < a.length; from += chunk) {
+            int len = Math.min(chunk, a.length - from);
+            buffer.asIntBuffer().put(a, from, len);
+            out.write(buffer.array(), 0, len * 4);
+        }
+    }
+
+    static void readArray(ObjectInput in, int[] a) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        int chunk = BUFFER_SIZE / 4;
+        for (int from = 0; from < a.length; from += chunk) {
+            int len = Math.min(chunk, a.length - from);
+            in.readFully(buffer.array(), 0, len * 4);
+            buffer.asIntBuffer().get(a, from, len);
+        }
+    }
+
+    static void writeArray(ObjectOutput out, long[] a) throws IOException {
+        out.writeInt(a.length);
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        int chunk = BUFFER_SIZE / 8;
+        for (int from = 0; from < a.length; from += chunk) {
+            int len = Math.min(chunk, a.length - from);
+            buffer.asLongBuffer().put(a, from, len);
+            out.write(buffer.array(), 0, len * 8);
+        }
+    }
+
+    static void readArray(ObjectInput in, long[] a) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        int chunk = BUFFER_SIZE / 8;
+        for (int from = 0; from < a.length; from += chunk) {
+            int len = Math.min(chunk, a.length - from);
+            in.readFully(buffer.array(), 0, len * 8);
+            buffer.asLongBuffer().get(a, from, len);
+        }
+    }
+
+    static int readLength(ObjectInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0)
+            throw new InvalidObjectException("Negative array length: " + length);
+        return length;
+    }
+
+    /**
+     * Reads the length of an array, parallel to the table array of the given length,
+     * like the values array of a map.
+     */
+    static int readLength(ObjectInput in, int tableLength) throws IOException {
+        int length = in.readInt();
+        if (length != tableLength) {
+            throw new InvalidObjectException("Array length " + length +
+                    " doesn't match the table capacity " + tableLength);
+        }
+        return length;
+    }
+
+    /**
+     * Checks the capacity of the read table. Power of 2 capacities are required
+     * by the algorithms, which mask hash codes to get indexes.
+     */
+    static void checkCapacity(int capacity, int size, boolean powerOfTwo)
+            throws InvalidObjectException {
+        if (size < 0 || size > capacity ||
+                (powerOfTwo && Integer.bitCount(capacity) != 1)) {
+            throw new InvalidObjectException(
+                    "Invalid capacity " + capacity + " for size " + size);
+        }
+    }
+
+    private Externalization() {}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.hash;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+
+/**
+ * Memory fences, which are not a part of the Java API before Java 9.
+ *
+ * <p>Validation of optimistic reads needs the reads of the table to be ordered before
+ * the re-read of the version, a volatile read doesn't order preceding ordinary reads.
+ * {@link #loadFence()} calls {@code sun.misc.Unsafe.loadFence()} (Java 8+) reflectively.
+ * If it is not accessible, {@link #hasLoadFence()} returns {@code false} and the callers
+ * shouldn't read optimistically.
+ */
+final class Fences {
+
+    private static final Object UNSAFE;
+    private static final Method LOAD_FENCE;
+
+    static {
+        Object unsafe = null;
+        Method loadFence = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            loadFence = unsafeClass.getMethod("loadFence");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            loadFence.invoke(unsafe);
+        } catch (Exception e) {
+            loadFence = null;
+        }
+        UNSAFE = unsafe;
+        LOAD_FENCE = loadFence;
+    }
+
+    static boolean hasLoadFence() {
+        return LOAD_FENCE != null;
+    }
+
+    /**
+     * Ensures that reads before the fence are not reordered with reads and writes
+     * after the fence. Should be called only if {@link #hasLoadFence()}.
+     */
+    static void loadFence() {
+        try {
+            LOAD_FENCE.invoke(UNSAFE);
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private Fences() {}
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.hash;
+
+import net.openhft.collect.KeyMixing;
+
+
+/**
+ * Key hash mixing for hashes with power of 2 capacities, which take low bits of the mixed hash
+ * as index, and the next higher bits as probe step. Plain key hash codes, sequential
+ * or with stride, would cluster in such a table.
+ *
+ * <p>Hashes with primitive keys mix keys with the {@link KeyMixing} chosen in the config,
+ * through the {@link KeyMixer} resolved from it.
+ */
+final class HashMixing {
+
+    private static final int INT_PHI_MAGIC = 0x9E3779B9;
+    private static final long LONG_PHI_MAGIC = 0x9E3779B97F4A7C15L;
+
+    static int mix(int hash) {
+        int h = hash * INT_PHI_MAGIC;
+        return h ^ (h >>> 16);
+    }
+
+    static int mix(long hash) {
+        long h = hash * LONG_PHI_MAGIC;
+        h ^= h >>> 32;
+        return (int) (h ^ (h >>> 16));
+    }
+
+    /** Murmur3 {@code fmix32} */
+    static int murmur3(int hash) {
+        int h = hash;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+
+    /** Murmur3 {@code fmix64}, folded to {@code int} */
+    static int murmur3(long hash) {
+        long h = hash;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private HashMixing() {}
+}
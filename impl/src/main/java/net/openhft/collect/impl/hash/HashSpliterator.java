@@ -0,0 +1,82 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.hash;
+
+
+/**
+ * Common state of the spliterators of hashes, which traverse a range of the slots
+ * of the table in descending order, like the iterators of hashes.
+ *
+ * <p>{@link #split()} splits the remaining slots in halves, the estimated number
+ * of elements is halved too. The spliterator of the whole table knows its exact size.
+ */
+abstract class HashSpliterator {
+
+    final int expectedModCount;
+
+    /** The lowest slot index to traverse, inclusive. */
+    final int lo;
+
+    /** The index of the slot traversed last, the remaining slots are {@code [lo, index)}. */
+    int index;
+
+    long estimate;
+    boolean exact;
+
+    HashSpliterator(int expectedModCount, int lo, int index, long estimate, boolean exact) {
+        this.expectedModCount = expectedModCount;
+        this.lo = lo;
+        this.index = index;
+        this.estimate = estimate;
+        this.exact = exact;
+    }
+
+    /**
+     * Gives away the upper half of the remaining slots, {@code [result, index)} before
+     * the call.
+     *
+     * @return the lowest slot index of the given away half, or {@code -1} if less than
+     *         two slots remain
+     */
+    final int split() {
+        int lo = this.lo, mid = (lo + index) >>> 1;
+        if (mid <= lo)
+            return -1;
+        index = mid;
+        estimate >>>= 1;
+        exact = false;
+        return mid;
+    }
+
+    final void advanced() {
+        if (exact)
+            estimate--;
+    }
+
+    final void finished() {
+        index = lo;
+        estimate = 0;
+    }
+
+    public final long estimateSize() {
+        return estimate;
+    }
+
+    public final long getExactSizeIfKnown() {
+        return exact ? estimate : -1;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.hash;
+
+import net.openhft.collect.KeyMixing;
+
+
+/**
+ * {@link KeyMixing} resolved to the function, once per hash. Hashes keep the mixer in a field
+ * and call it on every lookup without checking which mixing is configured.
+ *
+ * <p>Each mixer is a separate class, loaded on the first {@link #of(KeyMixing)} call
+ * for its mixing, so while an application uses a single mixing the call site
+ * has a single receiver class.
+ */
+abstract class KeyMixer {
+
+    static KeyMixer of(KeyMixing mixing) {
+        switch (mixing) {
+            case NONE: return NoMixer.INSTANCE;
+            case MULTIPLY_SHIFT: return MultiplyShiftMixer.INSTANCE;
+            case MURMUR3: return Murmur3Mixer.INSTANCE;
+            default: throw new AssertionError();
+        }
+    }
+
+    /** @return mixed {@code int} (or narrower) key */
+    abstract int mix(int key);
+
+    /** @return mixed {@code long} key, or the bits of {@code double} key */
+    abstract int mix(long key);
+
+
+    private static final class NoMixer extends KeyMixer {
+        static final KeyMixer INSTANCE = new NoMixer();
+
+        @Override
+        int mix(int key) {
+            return key;
+        }
+
+        @Override
+        int mix(long key) {
+            return (int) (key ^ (key >>> 32));
+        }
+    }
+
+    private static final class MultiplyShiftMixer extends KeyMixer {
+        static final KeyMixer INSTANCE = new MultiplyShiftMixer();
+
+        @Override
+        int mix(int key) {
+            return HashMixing.mix(key);
+        }
+
+        @Override
+        int mix(long key) {
+            return HashMixing.mix(key);
+        }
+    }
+
+    private static final class Murmur3Mixer extends KeyMixer {
+        static final KeyMixer INSTANCE = new Murmur3Mixer();
+
+        @Override
+        int mix(int key) {
+            return HashMixing.murmur3(key);
+        }
+
+        @Override
+        int mix(long key) {
+            return HashMixing.murmur3(key);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.hash;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+import static net.openhft.collect.impl.hash.Externalization.*;
+
+
+/**
+ * Minimal perfect hash function of a fixed set of primitive keys, widened to {@code long},
+ * built by "hash and displace" (CHD, PTHash): keys are distributed to small buckets, each bucket
+ * gets a pilot, displacing all keys of the bucket to slots not taken by keys of the buckets
+ * placed before. Buckets are placed from the largest to the smallest, while free slots are
+ * still plentiful.
+ *
+ * <p>Pilots displace keys to the range of about {@code n / 0.99} slots, not {@code n}: when
+ * the last keys are placed, at least one slot of a hundred is free, so a bucket of a single
+ * key takes about 100 tries at most, and the number of tries per key doesn't depend
+ * on {@code n}, it is about 34 on average. With exactly {@code n} slots the last keys take
+ * about {@code n} tries each, {@code n ln n} tries in total. The keys, displaced beyond
+ * {@code n}, are remapped to the slots below {@code n}, left free.
+ *
+ * <p>Maps the {@code n} keys to {@code [0, n)} without collisions, so a table of exactly
+ * {@code n} slots holds them all and a lookup reads one pilot and one slot, and a word
+ * of the remapping array for one key of a hundred. Absent keys are mapped to arbitrary slots,
+ * the caller compares the key in the slot. Takes about 8.3 bits per key.
+ *
+ * <p>Seeds are taken from a fixed sequence, so the function, and the layout of the table,
+ * built from the same keys are the same in every run.
+ */
+final class MinimalPerfectHash {
+
+    /** Average number of keys per bucket. */
+    private static final int BUCKET_SIZE = 4;
+
+    /** The number of slots of the range, per one slot beyond {@code n}. */
+    private static final int SLOTS_PER_EXTRA_SLOT = 100;
+
+    /**
+     * Pilot search gives up at this number of tries per bucket and the whole function is
+     * rebuilt with the next seed, normally the search takes about 100 tries at most.
+     */
+    private static final int MAX_PILOT_TRIES = 1 << 20;
+
+    /** Seeds of the attempts to build the function are the hashes of the attempt numbers. */
+    private static final long SEED_SEQUENCE = 0x2545F4914F6CDD1DL;
+
+    private final long seed;
+    private final int size;
+    private final int[] pilots;
+    /** The slots below {@code size}, the slots of the range from {@code size} map to. */
+    private final int[] remap;
+
+    private MinimalPerfectHash(long seed, int size, int[] pilots, int[] remap) {
+        this.seed = seed;
+        this.size = size;
+        this.pilots = pilots;
+        this.remap = remap;
+    }
+
+    /**
+     * Builds the function of the given keys.
+     *
+     * @param keys the keys, no duplicates, at least one key
+     * @param slots the array of the same length as {@code keys}, receives the slot of each key
+     * @return the function
+     */
+    static MinimalPerfectHash build(long[] keys, int[] slots) {
+        for (long attempt = 0; ; attempt++) {
+            MinimalPerfectHash function = tryBuild(hash(attempt, SEED_SEQUENCE), keys, slots);
+            if (function != null)
+                return function;
+        }
+    }
+
+    private static MinimalPerfectHash tryBuild(long seed, long[] keys, int[] slots) {
+        int size = keys.length;
+        int range = range(size);
+        int bucketCount = bucketCount(size);
+        long[] hashes = new long[size];
+        int[] bucketStarts = new int[bucketCount + 1];
+        for (int i = 0; i < size; i++) {
+            long hash = hashes[i] = hash(keys[i], seed);
+            bucketStarts[bucket(hash, bucketCount) + 1]++;
+        }
+        int maxBucketSize = 0;
+        for (int b = 0; b < bucketCount; b++) {
+            maxBucketSize = Math.max(maxBucketSize, bucketStarts[b + 1]);
+            bucketStarts[b + 1] += bucketStarts[b];
+        }
+        // counting sort of keys by buckets
+        int[] bucketKeys = new int[size];
+        int[] fill = new int[bucketCount];
+        for (int i = 0; i < size; i++) {
+            int b = bucket(hashes[i], bucketCount);
+            bucketKeys[bucketStarts[b] + fill[b]++] = i;
+        }
+        // counting sort of buckets by sizes, descending
+        int[] sizeStarts = new int[maxBucketSize + 2];
+        for (int b = 0; b < bucketCount; b++) {
+            sizeStarts[maxBucketSize - (bucketStarts[b + 1] - bucketStarts[b]) + 1]++;
+        }
+        for (int s = 0; s <= maxBucketSize; s++) {
+            sizeStarts[s + 1] += sizeStarts[s];
+        }
+        int[] order = new int[bucketCount];
+        for (int b = 0; b < bucketCount; b++) {
+            int s = maxBucketSize - (bucketStarts[b + 1] - bucketStarts[b]);
+            order[sizeStarts[s]++] = b;
+        }
+
+        int[] pilots = new int[bucketCount];
+        long[] taken = new long[((range - 1) >> 6) + 1];
+        int[] bucketSlots = new int[maxBucketSize];
+        for (int b : order) {
+            int from = bucketStarts[b], to = bucketStarts[b + 1];
+            if (from == to)
+                break; // empty buckets are the last, their pilots stay 0
+            pilotSearch:
+            for (int pilot = 0; ; pilot++) {
+                if (pilot == MAX_PILOT_TRIES)
+                    return null;
+                long pilotHash = pilotHash(pilot);
+                for (int i = from; i < to; i++) {
+                    int slot = slot(hashes[bucketKeys[i]], pilotHash, range);
+                    if ((taken[slot >> 6] & (1L << slot)) != 0L)
+                        continue pilotSearch;
+                    for (int j = from; j < i; j++) {
+                        if (bucketSlots[j - from] == slot)
+                            continue pilotSearch;
+                    }
+                    bucketSlots[i - from] = slot;
+                }
+                pilots[b] = pilot;
+                for (int i = from; i < to; i++) {
+                    int slot = bucketSlots[i - from];
+                    taken[slot >> 6] |= 1L << slot;
+                    slots[bucketKeys[i]] = slot;
+                }
+                break;
+            }
+        }
+
+        // the slots beyond size, taken by keys, are as many as the free slots below size
+        int[] remap = new int[range - size];
+        int free = 0;
+        for (int slot = size; slot < range; slot++) {
+            if ((taken[slot >> 6] & (1L << slot)) != 0L) {
+                while ((taken[free >> 6] & (1L << free)) != 0L) {
+                    free++;
+                }
+                remap[slot - size] = free++;
+            }
+        }
+        if (remap.length > 0) {
+            for (int i = 0; i < size; i++) {
+                int slot = slots[i];
+                if (slot >= size)
+                    slots[i] = remap[slot - size];
+            }
+        }
+        return new MinimalPerfectHash(seed, size, pilots, remap);
+    }
+
+    private static int range(int size) {
+        return size + size / SLOTS_PER_EXTRA_SLOT;
+    }
+
+    private static int bucketCount(int size) {
+        return (size - 1) / BUCKET_SIZE + 1;
+    }
+
+    /** Murmur3 {@code fmix64} of the seeded key, a bijection, so distinct keys never collide. */
+    private static long hash(long key, long seed) {
+        long h = key ^ seed;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    private static int bucket(long hash, int bucketCount) {
+        // high 32 bits scaled to [0, bucketCount) by multiplication instead of division
+        return (int) (((hash >>> 32) * bucketCount) >>> 32);
+    }
+
+    private static long pilotHash(int pilot) {
+        return hash(pilot, 0x9E3779B97F4A7C15L);
+    }
+
+    private static int slot(long hash, long pilotHash, int size) {
+        long h = (hash ^ pilotHash) * 0x9E3779B97F4A7C15L;
+        // low 32 bits are mixed poorly by the multiplication, scale the high ones
+        return (int) (((h >>> 32) * size) >>> 32);
+    }
+
+    /**
+     * Returns the slot of the key, one of the keys, of which the function is built,
+     * or an arbitrary slot in {@code [0, size)}.
+     */
+    int index(long key) {
+        long hash = hash(key, seed);
+        int slot = slot(hash, pilotHash(pilots[bucket(hash, pilots.length)]), range(size));
+        return slot < size ? slot : remap[slot - size];
+    }
+
+    /** The number of keys, the function maps them to {@code [0, size)} */
+    int size() {
+        return size;
+    }
+
+    void writeExternal(ObjectOutput out) throws IOException {
+        out.writeLong(seed);
+        out.writeInt(size);
+        writeArray(out, pilots);
+        writeArray(out, remap);
+    }
+
+    static MinimalPerfectHash readExternal(ObjectInput in) throws IOException {
+        long seed = in.readLong();
+        int size = in.readInt();
+        int[] pilots = new int[readLength(in)];
+        if (size <= 0 || pilots.length != bucketCount(size))
+            throw new InvalidObjectException("Corrupted perfect hash function");
+        readArray(in, pilots);
+        int[] remap = new int[readLength(in)];
+        if (remap.length != range(size) - size)
+            throw new InvalidObjectException("Corrupted perfect hash function");
+        readArray(in, remap);
+        for (int slot : remap) {
+            if (slot < 0 || slot >= size)
+                throw new InvalidObjectException("Corrupted perfect hash function");
+        }
+        return new MinimalPerfectHash(seed, size, pilots, remap);
+    }
+}
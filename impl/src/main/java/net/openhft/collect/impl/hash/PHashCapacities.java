@@ -0,0 +1,53 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.hash;
+
+
+/**
+ * Power of 2 capacities, let PHash compute index and probe step with bit masks instead of
+ * integer division.
+ */
+final class PHashCapacities {
+
+    /**
+     * @param desiredSize must be non-negative
+     * @param loadFactor must be in (0.0, 1.0) range
+     * @param currentSize could be negative because of overflow
+     * @return best capacity for PHash
+     */
+    static int bestCapacity(long desiredSize, double loadFactor, int currentSize) {
+        long desiredCapacity = ((long) (desiredSize / loadFactor)) + 1;
+        if (0 < desiredCapacity) {
+            if (desiredCapacity <= MIN_CAPACITY)
+                return MIN_CAPACITY;
+            if (desiredCapacity <= MAX_CAPACITY)
+                return (int) Long.highestOneBit(desiredCapacity - 1) << 1;
+        }
+        if (currentSize - MAX_CAPACITY < 0) {
+            return MAX_CAPACITY;
+        } else {
+            // PHash must have at least 1 free slot, next power of 2 exceeds Java array size limit
+            throw new OutOfMemoryError();
+        }
+    }
+
+    static final int MIN_CAPACITY = 4;
+
+    public static final int MAX_CAPACITY = 1 << 30;
+
+    private PHashCapacities() {}
+}
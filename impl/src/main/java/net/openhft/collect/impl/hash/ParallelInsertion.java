@@ -0,0 +1,412 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.hash;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ * Insertion of many keys into the table of a linear probing hash in a {@link ForkJoinPool},
+ * which doesn't require rehash. The resulting table is the same as if the keys were inserted
+ * sequentially, in the input order.
+ *
+ * <p>The table is split into contiguous regions. Keys are partitioned by the regions
+ * of their first slots, keeping the input order within each region, then a task per region
+ * probes and inserts the keys of the region. A task writes only the slots of its region,
+ * so tasks don't synchronize. If probing of a key leaves the region, the key is deferred
+ * to the next round, in which it continues probing from the slot outside the region,
+ * by the task of the region of that slot. Rounds repeat while there are many deferred keys,
+ * the rest is inserted sequentially by the caller, who then calls {@link #reorderClusters}.
+ *
+ * <p>Slots are only filled, never emptied, so every slot a key has probed past remains
+ * occupied and the key is found by the usual lookup. All occurrences of a key probe
+ * the same slots and are processed by the same task in the input order in every round,
+ * so the last value of a duplicate key wins, like in sequential insertion.
+ *
+ * <p>With linear probing the set of occupied slots doesn't depend on the insertion order,
+ * and a key occupies a slot of the cluster (a maximal run of occupied slots) of its first
+ * slot. Only the order of keys within clusters depends on the insertion order, deferred
+ * keys could lose slots to keys, which follow them in the input. {@link #reorderClusters}
+ * restores the sequential order: the keys of each cluster are reinserted into its slots
+ * in the order of their input positions, remembered on insertion.
+ *
+ * <p>Subclasses implement access to the table of the concrete hash, see
+ * {@link #firstIndexes}, {@link #insert}, {@link #isFree}, {@link #firstIndex}
+ * and {@link #move}.
+ */
+abstract class ParallelInsertion {
+
+    /** The minimum number of keys, worth inserting in parallel. */
+    static final int MIN_PARALLEL_SIZE = 1 << 16;
+
+    /** Returned by {@link #firstIndexes} for keys to insert sequentially. */
+    static final int SEQUENTIAL = -1;
+
+    private static final int MIN_REGION_SIZE = 1 << 12;
+    private static final int TASKS_PER_THREAD = 4;
+    private static final int BATCH = 1024;
+
+    private final ForkJoinPool pool;
+    private final int capacity;
+    private final int regionSize;
+    private final int regions;
+    private final int tasks;
+
+    /**
+     * The input positions of the keys, inserted to the slots, plus one, or zero for the slots
+     * occupied before the insertion.
+     */
+    private final int[] slotPositions;
+
+    private int inserted = 0;
+
+    ParallelInsertion(ForkJoinPool pool, int capacity) {
+        this.pool = pool;
+        this.capacity = capacity;
+        tasks = pool.getParallelism() * TASKS_PER_THREAD;
+        int regions = Math.max(1, Math.min(tasks, capacity / MIN_REGION_SIZE));
+        regionSize = (capacity + regions - 1) / regions;
+        this.regions = (capacity + regionSize - 1) / regionSize;
+        slotPositions = new int[capacity];
+    }
+
+    /**
+     * Stores the indexes of the first slots of the keys at the input positions
+     * {@code [from, from + len)} to {@code indexes[0..len)}, or {@link #SEQUENTIAL} for keys
+     * which should be inserted sequentially, for example equal to the free value.
+     */
+    abstract void firstIndexes(int from, int len, int[] indexes);
+
+    /**
+     * Inserts the keys at the input positions {@code positions[i]}, for each {@code i}
+     * in {@code [from, to)} in order, continuing probing from the slots {@code indexes[i]},
+     * which are in the region {@code [lo, hi)}. Slots outside the region must not be read
+     * or written. If a key is inserted, or its value is updated, stores {@code -1}
+     * to {@code positions[i]}, if probing leaves the region, stores the index of the first
+     * slot outside the region to {@code indexes[i]}. Keys, inserted to free slots, must be
+     * reported via {@link #inserted(int, int)}.
+     *
+     * @return the number of keys inserted to free slots
+     */
+    abstract int insert(int[] positions, int[] indexes, int from, int to, int lo, int hi);
+
+    /**
+     * Returns {@code true} if the slot is free.
+     */
+    abstract boolean isFree(int index);
+
+    /**
+     * Returns the index of the first slot of the key in the given occupied slot.
+     */
+    abstract int firstIndex(int index);
+
+    /**
+     * Moves the entries from the slots {@code from[i]} to the slots {@code to[i]},
+     * for each {@code i} in {@code [0, len)}, simultaneously. {@code to} is a permutation
+     * of {@code from}.
+     */
+    abstract void move(int[] from, int[] to, int len);
+
+    /**
+     * Remembers that the key at the input {@code position} is inserted to the free slot.
+     * Should be called by {@link #insert(int[], int[], int, int, int, int)}, and by the caller
+     * for the keys, it inserts sequentially.
+     */
+    final void inserted(int index, int position) {
+        slotPositions[index] = position + 1;
+    }
+
+    /**
+     * Inserts the keys at the input positions {@code [0, size)} in parallel.
+     *
+     * @return the input positions of the keys left to insert sequentially, in the order
+     *         of insertion
+     */
+    final int[] insert(int size) {
+        int[] positions = new int[size];
+        int[] indexes = new int[size];
+        int[] starts = partition(null, null, size, positions, indexes);
+        int[] sequential = Arrays.copyOfRange(positions, starts[regions], size);
+        int deferred = insertRegions(positions, indexes, starts);
+        while (deferred >= MIN_PARALLEL_SIZE) {
+            int[] newPositions = new int[deferred];
+            int[] newIndexes = new int[deferred];
+            starts = partition(positions, indexes, deferred, newPositions, newIndexes);
+            positions = newPositions;
+            indexes = newIndexes;
+            deferred = insertRegions(positions, indexes, starts);
+        }
+        int[] rest = new int[deferred + sequential.length];
+        System.arraycopy(positions, 0, rest, 0, deferred);
+        System.arraycopy(sequential, 0, rest, deferred, sequential.length);
+        return rest;
+    }
+
+    /**
+     * Returns the number of keys, inserted to free slots by {@link #insert(int)}.
+     */
+    final int inserted() {
+        return inserted;
+    }
+
+    /**
+     * Stable counting sort of the keys by regions, keys to insert sequentially go after all
+     * regions. If {@code srcPositions} is {@code null}, the keys are the input positions
+     * {@code [0, size)}, otherwise the keys are at {@code srcPositions[0..size)},
+     * probing from {@code srcIndexes}.
+     *
+     * @return starts of the regions in the sorted arrays, {@code regions + 2} elements
+     */
+    private int[] partition(final int[] srcPositions, final int[] srcIndexes, final int size,
+            final int[] positions, final int[] indexes) {
+        final int buckets = regions + 1;
+        final int chunks = Math.max(1, Math.min(tasks, size / BATCH));
+        final int[][] next = new int[chunks][];
+        List<RecursiveAction> actions = new ArrayList<RecursiveAction>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            final int chunk = c;
+            actions.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    int[] counts = new int[buckets];
+                    partitionChunk(srcPositions, srcIndexes, chunkStart(chunk, chunks, size),
+                            chunkStart(chunk + 1, chunks, size), counts, null, null);
+                    next[chunk] = counts;
+                }
+            });
+        }
+        runAll(actions);
+
+        int[] starts = new int[buckets + 1];
+        int offset = 0;
+        for (int b = 0; b < buckets; b++) {
+            starts[b] = offset;
+            for (int c = 0; c < chunks; c++) {
+                int count = next[c][b];
+                next[c][b] = offset;
+                offset += count;
+            }
+        }
+        starts[buckets] = offset;
+
+        actions.clear();
+        for (int c = 0; c < chunks; c++) {
+            final int chunk = c;
+            actions.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    partitionChunk(srcPositions, srcIndexes, chunkStart(chunk, chunks, size),
+                            chunkStart(chunk + 1, chunks, size), next[chunk],
+                            positions, indexes);
+                }
+            });
+        }
+        runAll(actions);
+        return starts;
+    }
+
+    private static int chunkStart(int chunk, int chunks, int size) {
+        return (int) ((long) chunk * size / chunks);
+    }
+
+    /**
+     * Counts the keys of the chunk by regions if {@code positions} is {@code null},
+     * otherwise moves them to the positions of the regions, starting from {@code next}.
+     */
+    private void partitionChunk(int[] srcPositions, int[] srcIndexes, int from, int to,
+            int[] next, int[] positions, int[] indexes) {
+        if (srcPositions == null) {
+            int[] batch = new int[BATCH];
+            for (int batchFrom = from; batchFrom < to; batchFrom += BATCH) {
+                int len = Math.min(BATCH, to - batchFrom);
+                firstIndexes(batchFrom, len, batch);
+                for (int i = 0; i < len; i++) {
+                    int index = batch[i];
+                    int dest = next[index != SEQUENTIAL ? index / regionSize : regions]++;
+                    if (positions != null) {
+                        positions[dest] = batchFrom + i;
+                        indexes[dest] = index;
+                    }
+                }
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                int index = srcIndexes[i];
+                int dest = next[index / regionSize]++;
+                if (positions != null) {
+                    positions[dest] = srcPositions[i];
+                    indexes[dest] = index;
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs {@link #insert(int[], int[], int, int, int, int)} for all regions and moves
+     * the deferred keys to the beginning of the arrays, keeping their order.
+     *
+     * @return the number of deferred keys
+     */
+    private int insertRegions(final int[] positions, final int[] indexes, final int[] starts) {
+        final int[] insertedIn = new int[regions];
+        final int[] deferredIn = new int[regions];
+        List<RecursiveAction> actions = new ArrayList<RecursiveAction>(regions);
+        for (int r = 0; r < regions; r++) {
+            final int region = r;
+            if (starts[region] == starts[region + 1])
+                continue;
+            actions.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    int from = starts[region], to = starts[region + 1];
+                    int lo = region * regionSize;
+                    int hi = Math.min(capacity, lo + regionSize);
+                    insertedIn[region] = insert(positions, indexes, from, to, lo, hi);
+                    int deferred = from;
+                    for (int i = from; i < to; i++) {
+                        int position = positions[i];
+                        if (position >= 0) {
+                            positions[deferred] = position;
+                            indexes[deferred] = indexes[i];
+                            deferred++;
+                        }
+                    }
+                    deferredIn[region] = deferred - from;
+                }
+            });
+        }
+        runAll(actions);
+        int deferred = 0;
+        for (int r = 0; r < regions; r++) {
+            inserted += insertedIn[r];
+            int d = deferredIn[r];
+            System.arraycopy(positions, starts[r], positions, deferred, d);
+            System.arraycopy(indexes, starts[r], indexes, deferred, d);
+            deferred += d;
+        }
+        return deferred;
+    }
+
+    /**
+     * Reorders the keys within the clusters to the slots, they would occupy if inserted
+     * sequentially in the input order, after the slots, occupied before the insertion.
+     * Should be called after all keys are inserted. A cluster is reordered by the task
+     * of the region of its first probed slot, the slot below a free one, so clusters crossing
+     * the regions are reordered by one task, and no slot becomes free or occupied.
+     * The capacity of linear probing tables is a power of two.
+     */
+    final void reorderClusters() {
+        final int mask = capacity - 1;
+        List<RecursiveAction> actions = new ArrayList<RecursiveAction>(regions);
+        for (int r = 0; r < regions; r++) {
+            final int region = r;
+            actions.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    int lo = region * regionSize;
+                    int hi = Math.min(capacity, lo + regionSize);
+                    ClusterBuffers buffers = new ClusterBuffers();
+                    for (int top = lo; top < hi; top++) {
+                        if (!isFree(top) && isFree((top + 1) & mask))
+                            reorderCluster(top, mask, buffers);
+                    }
+                }
+            });
+        }
+        runAll(actions);
+    }
+
+    /**
+     * Reorders the cluster, which is probed from the slot {@code top} downwards.
+     */
+    private void reorderCluster(int top, int mask, ClusterBuffers buffers) {
+        int len = 0;
+        for (int index = top; !isFree(index); index = (index - 1) & mask) {
+            len++;
+        }
+        if (len == 1)
+            return;
+        buffers.ensureLength(len);
+        long[] order = buffers.order;
+        boolean[] taken = buffers.taken;
+        int[] from = buffers.from;
+        int[] to = buffers.to;
+        // offsets of the slots in the cluster, in the probing order from the top
+        int newKeys = 0;
+        for (int offset = 0; offset < len; offset++) {
+            int index = (top - offset) & mask;
+            int position = slotPositions[index] - 1;
+            if (position < 0) {
+                // occupied before the insertion, stays
+                taken[offset] = true;
+            } else {
+                taken[offset] = false;
+                order[newKeys++] = ((long) position << 32) | offset;
+            }
+        }
+        Arrays.sort(order, 0, newKeys);
+        int moves = 0;
+        for (int i = 0; i < newKeys; i++) {
+            int offset = (int) order[i];
+            int index = (top - offset) & mask;
+            // the first slot of a key is in its cluster, at the same or a lower offset
+            int newOffset = (top - firstIndex(index)) & mask;
+            while (taken[newOffset]) {
+                newOffset++;
+            }
+            taken[newOffset] = true;
+            if (newOffset != offset) {
+                from[moves] = index;
+                to[moves] = (top - newOffset) & mask;
+                moves++;
+            }
+        }
+        if (moves > 0)
+            move(from, to, moves);
+    }
+
+    private void runAll(final List<RecursiveAction> actions) {
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(actions);
+            }
+        });
+    }
+
+    /** Buffers of a task for {@link #reorderCluster}, grown to the longest cluster. */
+    private static final class ClusterBuffers {
+        long[] order = new long[0];
+        boolean[] taken = new boolean[0];
+        int[] from = new int[0];
+        int[] to = new int[0];
+
+        void ensureLength(int len) {
+            if (order.length < len) {
+                order = new long[len];
+                taken = new boolean[len];
+                from = new int[len];
+                to = new int[len];
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.hash;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Traversal of the slots of the table of a hash in a {@link ForkJoinPool}.
+ *
+ * <p>The table is split into contiguous ranges of slots, {@link #traverse(int, int)} is called
+ * for each range in a separate task. A slot is read and written only by the task of its
+ * range, so operations which don't move keys between slots, for example forEach() and
+ * replaceAll(), or removeIf() in hashes which mark removed slots, don't synchronize.
+ * The results of the tasks are visible to the caller of {@link #run}, when it returns.
+ *
+ * <p>Operations which change slots count them with {@link #changed(int)}, in a finally block
+ * if the operation calls user code: if it throws, {@link #run} rethrows the exception,
+ * but the slots changed before the failure are counted anyway, and the caller should
+ * account for them, for example in a finally block around {@link #run}.
+ */
+abstract class ParallelTraversal {
+
+    /** The minimum capacity of the table, worth traversing in parallel. */
+    static final int MIN_PARALLEL_CAPACITY = 1 << 16;
+
+    private static final int MIN_RANGE_SIZE = 1 << 12;
+    private static final int TASKS_PER_THREAD = 4;
+
+    private volatile boolean stopped = false;
+    private final AtomicInteger changedSlots = new AtomicInteger();
+
+    /**
+     * Traverses the slots {@code [lo, hi)}.
+     */
+    abstract void traverse(int lo, int hi);
+
+    /**
+     * Counts the slots, changed by the operation in the current range.
+     */
+    final void changed(int slots) {
+        if (slots != 0)
+            changedSlots.addAndGet(slots);
+    }
+
+    /**
+     * Returns the number of the slots, changed by the operation in all ranges so far.
+     */
+    final int changedSlots() {
+        return changedSlots.get();
+    }
+
+    /**
+     * Stops the traversal: the ranges which are not yet started are skipped.
+     */
+    final void stop() {
+        stopped = true;
+    }
+
+    final boolean stopped() {
+        return stopped;
+    }
+
+    /**
+     * Traverses the slots {@code [0, capacity)} in the tasks of the given pool.
+     */
+    final void run(ForkJoinPool pool, int capacity) {
+        int ranges = Math.max(1,
+                Math.min(pool.getParallelism() * TASKS_PER_THREAD, capacity / MIN_RANGE_SIZE));
+        pool.invoke(new RangeTask(capacity, ranges, 0, ranges));
+    }
+
+    private class RangeTask extends RecursiveAction {
+        private final int capacity;
+        private final int ranges;
+        private final int from;
+        private final int to;
+
+        RangeTask(int capacity, int ranges, int from, int to) {
+            this.capacity = capacity;
+            this.ranges = ranges;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                RangeTask upper = new RangeTask(capacity, ranges, mid, to);
+                upper.fork();
+                try {
+                    new RangeTask(capacity, ranges, from, mid).compute();
+                } finally {
+                    // the upper range should complete, before the caller counts changed slots
+                    upper.join();
+                }
+                return;
+            }
+            if (stopped)
+                return;
+            boolean completed = false;
+            try {
+                traverse(rangeStart(from), rangeStart(to));
+                completed = true;
+            } finally {
+                // skip the rest of the ranges, if the operation has failed
+                if (!completed)
+                    stopped = true;
+            }
+        }
+
+        private int rangeStart(int range) {
+            return (int) ((long) range * capacity / ranges);
+        }
+    }
+}
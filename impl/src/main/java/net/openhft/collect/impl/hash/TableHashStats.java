@@ -0,0 +1,373 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.hash;
+
+import net.openhft.collect.HashAlgorithm;
+import net.openhft.collect.HashStats;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Random;
+
+
+/**
+ * {@link HashStats} computed from the slot states and the key hashes of a table, collected
+ * by the {@code stats()} method of the concrete hash. The key hash in a slot is the value
+ * which the lookup code of the hash derives the home slot and the probe step from, i. e.
+ * the mixed key, non-negative for {@link HashAlgorithm#DOUBLE_HASHING}.
+ *
+ * <p>Probing follows the lookup code of the hashes, see {@code HashMethodGeneratorCommons}:
+ * slots are probed downwards from the home slot, wrapping around the table.
+ */
+final class TableHashStats implements HashStats {
+
+    static final byte FREE_SLOT = 0;
+    static final byte REMOVED_SLOT = 1;
+    static final byte FULL_SLOT = 2;
+    /**
+     * The slot of the {@code null} key of a hash with object keys, which is looked up
+     * by linear probing upwards from the slot 0, regardless of the algorithm.
+     */
+    static final byte NULL_KEY_SLOT = 3;
+
+    /**
+     * Seed of pseudo-random probe steps of absent keys, fixed so that the stats of equal
+     * tables are equal.
+     */
+    private static final long UNSUCCESSFUL_STEPS_SEED = 42L;
+
+    private final int capacity;
+    private final int size;
+    private final int freeSlots;
+    private final int removedSlots;
+    private final int[] probeLengthHistogram;
+    private final double meanProbeLength;
+    private final int maxUnsuccessfulProbeLength;
+    private final double meanUnsuccessfulProbeLength;
+    private final int clusterCount;
+    private final int maxClusterSize;
+    private final int rehashCount;
+    private final int freeValueChangeCount;
+    private final int removedValueChangeCount;
+
+    /**
+     * @param states {@link #FREE_SLOT}, {@link #REMOVED_SLOT}, {@link #FULL_SLOT}
+     *        or {@link #NULL_KEY_SLOT} for each slot of the table
+     * @param hashes key hashes of the full slots, other elements are ignored
+     */
+    TableHashStats(HashAlgorithm algorithm, byte[] states, int[] hashes,
+            int rehashCount, int freeValueChangeCount, int removedValueChangeCount) {
+        int capacity = this.capacity = states.length;
+        int size = 0, freeSlots = 0;
+        for (byte state : states) {
+            if (state == FREE_SLOT) {
+                freeSlots++;
+            } else if (state != REMOVED_SLOT) {
+                size++;
+            }
+        }
+        this.size = size;
+        this.freeSlots = freeSlots;
+        this.removedSlots = capacity - size - freeSlots;
+        this.rehashCount = rehashCount;
+        this.freeValueChangeCount = freeValueChangeCount;
+        this.removedValueChangeCount = removedValueChangeCount;
+
+        int[] histogram = new int[capacity + 1];
+        int maxProbeLength = 0;
+        long probeLengthSum = 0L;
+        for (int slot = 0; slot < capacity; slot++) {
+            byte state = states[slot];
+            int probeLength;
+            if (state == FULL_SLOT) {
+                int hash = hashes[slot];
+                int index = home(algorithm, hash, capacity);
+                int step = step(algorithm, hash, capacity);
+                probeLength = 1;
+                while (index != slot) {
+                    index = next(index, step, capacity);
+                    probeLength++;
+                }
+            } else if (state == NULL_KEY_SLOT) {
+                probeLength = slot + 1;
+            } else {
+                continue;
+            }
+            histogram[probeLength]++;
+            maxProbeLength = Math.max(maxProbeLength, probeLength);
+            probeLengthSum += probeLength;
+        }
+        int[] probeLengthHistogram = this.probeLengthHistogram = new int[maxProbeLength + 1];
+        System.arraycopy(histogram, 0, probeLengthHistogram, 0, maxProbeLength + 1);
+        meanProbeLength = size != 0 ? ((double) probeLengthSum) / size : 0.0;
+
+        int[] unsuccessfulProbeLengths = unsuccessfulProbeLengths(algorithm, states, hashes);
+        int maxUnsuccessfulProbeLength = 0;
+        long unsuccessfulProbeLengthSum = 0L;
+        for (int probeLength : unsuccessfulProbeLengths) {
+            maxUnsuccessfulProbeLength = Math.max(maxUnsuccessfulProbeLength, probeLength);
+            unsuccessfulProbeLengthSum += probeLength;
+        }
+        this.maxUnsuccessfulProbeLength = maxUnsuccessfulProbeLength;
+        meanUnsuccessfulProbeLength = capacity != 0 ?
+                ((double) unsuccessfulProbeLengthSum) / capacity : 0.0;
+
+        int[] clusters = clusters(states, freeSlots);
+        this.clusterCount = clusters[0];
+        this.maxClusterSize = clusters[1];
+    }
+
+    /**
+     * Stats of a table, built with a {@link MinimalPerfectHash}: the table is full, each
+     * lookup reads a single slot.
+     */
+    TableHashStats(int capacity) {
+        this.capacity = capacity;
+        size = capacity;
+        freeSlots = 0;
+        removedSlots = 0;
+        probeLengthHistogram = capacity != 0 ? new int[] {0, capacity} : new int[] {0};
+        meanProbeLength = capacity != 0 ? 1.0 : 0.0;
+        maxUnsuccessfulProbeLength = capacity != 0 ? 1 : 0;
+        meanUnsuccessfulProbeLength = meanProbeLength;
+        clusterCount = capacity != 0 ? 1 : 0;
+        maxClusterSize = capacity;
+        rehashCount = 0;
+        freeValueChangeCount = 0;
+        removedValueChangeCount = 0;
+    }
+
+    /**
+     * Stats of a direct-address table: the slot of each key is its home slot, each lookup,
+     * successful or not, reads a single slot.
+     *
+     * @param states {@link #FREE_SLOT} or {@link #FULL_SLOT} for each slot of the table
+     */
+    TableHashStats(byte[] states) {
+        int capacity = this.capacity = states.length;
+        int size = 0;
+        for (byte state : states) {
+            if (state == FULL_SLOT)
+                size++;
+        }
+        this.size = size;
+        freeSlots = capacity - size;
+        removedSlots = 0;
+        probeLengthHistogram = size != 0 ? new int[] {0, size} : new int[] {0};
+        meanProbeLength = size != 0 ? 1.0 : 0.0;
+        maxUnsuccessfulProbeLength = capacity != 0 ? 1 : 0;
+        meanUnsuccessfulProbeLength = capacity != 0 ? 1.0 : 0.0;
+        int[] clusters = clusters(states, freeSlots);
+        clusterCount = clusters[0];
+        maxClusterSize = clusters[1];
+        rehashCount = 0;
+        freeValueChangeCount = 0;
+        removedValueChangeCount = 0;
+    }
+
+    /**
+     * Returns the number of clusters of non-free slots and the size of the largest one.
+     */
+    private static int[] clusters(byte[] states, int freeSlots) {
+        int capacity = states.length;
+        int clusterCount = 0, maxClusterSize = 0;
+        if (freeSlots == 0) {
+            if (capacity != 0) {
+                clusterCount = 1;
+                maxClusterSize = capacity;
+            }
+        } else {
+            int firstFree = 0;
+            while (states[firstFree] != FREE_SLOT) firstFree++;
+            int clusterSize = 0;
+            // the cluster, which wraps around the table, is counted once, ending at firstFree
+            for (int i = firstFree + 1; i <= firstFree + capacity; i++) {
+                if (states[i < capacity ? i : i - capacity] != FREE_SLOT) {
+                    clusterSize++;
+                } else if (clusterSize > 0) {
+                    clusterCount++;
+                    maxClusterSize = Math.max(maxClusterSize, clusterSize);
+                    clusterSize = 0;
+                }
+            }
+        }
+        return new int[] {clusterCount, maxClusterSize};
+    }
+
+    private static int home(HashAlgorithm algorithm, int hash, int capacity) {
+        if (algorithm == HashAlgorithm.DOUBLE_HASHING) {
+            return hash % capacity;
+        } else {
+            return hash & (capacity - 1);
+        }
+    }
+
+    private static int step(HashAlgorithm algorithm, int hash, int capacity) {
+        if (algorithm == HashAlgorithm.DOUBLE_HASHING) {
+            return (hash % (capacity - 2)) + 1;
+        } else if (algorithm == HashAlgorithm.POWER_OF_TWO_DOUBLE_HASHING) {
+            return ((hash >>> 16) | 1) & (capacity - 1);
+        } else {
+            return 1;
+        }
+    }
+
+    private static int next(int index, int step, int capacity) {
+        return (index -= step) < 0 ? index + capacity : index;
+    }
+
+    /**
+     * Returns the probe length of a lookup of an absent key, starting from each slot.
+     * Lookups stop on a free slot, Robin Hood hashing lookups also stop on a key, which is
+     * closer to its home slot than the looked up key would be.
+     */
+    private static int[] unsuccessfulProbeLengths(HashAlgorithm algorithm,
+            byte[] states, int[] hashes) {
+        int capacity = states.length;
+        int[] probeLengths = new int[capacity];
+        if (algorithm == HashAlgorithm.LINEAR_PROBING) {
+            // a lookup from a non-free slot continues as the lookup from the previous slot
+            int firstFree = 0;
+            while (firstFree < capacity && states[firstFree] != FREE_SLOT) firstFree++;
+            if (firstFree == capacity) {
+                Arrays.fill(probeLengths, capacity);
+                return probeLengths;
+            }
+            int probeLength = 1;
+            probeLengths[firstFree] = 1;
+            for (int i = firstFree + 1; i < firstFree + capacity; i++) {
+                int slot = i < capacity ? i : i - capacity;
+                probeLength = states[slot] == FREE_SLOT ? 1 : probeLength + 1;
+                probeLengths[slot] = probeLength;
+            }
+            return probeLengths;
+        }
+        Random random = new Random(UNSUCCESSFUL_STEPS_SEED);
+        int capacityMask = capacity - 1;
+        for (int home = 0; home < capacity; home++) {
+            int step = step(algorithm, random.nextInt() & Integer.MAX_VALUE, capacity);
+            int index = home;
+            int probeLength = 1;
+            while (probeLength < capacity) {
+                byte state = states[index];
+                if (state == FREE_SLOT || (algorithm == HashAlgorithm.ROBIN_HOOD_HASHING &&
+                        ((hashes[index] - index) & capacityMask) < probeLength - 1)) {
+                    break;
+                }
+                index = next(index, step, capacity);
+                probeLength++;
+            }
+            probeLengths[home] = probeLength;
+        }
+        return probeLengths;
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int freeSlots() {
+        return freeSlots;
+    }
+
+    @Override
+    public int removedSlots() {
+        return removedSlots;
+    }
+
+    @Override
+    public double removedRatio() {
+        return capacity != 0 ? ((double) removedSlots) / capacity : 0.0;
+    }
+
+    @NotNull
+    @Override
+    public int[] probeLengthHistogram() {
+        return probeLengthHistogram.clone();
+    }
+
+    @Override
+    public int maxProbeLength() {
+        return probeLengthHistogram.length - 1;
+    }
+
+    @Override
+    public double meanProbeLength() {
+        return meanProbeLength;
+    }
+
+    @Override
+    public int maxUnsuccessfulProbeLength() {
+        return maxUnsuccessfulProbeLength;
+    }
+
+    @Override
+    public double meanUnsuccessfulProbeLength() {
+        return meanUnsuccessfulProbeLength;
+    }
+
+    @Override
+    public int clusterCount() {
+        return clusterCount;
+    }
+
+    @Override
+    public int maxClusterSize() {
+        return maxClusterSize;
+    }
+
+    @Override
+    public double meanClusterSize() {
+        return clusterCount != 0 ? ((double) (capacity - freeSlots)) / clusterCount : 0.0;
+    }
+
+    @Override
+    public int rehashCount() {
+        return rehashCount;
+    }
+
+    @Override
+    public int freeValueChangeCount() {
+        return freeValueChangeCount;
+    }
+
+    @Override
+    public int removedValueChangeCount() {
+        return removedValueChangeCount;
+    }
+
+    @Override
+    public String toString() {
+        return "HashStats[capacity=" + capacity + ", size=" + size +
+                ", freeSlots=" + freeSlots + ", removedSlots=" + removedSlots +
+                ", maxProbeLength=" + maxProbeLength() +
+                ", meanProbeLength=" + meanProbeLength +
+                ", maxUnsuccessfulProbeLength=" + maxUnsuccessfulProbeLength +
+                ", meanUnsuccessfulProbeLength=" + meanUnsuccessfulProbeLength +
+                ", clusterCount=" + clusterCount + ", maxClusterSize=" + maxClusterSize +
+                ", rehashCount=" + rehashCount +
+                ", freeValueChangeCount=" + freeValueChangeCount +
+                ", removedValueChangeCount=" + removedValueChangeCount + "]";
+    }
+}
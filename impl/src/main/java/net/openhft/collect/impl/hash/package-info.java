@@ -22,5 +22,20 @@
  * (DRY!!)
  *
  * Some "Generic Operations" are so generic that could be used to template tree maps/sets in future.
+ *
+ * DHash prefix stands for double hashing over prime capacities, PHash - for double hashing over
+ * power of 2 capacities (see {@link net.openhft.collect.HashAlgorithm}). PHash classes are
+ * generated from the same templates as DHash ones, the probing code differs only in index and
+ * step computation.
+ *
+ * LHash prefix stands for linear probing over power of 2 capacities. LHash classes are generated
+ * from the same templates too, but mutable ones never have removed slots: removeAt() shifts
+ * the following keys back, and iterators, cursors and removing bulk operations start from a free
+ * slot so that keys are never shifted to the already visited slots.
+ *
+ * RHash prefix stands for Robin Hood hashing, RHash classes are LHash ones with keys of each
+ * cluster kept ordered by their home slots: insertion takes the slot of the first key closer
+ * to its home slot and shiftForInsertion() moves the rest of the cluster, searches stop at such
+ * a key, and removeAt() shifts keys back only until a key in its home slot.
  */
 package net.openhft.collect.impl.hash;
\ No newline at end of file
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.queue;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+
+/**
+ * Indexes of the bounded concurrent queues: the tail, which producers advance, and the head,
+ * which the consumer advances. Indexes only grow, the slot of the index {@code i} in the buffer
+ * is {@code i & mask}. The tail and the head, with the cached value of the other index, are
+ * padded to separate cache lines, so producers and the consumer don't invalidate the caches
+ * of each other while the queue is neither full, nor empty.
+ */
+abstract class QueueIndexes extends QueueHead {
+    long p20, p21, p22, p23, p24, p25, p26, p27;
+
+    /** Capacity of the queue is limited by the longest array of a power of 2 length. */
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private static final AtomicLongFieldUpdater<QueueTail> TAIL =
+            AtomicLongFieldUpdater.newUpdater(QueueTail.class, "tail");
+    private static final AtomicLongFieldUpdater<QueueHead> HEAD =
+            AtomicLongFieldUpdater.newUpdater(QueueHead.class, "head");
+
+    final int mask;
+
+    QueueIndexes(int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY)
+            throw new IllegalArgumentException("Capacity should be in [1, 2^30], " + capacity +
+                    " given");
+        mask = capacity == 1 ? 0 : (Integer.highestOneBit(capacity - 1) << 1) - 1;
+    }
+
+    static void checkBounds(int arrayLength, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > arrayLength - length)
+            throw new IndexOutOfBoundsException("Offset: " + offset + ", length: " + length +
+                    ", array length: " + arrayLength);
+    }
+
+    final void lazySetTail(long tail) {
+        TAIL.lazySet(this, tail);
+    }
+
+    final boolean casTail(long expectedTail, long tail) {
+        return TAIL.compareAndSet(this, expectedTail, tail);
+    }
+
+    final void lazySetHead(long head) {
+        HEAD.lazySet(this, head);
+    }
+
+    public final int capacity() {
+        return mask + 1;
+    }
+
+    public final int size() {
+        // the head is read first, the tail could only be greater by the time it is read
+        long head = this.head;
+        long size = tail - head;
+        return (int) Math.max(0L, Math.min(size, mask + 1L));
+    }
+
+    public final boolean isEmpty() {
+        return head == tail;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[size=" + size() + ", capacity=" + capacity() + "]";
+    }
+}
+
+abstract class QueuePadding {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class QueueTail extends QueuePadding {
+    /** The index of the next offered element. */
+    volatile long tail;
+    /**
+     * The last read value of the head, producers check the room in the queue against it
+     * and read the head again only if the queue looks full. Volatile to be shared
+     * by the producers of MPSC queues.
+     */
+    volatile long headCache;
+}
+
+abstract class QueueTailPadding extends QueueTail {
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+}
+
+abstract class QueueHead extends QueueTailPadding {
+    /** The index of the next element to take. */
+    volatile long head;
+    /**
+     * The last read value of the tail, the consumer reads the tail again only if the queue
+     * looks empty.
+     */
+    long tailCache;
+}
@@ -0,0 +1,1642 @@
+/* with
+ char|byte|short|int|long key
+ short|byte|char|int|long|float|double value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.hash;
+
+import net.openhft.collect.*;
+import net.openhft.collect.impl.AbstractCharKeyView;
+import net.openhft.collect.impl.AbstractEntry;
+import net.openhft.collect.impl.AbstractSetView;
+import net.openhft.collect.impl.AbstractView;
+import net.openhft.collect.impl.CommonCharShortMapOps;
+import net.openhft.collect.impl.CommonMapOps;
+import net.openhft.collect.impl.InternalCharShortMapOps;
+import net.openhft.collect.impl.Primitives;
+import net.openhft.collect.map.CharShortCursor;
+import net.openhft.collect.map.hash.HashCharShortMap;
+import net.openhft.collect.set.CharSet;
+import net.openhft.collect.set.hash.HashCharSet;
+import net.openhft.collect.set.hash.HashObjSet;
+import net.openhft.function.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Array;
+import java.util.*;
+
+
+/**
+ * Skeleton of {@link HashCharShortMap} implementations, which are not generated from the hash
+ * table templates: direct-address, incremental and off-heap maps. Subclasses implement
+ * the lookups, {@code put(char, short)}, {@code remove(char)}, {@code forEachWhile()},
+ * the map cursor, {@code clear()} and the {@link HashContainer} methods, the other methods
+ * and the collection views are implemented over them. Subclasses override the methods,
+ * which they could do in a single lookup.
+ *
+ * <p>Iterators and spliterators of the views traverse the entries, copied when they are
+ * created. {@code Iterator.remove()} and {@code setValue()} of the iterated entries update
+ * the map by the key. Cursors traverse the map itself.
+ */
+abstract class AbstractHashCharShortMap
+        implements HashCharShortMap, InternalCharShortMapOps {
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return containsKey(((Character) key).charValue());
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return containsValue(((Short) value).shortValue());
+    }
+
+    @Override
+    public boolean containsValue(final short value) {
+        return !forEachWhile(new /*f*/CharShortPredicate() {
+            @Override
+            public boolean test(char k, short v) {
+                return !valueEquals(v, value);
+            }
+        });
+    }
+
+    @Override
+    public boolean containsEntry(char key, short value) {
+        return containsKey(key) && valueEquals(get(key), value);
+    }
+
+    /* if float value */
+    @Override
+    public boolean containsEntry(char key, /* bits */short value) {
+        return containsEntry(key, Float.intBitsToFloat(value));
+    }
+    /* elif double value */
+    @Override
+    public boolean containsEntry(char key, /* bits */short value) {
+        return containsEntry(key, Double.longBitsToDouble(value));
+    }
+    /* endif */
+
+    @Override
+    public Short get(Object key) {
+        char k = (Character) key;
+        if (containsKey(k))
+            return get(k);
+        return null;
+    }
+
+    @Override
+    public short get(char key) {
+        return getOrDefault(key, defaultValue());
+    }
+
+    /* if JDK8 jdk */@Override/* endif */
+    public Short getOrDefault(Object key, Short defaultValue) {
+        char k = (Character) key;
+        if (containsKey(k))
+            return get(k);
+        return defaultValue;
+    }
+
+    @Override
+    public void getAll(char[] keys, short[] values) {
+        if (values.length < keys.length)
+            throw new IllegalArgumentException("values array is shorter than keys array");
+        short defaultValue = defaultValue();
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = getOrDefault(keys[i], defaultValue);
+        }
+    }
+
+    /* if JDK8 jdk */@Override/* endif */
+    public void forEach(final BiConsumer<? super Character, ? super Short> action) {
+        if (action == null)
+            throw new NullPointerException();
+        forEach(new /*f*/CharShortConsumer() {
+            @Override
+            public void accept(char key, short value) {
+                action.accept(key, value);
+            }
+        });
+    }
+
+    @Override
+    public void forEach(final /*f*/CharShortConsumer action) {
+        if (action == null)
+            throw new NullPointerException();
+        forEachWhile(new /*f*/CharShortPredicate() {
+            @Override
+            public boolean test(char key, short value) {
+                action.accept(key, value);
+                return true;
+            }
+        });
+    }
+
+    @Override
+    public Short put(Character key, Short value) {
+        char k = key;
+        boolean present = containsKey(k);
+        short previous = put(k, value.shortValue());
+        if (present)
+            return previous;
+        return null;
+    }
+
+    @Override
+    public void justPut(char key, short value) {
+        put(key, value);
+    }
+
+    /* if float value */
+    @Override
+    public void justPut(char key, /* bits */short value) {
+        put(key, Float.intBitsToFloat(value));
+    }
+    /* elif double value */
+    @Override
+    public void justPut(char key, /* bits */short value) {
+        put(key, Double.longBitsToDouble(value));
+    }
+    /* endif */
+
+    /* if JDK8 jdk */@Override/* endif */
+    public Short putIfAbsent(Character key, Short value) {
+        char k = key;
+        if (containsKey(k))
+            return get(k);
+        put(k, value.shortValue());
+        return null;
+    }
+
+    @Override
+    public short putIfAbsent(char key, short value) {
+        if (containsKey(key))
+            return get(key);
+        put(key, value);
+        return defaultValue();
+    }
+
+    /* if JDK8 jdk */@Override/* endif */
+    public Short compute(Character key,
+            BiFunction<? super Character, ? super Short, ? extends Short> remappingFunction) {
+        char k = key;
+        Short oldValue = containsKey(k) ? (Short) get(k) : null;
+        Short newValue = remappingFunction.apply(key, oldValue);
+        if (newValue != null) {
+            put(k, newValue.shortValue());
+        } else if (oldValue != null) {
+            remove(k);
+        }
+        return newValue;
+    }
+
+    @Override
+    public short compute(char key, /*f*/CharShortToShortFunction remappingFunction) {
+        short newValue = remappingFunction.applyAsShort(key, get(key));
+        put(key, newValue);
+        return newValue;
+    }
+
+    /* if JDK8 jdk */@Override/* endif */
+    public Short computeIfAbsent(Character key,
+            Function<? super Character, ? extends Short> mappingFunction) {
+        char k = key;
+        if (containsKey(k))
+            return get(k);
+        Short value = mappingFunction.apply(key);
+        if (value != null)
+            put(k, value.shortValue());
+        return value;
+    }
+
+    @Override
+    public short computeIfAbsent(char key, /*f*/CharToShortFunction mappingFunction) {
+        if (containsKey(key))
+            return get(key);
+        short value = mappingFunction.applyAsShort(key);
+        put(key, value);
+        return value;
+    }
+
+    /* if JDK8 jdk */@Override/* endif */
+    public Short computeIfPresent(Character key,
+            BiFunction<? super Character, ? super Short, ? extends Short> remappingFunction) {
+        char k = key;
+        if (!containsKey(k))
+            return null;
+        Short newValue = remappingFunction.apply(key, (Short) get(k));
+        if (newValue != null) {
+            put(k, newValue.shortValue());
+        } else {
+            remove(k);
+        }
+        return newValue;
+    }
+
+    @Override
+    public short computeIfPresent(char key, /*f*/CharShortToShortFunction remappingFunction) {
+        if (!containsKey(key))
+            return defaultValue();
+        short newValue = remappingFunction.applyAsShort(key, get(key));
+        put(key, newValue);
+        return newValue;
+    }
+
+    /* if JDK8 jdk */@Override/* endif */
+    public Short merge(Character key, Short value,
+            BiFunction<? super Short, ? super Short, ? extends Short> remappingFunction) {
+        if (value == null)
+            throw new NullPointerException();
+        char k = key;
+        Short newValue = containsKey(k) ?
+                remappingFunction.apply((Short) get(k), value) : value;
+        if (newValue != null) {
+            put(k, newValue.shortValue());
+        } else {
+            remove(k);
+        }
+        return newValue;
+    }
+
+    @Override
+    public short merge(char key, short value, /*f*/ShortBinaryOperator remappingFunction) {
+        short newValue = containsKey(key) ? remappingFunction.applyAsShort(get(key), value) : value;
+        put(key, newValue);
+        return newValue;
+    }
+
+    @Override
+    public short incrementValue(char key, short increment) {
+        short newValue = containsKey(key) ? (short) (get(key) + increment) : increment;
+        put(key, newValue);
+        return newValue;
+    }
+
+    @Override
+    public short incrementValue(char key, short increment, short defaultValue) {
+        short newValue = (short) (getOrDefault(key, defaultValue) + increment);
+        put(key, newValue);
+        return newValue;
+    }
+
+    /* if JDK8 jdk */@Override/* endif */
+    public Short replace(Character key, Short value) {
+        char k = key;
+        if (containsKey(k))
+            return put(k, value.shortValue());
+        return null;
+    }
+
+    @Override
+    public short replace(char key, short value) {
+        if (containsKey(key))
+            return put(key, value);
+        return defaultValue();
+    }
+
+    /* if JDK8 jdk */@Override/* endif */
+    public boolean replace(Character key, Short oldValue, Short newValue) {
+        return replace(key.charValue(), oldValue.shortValue(), newValue.shortValue());
+    }
+
+    @Override
+    public boolean replace(char key, short oldValue, short newValue) {
+        if (containsKey(key) && valueEquals(get(key), oldValue)) {
+            put(key, newValue);
+            return true;
+        }
+        return false;
+    }
+
+    /* if JDK8 jdk */@Override/* endif */
+    public void replaceAll(
+            BiFunction<? super Character, ? super Short, ? extends Short> function) {
+        CharShortCursor cursor = cursor();
+        while (cursor.moveNext()) {
+            Short newValue = function.apply(cursor.key(), cursor.value());
+            cursor.setValue(newValue);
+        }
+    }
+
+    @Override
+    public void replaceAll(/*f*/CharShortToShortFunction function) {
+        CharShortCursor cursor = cursor();
+        while (cursor.moveNext()) {
+            cursor.setValue(function.applyAsShort(cursor.key(), cursor.value()));
+        }
+    }
+
+    @Override
+    public Short remove(Object key) {
+        char k = (Character) key;
+        if (containsKey(k))
+            return remove(k);
+        return null;
+    }
+
+    /* if JDK8 jdk */@Override/* endif */
+    public boolean remove(Character key, Short value) {
+        return remove(key.charValue(), value.shortValue());
+    }
+
+    @Override
+    public boolean remove(char key, short value) {
+        if (containsKey(key) && valueEquals(get(key), value)) {
+            remove(key);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean removeIf(/*f*/CharShortPredicate filter) {
+        if (filter == null)
+            throw new NullPointerException();
+        boolean changed = false;
+        CharShortCursor cursor = cursor();
+        while (cursor.moveNext()) {
+            if (filter.test(cursor.key(), cursor.value())) {
+                cursor.remove();
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public void putAll(@NotNull Map<? extends Character, ? extends Short> m) {
+        CommonCharShortMapOps.putAll(this, m);
+    }
+
+    @Override
+    public boolean containsAllEntries(Map<?, ?> m) {
+        return CommonCharShortMapOps.containsAllEntries(this, m);
+    }
+
+    @Override
+    public boolean allEntriesContainingIn(final InternalCharShortMapOps m) {
+        return forEachWhile(new /*f*/CharShortPredicate() {
+            @Override
+            public boolean test(char key, short value) {
+                return m.containsEntry(key, value);
+            }
+        });
+    }
+
+    @Override
+    public void reversePutAllTo(final InternalCharShortMapOps m) {
+        forEach(new /*f*/CharShortConsumer() {
+            @Override
+            public void accept(char key, short value) {
+                m.justPut(key, value);
+            }
+        });
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return CommonMapOps.equals(this, o);
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+        CharShortCursor cursor = cursor();
+        while (cursor.moveNext()) {
+            hashCode += Primitives.hashCode(cursor.key()) ^ Primitives.hashCode(cursor.value());
+        }
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder().append('{');
+        CharShortCursor cursor = cursor();
+        while (cursor.moveNext()) {
+            if (sb.length() > 1)
+                sb.append(", ");
+            sb.append(cursor.key()).append('=').append(cursor.value());
+        }
+        return sb.append('}').toString();
+    }
+
+    static boolean valueEquals(short a, short b) {
+        /* if !(float|double value) */
+        return a == b;
+        /* elif float value //
+        return Float.floatToIntBits(a) == Float.floatToIntBits(b);
+        // elif double value //
+        return Double.doubleToLongBits(a) == Double.doubleToLongBits(b);
+        // endif */
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T[] copyTo(Object[] elements, T[] a) {
+        int size = elements.length;
+        if (a.length < size)
+            a = (T[]) Array.newInstance(a.getClass().getComponentType(), size);
+        System.arraycopy(elements, 0, a, 0, size);
+        if (a.length > size)
+            a[size] = null;
+        return a;
+    }
+
+
+    @NotNull
+    @Override
+    public HashCharSet keySet() {
+        return new KeyView();
+    }
+
+    @NotNull
+    @Override
+    public ShortCollection values() {
+        return new ValueView();
+    }
+
+    @NotNull
+    @Override
+    public HashObjSet<Map.Entry<Character, Short>> entrySet() {
+        return new EntryView();
+    }
+
+
+    class KeyView extends AbstractCharKeyView implements HashCharSet {
+
+        @Override
+        public int size() {
+            return AbstractHashCharShortMap.this.size();
+        }
+
+        @Override
+        public float loadFactor() {
+            return AbstractHashCharShortMap.this.loadFactor();
+        }
+
+        @Override
+        public float currentLoad() {
+            return AbstractHashCharShortMap.this.currentLoad();
+        }
+
+        @NotNull
+        @Override
+        public HashStats stats() {
+            return AbstractHashCharShortMap.this.stats();
+        }
+
+        @Override
+        public boolean shrink() {
+            return AbstractHashCharShortMap.this.shrink();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public boolean contains(char key) {
+            return containsKey(key);
+        }
+
+        @Override
+        public void containsAll(char[] keys, boolean[] results) {
+            if (results.length < keys.length)
+                throw new IllegalArgumentException("results array is shorter than keys array");
+            for (int i = 0; i < keys.length; i++) {
+                results[i] = containsKey(keys[i]);
+            }
+        }
+
+        /* if JDK8 jdk //@Override// endif */
+        public void forEach(Consumer<? super Character> action) {
+            if (action == null)
+                throw new NullPointerException();
+            CharShortCursor cursor = AbstractHashCharShortMap.this.cursor();
+            while (cursor.moveNext()) {
+                action.accept(cursor.key());
+            }
+        }
+
+        @Override
+        public void forEach(CharConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            CharShortCursor cursor = AbstractHashCharShortMap.this.cursor();
+            while (cursor.moveNext()) {
+                action.accept(cursor.key());
+            }
+        }
+
+        @Override
+        public boolean forEachWhile(final CharPredicate predicate) {
+            if (predicate == null)
+                throw new NullPointerException();
+            return AbstractHashCharShortMap.this.forEachWhile(new /*f*/CharShortPredicate() {
+                @Override
+                public boolean test(char key, short value) {
+                    return predicate.test(key);
+                }
+            });
+        }
+
+        @Override
+        public boolean allContainingIn(final CharCollection c) {
+            return forEachWhile(new CharPredicate() {
+                @Override
+                public boolean test(char key) {
+                    return c.contains(key);
+                }
+            });
+        }
+
+        @Override
+        public boolean reverseAddAllTo(CharCollection c) {
+            boolean changed = false;
+            CharShortCursor cursor = AbstractHashCharShortMap.this.cursor();
+            while (cursor.moveNext()) {
+                changed |= c.add(cursor.key());
+            }
+            return changed;
+        }
+
+        @Override
+        public boolean reverseRemoveAllFrom(CharSet s) {
+            boolean changed = false;
+            CharShortCursor cursor = AbstractHashCharShortMap.this.cursor();
+            while (cursor.moveNext()) {
+                changed |= s.removeChar(cursor.key());
+            }
+            return changed;
+        }
+
+        @NotNull
+        @Override
+        public CharIterator iterator() {
+            return new KeyIterator();
+        }
+
+        @NotNull
+        @Override
+        public CharCursor cursor() {
+            return new KeyCursor();
+        }
+
+        @NotNull
+        @Override
+        public CharSpliterator charSpliterator() {
+            Entries entries = new Entries();
+            return new KeySpliterator(entries.keys, 0, entries.keys.length);
+        }
+
+        /* if JDK8 jdk */
+        @NotNull
+        @Override
+        public CharSpliterator spliterator() {
+            return charSpliterator();
+        }
+        /* endif */
+
+        @NotNull
+        @Override
+        public Object[] toArray() {
+            Object[] result = new Object[size()];
+            int i = 0;
+            CharShortCursor cursor = AbstractHashCharShortMap.this.cursor();
+            while (cursor.moveNext()) {
+                result[i++] = cursor.key();
+            }
+            return result;
+        }
+
+        @NotNull
+        @Override
+        public <T> T[] toArray(@NotNull T[] a) {
+            return copyTo(toArray(), a);
+        }
+
+        @Override
+        public char[] toCharArray() {
+            return toArray(new char[size()]);
+        }
+
+        @Override
+        public char[] toArray(char[] a) {
+            int size = size();
+            if (a.length < size)
+                a = new char[size];
+            int i = 0;
+            CharShortCursor cursor = AbstractHashCharShortMap.this.cursor();
+            while (cursor.moveNext()) {
+                a[i++] = cursor.key();
+            }
+            if (a.length > size)
+                a[size] = /* const key 0 */(char) 0/* endconst */;
+            return a;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return removeChar((Character) o);
+        }
+
+        @Override
+        public boolean removeChar(char key) {
+            if (containsKey(key)) {
+                AbstractHashCharShortMap.this.remove(key);
+                return true;
+            }
+            return false;
+        }
+
+        /* if JDK8 jdk //@Override// endif */
+        public boolean removeIf(final Predicate<? super Character> filter) {
+            if (filter == null)
+                throw new NullPointerException();
+            return AbstractHashCharShortMap.this.removeIf(new /*f*/CharShortPredicate() {
+                @Override
+                public boolean test(char key, short value) {
+                    return filter.test(key);
+                }
+            });
+        }
+
+        @Override
+        public boolean removeIf(final CharPredicate filter) {
+            if (filter == null)
+                throw new NullPointerException();
+            return AbstractHashCharShortMap.this.removeIf(new /*f*/CharShortPredicate() {
+                @Override
+                public boolean test(char key, short value) {
+                    return filter.test(key);
+                }
+            });
+        }
+
+        @Override
+        public boolean removeAll(@NotNull final Collection<?> c) {
+            if (this == c)
+                throw new IllegalArgumentException();
+            return AbstractHashCharShortMap.this.removeIf(new /*f*/CharShortPredicate() {
+                @Override
+                public boolean test(char key, short value) {
+                    return c.contains(key);
+                }
+            });
+        }
+
+        @Override
+        public boolean retainAll(@NotNull final Collection<?> c) {
+            if (this == c)
+                throw new IllegalArgumentException();
+            return AbstractHashCharShortMap.this.removeIf(new /*f*/CharShortPredicate() {
+                @Override
+                public boolean test(char key, short value) {
+                    return !c.contains(key);
+                }
+            });
+        }
+
+        @Override
+        public void clear() {
+            AbstractHashCharShortMap.this.clear();
+        }
+
+        @Override
+        public int hashCode() {
+            int hashCode = 0;
+            CharShortCursor cursor = AbstractHashCharShortMap.this.cursor();
+            while (cursor.moveNext()) {
+                hashCode += Primitives.hashCode(cursor.key());
+            }
+            return hashCode;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder().append('[');
+            CharShortCursor cursor = AbstractHashCharShortMap.this.cursor();
+            while (cursor.moveNext()) {
+                if (sb.length() > 1)
+                    sb.append(", ");
+                sb.append(cursor.key());
+            }
+            return sb.append(']').toString();
+        }
+    }
+
+
+    class ValueView extends AbstractView<Short> implements ShortCollection {
+
+        @Override
+        public int size() {
+            return AbstractHashCharShortMap.this.size();
+        }
+
+        @Override
+        public boolean shrink() {
+            return AbstractHashCharShortMap.this.shrink();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsValue(o);
+        }
+
+        @Override
+        public boolean contains(short v) {
+            return containsValue(v);
+        }
+
+        @Override
+        public boolean containsAll(@NotNull Collection<?> c) {
+            for (Object o : c) {
+                if (!contains(o))
+                    return false;
+            }
+            return true;
+        }
+
+        /* if JDK8 jdk //@Override// endif */
+        public void forEach(Consumer<? super Short> action) {
+            if (action == null)
+                throw new NullPointerException();
+            CharShortCursor cursor = AbstractHashCharShortMap.this.cursor();
+            while (cursor.moveNext()) {
+                action.accept(cursor.value());
+            }
+        }
+
+        @Override
+        public void forEach(ShortConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            CharShortCursor cursor = AbstractHashCharShortMap.this.cursor();
+            while (cursor.moveNext()) {
+                action.accept(cursor.value());
+            }
+        }
+
+        @Override
+        public boolean forEachWhile(final ShortPredicate predicate) {
+            if (predicate == null)
+                throw new NullPointerException();
+            return AbstractHashCharShortMap.this.forEachWhile(new /*f*/CharShortPredicate() {
+                @Override
+                public boolean test(char key, short value) {
+                    return predicate.test(value);
+                }
+            });
+        }
+
+        @NotNull
+        @Override
+        public ShortIterator iterator() {
+            return new ValueIterator();
+        }
+
+        @NotNull
+        @Override
+        public ShortCursor cursor() {
+            return new ValueCursor();
+        }
+
+        @NotNull
+        @Override
+        public ShortSpliterator shortSpliterator() {
+            Entries entries = new Entries();
+            return new ValueSpliterator(entries.values, 0, entries.values.length);
+        }
+
+        /* if JDK8 jdk */
+        @NotNull
+        @Override
+        public ShortSpliterator spliterator() {
+            return shortSpliterator();
+        }
+        /* endif */
+
+        @NotNull
+        @Override
+        public Object[] toArray() {
+            Object[] result = new Object[size()];
+            int i = 0;
+            CharShortCursor cursor = AbstractHashCharShortMap.this.cursor();
+            while (cursor.moveNext()) {
+                result[i++] = cursor.value();
+            }
+            return result;
+        }
+
+        @NotNull
+        @Override
+        public <T> T[] toArray(@NotNull T[] a) {
+            return copyTo(toArray(), a);
+        }
+
+        @Override
+        public short[] toShortArray() {
+            return toArray(new short[size()]);
+        }
+
+        @Override
+        public short[] toArray(short[] a) {
+            int size = size();
+            if (a.length < size)
+                a = new short[size];
+            int i = 0;
+            CharShortCursor cursor = AbstractHashCharShortMap.this.cursor();
+            while (cursor.moveNext()) {
+                a[i++] = cursor.value();
+            }
+            if (a.length > size)
+                a[size] = /* const value 0 */(short) 0/* endconst */;
+            return a;
+        }
+
+        @Override
+        public boolean add(short e) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return removeShort((Short) o);
+        }
+
+        @Override
+        public boolean removeShort(short v) {
+            CharShortCursor cursor = AbstractHashCharShortMap.this.cursor();
+            while (cursor.moveNext()) {
+                if (valueEquals(cursor.value(), v)) {
+                    cursor.remove();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /* if JDK8 jdk //@Override// endif */
+        public boolean removeIf(final Predicate<? super Short> filter) {
+            if (filter == null)
+                throw new NullPointerException();
+            return AbstractHashCharShortMap.this.removeIf(new /*f*/CharShortPredicate() {
+                @Override
+                public boolean test(char key, short value) {
+                    return filter.test(value);
+                }
+            });
+        }
+
+        @Override
+        public boolean removeIf(final ShortPredicate filter) {
+            if (filter == null)
+                throw new NullPointerException();
+            return AbstractHashCharShortMap.this.removeIf(new /*f*/CharShortPredicate() {
+                @Override
+                public boolean test(char key, short value) {
+                    return filter.test(value);
+                }
+            });
+        }
+
+        @Override
+        public boolean removeAll(@NotNull final Collection<?> c) {
+            if (this == c)
+                throw new IllegalArgumentException();
+            return AbstractHashCharShortMap.this.removeIf(new /*f*/CharShortPredicate() {
+                @Override
+                public boolean test(char key, short value) {
+                    return c.contains(value);
+                }
+            });
+        }
+
+        @Override
+        public boolean retainAll(@NotNull final Collection<?> c) {
+            if (this == c)
+                throw new IllegalArgumentException();
+            return AbstractHashCharShortMap.this.removeIf(new /*f*/CharShortPredicate() {
+                @Override
+                public boolean test(char key, short value) {
+                    return !c.contains(value);
+                }
+            });
+        }
+
+        @Override
+        public void clear() {
+            AbstractHashCharShortMap.this.clear();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder().append('[');
+            CharShortCursor cursor = AbstractHashCharShortMap.this.cursor();
+            while (cursor.moveNext()) {
+                if (sb.length() > 1)
+                    sb.append(", ");
+                sb.append(cursor.value());
+            }
+            return sb.append(']').toString();
+        }
+    }
+
+
+    class EntryView extends AbstractSetView<Map.Entry<Character, Short>>
+            implements HashObjSet<Map.Entry<Character, Short>> {
+
+        @Nullable
+        @Override
+        public Equivalence<Map.Entry<Character, Short>> equivalence() {
+            return Equivalence.entryEquivalence(
+                    null,
+                    null
+            );
+        }
+
+        @Override
+        public int size() {
+            return AbstractHashCharShortMap.this.size();
+        }
+
+        @Override
+        public float loadFactor() {
+            return AbstractHashCharShortMap.this.loadFactor();
+        }
+
+        @Override
+        public float currentLoad() {
+            return AbstractHashCharShortMap.this.currentLoad();
+        }
+
+        @NotNull
+        @Override
+        public HashStats stats() {
+            return AbstractHashCharShortMap.this.stats();
+        }
+
+        @Override
+        public boolean shrink() {
+            return AbstractHashCharShortMap.this.shrink();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            Object key = e.getKey(), value = e.getValue();
+            return key instanceof Character && value instanceof Short &&
+                    containsEntry(((Character) key).charValue(), ((Short) value).shortValue());
+        }
+
+        @Override
+        public boolean containsAll(@NotNull Collection<?> c) {
+            for (Object o : c) {
+                if (!contains(o))
+                    return false;
+            }
+            return true;
+        }
+
+        @Override
+        public void forEach(Consumer<? super Map.Entry<Character, Short>> action) {
+            if (action == null)
+                throw new NullPointerException();
+            CharShortCursor cursor = AbstractHashCharShortMap.this.cursor();
+            while (cursor.moveNext()) {
+                action.accept(new MutableEntry(cursor, cursor.key(), cursor.value()));
+            }
+        }
+
+        @Override
+        public boolean forEachWhile(Predicate<? super Map.Entry<Character, Short>> predicate) {
+            if (predicate == null)
+                throw new NullPointerException();
+            CharShortCursor cursor = AbstractHashCharShortMap.this.cursor();
+            while (cursor.moveNext()) {
+                if (!predicate.test(new MutableEntry(cursor, cursor.key(), cursor.value())))
+                    return false;
+            }
+            return true;
+        }
+
+        @NotNull
+        @Override
+        public ObjIterator<Map.Entry<Character, Short>> iterator() {
+            return new EntryIterator();
+        }
+
+        @NotNull
+        @Override
+        public ObjCursor<Map.Entry<Character, Short>> cursor() {
+            return new EntryCursor();
+        }
+
+        @NotNull
+        @Override
+        public ObjSpliterator<Map.Entry<Character, Short>> objSpliterator() {
+            Entries entries = new Entries();
+            return new EntrySpliterator(entries.keys, entries.values, 0, entries.keys.length);
+        }
+
+        /* if JDK8 jdk */
+        @NotNull
+        @Override
+        public java.util.Spliterator<Map.Entry<Character, Short>> spliterator() {
+            Entries entries = new Entries();
+            return new EntrySpliterator(entries.keys, entries.values, 0, entries.keys.length);
+        }
+        /* endif */
+
+        @NotNull
+        @Override
+        public Object[] toArray() {
+            Object[] result = new Object[size()];
+            int i = 0;
+            CharShortCursor cursor = AbstractHashCharShortMap.this.cursor();
+            while (cursor.moveNext()) {
+                result[i++] = new MutableEntry(null, cursor.key(), cursor.value());
+            }
+            return result;
+        }
+
+        @NotNull
+        @Override
+        public <T> T[] toArray(@NotNull T[] a) {
+            return copyTo(toArray(), a);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (contains(o)) {
+                AbstractHashCharShortMap.this.remove(
+                        ((Character) ((Map.Entry<?, ?>) o).getKey()).charValue());
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean removeIf(Predicate<? super Map.Entry<Character, Short>> filter) {
+            if (filter == null)
+                throw new NullPointerException();
+            boolean changed = false;
+            CharShortCursor cursor = AbstractHashCharShortMap.this.cursor();
+            while (cursor.moveNext()) {
+                if (filter.test(new MutableEntry(cursor, cursor.key(), cursor.value()))) {
+                    cursor.remove();
+                    changed = true;
+                }
+            }
+            return changed;
+        }
+
+        @Override
+        public boolean removeAll(@NotNull final Collection<?> c) {
+            if (this == c)
+                throw new IllegalArgumentException();
+            return removeIf(new Predicate<Map.Entry<Character, Short>>() {
+                @Override
+                public boolean test(Map.Entry<Character, Short> e) {
+                    return c.contains(e);
+                }
+            });
+        }
+
+        @Override
+        public boolean retainAll(@NotNull final Collection<?> c) {
+            if (this == c)
+                throw new IllegalArgumentException();
+            return removeIf(new Predicate<Map.Entry<Character, Short>>() {
+                @Override
+                public boolean test(Map.Entry<Character, Short> e) {
+                    return !c.contains(e);
+                }
+            });
+        }
+
+        @Override
+        public void clear() {
+            AbstractHashCharShortMap.this.clear();
+        }
+
+        @Override
+        public int hashCode() {
+            return AbstractHashCharShortMap.this.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder().append('[');
+            CharShortCursor cursor = AbstractHashCharShortMap.this.cursor();
+            while (cursor.moveNext()) {
+                if (sb.length() > 1)
+                    sb.append(", ");
+                sb.append(cursor.key()).append('=').append(cursor.value());
+            }
+            return sb.append(']').toString();
+        }
+    }
+
+
+    /**
+     * Entry of the map, {@link #setValue} writes through the cursor, if the entry is returned
+     * by a cursor, otherwise puts the value by the key.
+     */
+    class MutableEntry extends AbstractEntry<Character, Short> {
+        private final CharShortCursor cursor;
+        private final char key;
+        private short value;
+
+        MutableEntry(@Nullable CharShortCursor cursor, char key, short value) {
+            this.cursor = cursor;
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public Character getKey() {
+            return key;
+        }
+
+        @Override
+        public Short getValue() {
+            return value;
+        }
+
+        @Override
+        public Short setValue(Short value) {
+            short oldValue = this.value;
+            short newValue = value;
+            if (cursor != null) {
+                if (cursor.key() != key)
+                    throw new IllegalStateException();
+                cursor.setValue(newValue);
+            } else {
+                put(key, newValue);
+            }
+            this.value = newValue;
+            return oldValue;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public boolean equals(Object o) {
+            Map.Entry e2;
+            char k2;
+            short v2;
+            try {
+                e2 = (Map.Entry) o;
+                k2 = (Character) e2.getKey();
+                v2 = (Short) e2.getValue();
+                return key == k2 && valueEquals(value, v2);
+            } catch (ClassCastException e) {
+                return false;
+            } catch (NullPointerException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return Primitives.hashCode(key) ^ Primitives.hashCode(value);
+        }
+    }
+
+
+    /** The keys and the values of the map, copied for iterators and spliterators */
+    class Entries {
+        final char[] keys;
+        final short[] values;
+
+        Entries() {
+            int size = size();
+            char[] keys = this.keys = new char[size];
+            short[] values = this.values = new short[size];
+            int i = 0;
+            CharShortCursor cursor = cursor();
+            while (cursor.moveNext()) {
+                keys[i] = cursor.key();
+                values[i] = cursor.value();
+                i++;
+            }
+        }
+    }
+
+
+    abstract class EntriesIterator {
+        final char[] keys;
+        final short[] vals;
+        /** The position of the next entry */
+        int position;
+        int lastReturned = -1;
+
+        EntriesIterator() {
+            Entries entries = new Entries();
+            keys = entries.keys;
+            vals = entries.values;
+        }
+
+        public final boolean hasNext() {
+            return position < keys.length;
+        }
+
+        final int nextPosition() {
+            int position = this.position;
+            if (position >= keys.length)
+                throw new NoSuchElementException();
+            this.position = position + 1;
+            return lastReturned = position;
+        }
+
+        /** Moves to the end, returns the position of the next entry before the move */
+        final int forEachPosition() {
+            int position = this.position, length = keys.length;
+            if (position < length) {
+                this.position = length;
+                lastReturned = length - 1;
+            }
+            return position;
+        }
+
+        public final void remove() {
+            int lastReturned = this.lastReturned;
+            if (lastReturned < 0)
+                throw new IllegalStateException();
+            this.lastReturned = -1;
+            AbstractHashCharShortMap.this.remove(keys[lastReturned]);
+        }
+    }
+
+
+    class KeyIterator extends EntriesIterator implements CharIterator {
+
+        @Override
+        public char nextChar() {
+            return keys[nextPosition()];
+        }
+
+        @Override
+        public Character next() {
+            return nextChar();
+        }
+
+        /* if JDK8 jdk //@Override// endif */
+        public void forEachRemaining(Consumer<? super Character> action) {
+            if (action == null)
+                throw new NullPointerException();
+            char[] keys = this.keys;
+            for (int i = forEachPosition(); i < keys.length; i++) {
+                action.accept(keys[i]);
+            }
+        }
+
+        @Override
+        public void forEachRemaining(CharConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            char[] keys = this.keys;
+            for (int i = forEachPosition(); i < keys.length; i++) {
+                action.accept(keys[i]);
+            }
+        }
+    }
+
+
+    class ValueIterator extends EntriesIterator implements ShortIterator {
+
+        @Override
+        public short nextShort() {
+            return vals[nextPosition()];
+        }
+
+        @Override
+        public Short next() {
+            return nextShort();
+        }
+
+        /* if JDK8 jdk //@Override// endif */
+        public void forEachRemaining(Consumer<? super Short> action) {
+            if (action == null)
+                throw new NullPointerException();
+            short[] vals = this.vals;
+            for (int i = forEachPosition(); i < vals.length; i++) {
+                action.accept(vals[i]);
+            }
+        }
+
+        @Override
+        public void forEachRemaining(ShortConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            short[] vals = this.vals;
+            for (int i = forEachPosition(); i < vals.length; i++) {
+                action.accept(vals[i]);
+            }
+        }
+    }
+
+
+    class EntryIterator extends EntriesIterator
+            implements ObjIterator<Map.Entry<Character, Short>> {
+
+        @Override
+        public Map.Entry<Character, Short> next() {
+            int position = nextPosition();
+            return new MutableEntry(null, keys[position], vals[position]);
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Map.Entry<Character, Short>> action) {
+            if (action == null)
+                throw new NullPointerException();
+            char[] keys = this.keys;
+            short[] vals = this.vals;
+            for (int i = forEachPosition(); i < keys.length; i++) {
+                action.accept(new MutableEntry(null, keys[i], vals[i]));
+            }
+        }
+    }
+
+
+    class KeyCursor implements CharCursor {
+        final CharShortCursor cursor = AbstractHashCharShortMap.this.cursor();
+
+        @Override
+        public boolean moveNext() {
+            return cursor.moveNext();
+        }
+
+        @Override
+        public void forEachForward(CharConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            while (cursor.moveNext()) {
+                action.accept(cursor.key());
+            }
+        }
+
+        @Override
+        public char elem() {
+            return cursor.key();
+        }
+
+        @Override
+        public void remove() {
+            cursor.remove();
+        }
+    }
+
+
+    class ValueCursor implements ShortCursor {
+        final CharShortCursor cursor = AbstractHashCharShortMap.this.cursor();
+
+        @Override
+        public boolean moveNext() {
+            return cursor.moveNext();
+        }
+
+        @Override
+        public void forEachForward(ShortConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            while (cursor.moveNext()) {
+                action.accept(cursor.value());
+            }
+        }
+
+        @Override
+        public short elem() {
+            return cursor.value();
+        }
+
+        @Override
+        public void remove() {
+            cursor.remove();
+        }
+    }
+
+
+    class EntryCursor implements ObjCursor<Map.Entry<Character, Short>> {
+        final CharShortCursor cursor = AbstractHashCharShortMap.this.cursor();
+
+        @Override
+        public boolean moveNext() {
+            return cursor.moveNext();
+        }
+
+        @Override
+        public void forEachForward(Consumer<? super Map.Entry<Character, Short>> action) {
+            if (action == null)
+                throw new NullPointerException();
+            while (cursor.moveNext()) {
+                action.accept(new MutableEntry(cursor, cursor.key(), cursor.value()));
+            }
+        }
+
+        @Override
+        public Map.Entry<Character, Short> elem() {
+            return new MutableEntry(cursor, cursor.key(), cursor.value());
+        }
+
+        @Override
+        public void remove() {
+            cursor.remove();
+        }
+    }
+
+
+    static abstract class ArraySpliterator {
+        int position;
+        final int fence;
+
+        ArraySpliterator(int position, int fence) {
+            this.position = position;
+            this.fence = fence;
+        }
+
+        /** Returns the start of the split off lower half, or {@code -1} if it is empty */
+        final int split() {
+            int lo = position, mid = (lo + fence) >>> 1;
+            if (lo >= mid)
+                return -1;
+            position = mid;
+            return lo;
+        }
+
+        public final long estimateSize() {
+            return fence - position;
+        }
+
+        public final long getExactSizeIfKnown() {
+            return estimateSize();
+        }
+    }
+
+
+    static class KeySpliterator extends ArraySpliterator implements CharSpliterator {
+        private final char[] keys;
+
+        KeySpliterator(char[] keys, int position, int fence) {
+            super(position, fence);
+            this.keys = keys;
+        }
+
+        @Override
+        public boolean tryAdvance(CharConsumer action) {
+            int position = this.position;
+            if (position < fence) {
+                this.position = position + 1;
+                action.accept(keys[position]);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(CharConsumer action) {
+            for (int position = this.position, fence = this.fence; position < fence; position++) {
+                action.accept(keys[position]);
+            }
+            position = fence;
+        }
+
+        @Override
+        public KeySpliterator trySplit() {
+            int lo = split();
+            return lo >= 0 ? new KeySpliterator(keys, lo, position) : null;
+        }
+
+        /* if JDK8 jdk */
+        @Override
+        public int characteristics() {
+            return DISTINCT | SIZED | SUBSIZED | NONNULL;
+        }
+        /* endif */
+    }
+
+
+    static class ValueSpliterator extends ArraySpliterator implements ShortSpliterator {
+        private final short[] vals;
+
+        ValueSpliterator(short[] vals, int position, int fence) {
+            super(position, fence);
+            this.vals = vals;
+        }
+
+        @Override
+        public boolean tryAdvance(ShortConsumer action) {
+            int position = this.position;
+            if (position < fence) {
+                this.position = position + 1;
+                action.accept(vals[position]);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(ShortConsumer action) {
+            for (int position = this.position, fence = this.fence; position < fence; position++) {
+                action.accept(vals[position]);
+            }
+            position = fence;
+        }
+
+        @Override
+        public ValueSpliterator trySplit() {
+            int lo = split();
+            return lo >= 0 ? new ValueSpliterator(vals, lo, position) : null;
+        }
+
+        /* if JDK8 jdk */
+        @Override
+        public int characteristics() {
+            return SIZED | SUBSIZED | NONNULL;
+        }
+        /* endif */
+    }
+
+
+    class EntrySpliterator extends ArraySpliterator
+            implements ObjSpliterator<Map.Entry<Character, Short>>
+            /* if JDK8 jdk //, java.util.Spliterator<Map.Entry<Character, Short>>// endif */ {
+        private final char[] keys;
+        private final short[] vals;
+
+        EntrySpliterator(char[] keys, short[] vals, int position, int fence) {
+            super(position, fence);
+            this.keys = keys;
+            this.vals = vals;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Map.Entry<Character, Short>> action) {
+            int position = this.position;
+            if (position < fence) {
+                this.position = position + 1;
+                action.accept(new MutableEntry(null, keys[position], vals[position]));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Map.Entry<Character, Short>> action) {
+            for (int position = this.position, fence = this.fence; position < fence; position++) {
+                action.accept(new MutableEntry(null, keys[position], vals[position]));
+            }
+            position = fence;
+        }
+
+        @Override
+        public EntrySpliterator trySplit() {
+            int lo = split();
+            return lo >= 0 ? new EntrySpliterator(keys, vals, lo, position) : null;
+        }
+
+        /* if JDK8 jdk */
+        @Override
+        public boolean tryAdvance(
+                java.util.function.Consumer<? super Map.Entry<Character, Short>> action) {
+            return tryAdvance((Consumer<Map.Entry<Character, Short>>) action::accept);
+        }
+
+        @Override
+        public void forEachRemaining(
+                java.util.function.Consumer<? super Map.Entry<Character, Short>> action) {
+            forEachRemaining((Consumer<Map.Entry<Character, Short>>) action::accept);
+        }
+
+        @Override
+        public int characteristics() {
+            return DISTINCT | SIZED | SUBSIZED | NONNULL;
+        }
+        /* endif */
+    }
+}
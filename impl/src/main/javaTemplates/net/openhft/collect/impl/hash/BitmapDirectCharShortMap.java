@@ -0,0 +1,394 @@
+/* with
+ char|byte|short key
+ short|byte|char|int|long|float|double value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.hash;
+
+import net.openhft.collect.CharHashConfig;
+import net.openhft.collect.HashStats;
+import net.openhft.collect.impl.CharConstants;
+import net.openhft.collect.impl.Primitives;
+import net.openhft.collect.map.CharShortCursor;
+import net.openhft.collect.map.hash.DirectCharShortMap;
+import net.openhft.collect.map.hash.HashCharShortMap;
+import net.openhft.collect.map.hash.HashCharShortMapFactory;
+import net.openhft.function.*;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+
+/**
+ * {@link DirectCharShortMap} implementation: the slot of a key is
+ * {@code (key - lowerBound) & (CHAR_CARDINALITY - 1)}, the domain of the keys wraps around
+ * the end of the char range, if the config has the domain complement.
+ *
+ * <p>Values of absent keys are always equal to the default value, so {@code get()} reads
+ * the value slot without checking the bitmap, {@code put()} and {@code remove()} update
+ * the size by the previous bit of the key, without branches.
+ *
+ * <p>The map is serialized as its {@linkplain #snapshot() snapshot}, like the hash maps,
+ * which {@code newMutableMap()} of the factory returns instead of this map
+ * for larger domains.
+ */
+final class BitmapDirectCharShortMap extends AbstractHashCharShortMap
+        implements DirectCharShortMap, CharConstants, Serializable {
+
+    private static final long serialVersionUID = 0L;
+
+    /**
+     * The max size of the keys domain, for which {@code newMutableMap()} of the factory
+     * returns a direct-address map: the bitmap is a single word, and the values array
+     * is no larger than the table of a hash map for a few dozen entries.
+     */
+    static final int MUTABLE_MAP_MAX_DOMAIN_SIZE = 64;
+
+    /** Returns the number of keys in the domain of the config */
+    static int domainSize(CharHashConfig conf) {
+        char lowerBound = conf.getLowerKeyDomainBound();
+        return ((conf.getUpperKeyDomainBound() - lowerBound) & (CHAR_CARDINALITY - 1)) + 1;
+    }
+
+    private final HashCharShortMapFactory factory;
+    private final short defaultValue;
+    private final char lowerBound;
+    /** The number of keys in the domain */
+    private final int domainSize;
+    private final long[] bits;
+    private final short[] values;
+    private int size;
+
+    BitmapDirectCharShortMap(HashCharShortMapFactory factory) {
+        this.factory = factory;
+        defaultValue = factory.getDefaultValue();
+        CharHashConfig conf = factory.getConfig();
+        lowerBound = conf.getLowerKeyDomainBound();
+        domainSize = domainSize(conf);
+        bits = new long[((domainSize - 1) >> 6) + 1];
+        values = new short[domainSize];
+        /* if !(float|double value) */
+        if (defaultValue != (short) 0)
+            Arrays.fill(values, defaultValue);
+        /* elif float|double value //
+        // -0.0 and NaN default values are distinct from 0.0 the array is filled with
+        Arrays.fill(values, defaultValue);
+        // endif */
+    }
+
+    /** Returns the slot of the key, {@code domainSize} or greater if it is outside the domain */
+    private int slot(char key) {
+        return (key - lowerBound) & (CHAR_CARDINALITY - 1);
+    }
+
+    private int insertionSlot(char key) {
+        int slot = slot(key);
+        if (slot >= domainSize) {
+            throw new IllegalArgumentException("Key " + key + " is outside of the keys domain " +
+                    "of the map: " + lowerBound + ".." + (char) (lowerBound + domainSize - 1));
+        }
+        return slot;
+    }
+
+    @Override
+    public short defaultValue() {
+        return defaultValue;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(char key) {
+        int slot = slot(key);
+        return slot < domainSize && (bits[slot >> 6] & (1L << slot)) != 0L;
+    }
+
+    @Override
+    public short get(char key) {
+        int slot = slot(key);
+        return slot < domainSize ? values[slot] : defaultValue;
+    }
+
+    @Override
+    public short getOrDefault(char key, short defaultValue) {
+        int slot = slot(key);
+        return slot < domainSize && (bits[slot >> 6] & (1L << slot)) != 0L ?
+                values[slot] : defaultValue;
+    }
+
+    @Override
+    public short put(char key, short value) {
+        int slot = insertionSlot(key);
+        long word = bits[slot >> 6];
+        size += (int) ((~word >>> slot) & 1L);
+        bits[slot >> 6] = word | (1L << slot);
+        short[] values = this.values;
+        short previous = values[slot];
+        values[slot] = value;
+        return previous;
+    }
+
+    @Override
+    public short putIfAbsent(char key, short value) {
+        int slot = insertionSlot(key);
+        long word = bits[slot >> 6];
+        if ((word & (1L << slot)) != 0L)
+            return values[slot];
+        bits[slot >> 6] = word | (1L << slot);
+        size++;
+        values[slot] = value;
+        return defaultValue;
+    }
+
+    @Override
+    public short incrementValue(char key, short increment) {
+        int slot = insertionSlot(key);
+        long word = bits[slot >> 6];
+        if ((word & (1L << slot)) != 0L)
+            return values[slot] += increment;
+        // like in hash maps, an absent key is inserted with the increment as the value
+        bits[slot >> 6] = word | (1L << slot);
+        size++;
+        return values[slot] = increment;
+    }
+
+    @Override
+    public short remove(char key) {
+        int slot = slot(key);
+        if (slot >= domainSize)
+            return defaultValue;
+        long word = bits[slot >> 6];
+        size -= (int) ((word >>> slot) & 1L);
+        bits[slot >> 6] = word & ~(1L << slot);
+        short[] values = this.values;
+        short previous = values[slot];
+        values[slot] = defaultValue;
+        return previous;
+    }
+
+    @Override
+    public void forEach(/*f*/CharShortConsumer action) {
+        if (action == null)
+            throw new NullPointerException();
+        long[] bits = this.bits;
+        short[] values = this.values;
+        char lowerBound = this.lowerBound;
+        for (int w = 0; w < bits.length; w++) {
+            for (long word = bits[w]; word != 0L; word &= word - 1L) {
+                int slot = (w << 6) + Long.numberOfTrailingZeros(word);
+                action.accept((char) (lowerBound + slot), values[slot]);
+            }
+        }
+    }
+
+    @Override
+    public boolean forEachWhile(/*f*/CharShortPredicate predicate) {
+        if (predicate == null)
+            throw new NullPointerException();
+        long[] bits = this.bits;
+        short[] values = this.values;
+        char lowerBound = this.lowerBound;
+        for (int w = 0; w < bits.length; w++) {
+            for (long word = bits[w]; word != 0L; word &= word - 1L) {
+                int slot = (w << 6) + Long.numberOfTrailingZeros(word);
+                if (!predicate.test((char) (lowerBound + slot), values[slot]))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        long[] bits = this.bits;
+        short[] values = this.values;
+        short defaultValue = this.defaultValue;
+        for (int w = 0; w < bits.length; w++) {
+            for (long word = bits[w]; word != 0L; word &= word - 1L) {
+                values[(w << 6) + Long.numberOfTrailingZeros(word)] = defaultValue;
+            }
+            bits[w] = 0L;
+        }
+        size = 0;
+    }
+
+    @NotNull
+    @Override
+    public CharShortCursor cursor() {
+        return new MapCursor();
+    }
+
+    @Override
+    public float loadFactor() {
+        return 1.0f;
+    }
+
+    @Override
+    public float currentLoad() {
+        return ((float) size) / domainSize;
+    }
+
+    @Override
+    public boolean ensureCapacity(int minSize) {
+        // the table spans the whole domain, it never needs to grow
+        return false;
+    }
+
+    @Override
+    public boolean shrink() {
+        return false;
+    }
+
+    @NotNull
+    @Override
+    public HashStats stats() {
+        long[] bits = this.bits;
+        byte[] states = new byte[domainSize];
+        for (int w = 0; w < bits.length; w++) {
+            for (long word = bits[w]; word != 0L; word &= word - 1L) {
+                states[(w << 6) + Long.numberOfTrailingZeros(word)] = TableHashStats.FULL_SLOT;
+            }
+        }
+        return new TableHashStats(states);
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+        long[] bits = this.bits;
+        short[] values = this.values;
+        char lowerBound = this.lowerBound;
+        for (int w = 0; w < bits.length; w++) {
+            for (long word = bits[w]; word != 0L; word &= word - 1L) {
+                int slot = (w << 6) + Long.numberOfTrailingZeros(word);
+                hashCode += Primitives.hashCode((char) (lowerBound + slot)) ^
+                        Primitives.hashCode(values[slot]);
+            }
+        }
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder().append('{');
+        forEach(new /*f*/CharShortConsumer() {
+            @Override
+            public void accept(char key, short value) {
+                if (sb.length() > 1)
+                    sb.append(", ");
+                sb.append(key).append('=').append(value);
+            }
+        });
+        return sb.append('}').toString();
+    }
+
+    @NotNull
+    @Override
+    public HashCharShortMap snapshot() {
+        final HashCharShortMap snapshot = factory.newMutableMap(size);
+        forEach(new /*f*/CharShortConsumer() {
+            @Override
+            public void accept(char key, short value) {
+                snapshot.put(key, value);
+            }
+        });
+        return snapshot;
+    }
+
+    private Object writeReplace() {
+        return snapshot();
+    }
+
+
+    /** Traverses the set bits of the bitmap, word by word */
+    class MapCursor implements CharShortCursor {
+        /** The index of the current word of the bitmap */
+        int w = -1;
+        /** The bits of the current word, which are not traversed yet */
+        long word = 0L;
+        /** The slot of the current entry, -1 if there is no current entry */
+        int slot = -1;
+
+        @Override
+        public boolean moveNext() {
+            long[] bits = BitmapDirectCharShortMap.this.bits;
+            long word = this.word;
+            int w = this.w;
+            while (word == 0L) {
+                if (w + 1 >= bits.length) {
+                    this.w = w;
+                    slot = -1;
+                    return false;
+                }
+                word = bits[++w];
+            }
+            this.w = w;
+            slot = (w << 6) + Long.numberOfTrailingZeros(word);
+            this.word = word & (word - 1L);
+            return true;
+        }
+
+        @Override
+        public void forEachForward(/*f*/CharShortConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            while (moveNext()) {
+                action.accept(key(), values[slot]);
+            }
+        }
+
+        @Override
+        public char key() {
+            int slot;
+            if ((slot = this.slot) < 0)
+                throw new IllegalStateException();
+            return (char) (lowerBound + slot);
+        }
+
+        @Override
+        public short value() {
+            int slot;
+            if ((slot = this.slot) < 0)
+                throw new IllegalStateException();
+            return values[slot];
+        }
+
+        @Override
+        public void setValue(short value) {
+            int slot;
+            if ((slot = this.slot) < 0)
+                throw new IllegalStateException();
+            values[slot] = value;
+        }
+
+        @Override
+        public void remove() {
+            int slot;
+            if ((slot = this.slot) < 0)
+                throw new IllegalStateException();
+            bits[slot >> 6] &= ~(1L << slot);
+            values[slot] = defaultValue;
+            size--;
+            this.slot = -1;
+        }
+    }
+}
@@ -1,3 +1,4 @@
+/* with char|byte|short|int|long|float|double elem DHash|PHash|LHash|RHash hash */
 /*
  * Copyright 2014 the original author or authors.
  *
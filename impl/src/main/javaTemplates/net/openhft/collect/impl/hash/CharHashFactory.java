@@ -65,22 +65,26 @@ public abstract class CharHashFactory<MT> {
         return conf;
     }
 
-    abstract MT createNew(float loadFactor, int expectedSize, char free, char removed);
+    abstract MT createNew(HashConfig hashConf, int expectedSize, char free, char removed);
 
     MT newHash(int expectedSize) {
         char free, removed;
         if (randomRemoved) {
             Random random = ThreadLocalRandom.current();
-            removed = (char) random.nextInt();
             if (randomFree) {
                 free = (char) random.nextInt();
             } else {
                 free = freeValue;
             }
+            // the free and the removed values must differ, otherwise removed slots
+            // terminate lookups of the keys probed past them
+            do {
+                removed = (char) random.nextInt();
+            } while (removed == free);
         } else {
             removed = removedValue;
             free = freeValue;
         }
-        return createNew(hashConf.getLoadFactor(), expectedSize, free, removed);
+        return createNew(hashConf, expectedSize, free, removed);
     }
 }
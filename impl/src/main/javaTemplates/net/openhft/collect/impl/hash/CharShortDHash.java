@@ -1,7 +1,9 @@
 /* with
  char|byte|short|int|long|float|double|obj key
  short|byte|char|int|long|float|double|obj value
+ DHash|PHash|LHash|RHash hash
 */
+/* if !(obj key LHash|RHash hash) */
 /*
  * Copyright 2014 the original author or authors.
  *
@@ -1,3 +1,4 @@
+/* with DHash|PHash|LHash|RHash hash */
 /*
  * Copyright 2014 the original author or authors.
  *
@@ -16,6 +17,19 @@
 
 package net.openhft.collect.impl.hash;
 
+import net.openhft.collect.KeyMixing;
+
 
 interface DHash extends Hash {
+
+    /**
+     * @return mixing of primitive keys, resolved from the config of the factory
+     *         which created the hash, see {@link MutableDHash#keyMixing(net.openhft.collect.HashConfig)}
+     */
+    KeyMixing keyMixing();
+
+    /**
+     * @return the function of {@link #keyMixing()}, called by lookups
+     */
+    KeyMixer keyMixer();
 }
@@ -1,4 +1,5 @@
-/* with char|byte|short|int|long|float|double|obj elem */
+/* with char|byte|short|int|long|float|double|obj elem DHash|PHash|LHash|RHash hash */
+/* if !(obj elem LHash|RHash hash) */
 /*
  * Copyright 2014 the original author or authors.
  *
@@ -18,17 +19,23 @@
 package net.openhft.collect.impl.hash;
 
 import net.openhft.collect.*;
+/* if !(float|double|obj elem) */
+import net.openhft.collect.set.hash.ConcurrentHashCharSet;
+/* endif */
 import net.openhft.collect.set.hash.HashCharSetFactory;
 import net.openhft.function.*;
 import net.openhft.collect.set.hash.HashCharSet;
 
 import java.util.Collection;
 import java.util.Iterator;
+/* if !(float|double|obj elem) */
+import java.util.concurrent.ForkJoinPool;
+/* endif */
 
 
-public abstract class HashCharSetFactoryGO/*<>*/ extends HashCharSetFactorySO/*<>*/ {
+public abstract class DHashCharSetFactoryGO/*<>*/ extends DHashCharSetFactorySO/*<>*/ {
 
-    public HashCharSetFactoryGO(/* if !(float|double elem) */CharHashConfig
+    public DHashCharSetFactoryGO(/* if !(float|double elem) */CharHashConfig
             /* elif float|double elem //HashConfig// endif */ conf) {
         super(conf);
     }
@@ -87,6 +94,18 @@ public abstract class HashCharSetFactoryGO/*<>*/ extends HashCharSetFactorySO/*<
         return newMutableSet(hashConf.getDefaultExpectedSize());
     }
 
+    /* if !(float|double|obj elem) */
+    @Override
+    public ConcurrentHashCharSet newConcurrentSet() {
+        return newConcurrentSet(hashConf.getDefaultExpectedSize());
+    }
+
+    @Override
+    public ConcurrentHashCharSet newConcurrentSet(int expectedSize) {
+        return new LockFreeHashCharSet(this, hashConf, expectedSize);
+    }
+    /* endif */
+
     @Override
     public/*p1*/ MutableDHashCharSetGO/*p2*/ newMutableSet(Iterable/*ep*/<Character>/**/ elements) {
         int expectedSize = elements instanceof Collection ?
@@ -223,116 +242,97 @@ public abstract class HashCharSetFactoryGO/*<>*/ extends HashCharSetFactorySO/*<
 
     @Override
     public/*p1*/ HashCharSet/*p2*/ newImmutableSet(Iterable/*ep*/<Character>/**/ elements) {
-        ImmutableDHashCharSetGO/*p2*/ set = uninitializedImmutableSet();
-        set.move(newMutableSet(elements));
-        return set;
+        return moveToImmutable(newMutableSet(elements));
     }
 
     @Override
     public/*p1*/ HashCharSet/*p2*/ newImmutableSet(Iterable/*ep*/<Character>/**/ elements,
             int expectedSize) {
-        ImmutableDHashCharSetGO/*p2*/ set = uninitializedImmutableSet();
-        set.move(newMutableSet(elements, expectedSize));
-        return set;
+        return moveToImmutable(newMutableSet(elements, expectedSize));
     }
 
     @Override
     public/*p1*/ HashCharSet/*p2*/ newImmutableSet(Iterator/*ep*/<Character>/**/ elements) {
-        ImmutableDHashCharSetGO/*p2*/ set = uninitializedImmutableSet();
-        set.move(newMutableSet(elements));
-        return set;
+        return moveToImmutable(newMutableSet(elements));
     }
 
     @Override
     public/*p1*/ HashCharSet/*p2*/ newImmutableSet(Iterator/*ep*/<Character>/**/ elements,
             int expectedSize) {
-        ImmutableDHashCharSetGO/*p2*/ set = uninitializedImmutableSet();
-        set.move(newMutableSet(elements, expectedSize));
-        return set;
+        return moveToImmutable(newMutableSet(elements, expectedSize));
     }
 
     @Override
     public/*p1*/ HashCharSet/*p2*/ newImmutableSet(
             Consumer</*f*/CharConsumer/*p2*/> elementsSupplier) {
-        ImmutableDHashCharSetGO/*p2*/ set = uninitializedImmutableSet();
-        set.move(newMutableSet(elementsSupplier));
-        return set;
+        return moveToImmutable(newMutableSet(elementsSupplier));
     }
 
     @Override
     public/*p1*/ HashCharSet/*p2*/ newImmutableSet(
             Consumer</*f*/CharConsumer/*p2*/> elementsSupplier, int expectedSize) {
-        ImmutableDHashCharSetGO/*p2*/ set = uninitializedImmutableSet();
-        set.move(newMutableSet(elementsSupplier, expectedSize));
-        return set;
+        return moveToImmutable(newMutableSet(elementsSupplier, expectedSize));
     }
 
     @Override
     public/*p1*/ HashCharSet/*p2*/ newImmutableSet(/*pe*/char/**/[] elements) {
-        ImmutableDHashCharSetGO/*p2*/ set = uninitializedImmutableSet();
-        set.move(newMutableSet(elements));
-        return set;
+        return moveToImmutable(newMutableSet(elements));
     }
 
     @Override
     public/*p1*/ HashCharSet/*p2*/ newImmutableSet(/*pe*/char/**/[] elements, int expectedSize) {
-        ImmutableDHashCharSetGO/*p2*/ set = uninitializedImmutableSet();
-        set.move(newMutableSet(elements, expectedSize));
-        return set;
+        return moveToImmutable(newMutableSet(elements, expectedSize));
     }
 
+    /* if !(float|double|obj elem) */
+    @Override
+    public HashCharSet newImmutableSet(char[] elements, ForkJoinPool pool) {
+        if (pool == null)
+            throw new NullPointerException();
+        MutableDHashCharSetGO set = newMutableSet(elements.length);
+        set.parallelAddAll(elements, pool);
+        return moveToImmutable(shrunk(set));
+    }
+    /* endif */
+
     /* if !(obj elem) */
     @Override
     public HashCharSet newImmutableSet(Character[] elements) {
-        ImmutableDHashCharSetGO set = uninitializedImmutableSet();
-        set.move(newMutableSet(elements));
-        return set;
+        return moveToImmutable(newMutableSet(elements));
     }
 
     @Override
     public HashCharSet newImmutableSet(Character[] elements, int expectedSize) {
-        ImmutableDHashCharSetGO set = uninitializedImmutableSet();
-        set.move(newMutableSet(elements, expectedSize));
-        return set;
+        return moveToImmutable(newMutableSet(elements, expectedSize));
     }
     /* endif */
 
     @Override
     public/*p1*/ HashCharSet/*p2*/ newImmutableSetOf(/*pe*/char/**/ e1) {
-        ImmutableDHashCharSetGO/*p2*/ set = uninitializedImmutableSet();
-        set.move(newMutableSetOf(e1));
-        return set;
+        return moveToImmutable(newMutableSetOf(e1));
     }
 
     @Override
     public/*p1*/ HashCharSet/*p2*/ newImmutableSetOf(/*pe*/char/**/ e1, /*pe*/char/**/ e2) {
-        ImmutableDHashCharSetGO/*p2*/ set = uninitializedImmutableSet();
-        set.move(newMutableSetOf(e1, e2));
-        return set;
+        return moveToImmutable(newMutableSetOf(e1, e2));
     }
 
     @Override
     public/*p1*/ HashCharSet/*p2*/ newImmutableSetOf(/*pe*/char/**/ e1, /*pe*/char/**/ e2,
             /*pe*/char/**/ e3) {
-        ImmutableDHashCharSetGO/*p2*/ set = uninitializedImmutableSet();
-        set.move(newMutableSetOf(e1, e2, e3));
-        return set;
+        return moveToImmutable(newMutableSetOf(e1, e2, e3));
     }
 
     @Override
     public/*p1*/ HashCharSet/*p2*/ newImmutableSetOf(/*pe*/char/**/ e1, /*pe*/char/**/ e2,
             /*pe*/char/**/ e3, /*pe*/char/**/ e4) {
-        ImmutableDHashCharSetGO/*p2*/ set = uninitializedImmutableSet();
-        set.move(newMutableSetOf(e1, e2, e3, e4));
-        return set;
+        return moveToImmutable(newMutableSetOf(e1, e2, e3, e4));
     }
 
     @Override
     public/*p1*/ HashCharSet/*p2*/ newImmutableSetOf(/*pe*/char/**/ e1, /*pe*/char/**/ e2,
             /*pe*/char/**/ e3, /*pe*/char/**/ e4, /*pe*/char/**/ e5,
             /*pe*/char/**/... restElements) {
-        ImmutableDHashCharSetGO/*p2*/ set = uninitializedImmutableSet();
-        set.move(newMutableSetOf(e1, e2, e3, e4, e5, restElements));
-        return set;
+        return moveToImmutable(newMutableSetOf(e1, e2, e3, e4, e5, restElements));
     }
 }
@@ -1,4 +1,4 @@
-/* with char|byte|short|int|long|float|double elem */
+/* with char|byte|short|int|long|float|double elem DHash|PHash|LHash|RHash hash */
 /*
  * Copyright 2014 the original author or authors.
  *
@@ -18,29 +18,32 @@
 package net.openhft.collect.impl.hash;
 
 import net.openhft.collect.*;
+import net.openhft.collect.set.hash.HashCharSetFactory;
 
 
-public class HashCharSetFactoryImpl extends HashCharSetFactoryGO {
+public class DHashCharSetFactoryImpl extends DHashCharSetFactoryGO {
 
     /* define configClass */
     /* if !(float|double elem) //CharHashConfig// elif float|double elem //HashConfig// endif */
     /* enddefine */
 
+    /* if DHash hash */
     /**
      * For ServiceLoader
      */
-    public HashCharSetFactoryImpl() {
+    public DHashCharSetFactoryImpl() {
         this(/* configClass */CharHashConfig/**/.DEFAULT);
     }
+    /* endif */
 
-    public HashCharSetFactoryImpl(/* configClass */CharHashConfig/**/ conf) {
+    public DHashCharSetFactoryImpl(/* configClass */CharHashConfig/**/ conf) {
         super(conf);
     }
 
     @Override
-    public HashCharSetFactoryImpl withConfig(/* configClass */CharHashConfig/**/ config) {
+    public HashCharSetFactory withConfig(/* configClass */CharHashConfig/**/ config) {
         if (getConfig().equals(config))
             return this;
-        return new HashCharSetFactoryImpl(config);
+        return HashCharSetFactories.newFactory(config);
     }
 }
@@ -1,4 +1,4 @@
-/* with char|byte|short|int|long|float|double elem */
+/* with char|byte|short|int|long|float|double elem DHash|PHash|LHash|RHash hash */
 /*
  * Copyright 2014 the original author or authors.
  *
@@ -20,17 +20,21 @@ package net.openhft.collect.impl.hash;
 import net.openhft.collect.*;
 import net.openhft.function.CharConsumer;
 import net.openhft.collect.set.hash.HashCharSetFactory;
+/* if !(float|double elem) */
+import net.openhft.collect.set.hash.ParallelHashCharSetFactory;
+/* endif */
 
 import java.util.Set;
 
 
-public abstract class HashCharSetFactorySO
+public abstract class DHashCharSetFactorySO
         /* if !(float|double elem) */extends CharHashFactory<MutableDHashCharSetGO>/* endif */
-        implements HashCharSetFactory {
+        implements HashCharSetFactory
+        /* if !(float|double elem) */, ParallelHashCharSetFactory/* endif */ {
 
     /* if float|double elem */final HashConfig hashConf;/* endif */
 
-    HashCharSetFactorySO(/* if !(float|double elem) */CharHashConfig
+    DHashCharSetFactorySO(/* if !(float|double elem) */CharHashConfig
             /* elif float|double elem //HashConfig// endif */ conf) {
         /* if !(float|double elem) */
         super(conf);
@@ -41,9 +45,10 @@ public abstract class HashCharSetFactorySO
 
     /* if !(float|double elem) */
     @Override
-    MutableDHashCharSetGO createNew(float loadFactor, int expectedSize, char free, char removed) {
+    MutableDHashCharSetGO createNew(HashConfig hashConf, int expectedSize, char free,
+            char removed) {
         MutableDHashCharSet set = new MutableDHashCharSet();
-        set.init(loadFactor, expectedSize, free, removed);
+        set.init(hashConf, expectedSize, free, removed);
         return set;
     }
     /* elif float|double elem */
@@ -59,7 +64,7 @@ public abstract class HashCharSetFactorySO
         return newHash(expectedSize);
         /* elif float|double elem */
         MutableDHashCharSetGO set = new MutableDHashCharSet();
-        set.init(hashConf.getLoadFactor(), expectedSize);
+        set.init(hashConf, expectedSize);
         return set;
         /* endif */
     }
@@ -68,14 +73,31 @@ public abstract class HashCharSetFactorySO
         return new ImmutableDHashCharSet();
     }
 
+    /**
+     * Moves the table of the given set, which shouldn't be used after the call, to a new
+     * immutable set, built with a minimal perfect hash function if the config says so.
+     */
+    ImmutableDHashCharSetGO moveToImmutable(MutableDHashCharSetGO set) {
+        ImmutableDHashCharSetGO res = uninitializedImmutableSet();
+        // immutable hashes don't know the removed value, and would see removed slots as keys
+        if (!set.noRemoved())
+            set.rehash(set.capacity());
+        res.move(set);
+        if (hashConf.isPerfectHashing())
+            res.buildPerfectHash();
+        return res;
+    }
+
     @Override
     public MutableDHashCharSetGO newMutableSet(Iterable<Character> elements, int expectedSize) {
         if (elements instanceof CharCollection) {
             if (elements instanceof CharDHash) {
                 CharDHash hash = (CharDHash) elements;
-                if (hash.loadFactor() == hashConf.getLoadFactor()) {
+                if (hash.loadFactor() == hashConf.getLoadFactor() &&
+                        hash.keyMixing() == MutableDHash.keyMixing(hashConf)) {
                     MutableDHashCharSet set = new MutableDHashCharSet();
                     set.copy(hash);
+                    set.initPolicies(hashConf);
                     return set;
                 }
             }
@@ -1,7 +1,9 @@
 /* with
  char|byte|short|int|long|float|double|obj key
  short|byte|char|int|long|float|double|obj value
+ DHash|PHash|LHash|RHash hash
 */
+/* if !(obj key LHash|RHash hash) */
 /*
  * Copyright 2014 the original author or authors.
  *
@@ -22,16 +24,36 @@ package net.openhft.collect.impl.hash;
 
 import net.openhft.collect.*;
 import net.openhft.collect.impl.Primitives;
+/* if !(obj key) */
+import net.openhft.collect.map.hash.ConcurrentHashCharShortMap;
+/* endif */
 import net.openhft.collect.map.hash.HashCharShortMapFactory;
+/* if byte|char|short key && !(obj value) */
+import net.openhft.collect.map.hash.DirectCharShortMap;
+/* endif */
+/* if !(obj|float|double key) && !(obj|float|double value) */
+import net.openhft.collect.map.hash.IncrementalHashCharShortMap;
+/* endif */
+/* if !(obj|float|double key) && !(obj value) */
+import net.openhft.collect.map.hash.MappedHashCharShortMap;
+import net.openhft.collect.map.hash.OffHeapHashCharShortMap;
+/* endif */
 import net.openhft.function.*;
 import net.openhft.collect.map.hash.HashCharShortMap;
 
+/* if !(obj|float|double key) && !(obj value) */
+import java.io.File;
+import java.io.IOException;
+/* endif */
 import java.util.*;
+/* if !(obj|float|double key) && !(obj value) */
+import java.util.concurrent.ForkJoinPool;
+/* endif */
 
 
-public abstract class HashCharShortMapFactoryGO/*<>*/ extends HashCharShortMapFactorySO/*<>*/ {
+public abstract class DHashCharShortMapFactoryGO/*<>*/ extends DHashCharShortMapFactorySO/*<>*/ {
 
-    HashCharShortMapFactoryGO(/* if !(float|double key) */CharHashConfig
+    DHashCharShortMapFactoryGO(/* if !(float|double key) */CharHashConfig
             /* elif float|double key //HashConfig// endif */ conf) {
         super(conf);
     }
@@ -135,10 +157,92 @@ public abstract class HashCharShortMapFactoryGO/*<>*/ extends HashCharShortMapFa
         return map;
     }
 
+    /* if !(obj key) */
+    @Override
+    public /*p1*/ ConcurrentHashCharShortMap/*p2*/ newConcurrentMap() {
+        return newConcurrentMap(hashConf.getDefaultExpectedSize(),
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    public /*p1*/ ConcurrentHashCharShortMap/*p2*/ newConcurrentMap(int expectedSize,
+            int concurrencyLevel) {
+        int segments = StripedHashCharShortMap.segments(expectedSize, concurrencyLevel);
+        int segmentExpectedSize =
+                StripedHashCharShortMap.segmentExpectedSize(expectedSize, segments);
+        // noinspection unchecked
+        HashCharShortMap/*p2*/[] maps = new HashCharShortMap[segments];
+        for (int i = 0; i < segments; i++) {
+            maps[i] = newMutableMap(segmentExpectedSize);
+        }
+        return new StripedHashCharShortMap/*p2*/(this, maps);
+    }
+    /* endif */
+
+    /* if !(obj|float|double key) && !(obj value) */
+    @Override
+    public OffHeapHashCharShortMap newOffHeapMap() {
+        return newOffHeapMap(hashConf.getDefaultExpectedSize());
+    }
+
+    @Override
+    public OffHeapHashCharShortMap newOffHeapMap(int expectedSize) {
+        return new OffHeapLHashCharShortMap(this, hashConf, expectedSize);
+    }
+
+    @Override
+    public MappedHashCharShortMap newMappedMap(File file, Map<Character, Short> map)
+            throws IOException {
+        return MappedLHashCharShortMap.write(this, hashConf, file, map);
+    }
+
+    @Override
+    public MappedHashCharShortMap openMappedMap(File file) throws IOException {
+        return MappedLHashCharShortMap.open(this, file);
+    }
+    /* endif */
+
+    /* if !(obj|float|double key) && !(obj|float|double value) */
+    @Override
+    public IncrementalHashCharShortMap newIncrementalMap() {
+        return newIncrementalMap(hashConf.getDefaultExpectedSize());
+    }
+
+    @Override
+    public IncrementalHashCharShortMap newIncrementalMap(int expectedSize) {
+        /* if DHash|PHash hash */
+        return new IncrementalDHashCharShortMap(this, expectedSize);
+        /* elif LHash|RHash hash */
+        // keys are shifted back on removal, that breaks the migration scan
+        return withConfig(getConfig().withHashConfig(
+                hashConf.withAlgorithm(HashAlgorithm.DOUBLE_HASHING)))
+                .newIncrementalMap(expectedSize);
+        /* endif */
+    }
+    /* endif */
+
+    /* if byte|char|short key && !(obj value) */
+    @Override
+    public DirectCharShortMap newDirectMap() {
+        return new BitmapDirectCharShortMap(this);
+    }
+    /* endif */
+
+    /* if byte|char|short key && !(obj value) */
+    @Override
+    public HashCharShortMap newMutableMap() {
+        if (BitmapDirectCharShortMap.domainSize(getConfig()) <=
+                BitmapDirectCharShortMap.MUTABLE_MAP_MAX_DOMAIN_SIZE) {
+            return new BitmapDirectCharShortMap(this);
+        }
+        return newMutableMap(hashConf.getDefaultExpectedSize());
+    }
+    /* elif !(byte|char|short key) || obj value */
     @Override
     public /*p1*/ MutableDHashCharShortMapGO/*p2*/ newMutableMap() {
         return newMutableMap(hashConf.getDefaultExpectedSize());
     }
+    /* endif */
 
     @Override
     public /*p1*/ MutableDHashCharShortMapGO/*p2*/ newMutableMap(
@@ -191,12 +295,30 @@ public abstract class HashCharShortMapFactoryGO/*<>*/ extends HashCharShortMapFa
         int keysLen = keys.length;
         if (keysLen != values.length)
             throw new IllegalArgumentException("keys and values arrays must have the same size");
+        /* if !(obj key) && !(obj value) */
+        map.bulkPut(keys, values, null);
+        /* elif obj key || obj value //
         for (int i = 0; i < keys.length; i++) {
             map.put(keys[i], values[i]);
         }
+        // endif */
         return shrunk(map);
     }
 
+    /* if !(obj key) && !(obj value) */
+    @Override
+    public MutableDHashCharShortMapGO newMutableMap(char[] keys, short[] values,
+            /*f*/ShortBinaryOperator mergeFunction) {
+        if (mergeFunction == null)
+            throw new NullPointerException();
+        if (keys.length != values.length)
+            throw new IllegalArgumentException("keys and values arrays must have the same size");
+        MutableDHashCharShortMapGO map = newMutableMap(keys.length);
+        map.bulkPut(keys, values, mergeFunction);
+        return shrunk(map);
+    }
+    /* endif */
+
     /* if !(obj key obj value) */
     @Override
     public /*p1*/ MutableDHashCharShortMapGO/*p2*/ newMutableMap(
@@ -300,125 +422,116 @@ public abstract class HashCharShortMapFactoryGO/*<>*/ extends HashCharShortMapFa
 
     @Override
     public /*p1*/ HashCharShortMap/*p2*/ newImmutableMap(Map/*ep*/<Character, Short>/**/ map) {
-        ImmutableDHashCharShortMapGO/*p2*/ res = uninitializedImmutableMap();
-        res.move(newMutableMap(map));
-        return res;
+        return moveToImmutable(newMutableMap(map));
     }
 
      /* if obj key */
     @Override
     public /*p1*/ HashCharShortMap/*p2*/ newImmutableMap(Map/*ep*/<Character, Short>/**/ map,
             int expectedSize) {
-        ImmutableDHashCharShortMapGO/*p2*/ res = uninitializedImmutableMap();
-        res.move(newMutableMap(map, expectedSize));
-        return res;
+        return moveToImmutable(newMutableMap(map, expectedSize));
     }
     /* endif */
 
     @Override
     public /*p1*/ HashCharShortMap/*p2*/ newImmutableMap(
             Consumer</*f*/CharShortConsumer/*p2*/> entriesSupplier) {
-        ImmutableDHashCharShortMapGO/*p2*/ map = uninitializedImmutableMap();
-        map.move(newMutableMap(entriesSupplier));
-        return map;
+        return moveToImmutable(newMutableMap(entriesSupplier));
     }
 
     @Override
     public /*p1*/ HashCharShortMap/*p2*/ newImmutableMap(
             Consumer</*f*/CharShortConsumer/*p2*/> entriesSupplier, int expectedSize) {
-        ImmutableDHashCharShortMapGO/*p2*/ map = uninitializedImmutableMap();
-        map.move(newMutableMap(entriesSupplier, expectedSize));
-        return map;
+        return moveToImmutable(newMutableMap(entriesSupplier, expectedSize));
     }
 
     @Override
     public /*p1*/ HashCharShortMap/*p2*/ newImmutableMap(/*pk*/char/**/[] keys,
             /*pv*/short/**/[] values) {
-        ImmutableDHashCharShortMapGO/*p2*/ map = uninitializedImmutableMap();
-        map.move(newMutableMap(keys, values));
-        return map;
+        return moveToImmutable(newMutableMap(keys, values));
     }
 
     @Override
     public /*p1*/ HashCharShortMap/*p2*/ newImmutableMap(/*pk*/char/**/[] keys,
             /*pv*/short/**/[] values, int expectedSize) {
-        ImmutableDHashCharShortMapGO/*p2*/ map = uninitializedImmutableMap();
-        map.move(newMutableMap(keys, values, expectedSize));
-        return map;
+        return moveToImmutable(newMutableMap(keys, values, expectedSize));
     }
 
+    /* if !(obj key) && !(obj value) */
+    @Override
+    public HashCharShortMap newImmutableMap(char[] keys, short[] values,
+            /*f*/ShortBinaryOperator mergeFunction) {
+        return moveToImmutable(newMutableMap(keys, values, mergeFunction));
+    }
+    /* endif */
+
+    /* if !(obj|float|double key) && !(obj value) */
+    @Override
+    public HashCharShortMap newImmutableMap(char[] keys, short[] values, ForkJoinPool pool) {
+        if (pool == null)
+            throw new NullPointerException();
+        if (keys.length != values.length)
+            throw new IllegalArgumentException("keys and values arrays must have the same size");
+        MutableDHashCharShortMapGO map = newMutableMap(keys.length);
+        map.parallelBulkPut(keys, values, pool);
+        return moveToImmutable(shrunk(map));
+    }
+    /* endif */
+
     /* if !(obj key obj value) */
     @Override
     public /*p1*/ HashCharShortMap/*p2*/ newImmutableMap(
             /*gk*/Character/**/[] keys, /*gv*/Short/**/[] values) {
-        ImmutableDHashCharShortMapGO/*p2*/ map = uninitializedImmutableMap();
-        map.move(newMutableMap(keys, values));
-        return map;
+        return moveToImmutable(newMutableMap(keys, values));
     }
 
     @Override
     public /*p1*/ HashCharShortMap/*p2*/ newImmutableMap(
             /*gk*/Character/**/[] keys, /*gv*/Short/**/[] values, int expectedSize) {
-        ImmutableDHashCharShortMapGO/*p2*/ map = uninitializedImmutableMap();
-        map.move(newMutableMap(keys, values, expectedSize));
-        return map;
+        return moveToImmutable(newMutableMap(keys, values, expectedSize));
     }
     /* endif */
 
     @Override
     public /*p1*/ HashCharShortMap/*p2*/ newImmutableMap(Iterable</*ek*/Character/**/> keys,
             Iterable</*ev*/Short/**/> values) {
-        ImmutableDHashCharShortMapGO/*p2*/ map = uninitializedImmutableMap();
-        map.move(newMutableMap(keys, values));
-        return map;
+        return moveToImmutable(newMutableMap(keys, values));
     }
 
     @Override
     public /*p1*/ HashCharShortMap/*p2*/ newImmutableMap(Iterable</*ek*/Character/**/> keys,
             Iterable</*ev*/Short/**/> values, int expectedSize) {
-        ImmutableDHashCharShortMapGO/*p2*/ map = uninitializedImmutableMap();
-        map.move(newMutableMap(keys, values, expectedSize));
-        return map;
+        return moveToImmutable(newMutableMap(keys, values, expectedSize));
     }
 
     @Override
     public /*p1*/ HashCharShortMap/*p2*/ newImmutableMapOf(/*pk*/char/**/ k1, /*pv*/short/**/ v1) {
-        ImmutableDHashCharShortMapGO/*p2*/ map = uninitializedImmutableMap();
-        map.move(newMutableMapOf(k1, v1));
-        return map;
+        return moveToImmutable(newMutableMapOf(k1, v1));
     }
 
     @Override
     public /*p1*/ HashCharShortMap/*p2*/ newImmutableMapOf(/*pk*/char/**/ k1, /*pv*/short/**/ v1,
              /*pk*/char/**/ k2, /*pv*/short/**/ v2) {
-        ImmutableDHashCharShortMapGO/*p2*/ map = uninitializedImmutableMap();
-        map.move(newMutableMapOf(k1, v1, k2, v2));
-        return map;
+        return moveToImmutable(newMutableMapOf(k1, v1, k2, v2));
     }
 
     @Override
     public /*p1*/ HashCharShortMap/*p2*/ newImmutableMapOf(/*pk*/char/**/ k1, /*pv*/short/**/ v1,
              /*pk*/char/**/ k2, /*pv*/short/**/ v2, /*pk*/char/**/ k3, /*pv*/short/**/ v3) {
-        ImmutableDHashCharShortMapGO/*p2*/ map = uninitializedImmutableMap();
-        map.move(newMutableMapOf(k1, v1, k2, v2, k3, v3));
-        return map;
+        return moveToImmutable(newMutableMapOf(k1, v1, k2, v2, k3, v3));
     }
 
     @Override
     public /*p1*/ HashCharShortMap/*p2*/ newImmutableMapOf(/*pk*/char/**/ k1, /*pv*/short/**/ v1,
              /*pk*/char/**/ k2, /*pv*/short/**/ v2, /*pk*/char/**/ k3, /*pv*/short/**/ v3,
              /*pk*/char/**/ k4, /*pv*/short/**/ v4) {
-        ImmutableDHashCharShortMapGO/*p2*/ map = uninitializedImmutableMap();
-        map.move(newMutableMapOf(k1, v1, k2, v2, k3, v3, k4, v4));
-        return map;
+        return moveToImmutable(newMutableMapOf(k1, v1, k2, v2, k3, v3, k4, v4));
     }
 
     @Override
     public /*p1*/ HashCharShortMap/*p2*/ newImmutableMapOf(/*pk*/char/**/ k1, /*pv*/short/**/ v1,
              /*pk*/char/**/ k2, /*pv*/short/**/ v2, /*pk*/char/**/ k3, /*pv*/short/**/ v3,
              /*pk*/char/**/ k4, /*pv*/short/**/ v4, /*pk*/char/**/ k5, /*pv*/short/**/ v5) {
-        ImmutableDHashCharShortMapGO/*p2*/ map = uninitializedImmutableMap();
-        map.move(newMutableMapOf(k1, v1, k2, v2, k3, v3, k4, v4, k5, v5));
-        return map;
+        return moveToImmutable(newMutableMapOf(k1, v1, k2, v2, k3, v3, k4, v4, k5, v5));
     }
 }
@@ -1,7 +1,9 @@
 /* with
   char|byte|short|int|long|float|double|obj key
   short|byte|char|int|long|float|double|obj value
+  DHash|PHash|LHash|RHash hash
 */
+/* if !(obj key LHash|RHash hash) */
 /*
  * Copyright 2014 the original author or authors.
  *
@@ -29,7 +31,7 @@ import org.jetbrains.annotations.Nullable;
  * TODO recheck
  * high probability of copy-paste mistake
  */
-public final class HashCharShortMapFactoryImpl/*<>*/ extends HashCharShortMapFactoryGO/*<>*/ {
+public final class DHashCharShortMapFactoryImpl/*<>*/ extends DHashCharShortMapFactoryGO/*<>*/ {
 
     /* define p1 */
     /* if obj key obj value //<K2 extends K, V2 extends V>// elif obj key //<K2 extends K>
@@ -52,14 +54,16 @@ public final class HashCharShortMapFactoryImpl/*<>*/ extends HashCharShortMapFac
     /* if !(float|double key) //CharHashConfig// elif float|double key //HashConfig// endif */
     /* enddefine */
 
+    /* if DHash hash */
     /**
      * For ServiceLoader
      */
-    public HashCharShortMapFactoryImpl() {
+    public DHashCharShortMapFactoryImpl() {
         this(/* configClass */CharHashConfig/**/.DEFAULT);
     }
+    /* endif */
 
-    HashCharShortMapFactoryImpl(/* configClass */CharHashConfig/**/ conf) {
+    DHashCharShortMapFactoryImpl(/* configClass */CharHashConfig/**/ conf) {
         super(conf);
     }
 
@@ -99,12 +103,12 @@ public final class HashCharShortMapFactoryImpl/*<>*/ extends HashCharShortMapFac
     public HashCharShortMapFactory/*<>*/ withConfig(/* configClass */CharHashConfig/**/ config) {
         if (getConfig().equals(config))
             return this;
-        return new HashCharShortMapFactoryImpl/*<>*/(config);
+        return HashCharShortMapFactories./*<>*/newFactory(config);
     }
 
 
     /* if obj key */
-    static class WithCustomKeyEquivalence<K/*andV*/> extends HashObjShortMapFactoryGO<K/*andV*/> {
+    static class WithCustomKeyEquivalence<K/*andV*/> extends DHashObjShortMapFactoryGO<K/*andV*/> {
 
         private final Equivalence<K> keyEquivalence;
 
@@ -139,7 +143,7 @@ public final class HashCharShortMapFactoryImpl/*<>*/ extends HashCharShortMapFac
         public <KE> HashObjShortMapFactory<KE/*andV*/> withKeyEquivalence(
                 @Nullable Equivalence<KE> keyEquivalence) {
             if (keyEquivalence == null)
-                return new HashObjShortMapFactoryImpl<KE/*andV*/>(conf);
+                return new DHashObjShortMapFactoryImpl<KE/*andV*/>(conf);
             if (keyEquivalence.equals(this.keyEquivalence)) {
                 // noinspection unchecked
                 return (HashObjShortMapFactory<KE/*andV*/>) this;
@@ -171,13 +175,14 @@ public final class HashCharShortMapFactoryImpl/*<>*/ extends HashCharShortMapFac
         public HashObjShortMapFactory<K/*andV*/> withConfig(ObjHashConfig config) {
             if (getConfig().equals(config))
                 return this;
-            return new WithCustomKeyEquivalence<K/*andV*/>(config, keyEquivalence);
+            return HashObjShortMapFactories.<K/*andV*/>newFactory(config)
+                    .withKeyEquivalence(keyEquivalence);
         }
     }
     /* endif */
 
     /* if !(obj value) */
-    static final class WithCustomDefaultValue/*<>*/ extends HashCharShortMapFactoryGO/*<>*/ {
+    static final class WithCustomDefaultValue/*<>*/ extends DHashCharShortMapFactoryGO/*<>*/ {
         private final short defaultValue;
 
         WithCustomDefaultValue(/* configClass */CharHashConfig/**/ conf, short defaultValue) {
@@ -222,7 +227,7 @@ public final class HashCharShortMapFactoryImpl/*<>*/ extends HashCharShortMapFac
         @Override
         public HashCharShortMapFactory/*<>*/ withDefaultValue(short defaultValue) {
             if (defaultValue == /* const value 0 */0)
-                return new HashCharShortMapFactoryImpl/*<>*/(getConfig());
+                return new DHashCharShortMapFactoryImpl/*<>*/(getConfig());
             if (defaultValue == this.defaultValue)
                 return this;
             return new WithCustomDefaultValue/*<>*/(getConfig(), defaultValue);
@@ -233,12 +238,13 @@ public final class HashCharShortMapFactoryImpl/*<>*/ extends HashCharShortMapFac
                 /* configClass */CharHashConfig/**/ config) {
             if (getConfig().equals(config))
                 return this;
-            return new WithCustomDefaultValue/*<>*/(config, defaultValue);
+            return HashCharShortMapFactories./*<>*/newFactory(config)
+                    .withDefaultValue(defaultValue);
         }
     }
     /* elif obj value */
     static final class WithCustomValueEquivalence</*kAnd*/V>
-            extends HashCharObjMapFactoryGO</*kAnd*/V> {
+            extends DHashCharObjMapFactoryGO</*kAnd*/V> {
 
         private final Equivalence<V> valueEquivalence;
         WithCustomValueEquivalence(/* configClass */CharHashConfig/**/ conf,
@@ -285,7 +291,7 @@ public final class HashCharShortMapFactoryImpl/*<>*/ extends HashCharShortMapFac
         public <VE> HashCharObjMapFactory</*kAnd*/VE> withValueEquivalence(
                 @Nullable Equivalence<VE> valueEquivalence) {
             if (valueEquivalence == null)
-                return new HashCharObjMapFactoryImpl</*kAnd*/VE>(getConfig());
+                return new DHashCharObjMapFactoryImpl</*kAnd*/VE>(getConfig());
             if (valueEquivalence.equals(this.valueEquivalence))
                 // noinspection unchecked
                 return (HashCharObjMapFactory</*kAnd*/VE>) this;
@@ -298,14 +304,15 @@ public final class HashCharShortMapFactoryImpl/*<>*/ extends HashCharShortMapFac
                 /* configClass */CharHashConfig/**/ config) {
             if (getConfig().equals(config))
                 return this;
-            return new WithCustomValueEquivalence</*kAnd*/V>(config, valueEquivalence);
+            return HashCharObjMapFactories.</*kAnd*/V>newFactory(config)
+                    .withValueEquivalence(valueEquivalence);
         }
     }
     /* endif */
 
     /* if obj key && !(obj value) */
     static final class WithCustomKeyEquivalenceAndDefaultValue<K>
-            extends HashObjShortMapFactoryGO<K> {
+            extends DHashObjShortMapFactoryGO<K> {
         private final Equivalence<K> keyEquivalence;
         private final short defaultValue;
 
@@ -371,13 +378,13 @@ public final class HashCharShortMapFactoryImpl/*<>*/ extends HashCharShortMapFac
         public HashObjShortMapFactory<K> withConfig(ObjHashConfig config) {
             if (getConfig().equals(config))
                 return this;
-            return new WithCustomKeyEquivalenceAndDefaultValue<K>(
-                    config, keyEquivalence, defaultValue);
+            return HashObjShortMapFactories.<K>newFactory(config)
+                    .withKeyEquivalence(keyEquivalence).withDefaultValue(defaultValue);
         }
     }
     /* elif obj key obj value */
     static final class WithCustomEquivalences<K, V>
-            extends HashObjObjMapFactoryGO<K, V> {
+            extends DHashObjObjMapFactoryGO<K, V> {
         private final Equivalence<K> keyEquivalence;
         private final Equivalence<V> valueEquivalence;
 
@@ -445,7 +452,8 @@ public final class HashCharShortMapFactoryImpl/*<>*/ extends HashCharShortMapFac
         public HashObjObjMapFactory<K, V> withConfig(ObjHashConfig config) {
             if (getConfig().equals(config))
                 return this;
-            return new WithCustomEquivalences<K, V>(config, keyEquivalence, valueEquivalence);
+            return HashObjObjMapFactories.<K, V>newFactory(config)
+                    .withKeyEquivalence(keyEquivalence).withValueEquivalence(valueEquivalence);
         }
     }
     /* endif */
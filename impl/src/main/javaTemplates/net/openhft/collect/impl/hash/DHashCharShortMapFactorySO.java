@@ -1,6 +1,7 @@
 /* with
  char|byte|short|int|long|float|double key
  short|byte|char|int|long|float|double|obj value
+ DHash|PHash|LHash|RHash hash
 */
 /*
  * Copyright 2014 the original author or authors.
@@ -24,18 +25,22 @@ import net.openhft.collect.*;
 import net.openhft.function.CharShortConsumer;
 import net.openhft.collect.map.CharShortMap;
 import net.openhft.collect.map.hash.HashCharShortMapFactory;
+/* if !(float|double key) && !(obj value) */
+import net.openhft.collect.map.hash.ParallelHashCharShortMapFactory;
+/* endif */
 
 import java.util.Map;
 
 
-public abstract class HashCharShortMapFactorySO/*<>*/
+public abstract class DHashCharShortMapFactorySO/*<>*/
         /* if !(float|double key) */extends CharHashFactory<MutableDHashCharShortMapGO/*<>*/>
         /* endif */
-        implements HashCharShortMapFactory/*<>*/ {
+        implements HashCharShortMapFactory/*<>*/
+        /* if !(float|double key) && !(obj value) */, ParallelHashCharShortMapFactory/* endif */ {
 
     /* if float|double key */final HashConfig hashConf;/* endif */
 
-    HashCharShortMapFactorySO(/* if !(float|double key) */CharHashConfig
+    DHashCharShortMapFactorySO(/* if !(float|double key) */CharHashConfig
             /* elif float|double key //HashConfig// endif */ conf) {
         /* if !(float|double key) */
         super(conf);
@@ -52,10 +57,10 @@ public abstract class HashCharShortMapFactorySO/*<>*/
 
     /* if !(float|double key) */
     @Override
-    MutableDHashCharShortMapGO/*<>*/ createNew(float loadFactor, int expectedSize, char free,
+    MutableDHashCharShortMapGO/*<>*/ createNew(HashConfig hashConf, int expectedSize, char free,
             char removed) {
         MutableDHashCharShortMapGO/*<>*/ map = uninitializedMutableMap();
-        map.init(loadFactor, expectedSize, free, removed);
+        map.init(hashConf, expectedSize, free, removed);
         return map;
     }
     /* elif float|double key */
@@ -73,6 +78,22 @@ public abstract class HashCharShortMapFactorySO/*<>*/
         return new ImmutableDHashCharShortMap/*p2*/();
     }
 
+    /**
+     * Moves the table of the given map, which shouldn't be used after the call, to a new
+     * immutable map, built with a minimal perfect hash function if the config says so.
+     */
+    /*p1*/ ImmutableDHashCharShortMapGO/*p2*/ moveToImmutable(
+            MutableDHashCharShortMapGO/*p2*/ map) {
+        ImmutableDHashCharShortMapGO/*p2*/ res = uninitializedImmutableMap();
+        // immutable hashes don't know the removed value, and would see removed slots as keys
+        if (!map.noRemoved())
+            map.rehash(map.capacity());
+        res.move(map);
+        if (hashConf.isPerfectHashing())
+            res.buildPerfectHash();
+        return res;
+    }
+
     @Override
     public /*p1*/ MutableDHashCharShortMapGO/*p2*/ newMutableMap(int expectedSize) {
         /* if !(float|double key) */
@@ -80,7 +101,7 @@ public abstract class HashCharShortMapFactorySO/*<>*/
         return (MutableDHashCharShortMapGO/*p2*/) newHash(expectedSize);
         /* elif float|double key */
         MutableDHashCharShortMapGO/*p2*/ set = uninitializedMutableMap();
-        set.init(hashConf.getLoadFactor(), expectedSize);
+        set.init(hashConf, expectedSize);
         return set;
         /* endif */
     }
@@ -95,9 +116,11 @@ public abstract class HashCharShortMapFactorySO/*<>*/
         if (map instanceof CharShortMap) {
             if (map instanceof CharShortDHash) {
                 CharShortDHash hash = (CharShortDHash) map;
-                if (hash.loadFactor() == hashConf.getLoadFactor()) {
+                if (hash.loadFactor() == hashConf.getLoadFactor() &&
+                        hash.keyMixing() == MutableDHash.keyMixing(hashConf)) {
                     MutableDHashCharShortMapGO/*p2*/ res = uninitializedMutableMap();
                     res.copy(hash);
+                    res.initPolicies(hashConf);
                     return res;
                 }
             }
@@ -1,3 +1,4 @@
+/* with DHash|PHash hash */
 /*
  * Copyright 2014 the original author or authors.
  *
@@ -22,16 +23,18 @@ import net.openhft.collect.set.hash.HashObjSetFactory;
 import org.jetbrains.annotations.Nullable;
 
 
-public final class HashObjSetFactoryImpl<E> extends HashObjSetFactoryGO<E> {
+public final class DHashObjSetFactoryImpl<E> extends DHashObjSetFactoryGO<E> {
 
+    /* if DHash hash */
     /**
      * For ServiceLoader
      */
-    public HashObjSetFactoryImpl() {
+    public DHashObjSetFactoryImpl() {
         this(ObjHashConfig.DEFAULT);
     }
+    /* endif */
 
-    public HashObjSetFactoryImpl(ObjHashConfig conf) {
+    public DHashObjSetFactoryImpl(ObjHashConfig conf) {
         super(conf);
     }
 
@@ -48,10 +51,10 @@ public final class HashObjSetFactoryImpl<E> extends HashObjSetFactoryGO<E> {
     public HashObjSetFactory<E> withConfig(ObjHashConfig config) {
         if (conf.equals(config))
             return this;
-        return new HashObjSetFactoryImpl<E>(config);
+        return HashObjSetFactories.<E>newFactory(config);
     }
 
-    static final class WithCustomEquivalence<E> extends HashObjSetFactoryGO<E> {
+    static final class WithCustomEquivalence<E> extends DHashObjSetFactoryGO<E> {
         final Equivalence<E> equivalence;
 
         public WithCustomEquivalence(ObjHashConfig conf, Equivalence<E> equivalence) {
@@ -83,7 +86,7 @@ public final class HashObjSetFactoryImpl<E> extends HashObjSetFactoryGO<E> {
         @Override
         public <E2> HashObjSetFactory<E2> withEquivalence(@Nullable Equivalence<E2> equivalence) {
             if (equivalence == null)
-                return new HashObjSetFactoryImpl<E2>(conf);
+                return new DHashObjSetFactoryImpl<E2>(conf);
             if (this.equivalence.equals(equivalence)) {
                 // noinspection unchecked
                 return (HashObjSetFactory<E2>) this;
@@ -95,7 +98,7 @@ public final class HashObjSetFactoryImpl<E> extends HashObjSetFactoryGO<E> {
         public HashObjSetFactory<E> withConfig(ObjHashConfig config) {
             if (conf.equals(config))
                 return this;
-            return new WithCustomEquivalence<E>(config, equivalence);
+            return HashObjSetFactories.<E>newFactory(config).withEquivalence(equivalence);
         }
     }
 }
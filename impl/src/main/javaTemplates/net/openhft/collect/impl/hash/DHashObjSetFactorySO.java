@@ -1,3 +1,4 @@
+/* with DHash|PHash hash */
 /*
  * Copyright 2014 the original author or authors.
  *
@@ -25,12 +26,12 @@ import org.jetbrains.annotations.Nullable;
 import java.util.Set;
 
 
-public abstract class HashObjSetFactorySO<E> implements HashObjSetFactory<E> {
+public abstract class DHashObjSetFactorySO<E> implements HashObjSetFactory<E> {
 
     final ObjHashConfig conf;
     final HashConfig hashConf;
 
-    HashObjSetFactorySO(ObjHashConfig conf) {
+    DHashObjSetFactorySO(ObjHashConfig conf) {
         this.conf = conf;
         this.hashConf = conf.getHashConfig();
     }
@@ -54,10 +55,23 @@ public abstract class HashObjSetFactorySO<E> implements HashObjSetFactory<E> {
         return new ImmutableDHashObjSet<E2>();
     }
 
+    /**
+     * Moves the table of the given set, which shouldn't be used after the call, to a new
+     * immutable set. Perfect hashing doesn't apply to object elements.
+     */
+    <E2 extends E> ImmutableDHashObjSetGO<E2> moveToImmutable(MutableDHashObjSetGO<E2> set) {
+        ImmutableDHashObjSetGO<E2> res = uninitializedImmutableSet();
+        // immutable hashes don't know the removed value, and would see removed slots as keys
+        if (!set.noRemoved())
+            set.rehash(set.capacity());
+        res.move(set);
+        return res;
+    }
+
     @Override
     public <E2 extends E> MutableDHashObjSetGO<E2> newMutableSet(int expectedSize) {
         MutableDHashObjSetGO<E2> set = uninitializedMutableSet();
-        set.init(hashConf.getLoadFactor(), expectedSize);
+        set.init(hashConf, expectedSize);
         return set;
     }
 
@@ -75,6 +89,7 @@ public abstract class HashObjSetFactorySO<E> implements HashObjSetFactory<E> {
                                     elemSet.equivalence(), getEquivalence())) {
                         MutableDHashObjSetGO<E2> set = uninitializedMutableSet();
                         set.copy(hash);
+                        set.initPolicies(hashConf);
                         return set;
                     }
                 }
@@ -1,6 +1,7 @@
 /* with
  obj key
  short|byte|char|int|long|float|double|obj value
+ DHash|PHash hash
 */
 /*
  * Copyright 2014 the original author or authors.
@@ -29,13 +30,13 @@ import org.jetbrains.annotations.Nullable;
 import java.util.Map;
 
 
-public abstract class HashObjShortMapFactorySO<K/* if obj value //, V// endif */>
+public abstract class DHashObjShortMapFactorySO<K/* if obj value //, V// endif */>
          implements HashObjShortMapFactory<K/* if obj value //, V// endif */> {
 
     final ObjHashConfig conf;
     final HashConfig hashConf;
 
-    HashObjShortMapFactorySO(ObjHashConfig conf) {
+    DHashObjShortMapFactorySO(ObjHashConfig conf) {
         this.conf = conf;
         this.hashConf = conf.getHashConfig();
     }
@@ -85,11 +86,25 @@ public abstract class HashObjShortMapFactorySO<K/* if obj value //, V// endif */
         return new ImmutableDHashObjShortMap/*p2*/<K2>/**/();
     }
 
+    /**
+     * Moves the table of the given map, which shouldn't be used after the call, to a new
+     * immutable map. Perfect hashing doesn't apply to object keys.
+     */
+    /*p1*/<K2 extends K>/**/ ImmutableDHashObjShortMapGO/*p2*/<K2>/**/ moveToImmutable(
+            MutableDHashObjShortMapGO/*p2*/<K2>/**/ map) {
+        ImmutableDHashObjShortMapGO/*p2*/<K2>/**/ res = uninitializedImmutableMap();
+        // immutable hashes don't know the removed value, and would see removed slots as keys
+        if (!map.noRemoved())
+            map.rehash(map.capacity());
+        res.move(map);
+        return res;
+    }
+
     @Override
     public /*p1*/<K2 extends K>/**/ MutableDHashObjShortMapGO/*p2*/<K2>/**/ newMutableMap(
             int expectedSize) {
         MutableDHashObjShortMapGO/*p2*/<K2>/**/ map = uninitializedMutableMap();
-        map.init(hashConf.getLoadFactor(), expectedSize);
+        map.init(hashConf, expectedSize);
         return map;
     }
 
@@ -105,6 +120,7 @@ public abstract class HashObjShortMapFactorySO<K/* if obj value //, V// endif */
                         NullableObjects.equals(objShortMap.keyEquivalence(), getKeyEquivalence())) {
                     MutableDHashObjShortMapGO/*p2*/<K2>/**/ res = uninitializedMutableMap();
                     res.copy(hash);
+                    res.initPolicies(hashConf);
                     return res;
                 }
             }
@@ -0,0 +1,48 @@
+/* with char|byte|short|int|long|float|double|obj elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.hash;
+
+import net.openhft.collect.*;
+import net.openhft.collect.set.hash.HashCharSetFactory;
+
+
+/**
+ * Selects the hash set factory implementation by the configured {@link HashAlgorithm}.
+ */
+final class HashCharSetFactories {
+
+    static/*<>*/ HashCharSetFactory/*<>*/ newFactory(
+            /* if !(float|double elem) */CharHashConfig
+            /* elif float|double elem //HashConfig// endif */ conf) {
+        HashConfig hashConf = conf/* if !(float|double elem) */.getHashConfig()/* endif */;
+        switch (hashConf.getAlgorithm()) {
+            case POWER_OF_TWO_DOUBLE_HASHING:
+                return new PHashCharSetFactoryImpl/*<>*/(conf);
+            /* if !(obj elem) */
+            case LINEAR_PROBING:
+                return new LHashCharSetFactoryImpl/*<>*/(conf);
+            case ROBIN_HOOD_HASHING:
+                return new RHashCharSetFactoryImpl/*<>*/(conf);
+            /* endif */
+            default:
+                return new DHashCharSetFactoryImpl/*<>*/(conf);
+        }
+    }
+
+    private HashCharSetFactories() {}
+}
@@ -0,0 +1,51 @@
+/* with
+ char|byte|short|int|long|float|double|obj key
+ short|byte|char|int|long|float|double|obj value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.hash;
+
+import net.openhft.collect.*;
+import net.openhft.collect.map.hash.HashCharShortMapFactory;
+
+
+/**
+ * Selects the hash map factory implementation by the configured {@link HashAlgorithm}.
+ */
+final class HashCharShortMapFactories {
+
+    static/*<>*/ HashCharShortMapFactory/*<>*/ newFactory(
+            /* if !(float|double key) */CharHashConfig
+            /* elif float|double key //HashConfig// endif */ conf) {
+        HashConfig hashConf = conf/* if !(float|double key) */.getHashConfig()/* endif */;
+        switch (hashConf.getAlgorithm()) {
+            case POWER_OF_TWO_DOUBLE_HASHING:
+                return new PHashCharShortMapFactoryImpl/*<>*/(conf);
+            /* if !(obj key) */
+            case LINEAR_PROBING:
+                return new LHashCharShortMapFactoryImpl/*<>*/(conf);
+            case ROBIN_HOOD_HASHING:
+                return new RHashCharShortMapFactoryImpl/*<>*/(conf);
+            /* endif */
+            default:
+                return new DHashCharShortMapFactoryImpl/*<>*/(conf);
+        }
+    }
+
+    private HashCharShortMapFactories() {}
+}
@@ -1,3 +1,4 @@
+/* with DHash|PHash|LHash|RHash hash */
 /*
  * Copyright 2014 the original author or authors.
  *
@@ -16,8 +17,18 @@
 
 package net.openhft.collect.impl.hash;
 
+import net.openhft.collect.HashConfig;
+import net.openhft.collect.HashStats;
+import net.openhft.collect.KeyMixing;
 import net.openhft.collect.impl.AbstractContainer;
 
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+import static net.openhft.collect.impl.hash.Externalization.readKeyMixing;
+import static net.openhft.collect.impl.hash.Externalization.writeKeyMixing;
+
 
 public abstract class ImmutableDHash extends AbstractContainer implements DHash {
 
@@ -26,20 +37,49 @@ public abstract class ImmutableDHash extends AbstractContainer implements DHash
 
     private float loadFactor;
 
+    private KeyMixing keyMixing;
+
+    private KeyMixer keyMixer;
+
     /** The current number of occupied slots in the hash. */
     private int size;
 
 
     final void copy(DHash hash) {
         this.loadFactor = hash.loadFactor();
+        this.keyMixing = hash.keyMixing();
+        this.keyMixer = hash.keyMixer();
         this.size = hash.size();
     }
 
-    final void init(float loadFactor, int size) {
-        this.loadFactor = loadFactor;
+    final void init(HashConfig conf, int size) {
+        this.loadFactor = conf.getLoadFactor();
+        this.keyMixing = MutableDHash.keyMixing(conf);
+        this.keyMixer = KeyMixer.of(keyMixing);
         this.size = size;
     }
 
+    /**
+     * Called after the table is rebuilt with a minimal perfect hash function, which leaves
+     * no free slots in it.
+     */
+    final void initPerfectLoad() {
+        this.loadFactor = 1.0f;
+    }
+
+    void writeExternalFields(ObjectOutput out) throws IOException {
+        out.writeFloat(loadFactor);
+        writeKeyMixing(out, keyMixing);
+        out.writeInt(size);
+    }
+
+    void readExternalFields(ObjectInput in) throws IOException {
+        loadFactor = in.readFloat();
+        keyMixing = readKeyMixing(in);
+        keyMixer = KeyMixer.of(keyMixing);
+        size = in.readInt();
+    }
+
 
     ////////////////////////
     // Getters
@@ -55,6 +95,16 @@ public abstract class ImmutableDHash extends AbstractContainer implements DHash
         return loadFactor;
     }
 
+    @Override
+    public final KeyMixing keyMixing() {
+        return keyMixing;
+    }
+
+    @Override
+    public final KeyMixer keyMixer() {
+        return keyMixer;
+    }
+
 
     @Override
     public final float currentLoad() {
@@ -83,6 +133,14 @@ public abstract class ImmutableDHash extends AbstractContainer implements DHash
         return 0;
     }
 
+    /**
+     * Root operation for {@code stats()} of the concrete hashes, see
+     * {@link MutableDHash#stats(byte[], int[])}. Immutable hashes don't rehash.
+     */
+    final HashStats stats(byte[] states, int[] hashes) {
+        return new TableHashStats(MutableDHash.HASH_ALGORITHM, states, hashes, 0, 0, 0);
+    }
+
 
     ///////////////////////////////////
     // Mutation operations aren't supported
@@ -0,0 +1,389 @@
+/* with
+ char|byte|short|int|long key
+ short|byte|char|int|long value
+ DHash|PHash hash
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.hash;
+
+import net.openhft.collect.HashConfig;
+import net.openhft.collect.HashStats;
+import net.openhft.collect.map.CharShortCursor;
+import net.openhft.collect.map.hash.HashCharShortMap;
+import net.openhft.collect.map.hash.IncrementalHashCharShortMap;
+import net.openhft.function.*;
+import org.jetbrains.annotations.NotNull;
+
+
+/**
+ * {@link IncrementalHashCharShortMap} implementation over two ordinary hash maps:
+ * the current one and, while the migration is in progress, the old one.
+ *
+ * <p>A key is present in at most one of the maps. When the current map has no free slots
+ * left before rehash, it becomes the old one, and a new map, twice as large as the size
+ * of the old one, is created. Then each update, before doing its work, moves the keys from
+ * the next {@code migrationStep} slots of the old table to the new map, scanning the old table
+ * from the end. The step is chosen so that the migration completes before the new map
+ * could fill up, therefore the new map never rehashes itself in the middle of the migration.
+ * A key is removed from the old map by replacing it with the removed value, keys aren't
+ * shifted, so the scan doesn't skip or revisit slots.
+ *
+ * <p>The {@linkplain HashConfig#getMinLoad() min load} of the config is applied by this map,
+ * not by the inner maps: they are created with zero min load, because a shrinking inner map
+ * would rehash the whole table in a single removal. When the size of the current map falls
+ * below the min load, the map migrates to a smaller one, the same way as to a larger one.
+ *
+ * <p>The cursor traverses the current map, then the old one, through the cursors of the inner
+ * maps, so the inner maps detect concurrent modifications, including the migration steps.
+ */
+final class IncrementalDHashCharShortMap extends AbstractHashCharShortMap
+        implements IncrementalHashCharShortMap {
+
+    /** The minimum number of slots of the old table, scanned by each update */
+    static final int MIN_MIGRATION_STEP = 16;
+
+    private final DHashCharShortMapFactoryGO factory;
+    /** The config of the factory with zero min load, for the inner maps */
+    private final HashConfig innerConf;
+    private final float minLoad;
+    /** The migration to a smaller map starts when the size falls below this threshold */
+    private int shrinkSize;
+    private MutableDHashCharShortMapGO current;
+    /** {@code null}, if the migration is not in progress */
+    private MutableDHashCharShortMapGO old;
+    /** The slots of the old table {@code [migrationIndex, capacity)} are already migrated */
+    private int migrationIndex;
+    private int migrationStep;
+
+    IncrementalDHashCharShortMap(DHashCharShortMapFactoryGO factory, int expectedSize) {
+        this.factory = factory;
+        HashConfig conf = factory.hashConf;
+        innerConf = conf.withMinLoad(0.0f);
+        minLoad = conf.getMinLoad();
+        current = newMap(expectedSize);
+        initShrinkSize();
+    }
+
+    private MutableDHashCharShortMapGO newMap(long expectedSize) {
+        MutableDHashCharShortMapGO map =
+                factory.newMutableMap((int) Math.min(Integer.MAX_VALUE, expectedSize));
+        map.initPolicies(innerConf);
+        return map;
+    }
+
+    private void initShrinkSize() {
+        shrinkSize = (int) (current.capacity() * minLoad);
+    }
+
+    private void migrate() {
+        MutableDHashCharShortMapGO old;
+        if ((old = this.old) != null)
+            migrate(old, Math.max(0, migrationIndex - migrationStep));
+    }
+
+    /**
+     * Moves the keys from the slots {@code [to, migrationIndex)} of the old table
+     * to the current map.
+     */
+    private void migrate(MutableDHashCharShortMapGO old, int to) {
+        char free = old.freeValue;
+        char removed = old.removedValue;
+        char[] keys = old.set;
+        short[] vals = old.values;
+        MutableDHashCharShortMapGO current = this.current;
+        for (int i = migrationIndex - 1; i >= to; i--) {
+            char key;
+            if ((key = keys[i]) != free && key != removed) {
+                current.put(key, vals[i]);
+                old.removeAt(i);
+            }
+        }
+        if (to == 0) {
+            this.old = null;
+            initShrinkSize();
+        } else {
+            migrationIndex = to;
+        }
+    }
+
+    /**
+     * Ensures the current map could take the key without rehash, and moves the key
+     * to the current map, if it is present in the old one.
+     */
+    private void prepareInsertion(char key) {
+        migrate();
+        if (current.freeSlotsBeforeRehash() <= 0 && current.index(key) < 0)
+            startRehash();
+        MutableDHashCharShortMapGO old;
+        int index;
+        if ((old = this.old) != null && (index = old.index(key)) >= 0) {
+            current.put(key, old.values[index]);
+            old.removeAt(index);
+        }
+    }
+
+    private void startRehash() {
+        finishRehash();
+        // if the table can't grow, let the current map rehash or overflow itself
+        startMigration(newMap(current.size() * 2L));
+    }
+
+    /**
+     * Starts the migration to a smaller map, if the size of the current map fell below
+     * the min load. Must be called only when the migration is not in progress.
+     */
+    private void shrinkIfTooSparse() {
+        int size = current.size();
+        if (size < shrinkSize) {
+            MutableDHashCharShortMapGO map = newMap(size * 2L);
+            if (map.capacity() >= current.capacity() || !startMigration(map)) {
+                // the capacity for twice the size isn't smaller, try again
+                // when the size halves
+                shrinkSize = size >> 1;
+            }
+        }
+    }
+
+    /**
+     * Makes the current map the old one and the given map the current one, if the given map
+     * could take all entries of the old map without rehash.
+     *
+     * @return {@code true} if the migration is started
+     */
+    private boolean startMigration(MutableDHashCharShortMapGO map) {
+        MutableDHashCharShortMapGO old = current;
+        int room = map.freeSlotsBeforeRehash() - old.size();
+        if (room <= 0)
+            return false;
+        int capacity = old.capacity();
+        current = map;
+        this.old = old;
+        migrationIndex = capacity;
+        migrationStep = (int) Math.max(MIN_MIGRATION_STEP, (capacity + (long) room - 1) / room);
+        return true;
+    }
+
+    @Override
+    public boolean isRehashing() {
+        return old != null;
+    }
+
+    @Override
+    public void finishRehash() {
+        MutableDHashCharShortMapGO old;
+        if ((old = this.old) != null)
+            migrate(old, 0);
+    }
+
+    @Override
+    public short defaultValue() {
+        return current.defaultValue();
+    }
+
+    @Override
+    public int size() {
+        MutableDHashCharShortMapGO old;
+        return current.size() + ((old = this.old) != null ? old.size() : 0);
+    }
+
+    @Override
+    public boolean containsKey(char key) {
+        MutableDHashCharShortMapGO old;
+        return current.index(key) >= 0 || ((old = this.old) != null && old.index(key) >= 0);
+    }
+
+    @Override
+    public short getOrDefault(char key, short defaultValue) {
+        MutableDHashCharShortMapGO map = current;
+        int index;
+        if ((index = map.index(key)) >= 0)
+            return map.values[index];
+        if ((map = old) != null && (index = map.index(key)) >= 0)
+            return map.values[index];
+        return defaultValue;
+    }
+
+    @Override
+    public short put(char key, short value) {
+        prepareInsertion(key);
+        return current.put(key, value);
+    }
+
+    @Override
+    public short putIfAbsent(char key, short value) {
+        prepareInsertion(key);
+        return current.putIfAbsent(key, value);
+    }
+
+    @Override
+    public short incrementValue(char key, short increment) {
+        prepareInsertion(key);
+        return current.incrementValue(key, increment);
+    }
+
+    @Override
+    public short remove(char key) {
+        migrate();
+        MutableDHashCharShortMapGO old;
+        int index;
+        if ((old = this.old) != null && (index = old.index(key)) >= 0) {
+            short value = old.values[index];
+            old.removeAt(index);
+            return value;
+        }
+        short value = current.remove(key);
+        if (this.old == null)
+            shrinkIfTooSparse();
+        return value;
+    }
+
+    @Override
+    public void forEach(/*f*/CharShortConsumer action) {
+        current.forEach(action);
+        MutableDHashCharShortMapGO old;
+        if ((old = this.old) != null)
+            old.forEach(action);
+    }
+
+    @Override
+    public boolean forEachWhile(/*f*/CharShortPredicate predicate) {
+        MutableDHashCharShortMapGO old;
+        return current.forEachWhile(predicate) &&
+                ((old = this.old) == null || old.forEachWhile(predicate));
+    }
+
+    @Override
+    public void clear() {
+        current.clear();
+        old = null;
+    }
+
+    @NotNull
+    @Override
+    public CharShortCursor cursor() {
+        return new MapCursor();
+    }
+
+    @Override
+    public float loadFactor() {
+        return current.loadFactor();
+    }
+
+    /** Returns the load of both tables, while the migration is in progress */
+    @Override
+    public float currentLoad() {
+        MutableDHashCharShortMapGO old;
+        long capacity = current.capacity() + ((old = this.old) != null ? old.capacity() : 0L);
+        // Division in double to minimize precision loss
+        return (float) (((double) size()) / capacity);
+    }
+
+    /**
+     * Starts the migration to a table, which could hold {@code minSize} entries, doesn't move
+     * the entries at once. The migration in progress, if any, is finished first.
+     */
+    @Override
+    public boolean ensureCapacity(int minSize) {
+        MutableDHashCharShortMapGO current = this.current;
+        if (current.size() + (long) current.freeSlotsBeforeRehash() >= minSize)
+            return false;
+        finishRehash();
+        return startMigration(newMap(minSize));
+    }
+
+    /** Finishes the migration in progress, if any, and shrinks the current table at once */
+    @Override
+    public boolean shrink() {
+        finishRehash();
+        if (current.shrink()) {
+            initShrinkSize();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the stats of the current table, the old table is not included while
+     * the migration is in progress.
+     */
+    @NotNull
+    @Override
+    public HashStats stats() {
+        return current.stats();
+    }
+
+    @NotNull
+    @Override
+    public HashCharShortMap snapshot() {
+        MutableDHashCharShortMapGO snapshot = factory.newMutableMap(current);
+        MutableDHashCharShortMapGO old;
+        if ((old = this.old) != null)
+            snapshot.putAll(old);
+        return snapshot;
+    }
+
+
+    /** Traverses the current map, then the old one, if the migration is in progress */
+    class MapCursor implements CharShortCursor {
+        CharShortCursor cursor = current.cursor();
+        /** The map to traverse after the current one, or {@code null} */
+        MutableDHashCharShortMapGO next = old;
+
+        @Override
+        public boolean moveNext() {
+            if (cursor.moveNext())
+                return true;
+            MutableDHashCharShortMapGO next;
+            if ((next = this.next) != null) {
+                this.next = null;
+                cursor = next.cursor();
+                return cursor.moveNext();
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachForward(/*f*/CharShortConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            while (moveNext()) {
+                action.accept(cursor.key(), cursor.value());
+            }
+        }
+
+        @Override
+        public char key() {
+            return cursor.key();
+        }
+
+        @Override
+        public short value() {
+            return cursor.value();
+        }
+
+        @Override
+        public void setValue(short value) {
+            cursor.setValue(value);
+        }
+
+        @Override
+        public void remove() {
+            cursor.remove();
+        }
+    }
+}
@@ -0,0 +1,630 @@
+/* with char|byte|short|int|long elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.hash;
+
+import net.openhft.collect.HashConfig;
+import net.openhft.collect.HashOverflowException;
+import net.openhft.collect.KeyMixing;
+import net.openhft.collect.set.hash.ConcurrentHashCharSet;
+import net.openhft.collect.set.hash.HashCharSet;
+import net.openhft.collect.set.hash.HashCharSetFactory;
+import net.openhft.function.CharConsumer;
+import net.openhft.function.CharPredicate;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.*;
+
+
+/**
+ * Lock-free {@link ConcurrentHashCharSet} implementation: linear probing over
+ * a power-of-two sized table, slots are claimed with CAS.
+ *
+ * <p>The table consists of two arrays: keys and slot states. As in {@link MutableCharDHashSO},
+ * free key slots hold the special <i>free</i> value. Once a key slot is claimed for
+ * an element, it holds this element until the table is discarded, the removed slots
+ * are marked in the state array instead of putting the <i>removed</i> value into the key
+ * slot, because otherwise the element could be inserted into two slots of the same chain
+ * by concurrent threads. Removed slots are purged by the resize.
+ *
+ * <p>During the resize each slot of the old table is frozen: free key slots are replaced
+ * with {@link #MOVED_KEY}, with the same CAS on the key slot as the claim of the slot,
+ * so the slot is either claimed before the freeze, or never. {@link #EMPTY} and
+ * {@link #ABSENT} states of claimed slots are replaced with {@link #MOVED},
+ * {@link #PRESENT} is replaced with {@link #FROZEN}, then the element is copied
+ * to the next table, then the state is replaced with {@link #MOVED}. Any thread,
+ * which meets a frozen slot, could complete the move, threads, which meet a moved slot,
+ * proceed in the next table. Slots are distributed between resizing threads in chunks.
+ *
+ * <p>Iteration walks the chain of the tables from the current one: elements of moved slots
+ * are looked up in the next tables, elements of the next tables are skipped if their keys
+ * are met in the previous tables.
+ */
+final class LockFreeHashCharSet implements ConcurrentHashCharSet {
+
+    /** Never assigned slot state */
+    static final int EMPTY = 0;
+    static final int PRESENT = 1;
+    static final int ABSENT = 2;
+    /** The element is present, and is being copied to the next table */
+    static final int FROZEN = 3;
+    /** The slot is moved to the next table, the table should not be updated anymore */
+    static final int MOVED = 4;
+
+    /**
+     * The free key slot value. {@code byte}, {@code char} and {@code short} elements are
+     * stored in {@code int} arrays, so this value is out of their domain, {@code int} and
+     * {@code long} elements equal to it are kept outside of tables.
+     */
+    static final /* if !(long elem) */int/* elif long elem //long// endif */ FREE =
+            /* if !(long elem) */Integer.MIN_VALUE/* elif long elem //Long.MIN_VALUE// endif */;
+
+    /**
+     * The key of the free slots, frozen by the resize. {@code int} and {@code long} elements
+     * equal to it are kept outside of tables, as {@link #FREE}.
+     */
+    static final /* if !(long elem) */int/* elif long elem //long// endif */ MOVED_KEY =
+            FREE + 1;
+
+    /** Result of slot lookup: the element is absent in the table */
+    private static final int NOT_FOUND = -1;
+    /** Result of slot lookup: the table is resized, the element should be looked up in the next table */
+    private static final int IN_NEXT_TABLE = -2;
+
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final int TRANSFER_CHUNK = 256;
+    /**
+     * Claims with longer probe sequences check if the table should be resized,
+     * the shorter claims check it only periodically
+     */
+    private static final int PROBES_TO_CHECK_LOAD = 8;
+    private static final int CLAIMS_TO_CHECK_LOAD_MASK = 15;
+
+    /**
+     * Returns the least power of 2, which could hold {@code size} elements
+     * with the given load factor.
+     */
+    static int capacityFor(long size, float loadFactor) {
+        long minCapacity = (long) Math.ceil(size / (double) loadFactor) + 1L;
+        if (minCapacity >= MAX_CAPACITY)
+            return MAX_CAPACITY;
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit((int) minCapacity - 1) << 1);
+    }
+
+
+    /**
+     * Counter, striped by threads to avoid contention. Cells are padded to separate cache lines.
+     */
+    static final class Counter {
+        private static final int STRIPES =
+                Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+        /** Number of ints in a 64-byte cache line */
+        private static final int PADDING = 16;
+
+        private final AtomicIntegerArray cells = new AtomicIntegerArray(STRIPES * PADDING);
+
+        /**
+         * Adds the delta, returns the new value of the cell of the current thread.
+         */
+        int add(int delta) {
+            int cell = HashMixing.mix(Thread.currentThread().getId()) & (STRIPES - 1);
+            return cells.addAndGet(cell * PADDING, delta);
+        }
+
+        long sum() {
+            long sum = 0L;
+            for (int i = 0; i < STRIPES; i++) {
+                sum += cells.get(i * PADDING);
+            }
+            return sum;
+        }
+    }
+
+
+    static final class Table {
+        final /* if !(long elem) */AtomicIntegerArray/* elif long elem //AtomicLongArray// endif */
+                keys;
+        final AtomicIntegerArray states;
+        /** The number of claimed key slots, which triggers the resize */
+        final int maxClaimed;
+        final Counter claimed = new Counter();
+        final AtomicReference<Table> next = new AtomicReference<Table>();
+        /** Slots below this index are not yet distributed between resizing threads */
+        final AtomicInteger transferIndex;
+        final AtomicInteger movedSlots = new AtomicInteger();
+
+        Table(int capacity, float loadFactor) {
+            /* if !(long elem) */int/* elif long elem //long// endif */[] keys =
+                    new /* if !(long elem) */int/* elif long elem //long// endif */[capacity];
+            Arrays.fill(keys, FREE);
+            this.keys = new /* if !(long elem) */AtomicIntegerArray
+                    /* elif long elem //AtomicLongArray// endif */(keys);
+            states = new AtomicIntegerArray(capacity);
+            maxClaimed = Math.min((int) (capacity * (double) loadFactor), capacity - 1);
+            transferIndex = new AtomicInteger(capacity);
+        }
+
+        int capacity() {
+            return states.length();
+        }
+
+        boolean transferred() {
+            return movedSlots.get() == capacity();
+        }
+    }
+
+
+    private final HashCharSetFactory factory;
+    private final float loadFactor;
+    private final KeyMixer keyMixer;
+    private final AtomicReference<Table> table;
+    private final Counter size = new Counter();
+    /* if int|long elem */
+    /**
+     * The states of the {@link #FREE} and {@link #MOVED_KEY} elements, which couldn't be
+     * stored in tables, see {@link #specialIndex(char)}
+     */
+    private final AtomicIntegerArray specialElemStates =
+            new AtomicIntegerArray(new int[] {ABSENT, ABSENT});
+    /* endif */
+
+    /**
+     * @param conf the hash config, the algorithm is ignored, {@code null} key mixing
+     *        means {@link KeyMixing#MULTIPLY_SHIFT}, the default for power-of-two tables
+     */
+    LockFreeHashCharSet(HashCharSetFactory factory, HashConfig conf, int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException(
+                    "Expected size must be non-negative, " + expectedSize + " given");
+        }
+        this.factory = factory;
+        loadFactor = conf.getLoadFactor();
+        KeyMixing keyMixing = conf.getKeyMixing();
+        this.keyMixer = KeyMixer.of(keyMixing != null ? keyMixing : KeyMixing.MULTIPLY_SHIFT);
+        table = new AtomicReference<Table>(
+                new Table(capacityFor(expectedSize, loadFactor), loadFactor));
+    }
+
+    private int hash(char e) {
+        return keyMixer.mix(e);
+    }
+
+    /* if int|long elem */
+    /**
+     * Returns the index of the element in {@link #specialElemStates}, or -1 if the element
+     * is stored in tables.
+     */
+    private static int specialIndex(char e) {
+        return e == FREE ? 0 : (e == MOVED_KEY ? 1 : -1);
+    }
+    /* endif */
+
+    @Override
+    public int size() {
+        return (int) Math.max(0L, Math.min(size.sum(), Integer.MAX_VALUE));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public float loadFactor() {
+        return loadFactor;
+    }
+
+    @Override
+    public float currentLoad() {
+        return ((float) size()) / table.get().capacity();
+    }
+
+    /**
+     * Starts the resize, if the current table couldn't hold {@code minSize} elements
+     * and no resize is in progress.
+     */
+    @Override
+    public boolean ensureCapacity(int minSize) {
+        if (minSize < 0)
+            throw new IllegalArgumentException();
+        Table t = table.get();
+        int capacity = capacityFor(minSize, loadFactor);
+        if (capacity <= t.capacity() || t.next.get() != null)
+            return false;
+        resize(t, capacity);
+        return true;
+    }
+
+    /**
+     * Starts the resize, if the current table is larger than needed to hold
+     * the current elements and no resize is in progress.
+     */
+    @Override
+    public boolean shrink() {
+        Table t = table.get();
+        int capacity = capacityFor(size(), loadFactor);
+        if (capacity >= t.capacity() || t.next.get() != null)
+            return false;
+        resize(t, capacity);
+        return true;
+    }
+
+    @Override
+    public boolean contains(char e) {
+        /* if int|long elem */
+        int special = specialIndex(e);
+        if (special >= 0)
+            return specialElemStates.get(special) == PRESENT;
+        /* endif */
+        return contains(table.get(), e, hash(e));
+    }
+
+    private static boolean contains(Table t, char e, int hash) {
+        while (true) {
+            int index = indexOf(t, e, hash);
+            if (index == NOT_FOUND)
+                return false;
+            if (index >= 0) {
+                int state = t.states.get(index);
+                if (state == PRESENT || state == FROZEN)
+                    return true;
+                if (state != MOVED)
+                    return false;
+            }
+            t = t.next.get();
+        }
+    }
+
+    @Override
+    public boolean add(char e) {
+        /* if int|long elem */
+        int special = specialIndex(e);
+        if (special >= 0) {
+            if (specialElemStates.compareAndSet(special, ABSENT, PRESENT)) {
+                size.add(1);
+                return true;
+            }
+            return false;
+        }
+        /* endif */
+        int hash = hash(e);
+        Table t = table.get();
+        while (true) {
+            int index = claim(t, e, hash);
+            if (index >= 0) {
+                AtomicIntegerArray states = t.states;
+                int state;
+                while ((state = states.get(index)) != MOVED) {
+                    if (state == PRESENT || state == FROZEN)
+                        return false;
+                    if (states.compareAndSet(index, state, PRESENT)) {
+                        size.add(1);
+                        return true;
+                    }
+                }
+            }
+            t = helpTransfer(t);
+        }
+    }
+
+    @Override
+    public boolean removeChar(char e) {
+        /* if int|long elem */
+        int special = specialIndex(e);
+        if (special >= 0) {
+            if (specialElemStates.compareAndSet(special, PRESENT, ABSENT)) {
+                size.add(-1);
+                return true;
+            }
+            return false;
+        }
+        /* endif */
+        int hash = hash(e);
+        Table t = table.get();
+        while (true) {
+            int index = indexOf(t, e, hash);
+            if (index == NOT_FOUND)
+                return false;
+            if (index >= 0) {
+                AtomicIntegerArray states = t.states;
+                int state;
+                while ((state = states.get(index)) != MOVED) {
+                    if (state == PRESENT) {
+                        if (states.compareAndSet(index, PRESENT, ABSENT)) {
+                            size.add(-1);
+                            return true;
+                        }
+                    } else if (state == FROZEN) {
+                        // the slot is moved, not removed; if the chunk of the slot is already
+                        // taken by a transfer() thread, it sees the slot moved and skips it
+                        if (moveSlot(t, index))
+                            addMovedSlots(t, 1);
+                    } else {
+                        return false;
+                    }
+                }
+            }
+            t = helpTransfer(t);
+        }
+    }
+
+    /**
+     * Returns the index of the key slot of the given element in the table, {@link #NOT_FOUND}
+     * or {@link #IN_NEXT_TABLE}.
+     */
+    private static int indexOf(Table t, char e, int hash) {
+        /* if !(long elem) */AtomicIntegerArray/* elif long elem //AtomicLongArray// endif */
+                keys = t.keys;
+        int capacity = keys.length();
+        int mask = capacity - 1;
+        int index = hash & mask;
+        for (int probes = 0; probes < capacity; probes++) {
+            /* if !(long elem) */int/* elif long elem //long// endif */ cur = keys.get(index);
+            if (cur == e)
+                return index;
+            if (cur == FREE)
+                return NOT_FOUND;
+            if (cur == MOVED_KEY)
+                return IN_NEXT_TABLE;
+            index = (index - 1) & mask;
+        }
+        return t.next.get() != null ? IN_NEXT_TABLE : NOT_FOUND;
+    }
+
+    /**
+     * Returns the index of the key slot of the given element in the table, claiming a free
+     * slot if the element is absent, or {@link #IN_NEXT_TABLE} if the table is resized
+     * or full. Starts the resize if the table is overloaded.
+     */
+    private int claim(Table t, char e, int hash) {
+        /* if !(long elem) */AtomicIntegerArray/* elif long elem //AtomicLongArray// endif */
+                keys = t.keys;
+        int capacity = keys.length();
+        int mask = capacity - 1;
+        int index = hash & mask;
+        for (int probes = 1; probes <= capacity; probes++) {
+            /* if !(long elem) */int/* elif long elem //long// endif */ cur = keys.get(index);
+            if (cur == e)
+                return index;
+            if (cur == FREE) {
+                if (keys.compareAndSet(index, FREE, e)) {
+                    int claimed = t.claimed.add(1);
+                    if ((probes >= PROBES_TO_CHECK_LOAD ||
+                            (claimed & CLAIMS_TO_CHECK_LOAD_MASK) == 0) &&
+                            t.claimed.sum() > t.maxClaimed) {
+                        startResize(t);
+                    }
+                    return index;
+                }
+                // the slot is claimed by a concurrent thread, maybe for the same element,
+                // or frozen by the resize
+                cur = keys.get(index);
+                if (cur == e)
+                    return index;
+            }
+            if (cur == MOVED_KEY)
+                return IN_NEXT_TABLE;
+            index = (index - 1) & mask;
+        }
+        startResize(t);
+        return IN_NEXT_TABLE;
+    }
+
+    private void startResize(Table t) {
+        if (t.next.get() != null)
+            return;
+        long size = Math.max(this.size.sum(), 0L);
+        if (t.capacity() == MAX_CAPACITY && size >= t.maxClaimed)
+            throw new HashOverflowException();
+        // leave room to double the size before the next resize
+        resize(t, capacityFor(2L * size, loadFactor));
+    }
+
+    private void resize(Table t, int capacity) {
+        // several threads could allocate tables concurrently, only one is installed
+        t.next.compareAndSet(null, new Table(capacity, loadFactor));
+        transfer(t);
+    }
+
+    /**
+     * Helps to move the table, if the resize is started. Returns the next table.
+     */
+    private Table helpTransfer(Table t) {
+        transfer(t);
+        return t.next.get();
+    }
+
+    private void transfer(Table t) {
+        int end;
+        while ((end = t.transferIndex.getAndAdd(-TRANSFER_CHUNK)) > 0) {
+            int moved = 0;
+            for (int i = Math.max(end - TRANSFER_CHUNK, 0); i < end; i++) {
+                if (moveSlot(t, i))
+                    moved++;
+            }
+            if (moved > 0)
+                addMovedSlots(t, moved);
+        }
+    }
+
+    /**
+     * Moves the slot to the next table, returns {@code true} if the current thread
+     * has completed the move. Exactly one call completes the move of each slot, the caller
+     * of that call must count it with {@link #addMovedSlots(Table, int)}.
+     */
+    private boolean moveSlot(Table t, int index) {
+        AtomicIntegerArray states = t.states;
+        while (true) {
+            int state = states.get(index);
+            if (state == MOVED) {
+                return false;
+            } else if (state == FROZEN) {
+                char e = (char) t.keys.get(index);
+                copy(t.next.get(), e, hash(e));
+                return states.compareAndSet(index, FROZEN, MOVED);
+            } else if (state == PRESENT) {
+                states.compareAndSet(index, PRESENT, FROZEN);
+            } else if (state == EMPTY && t.keys.get(index) == FREE) {
+                // if the CAS fails, the slot is just claimed, retry with the claimed slot
+                if (t.keys.compareAndSet(index, FREE, MOVED_KEY)) {
+                    states.set(index, MOVED);
+                    return true;
+                }
+            } else if (states.compareAndSet(index, state, MOVED)) {
+                // claimed, but the element is absent, nothing to copy
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Puts the element to the table, if its slot state was never assigned. Any other state
+     * means the element is already copied by a concurrent thread.
+     */
+    private void copy(Table t, char e, int hash) {
+        while (true) {
+            int index = claim(t, e, hash);
+            if (index >= 0) {
+                AtomicIntegerArray states = t.states;
+                int state;
+                while ((state = states.get(index)) == EMPTY) {
+                    if (states.compareAndSet(index, EMPTY, PRESENT))
+                        return;
+                }
+                if (state != MOVED)
+                    return;
+            }
+            t = t.next.get();
+        }
+    }
+
+    private void addMovedSlots(Table t, int moved) {
+        if (t.movedSlots.addAndGet(moved) == t.capacity()) {
+            Table root;
+            while ((root = table.get()).transferred())
+                table.compareAndSet(root, root.next.get());
+        }
+    }
+
+    @Override
+    public void forEach(final CharConsumer action) {
+        if (action == null)
+            throw new NullPointerException();
+        forEachWhile(new CharPredicate() {
+            @Override
+            public boolean test(char e) {
+                action.accept(e);
+                return true;
+            }
+        });
+    }
+
+    @Override
+    public boolean forEachWhile(CharPredicate predicate) {
+        if (predicate == null)
+            throw new NullPointerException();
+        /* if int|long elem */
+        if (specialElemStates.get(0) == PRESENT && !predicate.test((char) FREE))
+            return false;
+        if (specialElemStates.get(1) == PRESENT && !predicate.test((char) MOVED_KEY))
+            return false;
+        /* endif */
+        Table root = table.get();
+        for (Table t = root; t != null; t = t.next.get()) {
+            /* if !(long elem) */AtomicIntegerArray/* elif long elem //AtomicLongArray// endif */
+                    keys = t.keys;
+            AtomicIntegerArray states = t.states;
+            for (int i = keys.length() - 1; i >= 0; i--) {
+                /* if !(long elem) */int/* elif long elem //long// endif */ key = keys.get(i);
+                if (key == FREE || key == MOVED_KEY)
+                    continue;
+                char e = (char) key;
+                int state = states.get(i);
+                // an element could be met only once in a table, moved elements are looked up
+                // in the next tables, and elements met in the previous tables are skipped,
+                // so each element present during the whole iteration is met exactly once
+                if ((state == PRESENT || state == FROZEN ||
+                        (state == MOVED && contains(t.next.get(), e, hash(e)))) &&
+                        !inPreviousTables(root, t, e)) {
+                    if (!predicate.test(e))
+                        return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the key of the element is claimed in any of the tables from {@code root}
+     * (inclusive) to {@code t} (exclusive).
+     */
+    private boolean inPreviousTables(Table root, Table t, char e) {
+        if (root == t)
+            return false;
+        int hash = hash(e);
+        for (Table prev = root; prev != t; prev = prev.next.get()) {
+            if (indexOf(prev, e, hash) >= 0)
+                return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean removeIf(final CharPredicate filter) {
+        if (filter == null)
+            throw new NullPointerException();
+        final boolean[] changed = {false};
+        forEach(new CharConsumer() {
+            @Override
+            public void accept(char e) {
+                if (filter.test(e) && removeChar(e))
+                    changed[0] = true;
+            }
+        });
+        return changed[0];
+    }
+
+    @Override
+    public void clear() {
+        forEach(new CharConsumer() {
+            @Override
+            public void accept(char e) {
+                removeChar(e);
+            }
+        });
+    }
+
+    @NotNull
+    @Override
+    public HashCharSet snapshot() {
+        final HashCharSet snapshot = factory.newMutableSet(size());
+        forEach(new CharConsumer() {
+            @Override
+            public void accept(char e) {
+                snapshot.add(e);
+            }
+        });
+        return snapshot;
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+}
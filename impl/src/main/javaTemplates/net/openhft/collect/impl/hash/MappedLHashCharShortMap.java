@@ -0,0 +1,482 @@
+/* with
+ char|byte|short|int|long key
+ short|byte|char|int|long|float|double value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.hash;
+
+import net.openhft.collect.HashConfig;
+import net.openhft.collect.KeyMixing;
+import net.openhft.collect.map.CharShortMap;
+import net.openhft.collect.map.hash.HashCharShortMap;
+import net.openhft.collect.map.hash.HashCharShortMapFactory;
+import net.openhft.collect.map.hash.MappedHashCharShortMap;
+import net.openhft.function.*;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+
+import static net.openhft.collect.impl.hash.OffHeapLHashCharShortMap.PAGE_MASK;
+import static net.openhft.collect.impl.hash.OffHeapLHashCharShortMap.PAGE_SHIFT;
+import static net.openhft.collect.impl.hash.OffHeapLHashCharShortMap.PAGE_SIZE;
+
+
+/**
+ * {@link MappedHashCharShortMap} implementation. The file holds a linear probing table
+ * in the layout of {@link OffHeapLHashCharShortMap}: the header, then the keys, then
+ * the values. Pages of the table are mapped separately, because a mapping couldn't be
+ * larger than 2 GB.
+ *
+ * <p>The magic number is written the last, so a partially written file couldn't be opened.
+ */
+final class MappedLHashCharShortMap implements MappedHashCharShortMap {
+
+    private static final int MAGIC = 0x4F484D50;
+    private static final int VERSION = 1;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int BYTE_ORDER_OFFSET = 5;
+    private static final int KEY_TYPE_OFFSET = 6;
+    private static final int VALUE_TYPE_OFFSET = 7;
+    private static final int KEY_MIXING_OFFSET = 8;
+    private static final int FREE_KEY_PRESENT_OFFSET = 9;
+    private static final int LOAD_FACTOR_OFFSET = 12;
+    private static final int CAPACITY_OFFSET = 16;
+    private static final int SIZE_OFFSET = 20;
+    private static final int FREE_KEY_VALUE_OFFSET = 24;
+    private static final int HEADER_SIZE = 64;
+
+    private static final byte KEY_TYPE = /* if char key */1/* elif byte key //0//
+            elif short key //2// elif int key //3// elif long key //4// endif */;
+    private static final byte VALUE_TYPE = /* if short value */2/* elif byte value //0//
+            elif char value //1// elif int value //3// elif long value //4//
+            elif float value //5// elif double value //6// endif */;
+
+    private static final int KEY_SIZE = Character.SIZE / 8;
+    private static final int VALUE_SIZE = Short.SIZE / 8;
+
+    private static final char FREE = 0;
+
+    private static long valuesOffset(int capacity) {
+        // align values to 8 bytes
+        return HEADER_SIZE + (((long) capacity * KEY_SIZE + 7L) & ~7L);
+    }
+
+    private static long fileSize(int capacity) {
+        return valuesOffset(capacity) + (long) capacity * VALUE_SIZE;
+    }
+
+    /**
+     * Writes the entries of the given map to the file, replacing its contents,
+     * and returns the map, mapped from the file.
+     */
+    static MappedLHashCharShortMap write(HashCharShortMapFactory factory, HashConfig conf,
+            File file, Map<Character, Short> map) throws IOException {
+        float loadFactor = conf.getLoadFactor();
+        KeyMixing keyMixing = conf.getKeyMixing();
+        if (keyMixing == null)
+            keyMixing = KeyMixing.MULTIPLY_SHIFT;
+        int capacity = OffHeapLHashCharShortMap.capacityFor(map.size(), loadFactor);
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(0L);
+            raf.setLength(fileSize(capacity));
+            FileChannel channel = raf.getChannel();
+            ByteOrder order = ByteOrder.nativeOrder();
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0L, HEADER_SIZE);
+            header.order(order);
+            MappedLHashCharShortMap res = new MappedLHashCharShortMap(factory, channel,
+                    FileChannel.MapMode.READ_WRITE, order, capacity, keyMixing, loadFactor);
+            res.putAll(map);
+            for (ByteBuffer page : res.keyMemory) {
+                ((MappedByteBuffer) page).force();
+            }
+            for (ByteBuffer page : res.valueMemory) {
+                ((MappedByteBuffer) page).force();
+            }
+            header.put(VERSION_OFFSET, (byte) VERSION);
+            header.put(BYTE_ORDER_OFFSET, (byte) (order == ByteOrder.BIG_ENDIAN ? 0 : 1));
+            header.put(KEY_TYPE_OFFSET, KEY_TYPE);
+            header.put(VALUE_TYPE_OFFSET, VALUE_TYPE);
+            header.put(KEY_MIXING_OFFSET, (byte) keyMixing.ordinal());
+            header.put(FREE_KEY_PRESENT_OFFSET, (byte) (res.freeKeyPresent ? 1 : 0));
+            header.putFloat(LOAD_FACTOR_OFFSET, loadFactor);
+            header.putInt(CAPACITY_OFFSET, capacity);
+            header.putInt(SIZE_OFFSET, res.size);
+            /* if !(byte value) */
+            header.putShort(FREE_KEY_VALUE_OFFSET, res.freeKeyValue);
+            /* elif byte value //
+            header.put(FREE_KEY_VALUE_OFFSET, res.freeKeyValue);
+            // endif */
+            header.force();
+            header.putInt(MAGIC_OFFSET, MAGIC);
+            header.force();
+            DirectBuffers.release(header);
+            return res;
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Maps the map, written by {@link #write}, from the file.
+     */
+    static MappedLHashCharShortMap open(HashCharShortMapFactory factory, File file)
+            throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            if (channel.size() < HEADER_SIZE)
+                throw new IOException(file + " is not a hash map file");
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0)
+                    throw new IOException(file + " is not a hash map file");
+            }
+            ByteOrder order = header.get(BYTE_ORDER_OFFSET) == 0 ?
+                    ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+            header.order(order);
+            if (header.getInt(MAGIC_OFFSET) != MAGIC)
+                throw new IOException(file + " is not a hash map file");
+            if (header.get(VERSION_OFFSET) != VERSION) {
+                throw new IOException("Unsupported version of " + file + ": " +
+                        header.get(VERSION_OFFSET));
+            }
+            if (header.get(KEY_TYPE_OFFSET) != KEY_TYPE ||
+                    header.get(VALUE_TYPE_OFFSET) != VALUE_TYPE) {
+                throw new IOException(file + " holds a map with other key or value type");
+            }
+            int capacity = header.getInt(CAPACITY_OFFSET);
+            if (capacity < OffHeapLHashCharShortMap.MIN_CAPACITY ||
+                    capacity > OffHeapLHashCharShortMap.MAX_CAPACITY ||
+                    Integer.bitCount(capacity) != 1) {
+                throw new IOException(file + " has invalid capacity: " + capacity);
+            }
+            if (channel.size() != fileSize(capacity)) {
+                throw new IOException(file + " size " + channel.size() +
+                        " doesn't match capacity " + capacity);
+            }
+            int mixingOrdinal = header.get(KEY_MIXING_OFFSET);
+            if (mixingOrdinal < 0 || mixingOrdinal >= KeyMixing.values().length)
+                throw new IOException(file + " has invalid key mixing: " + mixingOrdinal);
+            KeyMixing keyMixing = KeyMixing.values()[mixingOrdinal];
+            int size = header.getInt(SIZE_OFFSET);
+            if (size < 0 || size >= capacity)
+                throw new IOException(file + " has invalid size: " + size);
+            float loadFactor = header.getFloat(LOAD_FACTOR_OFFSET);
+            if (!(loadFactor > 0.0f && loadFactor < 1.0f))
+                throw new IOException(file + " has invalid load factor: " + loadFactor);
+            MappedLHashCharShortMap res = new MappedLHashCharShortMap(factory, channel,
+                    FileChannel.MapMode.READ_ONLY, order, capacity, keyMixing, loadFactor);
+            res.size = size;
+            res.freeKeyPresent = header.get(FREE_KEY_PRESENT_OFFSET) != 0;
+            /* if !(byte value) */
+            res.freeKeyValue = header.getShort(FREE_KEY_VALUE_OFFSET);
+            /* elif byte value //
+            res.freeKeyValue = header.get(FREE_KEY_VALUE_OFFSET);
+            // endif */
+            return res;
+        } finally {
+            raf.close();
+        }
+    }
+
+    private final HashCharShortMapFactory factory;
+    private final float loadFactor;
+    private final KeyMixer keyMixer;
+    private final short defaultValue;
+    private final int capacityMask;
+
+    private ByteBuffer[] keyMemory;
+    private ByteBuffer[] valueMemory;
+    private CharBuffer[] keys;
+    private ShortBuffer[] values;
+    /** The number of entries in the table, without the free key entry */
+    private int size;
+
+    private boolean freeKeyPresent;
+    private short freeKeyValue;
+
+    private MappedLHashCharShortMap(HashCharShortMapFactory factory, FileChannel channel,
+            FileChannel.MapMode mode, ByteOrder order, int capacity, KeyMixing keyMixing,
+            float loadFactor) throws IOException {
+        this.factory = factory;
+        this.loadFactor = loadFactor;
+        this.keyMixer = KeyMixer.of(keyMixing);
+        defaultValue = factory.getDefaultValue();
+        capacityMask = capacity - 1;
+        int pageSize = Math.min(capacity, PAGE_SIZE);
+        int pages = capacity / pageSize;
+        ByteBuffer[] keyMemory = new ByteBuffer[pages];
+        ByteBuffer[] valueMemory = new ByteBuffer[pages];
+        try {
+            long valuesOffset = valuesOffset(capacity);
+            for (int i = 0; i < pages; i++) {
+                long pageOffset = (long) i * pageSize;
+                keyMemory[i] = channel.map(mode, HEADER_SIZE + pageOffset * KEY_SIZE,
+                        (long) pageSize * KEY_SIZE).order(order);
+                valueMemory[i] = channel.map(mode, valuesOffset + pageOffset * VALUE_SIZE,
+                        (long) pageSize * VALUE_SIZE).order(order);
+            }
+        } catch (IOException e) {
+            release(keyMemory);
+            release(valueMemory);
+            throw e;
+        }
+        CharBuffer[] keys = new CharBuffer[pages];
+        ShortBuffer[] values = new ShortBuffer[pages];
+        for (int i = 0; i < pages; i++) {
+            keys[i] = keyMemory[i]/* if !(byte key) */.asCharBuffer()/* endif */;
+            values[i] = valueMemory[i]/* if !(byte value) */.asShortBuffer()/* endif */;
+        }
+        this.keyMemory = keyMemory;
+        this.valueMemory = valueMemory;
+        this.keys = keys;
+        this.values = values;
+    }
+
+    private static void release(ByteBuffer[] memory) {
+        for (ByteBuffer buffer : memory) {
+            if (buffer != null)
+                DirectBuffers.release(buffer);
+        }
+    }
+
+    /**
+     * Puts the entries to the table, which is known to be large enough to hold them.
+     * Entries of {@link CharShortDHash} maps are read from their arrays directly.
+     */
+    private void putAll(Map<Character, Short> map) {
+        if (map instanceof CharShortDHash) {
+            CharShortDHash hash = (CharShortDHash) map;
+            char free = hash.freeValue();
+            char removed = hash.supportRemoved() ? hash.removedValue() : free;
+            char[] keys = hash.keys();
+            /* bits */short[] vals = hash.valueArray();
+            for (int i = keys.length - 1; i >= 0; i--) {
+                char key;
+                if ((key = keys[i]) != free && key != removed) {
+                    put(key, /* if !(float|double value) */vals[i]
+                            /* elif float value //Float.intBitsToFloat(vals[i])
+                            // elif double value //Double.longBitsToDouble(vals[i])// endif */);
+                }
+            }
+        } else if (map instanceof CharShortMap) {
+            ((CharShortMap) map).forEach(new /*f*/CharShortConsumer() {
+                @Override
+                public void accept(char key, short value) {
+                    put(key, value);
+                }
+            });
+        } else {
+            for (Map.Entry<Character, Short> e : map.entrySet()) {
+                put(e.getKey(), e.getValue());
+            }
+        }
+    }
+
+    private void put(char key, short value) {
+        if (key == FREE) {
+            freeKeyPresent = true;
+            freeKeyValue = value;
+            return;
+        }
+        int capacityMask = this.capacityMask;
+        int index = keyMixer.mix(key) & capacityMask;
+        while (true) {
+            char cur;
+            if ((cur = key(index)) == FREE) {
+                keys[index >>> PAGE_SHIFT].put(index & PAGE_MASK, key);
+                size++;
+                break;
+            }
+            if (cur == key)
+                break;
+            index = (index - 1) & capacityMask;
+        }
+        values[index >>> PAGE_SHIFT].put(index & PAGE_MASK, value);
+    }
+
+    private void checkOpen() {
+        if (keys == null)
+            throw new IllegalStateException("The map is closed");
+    }
+
+    private char key(int index) {
+        return keys[index >>> PAGE_SHIFT].get(index & PAGE_MASK);
+    }
+
+    private short value(int index) {
+        return values[index >>> PAGE_SHIFT].get(index & PAGE_MASK);
+    }
+
+    /**
+     * Returns the index of the slot of the key, or {@code -1} if the key is absent.
+     *
+     * <p>The probe is bounded: the header is validated on open, but the table of a corrupted
+     * file, or of a file modified while it is mapped, could have no free slots, then lookups
+     * of absent keys would never end.
+     *
+     * @throws IllegalStateException if the key is absent and the table has no free slots
+     */
+    private int index(char key) {
+        int capacityMask = this.capacityMask;
+        int index = keyMixer.mix(key) & capacityMask;
+        for (int probes = capacityMask; probes >= 0; probes--) {
+            char cur;
+            if ((cur = key(index)) == key)
+                return index;
+            if (cur == FREE)
+                return -1;
+            index = (index - 1) & capacityMask;
+        }
+        throw new IllegalStateException(
+                "The table of the mapped map has no free slots, the file is corrupted");
+    }
+
+    @Override
+    public short defaultValue() {
+        return defaultValue;
+    }
+
+    @Override
+    public int size() {
+        return freeKeyPresent ? size + 1 : size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public float loadFactor() {
+        return loadFactor;
+    }
+
+    @Override
+    public float currentLoad() {
+        return ((float) size) / (capacityMask + 1);
+    }
+
+    @Override
+    public boolean ensureCapacity(int minSize) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean shrink() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean containsKey(char key) {
+        checkOpen();
+        if (key == FREE)
+            return freeKeyPresent;
+        return index(key) >= 0;
+    }
+
+    @Override
+    public short get(char key) {
+        return getOrDefault(key, defaultValue);
+    }
+
+    @Override
+    public short getOrDefault(char key, short defaultValue) {
+        checkOpen();
+        if (key == FREE)
+            return freeKeyPresent ? freeKeyValue : defaultValue;
+        int index = index(key);
+        return index >= 0 ? value(index) : defaultValue;
+    }
+
+    @Override
+    public void forEach(/*f*/CharShortConsumer action) {
+        if (action == null)
+            throw new NullPointerException();
+        checkOpen();
+        if (freeKeyPresent)
+            action.accept(FREE, freeKeyValue);
+        for (int p = 0; p < keys.length; p++) {
+            CharBuffer pageKeys = keys[p];
+            ShortBuffer pageValues = values[p];
+            for (int i = pageKeys.capacity() - 1; i >= 0; i--) {
+                char key;
+                if ((key = pageKeys.get(i)) != FREE)
+                    action.accept(key, pageValues.get(i));
+            }
+        }
+    }
+
+    @Override
+    public boolean forEachWhile(/*f*/CharShortPredicate predicate) {
+        if (predicate == null)
+            throw new NullPointerException();
+        checkOpen();
+        if (freeKeyPresent && !predicate.test(FREE, freeKeyValue))
+            return false;
+        for (int p = 0; p < keys.length; p++) {
+            CharBuffer pageKeys = keys[p];
+            ShortBuffer pageValues = values[p];
+            for (int i = pageKeys.capacity() - 1; i >= 0; i--) {
+                char key;
+                if ((key = pageKeys.get(i)) != FREE && !predicate.test(key, pageValues.get(i)))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    @NotNull
+    @Override
+    public HashCharShortMap snapshot() {
+        checkOpen();
+        final HashCharShortMap snapshot = factory.newMutableMap(size());
+        forEach(new /*f*/CharShortConsumer() {
+            @Override
+            public void accept(char key, short value) {
+                snapshot.put(key, value);
+            }
+        });
+        return snapshot;
+    }
+
+    @Override
+    public void close() {
+        if (keys == null)
+            return;
+        keys = null;
+        values = null;
+        release(keyMemory);
+        release(valueMemory);
+        keyMemory = null;
+        valueMemory = null;
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+}
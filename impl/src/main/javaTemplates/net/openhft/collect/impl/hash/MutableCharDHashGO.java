@@ -1,7 +1,9 @@
 /* with
  char|byte|short|int|long|float|double|obj elem
  Mutable|Immutable mutability
+ DHash|PHash|LHash|RHash hash
 */
+/* if !(obj elem LHash|RHash hash) */
 /*
  * Copyright 2014 the original author or authors.
  *
@@ -29,6 +31,9 @@ import net.openhft.collect.set.CharSet;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
+/* if !(float|double|obj elem) */
+import java.util.concurrent.ForkJoinPool;
+/* endif */
 
 
 public abstract class MutableCharDHashGO/*<>*/ extends MutableCharDHashSO/*<>*/ {
@@ -82,19 +87,23 @@ public abstract class MutableCharDHashGO/*<>*/ extends MutableCharDHashSO/*<>*/
 
 
     public CharIterator/*<>*/ iterator() {
-        /* if Mutable mutability //
+        /* if Mutable mutability && !(LHash|RHash hash) //
         if (!noRemoved()) return new SomeRemovedIterator();
         // endif */
         return new NoRemovedIterator();
     }
 
     public CharCursor/*<>*/ setCursor() {
-        /* if Mutable mutability //
+        /* if Mutable mutability && !(LHash|RHash hash) //
         if (!noRemoved()) return new SomeRemovedCursor();
         // endif */
         return new NoRemovedCursor();
     }
 
+    public CharSpliterator/*<>*/ setSpliterator() {
+        return new KeySpliterator(modCount(), 0, set.length, size(), true);
+    }
+
     @NotNull
     public Object[] toArray() {
         /* template ToArray with generic version */ throw new NotGenerated(); /* endtemplate */
@@ -138,6 +147,111 @@ public abstract class MutableCharDHashGO/*<>*/ extends MutableCharDHashSO/*<>*/
     }
     /* endif */
 
+    /* if !(float|double|obj elem) */
+    public void parallelForEach(final CharConsumer action, ForkJoinPool pool) {
+        if (set.length < ParallelTraversal.MIN_PARALLEL_CAPACITY) {
+            forEach(action);
+            return;
+        }
+        int mc = modCount();
+        new ParallelTraversal() {
+            @Override
+            void traverse(int lo, int hi) {
+                char[] keys = set;
+                char free = freeValue;
+                /* if Mutable mutability && !(LHash|RHash hash) */
+                char removed = removedValue;
+                /* endif */
+                for (int i = hi - 1; i >= lo; i--) {
+                    char key;
+                    if ((key = keys[i]) != free
+                            /* if Mutable mutability && !(LHash|RHash hash) */&& key != removed/* endif */) {
+                        action.accept(key);
+                    }
+                }
+            }
+        }.run(pool, set.length);
+        if (mc != modCount())
+            throw new ConcurrentModificationException();
+    }
+
+    public boolean parallelForEachWhile(final CharPredicate predicate, ForkJoinPool pool) {
+        if (set.length < ParallelTraversal.MIN_PARALLEL_CAPACITY)
+            return forEachWhile(predicate);
+        int mc = modCount();
+        ParallelTraversal traversal = new ParallelTraversal() {
+            @Override
+            void traverse(int lo, int hi) {
+                char[] keys = set;
+                char free = freeValue;
+                /* if Mutable mutability && !(LHash|RHash hash) */
+                char removed = removedValue;
+                /* endif */
+                for (int i = hi - 1; i >= lo; i--) {
+                    char key;
+                    if ((key = keys[i]) != free
+                            /* if Mutable mutability && !(LHash|RHash hash) */&& key != removed/* endif */) {
+                        if (stopped())
+                            break;
+                        if (!predicate.test(key)) {
+                            stop();
+                            break;
+                        }
+                    }
+                }
+            }
+        };
+        traversal.run(pool, set.length);
+        if (mc != modCount())
+            throw new ConcurrentModificationException();
+        return !traversal.stopped();
+    }
+
+    public boolean parallelRemoveIf(final CharPredicate filter, ForkJoinPool pool) {
+        /* if Mutable mutability && !(LHash|RHash hash) */
+        if (set.length < ParallelTraversal.MIN_PARALLEL_CAPACITY)
+            return removeIf(filter);
+        int mc = modCount();
+        ParallelTraversal traversal = new ParallelTraversal() {
+            @Override
+            void traverse(int lo, int hi) {
+                char[] keys = set;
+                char free = freeValue;
+                char removed = removedValue;
+                int removedCount = 0;
+                try {
+                    for (int i = hi - 1; i >= lo; i--) {
+                        char key;
+                        if ((key = keys[i]) != free && key != removed) {
+                            if (filter.test(key)) {
+                                keys[i] = removed;
+                                removedCount++;
+                            }
+                        }
+                    }
+                } finally {
+                    // the slots are marked removed, even if the filter throws later
+                    changed(removedCount);
+                }
+            }
+        };
+        try {
+            traversal.run(pool, set.length);
+            if (mc != modCount())
+                throw new ConcurrentModificationException();
+        } finally {
+            postBulkRemoveHook(traversal.changedSlots());
+        }
+        return traversal.changedSlots() > 0;
+        /* elif Mutable mutability */
+        // removal shifts keys back, possibly across the ranges of the tasks
+        return removeIf(filter);
+        /* elif Immutable mutability */
+        throw new UnsupportedOperationException();
+        /* endif */
+    }
+    /* endif */
+
     public boolean removeAll(@NotNull Collection<?> c) {
         /* template RemoveAll with generic version */ throw new NotGenerated(); /* endtemplate */
     }
@@ -175,8 +289,111 @@ public abstract class MutableCharDHashGO/*<>*/ extends MutableCharDHashSO/*<>*/
     /* endif */
 
 
+    class KeySpliterator extends HashSpliterator implements CharSpliterator/*<>*/
+            /* if obj elem JDK8 jdk //, java.util.Spliterator<E>// endif */ {
+
+        KeySpliterator(int expectedModCount, int lo, int index, long estimate, boolean exact) {
+            super(expectedModCount, lo, index, estimate, exact);
+        }
+
+        @Override
+        public boolean tryAdvance(/*f*/CharConsumer action) {
+            /* if !(obj elem) */
+            /* bits */char[] keys = set;
+            /* bits */char free = freeValue;
+            /* if Mutable mutability && !(LHash|RHash hash) */
+            /* bits */char removed = removedValue;
+            /* endif */
+            for (int i = index - 1; i >= lo; i--) {
+                /* bits */char key;
+                if ((key = keys[i]) != free
+                        /* if Mutable mutability && !(LHash|RHash hash) */&& key != removed/* endif */) {
+                    index = i;
+                    advanced();
+                    action.accept(/* wrap elem */key/**/);
+                    if (expectedModCount != modCount())
+                        throw new ConcurrentModificationException();
+                    return true;
+                }
+            }
+            /* elif obj elem */
+            Object[] keys = set;
+            for (int i = index - 1; i >= lo; i--) {
+                Object key;
+                if ((key = keys[i]) != FREE/* if Mutable mutability */ && key != REMOVED/* endif */) {
+                    index = i;
+                    advanced();
+                    // noinspection unchecked
+                    action.accept((E) key);
+                    if (expectedModCount != modCount())
+                        throw new ConcurrentModificationException();
+                    return true;
+                }
+            }
+            /* endif */
+            finished();
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(/*f*/CharConsumer action) {
+            /* if !(obj elem) */
+            /* bits */char[] keys = set;
+            /* bits */char free = freeValue;
+            /* if Mutable mutability && !(LHash|RHash hash) */
+            /* bits */char removed = removedValue;
+            /* endif */
+            for (int i = index - 1; i >= lo; i--) {
+                /* bits */char key;
+                if ((key = keys[i]) != free
+                        /* if Mutable mutability && !(LHash|RHash hash) */&& key != removed/* endif */) {
+                    action.accept(/* wrap elem */key/**/);
+                }
+            }
+            /* elif obj elem */
+            Object[] keys = set;
+            for (int i = index - 1; i >= lo; i--) {
+                Object key;
+                if ((key = keys[i]) != FREE/* if Mutable mutability */ && key != REMOVED/* endif */) {
+                    // noinspection unchecked
+                    action.accept((E) key);
+                }
+            }
+            /* endif */
+            finished();
+            if (expectedModCount != modCount())
+                throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public KeySpliterator trySplit() {
+            int hi = index, mid = split();
+            return mid >= 0 ? new KeySpliterator(expectedModCount, mid, hi, estimate, false) : null;
+        }
+
+        /* if JDK8 jdk */
+        /* if obj elem */
+        @Override
+        public boolean tryAdvance(java.util.function.Consumer<? super E> action) {
+            return tryAdvance((Consumer<E>) action::accept);
+        }
+
+        @Override
+        public void forEachRemaining(java.util.function.Consumer<? super E> action) {
+            forEachRemaining((Consumer<E>) action::accept);
+        }
+        /* endif */
+
+        @Override
+        public int characteristics() {
+            return (exact ? SIZED : 0) | DISTINCT/* if !(obj elem) */ | NONNULL/* endif */;
+        }
+        /* endif */
+    }
+
+
     /* with No|Some removed */
-    /* if !(Immutable mutability Some removed) */
+    /* if !(Immutable mutability Some removed) && !(LHash|RHash hash Some removed) */
 
     class NoRemovedIterator implements CharIterator/*<>*/ {
         /* template Iterator.fields */
@@ -1,6 +1,7 @@
 /* with
  char|byte|short|int|long elem
  Mutable|Immutable mutability
+ DHash|PHash|LHash|RHash hash
 */
 /*
  * Copyright 2014 the original author or authors.
@@ -20,13 +21,24 @@
 
 package net.openhft.collect.impl.hash;
 
+import net.openhft.collect.HashConfig;
 import net.openhft.collect.HashOverflowException;
+import net.openhft.collect.HashStats;
 import net.openhft.collect.impl.*;
 import org.jetbrains.annotations.NotNull;
+/* if Immutable mutability */
+import org.jetbrains.annotations.Nullable;
+/* endif */
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
 
+import static net.openhft.collect.impl.hash.Externalization.*;
+
 
 public abstract class MutableCharDHashSO extends MutableDHash
         implements CharDHash/* if byte|char|short elem */, CharConstants /* endif */ {
@@ -36,6 +48,13 @@ public abstract class MutableCharDHashSO extends MutableDHash
     char removedValue;
     /* endif */
     char[] set;
+    /* if Immutable mutability */
+    /**
+     * The minimal perfect hash function of the keys, if the table is built with it,
+     * see {@link #buildPerfectHash()}.
+     */
+    @Nullable MinimalPerfectHash perfectHash;
+    /* endif */
 
     final void copy(CharDHash hash) {
         super.copy(hash);
@@ -57,14 +76,55 @@ public abstract class MutableCharDHashSO extends MutableDHash
         set = hash.keys();
     }
 
-    final void init(float loadFactor, int size,
+    final void init(HashConfig conf, int size,
             char freeValue/* if Mutable mutability */, char removedValue/* endif */) {
         this.freeValue = freeValue;
         /* if Mutable mutability */
         this.removedValue = removedValue;
         /* endif */
         // calls allocateArrays, fill keys with this.freeValue => assign it before
-        super.init(loadFactor, size);
+        super.init(conf, size);
+    }
+
+    @Override
+    void writeExternalFields(ObjectOutput out) throws IOException {
+        super.writeExternalFields(out);
+        out.writeChar(freeValue);
+        /* if Mutable mutability */
+        out.writeChar(removedValue);
+        /* endif */
+        writeArray(out, set);
+        /* if Immutable mutability */
+        MinimalPerfectHash perfectHash = this.perfectHash;
+        out.writeBoolean(perfectHash != null);
+        if (perfectHash != null)
+            perfectHash.writeExternal(out);
+        /* endif */
+    }
+
+    @Override
+    void readExternalFields(ObjectInput in) throws IOException {
+        super.readExternalFields(in);
+        freeValue = in.readChar();
+        /* if Mutable mutability */
+        removedValue = in.readChar();
+        /* endif */
+        set = new char[readLength(in)];
+        readArray(in, set);
+        /* if Mutable mutability */
+        checkSlotCounts(set.length);
+        initMinFreeSlots(set.length);
+        /* elif Immutable mutability */
+        if (in.readBoolean()) {
+            perfectHash = MinimalPerfectHash.readExternal(in);
+            if (perfectHash.size() != set.length) {
+                throw new InvalidObjectException("Perfect hash function size " +
+                        perfectHash.size() + " doesn't match capacity " + set.length);
+            }
+        }
+        checkCapacity(set.length, size(), /* if !(DHash hash) */perfectHash == null
+                /* elif DHash hash //false// endif */);
+        /* endif */
     }
 
 
@@ -108,9 +168,236 @@ public abstract class MutableCharDHashSO extends MutableDHash
     }
 
     int index(char key) {
+        /* if Immutable mutability */
+        MinimalPerfectHash perfectHash;
+        if ((perfectHash = this.perfectHash) != null) {
+            int index = perfectHash.index(key);
+            return set[index] == key ? index : -1;
+        }
+        /* endif */
         /* template Index */ throw new NotGenerated(); /* endtemplate */
     }
 
+    /**
+     * The number of keys looked up at once by {@link #index(char[], int, int, int[], char[])}.
+     */
+    static final int INDEX_BATCH = 16;
+
+    /**
+     * Stores {@code index(keys[from + i])} to {@code indexes[i]} for each {@code i}
+     * in {@code [0, len)}, {@code len} must not exceed {@link #INDEX_BATCH}.
+     *
+     * <p>First slots of all keys are computed and loaded before any key is compared,
+     * so that cache misses of these loads don't depend on each other and are served
+     * in parallel. Keys not resolved by their first slots continue probing
+     * with {@link #index(char)}, under the load factors of hashes they are a minority.
+     *
+     * @param firstKeys scratch array of at least {@code len} length
+     */
+    final void index(char[] keys, int from, int len, int[] indexes, char[] firstKeys) {
+        char[] tab = set;
+        int capacity = tab.length;
+        KeyMixer keyMixer = keyMixer();
+        for (int i = 0; i < len; i++) {
+            /* if !(PHash|LHash|RHash hash) */
+            int index = (keyMixer.mix(keys[from + i]) & Integer.MAX_VALUE) %
+                    capacity;
+            /* elif PHash|LHash|RHash hash //
+            int index = keyMixer.mix(keys[from + i]) & (capacity - 1);
+            // endif */
+            indexes[i] = index;
+            firstKeys[i] = tab[index];
+        }
+        char free = freeValue;
+        /* if Mutable mutability && !(LHash|RHash hash) */
+        char removed = removedValue;
+        /* endif */
+        for (int i = 0; i < len; i++) {
+            char key = keys[from + i];
+            char cur = firstKeys[i];
+            if (cur == free) {
+                indexes[i] = -1;
+            } else if (cur != key
+                    /* if Mutable mutability && !(LHash|RHash hash) */|| key == removed/* endif */) {
+                indexes[i] = index(key);
+            }
+        }
+    }
+
+    /**
+     * Implementation of {@code CharSet.containsAll(char[], boolean[])}.
+     */
+    final void contains(char[] keys, boolean[] results) {
+        if (results.length < keys.length)
+            throw new IllegalArgumentException("results array is shorter than keys array");
+        int[] indexes = new int[INDEX_BATCH];
+        char[] firstKeys = new char[INDEX_BATCH];
+        for (int from = 0; from < keys.length; from += INDEX_BATCH) {
+            int len = Math.min(INDEX_BATCH, keys.length - from);
+            index(keys, from, len, indexes, firstKeys);
+            for (int i = 0; i < len; i++) {
+                results[from + i] = indexes[i] >= 0;
+            }
+        }
+    }
+
+    @NotNull
+    public HashStats stats() {
+        /* if Immutable mutability */
+        if (perfectHash != null)
+            return new TableHashStats(set.length);
+        /* endif */
+        char[] keys = set;
+        int capacity = keys.length;
+        byte[] states = new byte[capacity];
+        int[] hashes = new int[capacity];
+        char free = freeValue;
+        /* if Mutable mutability && !(LHash|RHash hash) */
+        char removed = removedValue;
+        /* endif */
+        KeyMixer keyMixer = keyMixer();
+        for (int i = 0; i < capacity; i++) {
+            char key;
+            if ((key = keys[i]) == free) {
+                states[i] = TableHashStats.FREE_SLOT;
+            /* if Mutable mutability && !(LHash|RHash hash) */
+            } else if (key == removed) {
+                states[i] = TableHashStats.REMOVED_SLOT;
+            /* endif */
+            } else {
+                states[i] = TableHashStats.FULL_SLOT;
+                /* if !(PHash|LHash|RHash hash) */
+                hashes[i] = keyMixer.mix(key) & Integer.MAX_VALUE;
+                /* elif PHash|LHash|RHash hash //
+                hashes[i] = keyMixer.mix(key);
+                // endif */
+            }
+        }
+        return stats(states, hashes);
+    }
+
+    /* if Immutable mutability */
+    /**
+     * Rebuilds the table, moved from a mutable hash, with a minimal perfect hash function
+     * of the keys, see {@link net.openhft.collect.HashConfig#isPerfectHashing()}. The new
+     * table has no free slots. Empty hashes keep the table.
+     */
+    final void buildPerfectHash() {
+        int size = size();
+        if (size == 0)
+            return;
+        char[] keys = set;
+        char free = freeValue;
+        long[] perfectKeys = new long[size];
+        int[] oldIndexes = new int[size];
+        for (int i = keys.length - 1, k = 0; i >= 0; i--) {
+            char key;
+            if ((key = keys[i]) != free) {
+                perfectKeys[k] = key;
+                oldIndexes[k++] = i;
+            }
+        }
+        int[] slots = new int[size];
+        MinimalPerfectHash perfectHash = MinimalPerfectHash.build(perfectKeys, slots);
+        char[] newKeys = new char[size];
+        int[] fromIndexes = new int[size];
+        for (int k = 0; k < size; k++) {
+            int slot = slots[k];
+            newKeys[slot] = (char) perfectKeys[k];
+            fromIndexes[slot] = oldIndexes[k];
+        }
+        set = newKeys;
+        this.perfectHash = perfectHash;
+        initPerfectLoad();
+        moveValues(fromIndexes);
+    }
+
+    /**
+     * Moves values of maps along with keys, when the table is rebuilt by
+     * {@link #buildPerfectHash()}.
+     *
+     * @param fromIndexes the index in the old table, for each slot of the new table
+     */
+    void moveValues(int[] fromIndexes) {
+        // no values in sets
+    }
+    /* endif */
+
+    /* if Mutable mutability */
+    /**
+     * Finds the key like {@link #index(char)}, while the table could be modified by another
+     * thread: reads the table and the free and removed values once, and probes at most
+     * {@code capacity} slots, so neither loops endlessly nor reads outside the table.
+     * The result is meaningful only if no modification overlapped the call, see
+     * {@link OptimisticCharShortReads}.
+     *
+     * @return the index of the key, or {@code -1} if the key is absent or the probe
+     *         didn't reach the key nor a free slot
+     */
+    final int optimisticIndex(char key) {
+        char free = freeValue;
+        /* if !(LHash|RHash hash) */
+        char removed = removedValue;
+        /* endif */
+        if (key == free/* if !(LHash|RHash hash) */ || key == removed/* endif */)
+            return -1;
+        char[] keys = set;
+        int capacity = keys.length;
+        /* if DHash hash */
+        int hash = keyMixer().mix(key) & Integer.MAX_VALUE;
+        int index = hash % capacity;
+        int step = (hash % (capacity - 2)) + 1;
+        /* elif PHash hash //
+        int hash = keyMixer().mix(key);
+        int index = hash & (capacity - 1);
+        int step = ((hash >>> 16) | 1) & (capacity - 1);
+        // elif LHash|RHash hash //
+        int index = keyMixer().mix(key) & (capacity - 1);
+        // endif */
+        for (int probes = 0; probes < capacity; probes++) {
+            char cur;
+            if ((cur = keys[index]) == key)
+                return index;
+            if (cur == free)
+                return -1;
+            /* if DHash hash */
+            if ((index -= step) < 0) index += capacity; // nextIndex
+            /* elif PHash hash //
+            index = (index - step) & (capacity - 1); // nextIndex
+            // elif LHash|RHash hash //
+            index = (index - 1) & (capacity - 1); // nextIndex
+            // endif */
+        }
+        return -1;
+    }
+    /* endif */
+
+    /* if Mutable mutability && LHash hash */
+    /**
+     * Probes the slots of the key from the given one, which is in the region {@code [lo, hi)}
+     * of the table, until a free slot or the slot with the key, not reading slots outside
+     * the region. Used by {@link ParallelInsertion}.
+     *
+     * @return the index of the free slot or the slot with the key, or the index of the first
+     *         probed slot outside the region
+     */
+    final int probeInRegion(char key, int index, int lo, int hi) {
+        char[] tab = set;
+        char free = freeValue;
+        char cur;
+        if ((cur = tab[index]) == free || cur == key)
+            return index;
+        int capacity = tab.length;
+        while (true) {
+            index = (index - 1) & (capacity - 1); // nextIndex
+            if (index < lo || index >= hi)
+                return index;
+            if ((cur = tab[index]) == free || cur == key)
+                return index;
+        }
+    }
+    /* endif */
+
     /* if Mutable mutability */
     private char findNewFreeOrRemoved() {
         int size = size();
@@ -123,27 +410,27 @@ public abstract class MutableCharDHashSO extends MutableDHash
         char free = this.freeValue;
         /* if Mutable mutability */char removed = this.removedValue;/* endif */
         char[] keys = this.set;
-        int capacity = keys.length;
         Random random = ThreadLocalRandom.current();
         char newFree;
         /* if byte|char|short elem */
         searchForFree:
         if (size > CHAR_CARDINALITY / 2) {
-            int searchStart = random.nextInt(capacity);
-            for (int i = searchStart; i >= 0; i--) {
-                if ( keys[ i ] == free ) {
-                    newFree = (char) i;
-                    if (newFree != free
-                            /* if Mutable mutability */ && newFree != removed/* endif */)
-                        break searchForFree;
-                }
+            // random values are likely to be present, pick one of the absent values
+            long[] taken = new long[CHAR_CARDINALITY >> 6];
+            for (char key : keys) {
+                int v = key - Character.MIN_VALUE;
+                taken[v >> 6] |= 1L << v;
             }
-            for (int i = capacity - 1; i > searchStart; i--) {
-                if ( keys[ i ] == free ) {
-                    newFree = (char) i;
-                    if (newFree != free
-                            /* if Mutable mutability */ && newFree != removed/* endif */)
-                        break searchForFree;
+            /* if Mutable mutability */
+            int removedV = removed - Character.MIN_VALUE;
+            taken[removedV >> 6] |= 1L << removedV;
+            /* endif */
+            int searchStart = random.nextInt(CHAR_CARDINALITY);
+            for (int i = 0; i < CHAR_CARDINALITY; i++) {
+                int v = (searchStart + i) & (CHAR_CARDINALITY - 1);
+                if ((taken[v >> 6] & (1L << v)) == 0L) {
+                    newFree = (char) (v + Character.MIN_VALUE);
+                    break searchForFree;
                 }
             }
             throw new RuntimeException("Impossible state");
@@ -160,6 +447,7 @@ public abstract class MutableCharDHashSO extends MutableDHash
 
 
     char changeFree() {
+        long startNanos = System.nanoTime();
         int mc = modCount();
         char newFree = findNewFreeOrRemoved();
         incrementModCount();
@@ -167,12 +455,14 @@ public abstract class MutableCharDHashSO extends MutableDHash
         char[] keys = this.set;
         CharArrays.replaceAll(keys, freeValue, newFree);
         this.freeValue = newFree;
+        postFreeValueChangeHook(startNanos);
         if (mc != modCount())
             throw new ConcurrentModificationException();
         return newFree;
     }
 
     char changeRemoved() {
+        long startNanos = System.nanoTime();
         int mc = modCount();
         char newRemoved = findNewFreeOrRemoved();
         incrementModCount();
@@ -182,6 +472,7 @@ public abstract class MutableCharDHashSO extends MutableDHash
             CharArrays.replaceAll(keys, removedValue, newRemoved);
         }
         this.removedValue = newRemoved;
+        postRemovedValueChangeHook(startNanos);
         if (mc != modCount())
             throw new ConcurrentModificationException();
         return newRemoved;
@@ -203,8 +494,70 @@ public abstract class MutableCharDHashSO extends MutableDHash
 
     @Override
     void removeAt(int index) {
+        /* if !(LHash|RHash hash) */
         set[index] = removedValue;
+        /* elif LHash hash */
+        char free = freeValue;
+        char[] keys = set;
+        KeyMixer keyMixer = keyMixer();
+        int capacityMask = keys.length - 1;
+        int indexToRemove = index;
+        int indexToShift = indexToRemove;
+        int shiftDistance = 1;
+        while (true) {
+            indexToShift = (indexToShift - 1) & capacityMask;
+            char keyToShift;
+            if ((keyToShift = keys[indexToShift]) == free)
+                break;
+            // the key is moved unless its home slot is in [indexToShift, indexToRemove),
+            // otherwise it would become unreachable by probing from the home slot
+            if (((keyMixer.mix(keyToShift) - indexToShift) & capacityMask) >= shiftDistance) {
+                keys[indexToRemove] = keyToShift;
+                indexToRemove = indexToShift;
+                shiftDistance = 1;
+            } else {
+                shiftDistance++;
+            }
+        }
+        keys[indexToRemove] = free;
+        /* elif RHash hash */
+        char free = freeValue;
+        char[] keys = set;
+        KeyMixer keyMixer = keyMixer();
+        int capacityMask = keys.length - 1;
+        int indexToRemove = index;
+        while (true) {
+            int indexToShift = (indexToRemove - 1) & capacityMask;
+            char keyToShift;
+            // keys of a cluster are ordered by home slots, so all keys up to the first key
+            // in its home slot (or the end of the cluster) are shifted back by one slot
+            if ((keyToShift = keys[indexToShift]) == free ||
+                    ((keyMixer.mix(keyToShift) - indexToShift) & capacityMask) == 0)
+                break;
+            keys[indexToRemove] = keyToShift;
+            indexToRemove = indexToShift;
+        }
+        keys[indexToRemove] = free;
+        /* endif */
         postRemoveHook();
     }
+
+    /* if RHash hash */
+    /**
+     * Shifts the keys from the slot {@code index} up to the nearest free slot in probing order
+     * one slot further, so the slot {@code index} could be taken by the inserted key,
+     * which is closer to its home slot than the key which occupied the slot before.
+     */
+    void shiftForInsertion(int index) {
+        char free = freeValue;
+        char[] keys = set;
+        int capacityMask = keys.length - 1;
+        int freeIndex = index;
+        while (keys[freeIndex = (freeIndex - 1) & capacityMask] != free);
+        for (int i = freeIndex, prev; i != index; i = prev) {
+            keys[i] = keys[prev = (i + 1) & capacityMask];
+        }
+    }
+    /* endif */
     /* endif */
 }
@@ -1,7 +1,9 @@
 /* with
  char|byte|short|int|long|float|double|obj elem
  Mutable|Immutable mutability
+ DHash|PHash|LHash|RHash hash
 */
+/* if !(obj elem LHash|RHash hash) */
 /*
  * Copyright 2014 the original author or authors.
  *
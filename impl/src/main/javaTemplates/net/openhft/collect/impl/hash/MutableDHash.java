@@ -1,3 +1,4 @@
+/* with DHash|PHash|LHash|RHash hash */
 /*
  * Copyright 2014 the original author or authors.
  *
@@ -16,12 +17,31 @@
 
 package net.openhft.collect.impl.hash;
 
+import net.openhft.collect.HashAlgorithm;
+import net.openhft.collect.HashConfig;
+import net.openhft.collect.HashMaintenanceListener;
 import net.openhft.collect.HashOverflowException;
+import net.openhft.collect.HashStats;
+import net.openhft.collect.KeyMixing;
+import net.openhft.collect.RehashReason;
 import net.openhft.collect.impl.AbstractContainer;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/* if !(LHash|RHash hash) */
 import static net.openhft.collect.impl.hash.DHashCapacities.bestCapacity;
+/* elif LHash|RHash hash //
+import static net.openhft.collect.impl.hash.PHashCapacities.bestCapacity;
+// endif */
 
 import static java.lang.Math.max;
+import static net.openhft.collect.impl.hash.Externalization.checkCapacity;
+import static net.openhft.collect.impl.hash.Externalization.readKeyMixing;
+import static net.openhft.collect.impl.hash.Externalization.writeKeyMixing;
 
 
 /**
@@ -57,7 +77,7 @@ import static java.lang.Math.max;
  *
  * <hr/>
  *
- * <p>Decided not to shrink automatically on removals, because
+ * <p>Decided not to shrink automatically on removals by default, because
  * <ul>
  * <li>{@link java.util.HashMap}/{@code std::unordered_map} doesn't do this</li>
  * <li>{@link java.util.ArrayList}/{@code std::vector} doesn't do this</li>
@@ -69,6 +89,13 @@ import static java.lang.Math.max;
  * during iteration through the original one rather than remove the rest
  * elements from it.
  *
+ * <p>Long-lived hashes, which grow during bursts and then drain, could opt in
+ * to shrink on removals by {@link HashConfig#withMinLoad(float)}. When the size
+ * falls below {@code minLoad * C}, the hash is rehashed to the capacity for
+ * {@code 2 * S} keys, i. e. with the load about {@code LF / 2}. Since
+ * {@code minLoad < LF / 2}, the hash doesn't oscillate between shrink and growth
+ * around a single threshold.
+ *
  * <p>However, adaptive rehash from the previous section causes compaction if
  * {@code S / (C - S) < (1 - sqrt(1 - LF)) / LF}.
  */
@@ -80,6 +107,13 @@ public abstract class MutableDHash extends AbstractContainer implements DHash {
     private float loadFactor;
 
 
+    private KeyMixing keyMixing;
+
+
+    /** Resolved {@link #keyMixing}, so lookups don't branch on it. */
+    private KeyMixer keyMixer;
+
+
     /** The current number of occupied slots in the hash. */
     private int size;
 
@@ -97,6 +131,34 @@ public abstract class MutableDHash extends AbstractContainer implements DHash {
     private int modCount = 0;
 
 
+    /** The algorithm of the hashes of this class, see {@link HashConfig#getAlgorithm()}. */
+    static final HashAlgorithm HASH_ALGORITHM =
+            /* if DHash hash */HashAlgorithm.DOUBLE_HASHING
+            /* elif PHash hash //HashAlgorithm.POWER_OF_TWO_DOUBLE_HASHING
+            // elif LHash hash //HashAlgorithm.LINEAR_PROBING
+            // elif RHash hash //HashAlgorithm.ROBIN_HOOD_HASHING// endif */;
+
+
+    /** See {@link HashConfig#getMinLoad()}. */
+    private float minLoad;
+
+
+    /** The hash shrinks when the size falls below this value, 0 if it never shrinks. */
+    private int shrinkSize;
+
+
+    /**
+     * Diagnostic counters, reported by {@link #stats(byte[], int[])}. They are not a part
+     * of the hash state, hashes are copied and externalized without them.
+     */
+    private int rehashCount, freeValueChangeCount, removedValueChangeCount;
+
+
+    /** See {@link HashConfig#getMaintenanceListener()}. */
+    @Nullable
+    private HashMaintenanceListener maintenanceListener;
+
+
     /////////////////////////////
     // Getters
 
@@ -105,6 +167,16 @@ public abstract class MutableDHash extends AbstractContainer implements DHash {
         return loadFactor;
     }
 
+    @Override
+    public final KeyMixing keyMixing() {
+        return keyMixing;
+    }
+
+    @Override
+    public final KeyMixer keyMixer() {
+        return keyMixer;
+    }
+
     @Override
     public final int size() {
         return size;
@@ -137,6 +209,46 @@ public abstract class MutableDHash extends AbstractContainer implements DHash {
         modCount++;
     }
 
+    /**
+     * Called by subclasses after the value, marking free slots, is replaced.
+     *
+     * @param startNanos {@link System#nanoTime()} before the replacement
+     */
+    final void postFreeValueChangeHook(long startNanos) {
+        freeValueChangeCount++;
+        HashMaintenanceListener listener;
+        if ((listener = maintenanceListener) != null)
+            listener.onFreeValueChange(this, capacity(), System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Called by subclasses after the value, marking removed slots, is replaced.
+     *
+     * @param startNanos {@link System#nanoTime()} before the replacement
+     */
+    final void postRemovedValueChangeHook(long startNanos) {
+        removedValueChangeCount++;
+        HashMaintenanceListener listener;
+        if ((listener = maintenanceListener) != null)
+            listener.onRemovedValueChange(this, capacity(), System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Root operation for {@code stats()} of the concrete hashes, which collect the slot
+     * states and the key hashes of the table, see {@link TableHashStats}.
+     */
+    final HashStats stats(byte[] states, int[] hashes) {
+        return new TableHashStats(HASH_ALGORITHM, states, hashes,
+                rehashCount, freeValueChangeCount, removedValueChangeCount);
+    }
+
+    /**
+     * Returns the number of keys, which could be inserted to free slots without rehash.
+     */
+    final int freeSlotsBeforeRehash() {
+        return freeSlots - minFreeSlots;
+    }
+
     @Override
     public final float currentLoad() {
         // Division in double to minimize precision loss
@@ -154,29 +266,90 @@ public abstract class MutableDHash extends AbstractContainer implements DHash {
      */
     final void copy(DHash hash) {
         this.loadFactor = hash.loadFactor();
+        this.keyMixing = hash.keyMixing();
+        this.keyMixer = hash.keyMixer();
         this.size = hash.size();
-        int freeSlots = this.freeSlots = hash.freeSlots();
-        int minFreeSlots = this.minFreeSlots = max(1, (int) (hash.capacity() * (1 - loadFactor)));
+        this.freeSlots = hash.freeSlots();
+        initMinFreeSlots(hash.capacity());
+        this.removedSlots = hash.removedSlots();
+    }
+
+    final void initMinFreeSlots(int capacity) {
+        int minFreeSlots = this.minFreeSlots = max(1, (int) (capacity * (1 - loadFactor)));
         // see #initSlotCounts()
         if (freeSlots < minFreeSlots) this.minFreeSlots = (freeSlots + 1) >> 1;
-        this.removedSlots = hash.removedSlots();
     }
 
     /**
-     * Creates data structures with a prime capacity at or near the minimum
-     * needed to hold {@code size} elements without triggering a rehash.
+     * Root operation for {@code writeExternal()} of the concrete hashes, subclasses write
+     * their fields after calling the super method. See {@link Externalization}.
+     */
+    void writeExternalFields(ObjectOutput out) throws IOException {
+        out.writeFloat(loadFactor);
+        writeKeyMixing(out, keyMixing);
+        out.writeInt(size);
+        out.writeInt(freeSlots);
+        out.writeInt(removedSlots);
+    }
+
+    /**
+     * Root operation for {@code readExternal()} of the concrete hashes, reads the fields
+     * written by {@link #writeExternalFields(ObjectOutput)}. Subclasses read their fields
+     * after calling the super method, the one reading the table arrays must then call
+     * {@link #checkSlotCounts(int)} and {@link #initMinFreeSlots(int)}.
+     */
+    void readExternalFields(ObjectInput in) throws IOException {
+        loadFactor = in.readFloat();
+        keyMixing = readKeyMixing(in);
+        keyMixer = KeyMixer.of(keyMixing);
+        size = in.readInt();
+        freeSlots = in.readInt();
+        removedSlots = in.readInt();
+    }
+
+    /**
+     * Checks the slot counts, read by {@link #readExternalFields(ObjectInput)}, against
+     * the capacity of the read table.
+     */
+    final void checkSlotCounts(int capacity) throws InvalidObjectException {
+        checkCapacity(capacity, size, HASH_ALGORITHM != HashAlgorithm.DOUBLE_HASHING);
+        if (freeSlots <= 0 || removedSlots < 0 || size + freeSlots + removedSlots != capacity) {
+            throw new InvalidObjectException("Slot counts don't match capacity " + capacity +
+                    ": size " + size + ", free " + freeSlots + ", removed " + removedSlots);
+        }
+    }
+
+    /**
+     * Creates data structures with a capacity (see {@code bestCapacity()}) at or near
+     * the minimum needed to hold {@code size} elements without triggering a rehash.
      *
      * <p>Should be called only in constructors and externalization code.
      * If {@code justExpected} is false, MutableDHash setups itself as if there are
      * already {@code size} elements in the hash (useful for externalization).
      */
-    final void init(float loadFactor, int size) {
-        this.loadFactor = loadFactor;
+    final void init(HashConfig conf, int size) {
+        float loadFactor = this.loadFactor = conf.getLoadFactor();
+        this.keyMixing = keyMixing(conf);
+        this.keyMixer = KeyMixer.of(keyMixing);
+        this.minLoad = conf.getMinLoad();
+        this.maintenanceListener = conf.getMaintenanceListener();
         this.size = 0;
         int capacity = bestCapacity(size, loadFactor, 0);
         internalInit(capacity);
     }
 
+    /**
+     * Resolves {@code null} (default) key mixing of the config: double hashing over prime
+     * capacities spreads keys well by itself, power of 2 capacities need mixed keys.
+     */
+    static KeyMixing keyMixing(HashConfig conf) {
+        KeyMixing keyMixing = conf.getKeyMixing();
+        if (keyMixing != null)
+            return keyMixing;
+        return /* if !(PHash|LHash|RHash hash) */KeyMixing.NONE
+                /* elif PHash|LHash|RHash hash //KeyMixing.MULTIPLY_SHIFT// endif */;
+    }
+
     private void internalInit(int capacity) {
         initSlotCounts(capacity);
         allocateArrays(capacity);
@@ -203,6 +376,18 @@ public abstract class MutableDHash extends AbstractContainer implements DHash {
         // too often (instant) rehashing in this case.
         if (freeSlots < minFreeSlots) this.minFreeSlots = (freeSlots + 1) / 2;
         removedSlots = 0;
+        shrinkSize = (int) (capacity * minLoad);
+    }
+
+    /**
+     * Sets the min load and the maintenance listener of the config, after the hash is
+     * {@linkplain #copy(DHash) copied} from a hash with the same load factor. These policies
+     * are not a part of the hash state, hashes are copied and externalized without them.
+     */
+    final void initPolicies(HashConfig conf) {
+        float minLoad = this.minLoad = conf.getMinLoad();
+        shrinkSize = (int) (capacity() * minLoad);
+        maintenanceListener = conf.getMaintenanceListener();
     }
 
     /**
@@ -223,6 +408,23 @@ public abstract class MutableDHash extends AbstractContainer implements DHash {
      */
     abstract void rehash(int newCapacity);
 
+    /**
+     * Calls {@link #rehash(int)} and notifies the {@linkplain
+     * HashConfig#getMaintenanceListener() maintenance listener}, if the hash has one.
+     */
+    private void rehash(int newCapacity, RehashReason reason) {
+        HashMaintenanceListener listener;
+        if ((listener = maintenanceListener) == null) {
+            rehash(newCapacity);
+        } else {
+            int oldCapacity = capacity();
+            long startNanos = System.nanoTime();
+            rehash(newCapacity);
+            listener.onRehash(this, reason, oldCapacity, newCapacity, size,
+                    System.nanoTime() - startNanos);
+        }
+    }
+
     /**
      * This method just increments modification count (see {@link #modCount()})
      * and calls {@link #internalInit(int)}. Should be called by subclasses in
@@ -230,6 +432,7 @@ public abstract class MutableDHash extends AbstractContainer implements DHash {
      */
     final void initForRehash(int newCapacity) {
         modCount++;
+        rehashCount++;
         internalInit(newCapacity);
     }
 
@@ -258,19 +461,19 @@ public abstract class MutableDHash extends AbstractContainer implements DHash {
     public boolean shrink() {
         int newCapacity = bestCapacity(size, loadFactor, size);
         if (removedSlots > 0 || newCapacity < capacity()) {
-            rehash(newCapacity);
+            rehash(newCapacity, RehashReason.SHRINK);
             return true;
         } else {
             return false;
         }
     }
 
-    private boolean tryRehashForExpansion(long desiredSize) {
+    private boolean tryRehashForExpansion(long desiredSize, RehashReason reason) {
         int newCapacity = bestCapacity(desiredSize, loadFactor, size);
         // No sense in rehashing for expansion if we already reached Java array
         // size limit.
         if (newCapacity > capacity() || removedSlots > 0) {
-            rehash(newCapacity);
+            rehash(newCapacity, reason);
             return true;
         } else {
             if (freeSlots < minFreeSlots)
@@ -302,7 +505,7 @@ public abstract class MutableDHash extends AbstractContainer implements DHash {
             lowFreeEstimate = (int) ((nonFull - additionalSize) * freeFraction);
         }
         if (lowFreeEstimate < minFreeSlots) {
-            tryRehashForExpansion(minSize);
+            tryRehashForExpansion(minSize, RehashReason.ENSURE_CAPACITY);
             return true;
         } else {
             return false;
@@ -312,7 +515,30 @@ public abstract class MutableDHash extends AbstractContainer implements DHash {
     final void postRemoveHook() {
         modCount++;
         size--;
+        /* if !(LHash|RHash hash) */
         removedSlots++;
+        /* elif LHash|RHash hash */
+        // keys are shifted back on removal, the slot becomes free
+        freeSlots++;
+        /* endif */
+    }
+
+    /**
+     * Shrinks the hash, if the size fell below the {@linkplain HashConfig#getMinLoad() min
+     * load}. Must be called only by operations, which don't use the table after removal:
+     * single key removals and bulk removals after the loop, but not iterators and cursors.
+     */
+    final void shrinkIfTooSparse() {
+        if (size < shrinkSize) {
+            int newCapacity = bestCapacity(size * 2L, loadFactor, size);
+            if (newCapacity < capacity()) {
+                rehash(newCapacity, RehashReason.MIN_LOAD_SHRINK);
+            } else {
+                // the capacity for twice the size isn't smaller, try again
+                // when the size halves
+                shrinkSize = size >> 1;
+            }
+        }
     }
 
     /**
@@ -351,16 +577,43 @@ public abstract class MutableDHash extends AbstractContainer implements DHash {
         removedSlots--;
     }
 
+    /**
+     * Counts {@code inserted} keys, put to free slots by a bulk operation at once. The bulk
+     * operation must ensure the capacity in advance, this hook doesn't rehash.
+     */
+    final void postBulkFreeSlotInsertHook(int inserted) {
+        if (inserted > 0) {
+            modCount++;
+            size += inserted;
+            freeSlots -= inserted;
+        }
+    }
+
+    /* if !(LHash|RHash hash) */
+    /**
+     * Counts {@code removed} keys, replaced with the removed value by a bulk operation at once.
+     */
+    final void postBulkRemoveHook(int removed) {
+        if (removed > 0) {
+            modCount++;
+            size -= removed;
+            removedSlots += removed;
+            shrinkIfTooSparse();
+        }
+    }
+    /* endif */
+
     /**
      * See <a href="#rehash-logic">Rehash logic</a>.
      */
     private boolean tryRehashIfTooFewFreeSlots() {
         if ( removedSlots > 0 ) {
             double k = 1 - Math.sqrt(1 - loadFactor);
-            rehash(bestCapacity(size, k, size));
+            rehash(bestCapacity(size, k, size), RehashReason.REMOVED_SLOTS_CLEANUP);
             return true;
         } else {
-            return tryRehashForExpansion(size * 2L); // 2L to prevent overflow
+            // 2L to prevent overflow
+            return tryRehashForExpansion(size * 2L, RehashReason.GROWTH);
         }
     }
 }
\ No newline at end of file
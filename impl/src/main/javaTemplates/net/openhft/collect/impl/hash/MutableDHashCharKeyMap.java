@@ -1,7 +1,9 @@
 /* with
  char|byte|short|int|long|float|double|obj key
  Mutable|Immutable mutability
+ DHash|PHash|LHash|RHash hash
 */
+/* if !(obj key LHash|RHash hash) */
 /*
  * Copyright 2014 the original author or authors.
  *
@@ -25,9 +27,15 @@ import net.openhft.function.*;
 import net.openhft.collect.impl.*;
 import net.openhft.collect.set.CharSet;
 import net.openhft.collect.set.hash.HashCharSet;
+/* if !(float|double|obj key) */
+import net.openhft.collect.set.hash.ParallelHashCharSet;
+/* endif */
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
+/* if !(float|double|obj key) */
+import java.util.concurrent.ForkJoinPool;
+/* endif */
 
 
 public abstract class MutableDHashCharKeyMap/*<>*/ extends MutableCharDHashGO/*<>*/ {
@@ -63,7 +71,8 @@ public abstract class MutableDHashCharKeyMap/*<>*/ extends MutableCharDHashGO/*<
     /* endif */
 
     class KeyView extends AbstractCharKeyView/*<>*/
-            implements HashCharSet/*<>*/, InternalCharCollectionOps/*<>*/, CharDHash {
+            implements HashCharSet/*<>*/, InternalCharCollectionOps/*<>*/, CharDHash
+            /* if !(float|double|obj key) */, ParallelHashCharSet/* endif */ {
 
         /* if obj key */
         /* if obj key //@Override// endif */
@@ -77,6 +86,16 @@ public abstract class MutableDHashCharKeyMap/*<>*/ extends MutableCharDHashGO/*<
             return MutableDHashCharKeyMap.this.loadFactor();
         }
 
+        @Override
+        public KeyMixing keyMixing() {
+            return MutableDHashCharKeyMap.this.keyMixing();
+        }
+
+        @Override
+        public KeyMixer keyMixer() {
+            return MutableDHashCharKeyMap.this.keyMixer();
+        }
+
         @Override
         public int size() {
             return MutableDHashCharKeyMap.this.size();
@@ -87,6 +106,12 @@ public abstract class MutableDHashCharKeyMap/*<>*/ extends MutableCharDHashGO/*<
             return MutableDHashCharKeyMap.this.currentLoad();
         }
 
+        @NotNull
+        @Override
+        public HashStats stats() {
+            return MutableDHashCharKeyMap.this.stats();
+        }
+
         /* if !(obj|float|double key) */
         @Override
         public char freeValue() {
@@ -154,6 +179,13 @@ public abstract class MutableDHashCharKeyMap/*<>*/ extends MutableCharDHashGO/*<
         /* endif */
         /* endif */
 
+        /* if !(float|double|obj key) */
+        @Override
+        public void containsAll(char[] keys, boolean[] results) {
+            MutableDHashCharKeyMap.this.contains(keys, results);
+        }
+        /* endif */
+
 
         /* if obj key || JDK8 jdk //@Override// endif */
         public void forEach( Consumer<? super Character> action ) {
@@ -201,6 +233,21 @@ public abstract class MutableDHashCharKeyMap/*<>*/ extends MutableCharDHashGO/*<
             return setCursor();
         }
 
+        @Override
+        @NotNull
+        public CharSpliterator/*<>*/ charSpliterator() {
+            return setSpliterator();
+        }
+
+        /* if JDK8 jdk */
+        @Override
+        @NotNull
+        public /* if !(obj key) */CharSpliterator/* elif obj key //java.util.Spliterator<K>// endif */
+        spliterator() {
+            return /* if obj key //(KeySpliterator) // endif */setSpliterator();
+        }
+        /* endif */
+
         @Override
         @NotNull
         public Object[] toArray() {
@@ -275,6 +322,23 @@ public abstract class MutableDHashCharKeyMap/*<>*/ extends MutableCharDHashGO/*<
         }
         /* endif */
 
+        /* if !(float|double|obj key) */
+        @Override
+        public void parallelForEach(CharConsumer action, ForkJoinPool pool) {
+            MutableDHashCharKeyMap.this.parallelForEach(action, pool);
+        }
+
+        @Override
+        public boolean parallelForEachWhile(CharPredicate predicate, ForkJoinPool pool) {
+            return MutableDHashCharKeyMap.this.parallelForEachWhile(predicate, pool);
+        }
+
+        @Override
+        public boolean parallelRemoveIf(CharPredicate filter, ForkJoinPool pool) {
+            return MutableDHashCharKeyMap.this.parallelRemoveIf(filter, pool);
+        }
+        /* endif */
+
         @Override
         public boolean removeAll(@NotNull Collection<?> c) {
             /* if !(obj key) */
@@ -2,7 +2,9 @@
  char|byte|short|int|long|float|double|obj key
  obj value
  Mutable|Immutable mutability
+ DHash|PHash|LHash|RHash hash
 */
+/* if !(obj key LHash|RHash hash) */
 /*
  * Copyright 2014 the original author or authors.
  *
@@ -29,12 +31,17 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+/* if !(float|double|obj key) && !(Immutable mutability) */
+import java.util.concurrent.ForkJoinPool;
+/* endif */
 
 
 public abstract class MutableDHashCharObjMapSO</* if obj key //K, // endif */V>
         extends MutableDHashCharKeyMap/* if obj key //<K>// endif */
         implements HashCharObjMap</* if obj key //K, // endif */V>,
-        InternalCharObjMapOps</* if obj key //K, // endif */V>, CharObjDHash {
+        InternalCharObjMapOps</* if obj key //K, // endif */V>, CharObjDHash
+        /* if Mutable mutability && !(float|double|obj key) */,
+        OptimisticCharObjReads<V>/* endif */ {
 
     V[] values;
 
@@ -51,6 +58,19 @@ public abstract class MutableDHashCharObjMapSO</* if obj key //K, // endif */V>
         values = (V[]) hash.valueArray();
     }
 
+    /* if Immutable mutability && !(obj key) */
+    @Override
+    void moveValues(int[] fromIndexes) {
+        V[] vals = values;
+        // noinspection unchecked
+        V[] newVals = (V[]) new Object[fromIndexes.length];
+        for (int i = 0; i < fromIndexes.length; i++) {
+            newVals[i] = vals[fromIndexes[i]];
+        }
+        values = newVals;
+    }
+    /* endif */
+
     @Override
     @NotNull
     public Object[] valueArray() {
@@ -78,7 +98,7 @@ public abstract class MutableDHashCharObjMapSO</* if obj key //K, // endif */V>
     /* with key view */
     @Override
     public CharIterator/*<>*/ iterator() {
-        /* if Mutable mutability //
+        /* if Mutable mutability && !(LHash|RHash hash) //
         if (!noRemoved()) return new SomeRemovedKeyIterator();
         // endif */
         return new NoRemovedKeyIterator();
@@ -86,7 +106,7 @@ public abstract class MutableDHashCharObjMapSO</* if obj key //K, // endif */V>
 
     @Override
     public CharCursor/*<>*/ setCursor() {
-        /* if Mutable mutability //
+        /* if Mutable mutability && !(LHash|RHash hash) //
         if (!noRemoved()) return new SomeRemovedKeyCursor();
         // endif */
         return new NoRemovedKeyCursor();
@@ -159,8 +179,89 @@ public abstract class MutableDHashCharObjMapSO</* if obj key //K, // endif */V>
     /* if Mutable mutability */
     @Override
     void removeAt(int index) {
+        /* if !(LHash|RHash hash) */
         values[index] = null;
         super.removeAt(index);
+        /* elif LHash hash */
+        char free = freeValue;
+        char[] keys = set;
+        V[] vals = values;
+        KeyMixer keyMixer = keyMixer();
+        int capacityMask = keys.length - 1;
+        int indexToRemove = index;
+        int indexToShift = indexToRemove;
+        int shiftDistance = 1;
+        while (true) {
+            indexToShift = (indexToShift - 1) & capacityMask;
+            char keyToShift;
+            if ((keyToShift = keys[indexToShift]) == free)
+                break;
+            // see MutableCharLHashSO.removeAt()
+            if (((keyMixer.mix(keyToShift) - indexToShift) & capacityMask) >= shiftDistance) {
+                keys[indexToRemove] = keyToShift;
+                vals[indexToRemove] = vals[indexToShift];
+                indexToRemove = indexToShift;
+                shiftDistance = 1;
+            } else {
+                shiftDistance++;
+            }
+        }
+        keys[indexToRemove] = free;
+        vals[indexToRemove] = null;
+        postRemoveHook();
+        /* elif RHash hash */
+        char free = freeValue;
+        char[] keys = set;
+        V[] vals = values;
+        KeyMixer keyMixer = keyMixer();
+        int capacityMask = keys.length - 1;
+        int indexToRemove = index;
+        while (true) {
+            int indexToShift = (indexToRemove - 1) & capacityMask;
+            char keyToShift;
+            // see MutableCharRHashSO.removeAt()
+            if ((keyToShift = keys[indexToShift]) == free ||
+                    ((keyMixer.mix(keyToShift) - indexToShift) & capacityMask) == 0)
+                break;
+            keys[indexToRemove] = keyToShift;
+            vals[indexToRemove] = vals[indexToShift];
+            indexToRemove = indexToShift;
+        }
+        keys[indexToRemove] = free;
+        vals[indexToRemove] = null;
+        postRemoveHook();
+        /* endif */
+    }
+
+    /* if RHash hash */
+    @Override
+    void shiftForInsertion(int index) {
+        char free = freeValue;
+        char[] keys = set;
+        V[] vals = values;
+        int capacityMask = keys.length - 1;
+        int freeIndex = index;
+        while (keys[freeIndex = (freeIndex - 1) & capacityMask] != free);
+        for (int i = freeIndex, prev; i != index; i = prev) {
+            keys[i] = keys[prev = (i + 1) & capacityMask];
+            vals[i] = vals[prev];
+        }
+    }
+    /* endif */
+    /* endif */
+
+    /* if Mutable mutability && !(float|double|obj key) */
+    @Override
+    public boolean optimisticContainsKey(char key) {
+        return optimisticIndex(key) >= 0;
+    }
+
+    @Override
+    public V optimisticGet(char key, V defaultValue) {
+        V[] vals = values;
+        int index = optimisticIndex(key);
+        // the values array could be replaced after the keys array is read
+        return index >= 0 && index < vals.length ? vals[index] : defaultValue;
     }
     /* endif */
 
@@ -181,6 +282,53 @@ public abstract class MutableDHashCharObjMapSO</* if obj key //K, // endif */V>
     }
     /* endif */
 
+    /* if !(float|double|obj key) */
+    @Override
+    public boolean parallelRemoveIf(final CharPredicate filter, ForkJoinPool pool) {
+        /* if !(LHash|RHash hash) */
+        if (set.length < ParallelTraversal.MIN_PARALLEL_CAPACITY)
+            return removeIf(filter);
+        int mc = modCount();
+        ParallelTraversal traversal = new ParallelTraversal() {
+            @Override
+            void traverse(int lo, int hi) {
+                char[] keys = set;
+                V[] vals = values;
+                char free = freeValue;
+                char removed = removedValue;
+                int removedCount = 0;
+                try {
+                    for (int i = hi - 1; i >= lo; i--) {
+                        char key;
+                        if ((key = keys[i]) != free && key != removed) {
+                            if (filter.test(key)) {
+                                keys[i] = removed;
+                                vals[i] = null;
+                                removedCount++;
+                            }
+                        }
+                    }
+                } finally {
+                    // the slots are marked removed, even if the filter throws later
+                    changed(removedCount);
+                }
+            }
+        };
+        try {
+            traversal.run(pool, set.length);
+            if (mc != modCount())
+                throw new ConcurrentModificationException();
+        } finally {
+            postBulkRemoveHook(traversal.changedSlots());
+        }
+        return traversal.changedSlots() > 0;
+        /* elif LHash|RHash hash */
+        // removal shifts keys back, possibly across the ranges of the tasks
+        return removeIf(filter);
+        /* endif */
+    }
+    /* endif */
+
     @Override
     public boolean removeAll(@NotNull Collection<?> c) {
         /* template RemoveAll */ throw new NotGenerated(); /* endtemplate */
@@ -226,7 +374,7 @@ public abstract class MutableDHashCharObjMapSO</* if obj key //K, // endif */V>
 
 
     /* with key view No|Some removed */
-    /* if !(Immutable mutability Some removed) */
+    /* if !(Immutable mutability Some removed) && !(LHash|RHash hash Some removed) */
 
     class NoRemovedKeyIterator extends NoRemovedIterator {
         final V[] vals;
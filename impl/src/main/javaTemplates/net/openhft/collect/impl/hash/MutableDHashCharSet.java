@@ -1,7 +1,9 @@
 /* with
  char|byte|short|int|long|float|double|obj elem
  Mutable|Immutable mutability
+ DHash|PHash|LHash|RHash hash
 */
+/* if !(obj elem LHash|RHash hash) */
 /*
  * Copyright 2014 the original author or authors.
  *
@@ -24,8 +26,37 @@ import net.openhft.collect.Equivalence;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+/* if !(obj elem) */
+import java.io.*;
 
-public final class MutableDHashCharSet/*<>*/ extends MutableDHashCharSetGO/*<>*/ {
+import static net.openhft.collect.impl.hash.Externalization.readVersion;
+import static net.openhft.collect.impl.hash.Externalization.writeVersion;
+/* endif */
+
+
+public final class MutableDHashCharSet/*<>*/ extends MutableDHashCharSetGO/*<>*/
+        /* if !(obj elem) */implements Externalizable/* endif */ {
+
+    /* if !(obj elem) */
+    private static final long serialVersionUID = 0L;
+
+    /**
+     * Public no-arg constructor, required by {@link Externalizable}.
+     */
+    public MutableDHashCharSet() {}
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        writeVersion(out);
+        writeExternalFields(out);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        readVersion(in);
+        readExternalFields(in);
+    }
+    /* endif */
 
     /* if obj elem */
     static final class WithCustomEquivalence<E> extends MutableDHashObjSetGO<E> {
@@ -1,7 +1,9 @@
 /* with
  char|byte|short|int|long|float|double|obj elem
  Mutable|Immutable mutability
+ DHash|PHash|LHash|RHash hash
 */
+/* if !(obj elem LHash|RHash hash) */
 /*
  * Copyright 2014 the original author or authors.
  *
@@ -23,13 +25,20 @@ package net.openhft.collect.impl.hash;
 import net.openhft.collect.*;
 import net.openhft.collect.impl.*;
 import net.openhft.collect.set.hash.HashCharSet;
+/* if !(float|double|obj elem) */
+import net.openhft.collect.set.hash.ParallelHashCharSet;
+/* endif */
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
+/* if Mutable mutability && !(float|double|obj elem) */
+import java.util.concurrent.ForkJoinPool;
+/* endif */
 
 
 public class MutableDHashCharSetGO/*<>*/ extends MutableCharDHashSetSO/*<>*/
-        implements HashCharSet/*<>*/, InternalCharCollectionOps/*<>*/ {
+        implements HashCharSet/*<>*/, InternalCharCollectionOps/*<>*/
+        /* if !(float|double|obj elem) */, ParallelHashCharSet/* endif */ {
 
     public int hashCode() {
         return setHashCode();
@@ -49,12 +58,127 @@ public class MutableDHashCharSetGO/*<>*/ extends MutableCharDHashSetSO/*<>*/
         return CommonCharCollectionOps.containsAll(this, c);
     }
 
+    /* if !(float|double|obj elem) */
+    @Override
+    public void containsAll(char[] elements, boolean[] results) {
+        contains(elements, results);
+    }
+    /* endif */
+
+    /* if Mutable mutability && !(float|double|obj elem) */
+    /**
+     * Adds the elements in the {@code pool}, see {@link ParallelInsertion}. The resulting
+     * table is the same as after adding the elements sequentially. Only tables with linear
+     * probing are filled in parallel, in others the slots of colliding elements depend
+     * on the insertion order.
+     */
+    final void parallelAddAll(final char[] elements, ForkJoinPool pool) {
+        /* if LHash hash */
+        int n = elements.length;
+        int maxNewElements = /* if byte|char|short elem */Math.min(n, CHAR_CARDINALITY)
+                /* elif !(byte|char|short elem) //n// endif */;
+        ensureCapacity((int) Math.min((long) size() + maxNewElements, Integer.MAX_VALUE));
+        if (n >= ParallelInsertion.MIN_PARALLEL_SIZE && noRemoved() &&
+                freeSlots() > maxNewElements) {
+            final char[] tab = set;
+            final int capacity = tab.length;
+            final KeyMixer keyMixer = keyMixer();
+            final char free = freeValue;
+            ParallelInsertion insertion = new ParallelInsertion(pool, capacity) {
+                @Override
+                void firstIndexes(int from, int len, int[] indexes) {
+                    for (int i = 0; i < len; i++) {
+                        char e = elements[from + i];
+                        if (e == free) {
+                            // The free value should be changed first
+                            indexes[i] = SEQUENTIAL;
+                        } else {
+                            indexes[i] = keyMixer.mix(e) & (capacity - 1);
+                        }
+                    }
+                }
+
+                @Override
+                int insert(int[] positions, int[] indexes, int from, int to, int lo, int hi) {
+                    int inserted = 0;
+                    for (int i = from; i < to; i++) {
+                        int position = positions[i];
+                        char e = elements[position];
+                        int index = probeInRegion(e, indexes[i], lo, hi);
+                        if (index < lo || index >= hi) {
+                            indexes[i] = index;
+                            continue;
+                        }
+                        if (tab[index] == free) {
+                            tab[index] = e;
+                            inserted(index, position);
+                            inserted++;
+                        }
+                        positions[i] = -1;
+                    }
+                    return inserted;
+                }
+
+                @Override
+                boolean isFree(int index) {
+                    // the free value could be changed by the sequential insertions
+                    return tab[index] == freeValue;
+                }
+
+                @Override
+                int firstIndex(int index) {
+                    return keyMixer.mix(tab[index]) & (capacity - 1);
+                }
+
+                @Override
+                void move(int[] from, int[] to, int len) {
+                    char[] moved = new char[len];
+                    for (int i = 0; i < len; i++) {
+                        moved[i] = tab[from[i]];
+                    }
+                    for (int i = 0; i < len; i++) {
+                        tab[to[i]] = moved[i];
+                    }
+                }
+            };
+            int[] rest = insertion.insert(n);
+            postBulkFreeSlotInsertHook(insertion.inserted());
+            for (int position : rest) {
+                char e = elements[position];
+                if (add(e))
+                    insertion.inserted(index(e), position);
+            }
+            insertion.reorderClusters();
+            return;
+        }
+        /* endif */
+        for (char e : elements) {
+            add(e);
+        }
+    }
+    /* endif */
+
     @NotNull
     @Override
     public CharCursor/*<>*/ cursor() {
         return setCursor();
     }
 
+    @NotNull
+    @Override
+    public CharSpliterator/*<>*/ charSpliterator() {
+        return setSpliterator();
+    }
+
+    /* if JDK8 jdk */
+    @NotNull
+    @Override
+    public /* if !(obj elem) */CharSpliterator/* elif obj elem //java.util.Spliterator<E>// endif */
+    spliterator() {
+        return /* if obj elem //(KeySpliterator) // endif */setSpliterator();
+    }
+    /* endif */
+
 
     /* if !(obj elem) */
     @Override
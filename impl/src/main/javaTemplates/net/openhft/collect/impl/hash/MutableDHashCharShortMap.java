@@ -2,7 +2,9 @@
  char|byte|short|int|long|float|double|object key
  short|byte|char|int|long|float|double|object value
  Mutable|Immutable mutability
+ DHash|PHash|LHash|RHash hash
 */
+/* if !(obj key LHash|RHash hash) */
 /*
  * Copyright 2014 the original author or authors.
  *
@@ -25,11 +27,40 @@ import net.openhft.collect.Equivalence;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+/* if !(obj key) && !(obj value) */
+import java.io.*;
 
-final class MutableDHashCharShortMap/*<>*/ extends MutableDHashCharShortMapGO/*<>*/ {
+import static net.openhft.collect.impl.hash.Externalization.readVersion;
+import static net.openhft.collect.impl.hash.Externalization.writeVersion;
+/* endif */
+
+
+final class MutableDHashCharShortMap/*<>*/ extends MutableDHashCharShortMapGO/*<>*/
+        /* if !(obj key) && !(obj value) */implements Externalizable/* endif */ {
 
     /* define andV *//* if obj value //, V// endif *//* enddefine */
 
+    /* if !(obj key) && !(obj value) */
+    private static final long serialVersionUID = 0L;
+
+    /**
+     * Public no-arg constructor, required by {@link Externalizable}.
+     */
+    public MutableDHashCharShortMap() {}
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        writeVersion(out);
+        writeExternalFields(out);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        readVersion(in);
+        readExternalFields(in);
+    }
+    /* endif */
+
     /* if obj key */
     static final class WithCustomKeyEquivalence<K/*andV*/>
             extends MutableDHashObjShortMapGO<K/*andV*/> {
@@ -68,9 +99,18 @@ final class MutableDHashCharShortMap/*<>*/ extends MutableDHashCharShortMapGO/*<
     /* endif */
 
     /* if !(obj value) */
-    static final class WithCustomDefaultValue/*<>*/ extends MutableDHashCharShortMapGO/*<>*/ {
+    static final class WithCustomDefaultValue/*<>*/ extends MutableDHashCharShortMapGO/*<>*/
+            /* if !(obj key) */implements Externalizable/* endif */ {
+        /* if !(obj key) */
+        private static final long serialVersionUID = 0L;
+        /* endif */
+
         short defaultValue;
 
+        /* if !(obj key) */
+        public WithCustomDefaultValue() {}
+        /* endif */
+
         /* define defaultValueMethods */
         @Override
         public short defaultValue() {
@@ -79,6 +119,32 @@ final class MutableDHashCharShortMap/*<>*/ extends MutableDHashCharShortMapGO/*<
         /* enddefine */
 
         /* defaultValueMethods */
+
+        /* if !(obj key) */
+        @Override
+        void writeExternalFields(ObjectOutput out) throws IOException {
+            super.writeExternalFields(out);
+            out.writeShort(defaultValue);
+        }
+
+        @Override
+        void readExternalFields(ObjectInput in) throws IOException {
+            super.readExternalFields(in);
+            defaultValue = in.readShort();
+        }
+
+        @Override
+        public void writeExternal(ObjectOutput out) throws IOException {
+            writeVersion(out);
+            writeExternalFields(out);
+        }
+
+        @Override
+        public void readExternal(ObjectInput in) throws IOException {
+            readVersion(in);
+            readExternalFields(in);
+        }
+        /* endif */
     }
     /* elif obj value */
     /* define kAnd *//* if obj key //K, // endif *//* enddefine */
@@ -2,7 +2,9 @@
  char|byte|short|int|long|float|double|obj key
  short|byte|char|int|long|float|double|obj value
  Mutable|Immutable mutability
+ DHash|PHash|LHash|RHash hash
 */
+/* if !(obj key LHash|RHash hash) */
 /*
  * Copyright 2014 the original author or authors.
  *
@@ -32,6 +34,9 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+/* if !(float|double|obj key) && !(obj value) */
+import java.util.concurrent.ForkJoinPool;
+/* endif */
 
 
 public class MutableDHashCharShortMapGO/*<>*/
@@ -111,7 +116,7 @@ public class MutableDHashCharShortMapGO/*<>*/
     @NotNull
     @Override
     public CharShortCursor/*<>*/ cursor() {
-        /* if Mutable mutability //
+        /* if Mutable mutability && !(LHash|RHash hash) //
         if (!noRemoved()) return new SomeRemovedMapCursor();
         // endif */
         return new NoRemovedMapCursor();
@@ -426,6 +431,151 @@ public class MutableDHashCharShortMapGO/*<>*/
         /* template RemoveIf */ throw new NotGenerated(); /* endtemplate */
     }
 
+    /* if !(float|double|obj key) && !(obj value) */
+    @Override
+    public void parallelForEach(final CharShortConsumer action, ForkJoinPool pool) {
+        if (set.length < ParallelTraversal.MIN_PARALLEL_CAPACITY) {
+            forEach(action);
+            return;
+        }
+        int mc = modCount();
+        new ParallelTraversal() {
+            @Override
+            void traverse(int lo, int hi) {
+                char[] keys = set;
+                /* bits */short[] vals = values;
+                char free = freeValue;
+                /* if Mutable mutability && !(LHash|RHash hash) */
+                char removed = removedValue;
+                /* endif */
+                for (int i = hi - 1; i >= lo; i--) {
+                    char key;
+                    if ((key = keys[i]) != free
+                            /* if Mutable mutability && !(LHash|RHash hash) */&& key != removed/* endif */) {
+                        action.accept(key, /* wrap value */vals[i]/**/);
+                    }
+                }
+            }
+        }.run(pool, set.length);
+        if (mc != modCount())
+            throw new ConcurrentModificationException();
+    }
+
+    @Override
+    public boolean parallelForEachWhile(final CharShortPredicate predicate, ForkJoinPool pool) {
+        if (set.length < ParallelTraversal.MIN_PARALLEL_CAPACITY)
+            return forEachWhile(predicate);
+        int mc = modCount();
+        ParallelTraversal traversal = new ParallelTraversal() {
+            @Override
+            void traverse(int lo, int hi) {
+                char[] keys = set;
+                /* bits */short[] vals = values;
+                char free = freeValue;
+                /* if Mutable mutability && !(LHash|RHash hash) */
+                char removed = removedValue;
+                /* endif */
+                for (int i = hi - 1; i >= lo; i--) {
+                    char key;
+                    if ((key = keys[i]) != free
+                            /* if Mutable mutability && !(LHash|RHash hash) */&& key != removed/* endif */) {
+                        if (stopped())
+                            break;
+                        if (!predicate.test(key, /* wrap value */vals[i]/**/)) {
+                            stop();
+                            break;
+                        }
+                    }
+                }
+            }
+        };
+        traversal.run(pool, set.length);
+        if (mc != modCount())
+            throw new ConcurrentModificationException();
+        return !traversal.stopped();
+    }
+
+    @Override
+    public void parallelReplaceAll(final CharShortToShortFunction function, ForkJoinPool pool) {
+        /* if Mutable mutability */
+        if (set.length < ParallelTraversal.MIN_PARALLEL_CAPACITY) {
+            replaceAll(function);
+            return;
+        }
+        int mc = modCount();
+        new ParallelTraversal() {
+            @Override
+            void traverse(int lo, int hi) {
+                char[] keys = set;
+                /* bits */short[] vals = values;
+                char free = freeValue;
+                /* if !(LHash|RHash hash) */
+                char removed = removedValue;
+                /* endif */
+                for (int i = hi - 1; i >= lo; i--) {
+                    char key;
+                    if ((key = keys[i]) != free
+                            /* if !(LHash|RHash hash) */&& key != removed/* endif */) {
+                        short value = function.applyAsShort(key, /* wrap value */vals[i]/**/);
+                        vals[i] = /* unwrap value */value;
+                    }
+                }
+            }
+        }.run(pool, set.length);
+        if (mc != modCount())
+            throw new ConcurrentModificationException();
+        /* elif Immutable mutability */
+        throw new UnsupportedOperationException();
+        /* endif */
+    }
+
+    @Override
+    public boolean parallelRemoveIf(final CharShortPredicate filter, ForkJoinPool pool) {
+        /* if Mutable mutability && !(LHash|RHash hash) */
+        if (set.length < ParallelTraversal.MIN_PARALLEL_CAPACITY)
+            return removeIf(filter);
+        int mc = modCount();
+        ParallelTraversal traversal = new ParallelTraversal() {
+            @Override
+            void traverse(int lo, int hi) {
+                char[] keys = set;
+                /* bits */short[] vals = values;
+                char free = freeValue;
+                char removed = removedValue;
+                int removedCount = 0;
+                try {
+                    for (int i = hi - 1; i >= lo; i--) {
+                        char key;
+                        if ((key = keys[i]) != free && key != removed) {
+                            if (filter.test(key, /* wrap value */vals[i]/**/)) {
+                                keys[i] = removed;
+                                removedCount++;
+                            }
+                        }
+                    }
+                } finally {
+                    // the slots are marked removed, even if the filter throws later
+                    changed(removedCount);
+                }
+            }
+        };
+        try {
+            traversal.run(pool, set.length);
+            if (mc != modCount())
+                throw new ConcurrentModificationException();
+        } finally {
+            postBulkRemoveHook(traversal.changedSlots());
+        }
+        return traversal.changedSlots() > 0;
+        /* elif Mutable mutability */
+        // removal shifts keys back, possibly across the ranges of the tasks
+        return removeIf(filter);
+        /* elif Immutable mutability */
+        throw new UnsupportedOperationException();
+        /* endif */
+    }
+    /* endif */
+
 
     /* with entry view */
     class EntryView extends AbstractSetView<Map.Entry<Character, Short>>
@@ -457,6 +607,12 @@ public class MutableDHashCharShortMapGO/*<>*/
             return MutableDHashCharShortMapGO.this.currentLoad();
         }
 
+        @NotNull
+        @Override
+        public HashStats stats() {
+            return MutableDHashCharShortMapGO.this.stats();
+        }
+
 
         @Override
         @SuppressWarnings("unchecked")
@@ -498,7 +654,7 @@ public class MutableDHashCharShortMapGO/*<>*/
         @Override
         @NotNull
         public Iterator<Map.Entry<Character, Short>> iterator() {
-            /* if Mutable mutability //
+            /* if Mutable mutability && !(LHash|RHash hash) //
             if (!noRemoved()) return new SomeRemovedEntryIterator();
             // endif */
             return new NoRemovedEntryIterator();
@@ -507,12 +663,26 @@ public class MutableDHashCharShortMapGO/*<>*/
         @NotNull
         @Override
         public ObjCursor<Map.Entry<Character, Short>> cursor() {
-            /* if Mutable mutability //
+            /* if Mutable mutability && !(LHash|RHash hash) //
             if (!noRemoved()) return new SomeRemovedEntryCursor();
             // endif */
             return new NoRemovedEntryCursor();
         }
 
+        @NotNull
+        @Override
+        public ObjSpliterator<Map.Entry<Character, Short>> objSpliterator() {
+            return new EntrySpliterator(modCount(), 0, set.length, size(), true);
+        }
+
+        /* if JDK8 jdk */
+        @NotNull
+        @Override
+        public java.util.Spliterator<Map.Entry<Character, Short>> spliterator() {
+            return new EntrySpliterator(modCount(), 0, set.length, size(), true);
+        }
+        /* endif */
+
         @Override
         public final boolean containsAll(@NotNull Collection<?> c) {
             return CommonObjCollectionOps.containsAll(this, c);
@@ -593,6 +763,134 @@ public class MutableDHashCharShortMapGO/*<>*/
             MutableDHashCharShortMapGO.this.clear();
         }
     }
+
+
+    class EntrySpliterator extends HashSpliterator
+            implements ObjSpliterator<Map.Entry<Character, Short>>
+            /* if JDK8 jdk //, java.util.Spliterator<Map.Entry<Character, Short>>// endif */ {
+
+        EntrySpliterator(int expectedModCount, int lo, int index, long estimate, boolean exact) {
+            super(expectedModCount, lo, index, estimate, exact);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Map.Entry<Character, Short>> action) {
+            int mc = expectedModCount;
+            /* if !(obj key) */
+            /* bits */char[] keys = set;
+            /* bits */char free = freeValue;
+            /* if Mutable mutability && !(LHash|RHash hash) */
+            /* bits */char removed = removedValue;
+            /* endif */
+            /* elif obj key */
+            Object[] keys = set;
+            /* endif */
+            /* bits */short[] vals = values;
+            for (int i = index - 1; i >= lo; i--) {
+                /* if !(obj key) */
+                /* bits */char key;
+                if ((key = keys[i]) != free
+                        /* if Mutable mutability && !(LHash|RHash hash) */&& key != removed/* endif */) {
+                    index = i;
+                    advanced();
+                    /* if Mutable mutability */
+                    action.accept(new MutableEntry(mc, i, key, vals[i]));
+                    /* elif Immutable mutability */
+                    action.accept(new ImmutableEntry(key, vals[i]));
+                    /* endif */
+                    if (mc != modCount())
+                        throw new ConcurrentModificationException();
+                    return true;
+                }
+                /* elif obj key */
+                Object key;
+                if ((key = keys[i]) != FREE/* if Mutable mutability */ && key != REMOVED/* endif */) {
+                    index = i;
+                    advanced();
+                    /* if Mutable mutability */
+                    // noinspection unchecked
+                    action.accept(new MutableEntry(mc, i, (K) key, vals[i]));
+                    /* elif Immutable mutability */
+                    // noinspection unchecked
+                    action.accept(new ImmutableEntry((K) key, vals[i]));
+                    /* endif */
+                    if (mc != modCount())
+                        throw new ConcurrentModificationException();
+                    return true;
+                }
+                /* endif */
+            }
+            finished();
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Map.Entry<Character, Short>> action) {
+            int mc = expectedModCount;
+            /* if !(obj key) */
+            /* bits */char[] keys = set;
+            /* bits */char free = freeValue;
+            /* if Mutable mutability && !(LHash|RHash hash) */
+            /* bits */char removed = removedValue;
+            /* endif */
+            /* elif obj key */
+            Object[] keys = set;
+            /* endif */
+            /* bits */short[] vals = values;
+            for (int i = index - 1; i >= lo; i--) {
+                /* if !(obj key) */
+                /* bits */char key;
+                if ((key = keys[i]) != free
+                        /* if Mutable mutability && !(LHash|RHash hash) */&& key != removed/* endif */) {
+                    /* if Mutable mutability */
+                    action.accept(new MutableEntry(mc, i, key, vals[i]));
+                    /* elif Immutable mutability */
+                    action.accept(new ImmutableEntry(key, vals[i]));
+                    /* endif */
+                }
+                /* elif obj key */
+                Object key;
+                if ((key = keys[i]) != FREE/* if Mutable mutability */ && key != REMOVED/* endif */) {
+                    /* if Mutable mutability */
+                    // noinspection unchecked
+                    action.accept(new MutableEntry(mc, i, (K) key, vals[i]));
+                    /* elif Immutable mutability */
+                    // noinspection unchecked
+                    action.accept(new ImmutableEntry((K) key, vals[i]));
+                    /* endif */
+                }
+                /* endif */
+            }
+            finished();
+            if (mc != modCount())
+                throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public EntrySpliterator trySplit() {
+            int hi = index, mid = split();
+            return mid >= 0 ? new EntrySpliterator(expectedModCount, mid, hi, estimate, false) : null;
+        }
+
+        /* if JDK8 jdk */
+        @Override
+        public boolean tryAdvance(
+                java.util.function.Consumer<? super Map.Entry<Character, Short>> action) {
+            return tryAdvance((Consumer<Map.Entry<Character, Short>>) action::accept);
+        }
+
+        @Override
+        public void forEachRemaining(
+                java.util.function.Consumer<? super Map.Entry<Character, Short>> action) {
+            forEachRemaining((Consumer<Map.Entry<Character, Short>>) action::accept);
+        }
+
+        @Override
+        public int characteristics() {
+            return (exact ? SIZED : 0) | DISTINCT | NONNULL;
+        }
+        /* endif */
+    }
     /* endwith */
 
 
@@ -822,7 +1120,7 @@ public class MutableDHashCharShortMapGO/*<>*/
         @Override
         @NotNull
         public ShortIterator/*<>*/ iterator() {
-        /* if Mutable mutability //
+        /* if Mutable mutability && !(LHash|RHash hash) //
         if (!noRemoved()) return new SomeRemovedValueIterator();
         // endif */
             return new NoRemovedValueIterator();
@@ -831,12 +1129,27 @@ public class MutableDHashCharShortMapGO/*<>*/
         @NotNull
         @Override
         public ShortCursor/*<>*/ cursor() {
-        /* if Mutable mutability //
+        /* if Mutable mutability && !(LHash|RHash hash) //
         if (!noRemoved()) return new SomeRemovedValueCursor();
         // endif */
             return new NoRemovedValueCursor();
         }
 
+        @NotNull
+        @Override
+        public ShortSpliterator/*<>*/ shortSpliterator() {
+            return new ValueSpliterator(modCount(), 0, set.length, size(), true);
+        }
+
+        /* if JDK8 jdk */
+        @NotNull
+        @Override
+        public /* if !(obj value) */ShortSpliterator/* elif obj value //java.util.Spliterator<V>// endif */
+        spliterator() {
+            return new ValueSpliterator(modCount(), 0, set.length, size(), true);
+        }
+        /* endif */
+
         @Override
         @NotNull
         public Object[] toArray() {
@@ -952,11 +1265,107 @@ public class MutableDHashCharShortMapGO/*<>*/
         /* endif */
         /* endif */
     }
+
+
+    class ValueSpliterator extends HashSpliterator implements ShortSpliterator/*<>*/
+            /* if obj value JDK8 jdk //, java.util.Spliterator<V>// endif */ {
+
+        ValueSpliterator(int expectedModCount, int lo, int index, long estimate, boolean exact) {
+            super(expectedModCount, lo, index, estimate, exact);
+        }
+
+        @Override
+        public boolean tryAdvance(/*f*/ShortConsumer action) {
+            /* if !(obj key) */
+            /* bits */char[] keys = set;
+            /* bits */char free = freeValue;
+            /* if Mutable mutability && !(LHash|RHash hash) */
+            /* bits */char removed = removedValue;
+            /* endif */
+            /* elif obj key */
+            Object[] keys = set;
+            /* endif */
+            /* bits */short[] vals = values;
+            for (int i = index - 1; i >= lo; i--) {
+                /* if !(obj key) */
+                /* bits */char key;
+                if ((key = keys[i]) != free
+                        /* if Mutable mutability && !(LHash|RHash hash) */&& key != removed/* endif */) {
+                /* elif obj key */
+                Object key;
+                if ((key = keys[i]) != FREE/* if Mutable mutability */ && key != REMOVED/* endif */) {
+                /* endif */
+                    index = i;
+                    advanced();
+                    action.accept(/* wrap value */vals[i]/**/);
+                    if (expectedModCount != modCount())
+                        throw new ConcurrentModificationException();
+                    return true;
+                }
+            }
+            finished();
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(/*f*/ShortConsumer action) {
+            /* if !(obj key) */
+            /* bits */char[] keys = set;
+            /* bits */char free = freeValue;
+            /* if Mutable mutability && !(LHash|RHash hash) */
+            /* bits */char removed = removedValue;
+            /* endif */
+            /* elif obj key */
+            Object[] keys = set;
+            /* endif */
+            /* bits */short[] vals = values;
+            for (int i = index - 1; i >= lo; i--) {
+                /* if !(obj key) */
+                /* bits */char key;
+                if ((key = keys[i]) != free
+                        /* if Mutable mutability && !(LHash|RHash hash) */&& key != removed/* endif */) {
+                /* elif obj key */
+                Object key;
+                if ((key = keys[i]) != FREE/* if Mutable mutability */ && key != REMOVED/* endif */) {
+                /* endif */
+                    action.accept(/* wrap value */vals[i]/**/);
+                }
+            }
+            finished();
+            if (expectedModCount != modCount())
+                throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public ValueSpliterator trySplit() {
+            int hi = index, mid = split();
+            return mid >= 0 ? new ValueSpliterator(expectedModCount, mid, hi, estimate, false) : null;
+        }
+
+        /* if JDK8 jdk */
+        /* if obj value */
+        @Override
+        public boolean tryAdvance(java.util.function.Consumer<? super V> action) {
+            return tryAdvance((Consumer<V>) action::accept);
+        }
+
+        @Override
+        public void forEachRemaining(java.util.function.Consumer<? super V> action) {
+            forEachRemaining((Consumer<V>) action::accept);
+        }
+        /* endif */
+
+        @Override
+        public int characteristics() {
+            return (exact ? SIZED : 0)/* if !(obj value) */ | NONNULL/* endif */;
+        }
+        /* endif */
+    }
     /* endwith */
 
 
     /* with entry view No|Some removed */
-    /* if !(Immutable mutability Some removed) */
+    /* if !(Immutable mutability Some removed) && !(LHash|RHash hash Some removed) */
 
     class NoRemovedEntryIterator implements ObjIterator<Map.Entry<Character, Short>> {
         /* template Iterator.fields */
@@ -1020,7 +1429,7 @@ public class MutableDHashCharShortMapGO/*<>*/
 
 
     /* with value view No|Some removed */
-    /* if !(Immutable mutability Some removed) */
+    /* if !(Immutable mutability Some removed) && !(LHash|RHash hash Some removed) */
 
     class NoRemovedValueIterator implements ShortIterator/*<>*/ {
         /* template Iterator.fields */
@@ -1101,7 +1510,7 @@ public class MutableDHashCharShortMapGO/*<>*/
     /* endwith */
 
     /* with No|Some removed */
-    /* if !(Immutable mutability Some removed) */
+    /* if !(Immutable mutability Some removed) && !(LHash|RHash hash Some removed) */
 
     class NoRemovedMapCursor implements CharShortCursor/*<>*/ {
         /* template Cursor.fields */
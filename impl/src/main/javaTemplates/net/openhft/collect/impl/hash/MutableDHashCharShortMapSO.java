@@ -2,7 +2,9 @@
  char|byte|short|int|long|float|double|obj key
  short|byte|char|int|long|float|double value
  Mutable|Immutable mutability
+ DHash|PHash|LHash|RHash hash
 */
+/* if !(obj key LHash|RHash hash) */
 /*
  * Copyright 2014 the original author or authors.
  *
@@ -23,12 +25,35 @@ package net.openhft.collect.impl.hash;
 
 import net.openhft.collect.impl.*;
 import net.openhft.collect.map.hash.HashCharShortMap;
+/* if !(float|double|obj key) */
+import net.openhft.collect.map.hash.ParallelHashCharShortMap;
+/* endif */
+/* if Mutable mutability && !(obj key) */
+import net.openhft.function.*;
+/* endif */
 import org.jetbrains.annotations.NotNull;
+/* if Mutable mutability && !(obj key) */
+import org.jetbrains.annotations.Nullable;
+/* endif */
+
+/* if !(obj key) */
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+/* if Mutable mutability */
+import java.util.concurrent.ForkJoinPool;
+/* endif */
+
+import static net.openhft.collect.impl.hash.Externalization.*;
+/* endif */
 
 
 public abstract class MutableDHashCharShortMapSO/*<>*/
         extends MutableDHashCharKeyMap/* if obj key //<K>// endif */
-        implements HashCharShortMap/*<>*/, InternalCharShortMapOps/*<>*/, CharShortDHash {
+        implements HashCharShortMap/*<>*/, InternalCharShortMapOps/*<>*/, CharShortDHash
+        /* if !(float|double|obj key) */, ParallelHashCharShortMap/* endif */
+        /* if Mutable mutability && !(float|double|obj key) */,
+        OptimisticCharShortReads/* endif */ {
 
     /* bits */short[] values;
 
@@ -43,6 +68,33 @@ public abstract class MutableDHashCharShortMapSO/*<>*/
         values = hash.valueArray();
     }
 
+    /* if Immutable mutability && !(obj key) */
+    @Override
+    void moveValues(int[] fromIndexes) {
+        /* bits */short[] vals = values;
+        /* bits */short[] newVals = new /* bits */short[fromIndexes.length];
+        for (int i = 0; i < fromIndexes.length; i++) {
+            newVals[i] = vals[fromIndexes[i]];
+        }
+        values = newVals;
+    }
+    /* endif */
+
+    /* if !(obj key) */
+    @Override
+    void writeExternalFields(ObjectOutput out) throws IOException {
+        super.writeExternalFields(out);
+        writeArray(out, values);
+    }
+
+    @Override
+    void readExternalFields(ObjectInput in) throws IOException {
+        super.readExternalFields(in);
+        values = new /* bits */short[readLength(in, capacity())];
+        readArray(in, values);
+    }
+    /* endif */
+
 
     @Override
     @NotNull
@@ -50,6 +102,271 @@ public abstract class MutableDHashCharShortMapSO/*<>*/
         return values;
     }
 
+    /* if !(float|double|obj key) */
+    @Override
+    public void getAll(char[] keys, short[] values) {
+        if (values.length < keys.length)
+            throw new IllegalArgumentException("values array is shorter than keys array");
+        short defaultValue = defaultValue();
+        int[] indexes = new int[INDEX_BATCH];
+        char[] firstKeys = new char[INDEX_BATCH];
+        for (int from = 0; from < keys.length; from += INDEX_BATCH) {
+            int len = Math.min(INDEX_BATCH, keys.length - from);
+            index(keys, from, len, indexes, firstKeys);
+            /* bits */short[] vals = this.values;
+            for (int i = 0; i < len; i++) {
+                int index = indexes[i];
+                values[from + i] = index >= 0 ?
+                        /* if !(float|double value) */vals[index]
+                        /* elif float value //Float.intBitsToFloat(vals[index])
+                        // elif double value //Double.longBitsToDouble(vals[index])// endif */ :
+                        defaultValue;
+            }
+        }
+    }
+    /* endif */
+
+    /* if Mutable mutability && !(float|double|obj key) */
+    @Override
+    public boolean optimisticContainsKey(char key) {
+        return optimisticIndex(key) >= 0;
+    }
+
+    @Override
+    public short optimisticGet(char key, short defaultValue) {
+        /* bits */short[] vals = values;
+        int index = optimisticIndex(key);
+        // the values array could be replaced after the keys array is read
+        return index >= 0 && index < vals.length ?
+                /* if !(float|double value) */vals[index]
+                /* elif float value //Float.intBitsToFloat(vals[index])
+                // elif double value //Double.longBitsToDouble(vals[index])// endif */ :
+                defaultValue;
+    }
+    /* endif */
+
+    /* if Mutable mutability && !(obj key) */
+    /**
+     * Puts the entries of the parallel arrays to this hash. Values of duplicate keys are
+     * merged with {@code mergeFunction}, or replaced, if it is {@code null}.
+     *
+     * <p>The table is sized once for all keys, then keys are inserted in a tight loop,
+     * without rehash checks and modification counting on every insertion.
+     */
+    final void bulkPut(char[] keys, short[] values,
+            @Nullable /*f*/ShortBinaryOperator mergeFunction) {
+        int n = keys.length;
+        // there are no more new keys than values of the key type
+        int maxNewKeys = /* if byte|char|short key */Math.min(n, CHAR_CARDINALITY)
+                /* elif !(byte|char|short key) //n// endif */;
+        ensureCapacity((int) Math.min((long) size() + maxNewKeys, Integer.MAX_VALUE));
+        /* if !(float|double key) && !(float|double value) && !(RHash hash) */
+        if (noRemoved() && freeSlots() > maxNewKeys) {
+            bulkPutToFreeSlots(keys, values, mergeFunction);
+            return;
+        }
+        /* endif */
+        for (int i = 0; i < n; i++) {
+            if (mergeFunction == null) {
+                put(keys[i], values[i]);
+            } else {
+                merge(keys[i], values[i], mergeFunction);
+            }
+        }
+    }
+
+    /* if !(float|double key) && !(float|double value) && !(RHash hash) */
+    /**
+     * The fast path of {@link #bulkPut}, requires no removed slots and enough free slots
+     * for all keys, so that probing always ends in a free slot.
+     *
+     * <p>Keys are inserted in groups of {@link #INDEX_BATCH}, first slots of all keys
+     * of a group are loaded before inserting any of them, like in
+     * {@link #index(char[], int, int, int[], char[])}, so that cache misses overlap.
+     */
+    private void bulkPutToFreeSlots(char[] keys, short[] values,
+            @Nullable /*f*/ShortBinaryOperator mergeFunction) {
+        char[] tab = set;
+        short[] vals = this.values;
+        int capacity = tab.length;
+        KeyMixer keyMixer = keyMixer();
+        char free = freeValue;
+        /* if !(LHash hash) */
+        char removed = removedValue;
+        /* endif */
+        int[] hashes = new int[INDEX_BATCH];
+        char[] firstKeys = new char[INDEX_BATCH];
+        short[] firstValues = new short[INDEX_BATCH];
+        int inserted = 0;
+        for (int from = 0; from < keys.length; from += INDEX_BATCH) {
+            int len = Math.min(INDEX_BATCH, keys.length - from);
+            for (int j = 0; j < len; j++) {
+                /* if DHash hash */
+                int hash = keyMixer.mix(keys[from + j]) & Integer.MAX_VALUE;
+                int index = hash % capacity;
+                /* elif !(DHash hash) //
+                int hash = keyMixer.mix(keys[from + j]);
+                int index = hash & (capacity - 1);
+                // endif */
+                hashes[j] = hash;
+                firstKeys[j] = tab[index];
+                firstValues[j] = vals[index];
+            }
+            for (int j = 0; j < len; j++) {
+                char key = keys[from + j];
+                short value = values[from + j];
+                if (key == free/* if !(LHash hash) */ || key == removed/* endif */) {
+                    // The free or removed value should be changed first, rare case
+                    postBulkFreeSlotInsertHook(inserted);
+                    inserted = 0;
+                    if (mergeFunction == null) {
+                        put(key, value);
+                    } else {
+                        merge(key, value, mergeFunction);
+                    }
+                    // the capacity is ensured, so the table is the same, but free
+                    // and removed values could change
+                    free = freeValue;
+                    /* if !(LHash hash) */
+                    removed = removedValue;
+                    /* endif */
+                    continue;
+                }
+                int hash = hashes[j];
+                /* if DHash hash */
+                int index = hash % capacity;
+                /* elif !(DHash hash) //
+                int index = hash & (capacity - 1);
+                // endif */
+                char cur = tab[index];
+                if (cur != free && cur != key) {
+                    /* if DHash hash */
+                    int step = (hash % (capacity - 2)) + 1;
+                    do {
+                        if ((index -= step) < 0) index += capacity; // nextIndex
+                    } while ((cur = tab[index]) != free && cur != key);
+                    /* elif PHash hash //
+                    int step = ((hash >>> 16) | 1) & (capacity - 1);
+                    do {
+                        index = (index - step) & (capacity - 1); // nextIndex
+                    } while ((cur = tab[index]) != free && cur != key);
+                    // elif LHash hash //
+                    do {
+                        index = (index - 1) & (capacity - 1); // nextIndex
+                    } while ((cur = tab[index]) != free && cur != key);
+                    // endif */
+                }
+                if (cur == free) {
+                    tab[index] = key;
+                    vals[index] = value;
+                    inserted++;
+                } else {
+                    vals[index] = mergeFunction != null ?
+                            mergeFunction.applyAsShort(vals[index], value) : value;
+                }
+            }
+        }
+        postBulkFreeSlotInsertHook(inserted);
+    }
+    /* endif */
+
+    /**
+     * The version of {@link #bulkPut} without merge function, which inserts the keys
+     * in the {@code pool}, see {@link ParallelInsertion}. The resulting table is the same
+     * as after {@code bulkPut}. Only tables with linear probing are filled in parallel,
+     * in others the slots of colliding keys depend on the insertion order.
+     */
+    final void parallelBulkPut(final char[] keys, final short[] values, ForkJoinPool pool) {
+        /* if LHash hash && !(float|double key) && !(float|double value) */
+        int n = keys.length;
+        int maxNewKeys = /* if byte|char|short key */Math.min(n, CHAR_CARDINALITY)
+                /* elif !(byte|char|short key) //n// endif */;
+        ensureCapacity((int) Math.min((long) size() + maxNewKeys, Integer.MAX_VALUE));
+        if (n >= ParallelInsertion.MIN_PARALLEL_SIZE && noRemoved() &&
+                freeSlots() > maxNewKeys) {
+            final char[] tab = set;
+            final short[] vals = this.values;
+            final int capacity = tab.length;
+            final KeyMixer keyMixer = keyMixer();
+            final char free = freeValue;
+            ParallelInsertion insertion = new ParallelInsertion(pool, capacity) {
+                @Override
+                void firstIndexes(int from, int len, int[] indexes) {
+                    for (int i = 0; i < len; i++) {
+                        char key = keys[from + i];
+                        if (key == free) {
+                            // The free value should be changed first
+                            indexes[i] = SEQUENTIAL;
+                        } else {
+                            indexes[i] = keyMixer.mix(key) & (capacity - 1);
+                        }
+                    }
+                }
+
+                @Override
+                int insert(int[] positions, int[] indexes, int from, int to, int lo, int hi) {
+                    int inserted = 0;
+                    for (int i = from; i < to; i++) {
+                        int position = positions[i];
+                        char key = keys[position];
+                        int index = probeInRegion(key, indexes[i], lo, hi);
+                        if (index < lo || index >= hi) {
+                            indexes[i] = index;
+                            continue;
+                        }
+                        if (tab[index] == free) {
+                            tab[index] = key;
+                            inserted(index, position);
+                            inserted++;
+                        }
+                        vals[index] = values[position];
+                        positions[i] = -1;
+                    }
+                    return inserted;
+                }
+
+                @Override
+                boolean isFree(int index) {
+                    // the free value could be changed by the sequential insertions
+                    return tab[index] == freeValue;
+                }
+
+                @Override
+                int firstIndex(int index) {
+                    return keyMixer.mix(tab[index]) & (capacity - 1);
+                }
+
+                @Override
+                void move(int[] from, int[] to, int len) {
+                    char[] movedKeys = new char[len];
+                    short[] movedVals = new short[len];
+                    for (int i = 0; i < len; i++) {
+                        movedKeys[i] = tab[from[i]];
+                        movedVals[i] = vals[from[i]];
+                    }
+                    for (int i = 0; i < len; i++) {
+                        tab[to[i]] = movedKeys[i];
+                        vals[to[i]] = movedVals[i];
+                    }
+                }
+            };
+            int[] rest = insertion.insert(n);
+            postBulkFreeSlotInsertHook(insertion.inserted());
+            for (int position : rest) {
+                char key = keys[position];
+                int size = size();
+                put(key, values[position]);
+                if (size() != size)
+                    insertion.inserted(index(key), position);
+            }
+            insertion.reorderClusters();
+            return;
+        }
+        /* endif */
+        bulkPut(keys, values, null);
+    }
+    /* endif */
+
     /* with internal|simple version */
     /* if simple version || float|double value */
     /* define valueBits */
@@ -107,5 +424,73 @@ public abstract class MutableDHashCharShortMapSO/*<>*/
         super.allocateArrays(capacity);
         values = new /* bits */short[capacity];
     }
+
+    /* if LHash hash */
+    @Override
+    void removeAt(int index) {
+        char free = freeValue;
+        char[] keys = set;
+        /* bits */short[] vals = values;
+        KeyMixer keyMixer = keyMixer();
+        int capacityMask = keys.length - 1;
+        int indexToRemove = index;
+        int indexToShift = indexToRemove;
+        int shiftDistance = 1;
+        while (true) {
+            indexToShift = (indexToShift - 1) & capacityMask;
+            char keyToShift;
+            if ((keyToShift = keys[indexToShift]) == free)
+                break;
+            // see MutableCharLHashSO.removeAt()
+            if (((keyMixer.mix(keyToShift) - indexToShift) & capacityMask) >= shiftDistance) {
+                keys[indexToRemove] = keyToShift;
+                vals[indexToRemove] = vals[indexToShift];
+                indexToRemove = indexToShift;
+                shiftDistance = 1;
+            } else {
+                shiftDistance++;
+            }
+        }
+        keys[indexToRemove] = free;
+        postRemoveHook();
+    }
+    /* elif RHash hash */
+    @Override
+    void removeAt(int index) {
+        char free = freeValue;
+        char[] keys = set;
+        /* bits */short[] vals = values;
+        KeyMixer keyMixer = keyMixer();
+        int capacityMask = keys.length - 1;
+        int indexToRemove = index;
+        while (true) {
+            int indexToShift = (indexToRemove - 1) & capacityMask;
+            char keyToShift;
+            // see MutableCharRHashSO.removeAt()
+            if ((keyToShift = keys[indexToShift]) == free ||
+                    ((keyMixer.mix(keyToShift) - indexToShift) & capacityMask) == 0)
+                break;
+            keys[indexToRemove] = keyToShift;
+            vals[indexToRemove] = vals[indexToShift];
+            indexToRemove = indexToShift;
+        }
+        keys[indexToRemove] = free;
+        postRemoveHook();
+    }
+
+    @Override
+    void shiftForInsertion(int index) {
+        char free = freeValue;
+        char[] keys = set;
+        /* bits */short[] vals = values;
+        int capacityMask = keys.length - 1;
+        int freeIndex = index;
+        while (keys[freeIndex = (freeIndex - 1) & capacityMask] != free);
+        for (int i = freeIndex, prev; i != index; i = prev) {
+            keys[i] = keys[prev = (i + 1) & capacityMask];
+            vals[i] = vals[prev];
+        }
+    }
+    /* endif */
     /* endif */
 }
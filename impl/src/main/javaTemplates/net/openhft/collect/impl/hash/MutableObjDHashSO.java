@@ -1,6 +1,7 @@
 /* with
  object elem
  Mutable|Immutable mutability
+ DHash|PHash hash
 */
 /*
  * Copyright 2014 the original author or authors.
@@ -20,6 +21,7 @@
 
 package net.openhft.collect.impl.hash;
 
+import net.openhft.collect.HashStats;
 import net.openhft.collect.impl.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -83,6 +85,36 @@ public abstract class MutableObjDHashSO<E> extends MutableDHash implements ObjDH
     }
 
 
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public HashStats stats() {
+        Object[] keys = set;
+        int capacity = keys.length;
+        byte[] states = new byte[capacity];
+        int[] hashes = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            Object key;
+            if ((key = keys[i]) == FREE) {
+                states[i] = TableHashStats.FREE_SLOT;
+            /* if Mutable mutability */
+            } else if (key == REMOVED) {
+                states[i] = TableHashStats.REMOVED_SLOT;
+            /* endif */
+            } else if (key == null) {
+                states[i] = TableHashStats.NULL_KEY_SLOT;
+            } else {
+                states[i] = TableHashStats.FULL_SLOT;
+                /* if DHash hash */
+                hashes[i] = keyHashCode((E) key) & Integer.MAX_VALUE;
+                /* elif PHash hash //
+                hashes[i] = HashMixing.mix(keyHashCode((E) key));
+                // endif */
+            }
+        }
+        return stats(states, hashes);
+    }
+
+
     /* if Mutable mutability */
     @Override
     void allocateArrays(int capacity) {
@@ -0,0 +1,895 @@
+/* with
+ char|byte|short|int|long key
+ short|byte|char|int|long|float|double value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.hash;
+
+import net.openhft.collect.HashAlgorithm;
+import net.openhft.collect.HashConfig;
+import net.openhft.collect.HashOverflowException;
+import net.openhft.collect.HashStats;
+import net.openhft.collect.KeyMixing;
+import net.openhft.collect.ShortCollection;
+import net.openhft.collect.map.CharShortCursor;
+import net.openhft.collect.map.hash.HashCharShortMap;
+import net.openhft.collect.map.hash.HashCharShortMapFactory;
+import net.openhft.collect.map.hash.OffHeapHashCharShortMap;
+import net.openhft.collect.set.hash.HashCharSet;
+import net.openhft.collect.set.hash.HashObjSet;
+import net.openhft.function.*;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.*;
+import java.util.ConcurrentModificationException;
+import java.util.Map;
+
+
+/**
+ * {@link OffHeapHashCharShortMap} implementation: linear probing over keys and values,
+ * stored in direct buffers.
+ *
+ * <p>The free key value is {@code 0}, because direct buffers are allocated zeroed,
+ * the entry with this key is kept in fields of the map. Entries are removed with backward
+ * shift, as in {@code MutableLHashCharShortMapGO}, so there is no removed key value.
+ *
+ * <p>A direct buffer couldn't be larger than 2 GB, so large tables are split into pages
+ * of {@link #PAGE_SIZE} slots.
+ *
+ * <p>Rehashes and {@link #close()} release the buffers at once, so the methods, which call
+ * user functions, check that the map is not closed and not modified after each call,
+ * before they access the buffers again. Otherwise they could read freed memory.
+ * The cursor checks the map on each call for the same reason, the other {@code Map} methods
+ * and the views of {@link AbstractHashCharShortMap} access the table through the cursor
+ * and the methods of this class.
+ */
+final class OffHeapLHashCharShortMap extends AbstractHashCharShortMap
+        implements OffHeapHashCharShortMap {
+
+    static final int PAGE_SHIFT = 20;
+    static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    static final int PAGE_MASK = PAGE_SIZE - 1;
+    static final int MIN_CAPACITY = 8;
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private static final char FREE = 0;
+
+    /**
+     * Returns the least power of 2, which could hold {@code size} entries
+     * with the given load factor.
+     */
+    static int capacityFor(int size, float loadFactor) {
+        long minCapacity = (long) Math.ceil(size / (double) loadFactor) + 1L;
+        if (minCapacity >= MAX_CAPACITY)
+            return MAX_CAPACITY;
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit((int) minCapacity - 1) << 1);
+    }
+
+    private final HashCharShortMapFactory factory;
+    private final float loadFactor;
+    private final KeyMixer keyMixer;
+    private final short defaultValue;
+
+    private ByteBuffer[] keyMemory;
+    private ByteBuffer[] valueMemory;
+    private CharBuffer[] keys;
+    private ShortBuffer[] values;
+    private int capacityMask;
+    private int maxSize;
+    /** The number of entries in the table, without the free key entry */
+    private int size;
+    /** Incremented on insertions and removals of table entries, rehashes and close */
+    private int modCount;
+    private int rehashCount;
+
+    private boolean freeKeyPresent;
+    private short freeKeyValue;
+
+    /**
+     * @param conf the hash config, the algorithm is ignored, {@code null} key mixing
+     *        means {@link KeyMixing#MULTIPLY_SHIFT}, the default for power-of-two tables
+     */
+    OffHeapLHashCharShortMap(HashCharShortMapFactory factory, HashConfig conf,
+            int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException(
+                    "Expected size must be non-negative, " + expectedSize + " given");
+        }
+        this.factory = factory;
+        loadFactor = conf.getLoadFactor();
+        KeyMixing keyMixing = conf.getKeyMixing();
+        this.keyMixer = KeyMixer.of(keyMixing != null ? keyMixing : KeyMixing.MULTIPLY_SHIFT);
+        defaultValue = factory.getDefaultValue();
+        allocate(capacityFor(expectedSize, loadFactor));
+    }
+
+    private void allocate(int capacity) {
+        int pageSize = Math.min(capacity, PAGE_SIZE);
+        int pages = capacity / pageSize;
+        ByteBuffer[] keyMemory = new ByteBuffer[pages];
+        ByteBuffer[] valueMemory = new ByteBuffer[pages];
+        try {
+            for (int i = 0; i < pages; i++) {
+                keyMemory[i] = DirectBuffers.allocate(pageSize * (Character.SIZE / 8));
+                valueMemory[i] = DirectBuffers.allocate(pageSize * (Short.SIZE / 8));
+            }
+        } catch (OutOfMemoryError e) {
+            release(keyMemory);
+            release(valueMemory);
+            throw e;
+        }
+        CharBuffer[] keys = new CharBuffer[pages];
+        ShortBuffer[] values = new ShortBuffer[pages];
+        for (int i = 0; i < pages; i++) {
+            keys[i] = keyMemory[i]/* if !(byte key) */.asCharBuffer()/* endif */;
+            values[i] = valueMemory[i]/* if !(byte value) */.asShortBuffer()/* endif */;
+        }
+        this.keyMemory = keyMemory;
+        this.valueMemory = valueMemory;
+        this.keys = keys;
+        this.values = values;
+        capacityMask = capacity - 1;
+        maxSize = Math.min((int) (capacity * (double) loadFactor), capacity - 1);
+    }
+
+    private static void release(ByteBuffer[] memory) {
+        for (ByteBuffer buffer : memory) {
+            if (buffer != null)
+                DirectBuffers.release(buffer);
+        }
+    }
+
+    private void checkOpen() {
+        if (keys == null)
+            throw new IllegalStateException("The map is closed");
+    }
+
+    /**
+     * Checks that the map is not closed or modified by a user function,
+     * which was called when the mod count was {@code mc}.
+     */
+    private void checkNotModified(int mc) {
+        checkOpen();
+        if (mc != modCount)
+            throw new ConcurrentModificationException();
+    }
+
+    private char key(int index) {
+        return keys[index >>> PAGE_SHIFT].get(index & PAGE_MASK);
+    }
+
+    private void setKey(int index, char key) {
+        keys[index >>> PAGE_SHIFT].put(index & PAGE_MASK, key);
+    }
+
+    private short value(int index) {
+        return values[index >>> PAGE_SHIFT].get(index & PAGE_MASK);
+    }
+
+    private void setValue(int index, short value) {
+        values[index >>> PAGE_SHIFT].put(index & PAGE_MASK, value);
+    }
+
+    /**
+     * Returns the index of the slot of the key, or {@code -1} if the key is absent.
+     */
+    private int index(char key) {
+        int capacityMask = this.capacityMask;
+        int index = keyMixer.mix(key) & capacityMask;
+        while (true) {
+            char cur;
+            if ((cur = key(index)) == key)
+                return index;
+            if (cur == FREE)
+                return -1;
+            index = (index - 1) & capacityMask;
+        }
+    }
+
+    /**
+     * Returns the index of the slot of the key, or inserts the key with the given value
+     * and returns {@code -1}.
+     */
+    private int insert(char key, short value) {
+        int capacityMask = this.capacityMask;
+        int index = keyMixer.mix(key) & capacityMask;
+        while (true) {
+            char cur;
+            if ((cur = key(index)) == key)
+                return index;
+            if (cur == FREE) {
+                if (size >= maxSize) {
+                    grow();
+                    return insert(key, value);
+                }
+                setKey(index, key);
+                setValue(index, value);
+                size++;
+                modCount++;
+                return -1;
+            }
+            index = (index - 1) & capacityMask;
+        }
+    }
+
+    private void grow() {
+        int capacity = capacityMask + 1;
+        if (capacity < MAX_CAPACITY) {
+            rehash(capacity << 1);
+        } else if (maxSize < capacity - 1) {
+            maxSize = capacity - 1;
+        } else {
+            throw new HashOverflowException();
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        ByteBuffer[] oldKeyMemory = keyMemory;
+        ByteBuffer[] oldValueMemory = valueMemory;
+        CharBuffer[] oldKeys = keys;
+        ShortBuffer[] oldValues = values;
+        allocate(newCapacity);
+        modCount++;
+        rehashCount++;
+        int capacityMask = this.capacityMask;
+        KeyMixer keyMixer = this.keyMixer;
+        for (int p = 0; p < oldKeys.length; p++) {
+            CharBuffer pageKeys = oldKeys[p];
+            ShortBuffer pageValues = oldValues[p];
+            for (int i = pageKeys.capacity() - 1; i >= 0; i--) {
+                char key;
+                if ((key = pageKeys.get(i)) != FREE) {
+                    int index = keyMixer.mix(key) & capacityMask;
+                    while (key(index) != FREE) {
+                        index = (index - 1) & capacityMask;
+                    }
+                    setKey(index, key);
+                    setValue(index, pageValues.get(i));
+                }
+            }
+        }
+        release(oldKeyMemory);
+        release(oldValueMemory);
+    }
+
+    private void removeAt(int index) {
+        int capacityMask = this.capacityMask;
+        KeyMixer keyMixer = this.keyMixer;
+        int indexToRemove = index;
+        int indexToShift = indexToRemove;
+        int shiftDistance = 1;
+        while (true) {
+            indexToShift = (indexToShift - 1) & capacityMask;
+            char keyToShift;
+            if ((keyToShift = key(indexToShift)) == FREE)
+                break;
+            // see MutableCharLHashSO.removeAt()
+            if (((keyMixer.mix(keyToShift) - indexToShift) & capacityMask) >=
+                    shiftDistance) {
+                setKey(indexToRemove, keyToShift);
+                setValue(indexToRemove, value(indexToShift));
+                indexToRemove = indexToShift;
+                shiftDistance = 1;
+            } else {
+                shiftDistance++;
+            }
+        }
+        setKey(indexToRemove, FREE);
+        size--;
+        modCount++;
+    }
+
+    @Override
+    public short defaultValue() {
+        return defaultValue;
+    }
+
+    @Override
+    public int size() {
+        checkOpen();
+        return freeKeyPresent ? size + 1 : size;
+    }
+
+    @Override
+    public float loadFactor() {
+        return loadFactor;
+    }
+
+    @Override
+    public float currentLoad() {
+        checkOpen();
+        return ((float) size) / (capacityMask + 1);
+    }
+
+    @Override
+    public boolean ensureCapacity(int minSize) {
+        if (minSize < 0)
+            throw new IllegalArgumentException();
+        checkOpen();
+        int capacity = capacityFor(minSize, loadFactor);
+        if (capacity <= capacityMask + 1)
+            return false;
+        rehash(capacity);
+        return true;
+    }
+
+    @Override
+    public boolean shrink() {
+        checkOpen();
+        int capacity = capacityFor(size, loadFactor);
+        if (capacity >= capacityMask + 1)
+            return false;
+        rehash(capacity);
+        return true;
+    }
+
+    @Override
+    public boolean containsKey(char key) {
+        checkOpen();
+        if (key == FREE)
+            return freeKeyPresent;
+        return index(key) >= 0;
+    }
+
+    @Override
+    public short getOrDefault(char key, short defaultValue) {
+        checkOpen();
+        if (key == FREE)
+            return freeKeyPresent ? freeKeyValue : defaultValue;
+        int index = index(key);
+        return index >= 0 ? value(index) : defaultValue;
+    }
+
+    @Override
+    public short put(char key, short value) {
+        checkOpen();
+        if (key == FREE) {
+            short prev = freeKeyPresent ? freeKeyValue : defaultValue;
+            freeKeyPresent = true;
+            freeKeyValue = value;
+            return prev;
+        }
+        int index = insert(key, value);
+        if (index < 0)
+            return defaultValue;
+        short prev = value(index);
+        setValue(index, value);
+        return prev;
+    }
+
+    @Override
+    public short putIfAbsent(char key, short value) {
+        checkOpen();
+        if (key == FREE) {
+            if (freeKeyPresent)
+                return freeKeyValue;
+            freeKeyPresent = true;
+            freeKeyValue = value;
+            return defaultValue;
+        }
+        int index = insert(key, value);
+        return index < 0 ? defaultValue : value(index);
+    }
+
+    @Override
+    public short compute(char key, /*f*/CharShortToShortFunction remappingFunction) {
+        if (remappingFunction == null)
+            throw new NullPointerException();
+        checkOpen();
+        if (key == FREE) {
+            short newValue = remappingFunction.applyAsShort(key,
+                    freeKeyPresent ? freeKeyValue : defaultValue);
+            freeKeyPresent = true;
+            freeKeyValue = newValue;
+            return newValue;
+        }
+        int mc = modCount;
+        int index = index(key);
+        if (index >= 0) {
+            short newValue = remappingFunction.applyAsShort(key, value(index));
+            checkNotModified(mc);
+            setValue(index, newValue);
+            return newValue;
+        }
+        short newValue = remappingFunction.applyAsShort(key, defaultValue);
+        checkNotModified(mc);
+        insert(key, newValue);
+        return newValue;
+    }
+
+    @Override
+    public short computeIfAbsent(char key, /*f*/CharToShortFunction mappingFunction) {
+        if (mappingFunction == null)
+            throw new NullPointerException();
+        checkOpen();
+        if (key == FREE) {
+            if (!freeKeyPresent) {
+                freeKeyValue = mappingFunction.applyAsShort(key);
+                freeKeyPresent = true;
+            }
+            return freeKeyValue;
+        }
+        int mc = modCount;
+        int index = index(key);
+        if (index >= 0)
+            return value(index);
+        short value = mappingFunction.applyAsShort(key);
+        checkNotModified(mc);
+        insert(key, value);
+        return value;
+    }
+
+    @Override
+    public short computeIfPresent(char key, /*f*/CharShortToShortFunction remappingFunction) {
+        if (remappingFunction == null)
+            throw new NullPointerException();
+        checkOpen();
+        if (key == FREE) {
+            if (!freeKeyPresent)
+                return defaultValue;
+            return freeKeyValue = remappingFunction.applyAsShort(key, freeKeyValue);
+        }
+        int mc = modCount;
+        int index = index(key);
+        if (index < 0)
+            return defaultValue;
+        short newValue = remappingFunction.applyAsShort(key, value(index));
+        checkNotModified(mc);
+        setValue(index, newValue);
+        return newValue;
+    }
+
+    @Override
+    public short merge(char key, short value, /*f*/ShortBinaryOperator remappingFunction) {
+        if (remappingFunction == null)
+            throw new NullPointerException();
+        checkOpen();
+        if (key == FREE) {
+            if (freeKeyPresent) {
+                freeKeyValue = remappingFunction.applyAsShort(freeKeyValue, value);
+            } else {
+                freeKeyPresent = true;
+                freeKeyValue = value;
+            }
+            return freeKeyValue;
+        }
+        int index = insert(key, value);
+        if (index < 0)
+            return value;
+        int mc = modCount;
+        short newValue = remappingFunction.applyAsShort(value(index), value);
+        checkNotModified(mc);
+        setValue(index, newValue);
+        return newValue;
+    }
+
+    @Override
+    public short incrementValue(char key, short increment) {
+        return incrementValue(key, increment, defaultValue);
+    }
+
+    @Override
+    public short incrementValue(char key, short increment, short defaultValue) {
+        checkOpen();
+        if (key == FREE) {
+            freeKeyValue = (short) ((freeKeyPresent ? freeKeyValue : defaultValue) + increment);
+            freeKeyPresent = true;
+            return freeKeyValue;
+        }
+        short newValue = (short) (defaultValue + increment);
+        int index = insert(key, newValue);
+        if (index < 0)
+            return newValue;
+        newValue = (short) (value(index) + increment);
+        setValue(index, newValue);
+        return newValue;
+    }
+
+    @Override
+    public short replace(char key, short value) {
+        checkOpen();
+        if (key == FREE) {
+            if (!freeKeyPresent)
+                return defaultValue;
+            short prev = freeKeyValue;
+            freeKeyValue = value;
+            return prev;
+        }
+        int index = index(key);
+        if (index < 0)
+            return defaultValue;
+        short prev = value(index);
+        setValue(index, value);
+        return prev;
+    }
+
+    @Override
+    public boolean replace(char key, short oldValue, short newValue) {
+        checkOpen();
+        if (key == FREE) {
+            if (freeKeyPresent && valueEquals(freeKeyValue, oldValue)) {
+                freeKeyValue = newValue;
+                return true;
+            }
+            return false;
+        }
+        int index = index(key);
+        if (index >= 0 && valueEquals(value(index), oldValue)) {
+            setValue(index, newValue);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public short remove(char key) {
+        checkOpen();
+        if (key == FREE) {
+            if (!freeKeyPresent)
+                return defaultValue;
+            freeKeyPresent = false;
+            return freeKeyValue;
+        }
+        int index = index(key);
+        if (index < 0)
+            return defaultValue;
+        short value = value(index);
+        removeAt(index);
+        return value;
+    }
+
+    @Override
+    public boolean remove(char key, short value) {
+        checkOpen();
+        if (key == FREE) {
+            if (freeKeyPresent && valueEquals(freeKeyValue, value)) {
+                freeKeyPresent = false;
+                return true;
+            }
+            return false;
+        }
+        int index = index(key);
+        if (index >= 0 && valueEquals(value(index), value)) {
+            removeAt(index);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void forEach(/*f*/CharShortConsumer action) {
+        if (action == null)
+            throw new NullPointerException();
+        checkOpen();
+        int mc = modCount;
+        if (freeKeyPresent) {
+            action.accept(FREE, freeKeyValue);
+            checkNotModified(mc);
+        }
+        CharBuffer[] keys = this.keys;
+        ShortBuffer[] values = this.values;
+        for (int p = 0; p < keys.length; p++) {
+            CharBuffer pageKeys = keys[p];
+            ShortBuffer pageValues = values[p];
+            for (int i = pageKeys.capacity() - 1; i >= 0; i--) {
+                char key;
+                if ((key = pageKeys.get(i)) != FREE) {
+                    action.accept(key, pageValues.get(i));
+                    checkNotModified(mc);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean forEachWhile(/*f*/CharShortPredicate predicate) {
+        if (predicate == null)
+            throw new NullPointerException();
+        checkOpen();
+        int mc = modCount;
+        if (freeKeyPresent) {
+            boolean proceed = predicate.test(FREE, freeKeyValue);
+            checkNotModified(mc);
+            if (!proceed)
+                return false;
+        }
+        CharBuffer[] keys = this.keys;
+        ShortBuffer[] values = this.values;
+        for (int p = 0; p < keys.length; p++) {
+            CharBuffer pageKeys = keys[p];
+            ShortBuffer pageValues = values[p];
+            for (int i = pageKeys.capacity() - 1; i >= 0; i--) {
+                char key;
+                if ((key = pageKeys.get(i)) != FREE) {
+                    boolean proceed = predicate.test(key, pageValues.get(i));
+                    checkNotModified(mc);
+                    if (!proceed)
+                        return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void replaceAll(/*f*/CharShortToShortFunction function) {
+        if (function == null)
+            throw new NullPointerException();
+        checkOpen();
+        int mc = modCount;
+        if (freeKeyPresent) {
+            short newValue = function.applyAsShort(FREE, freeKeyValue);
+            checkNotModified(mc);
+            freeKeyValue = newValue;
+        }
+        CharBuffer[] keys = this.keys;
+        ShortBuffer[] values = this.values;
+        for (int p = 0; p < keys.length; p++) {
+            CharBuffer pageKeys = keys[p];
+            ShortBuffer pageValues = values[p];
+            for (int i = pageKeys.capacity() - 1; i >= 0; i--) {
+                char key;
+                if ((key = pageKeys.get(i)) != FREE) {
+                    short newValue = function.applyAsShort(key, pageValues.get(i));
+                    checkNotModified(mc);
+                    pageValues.put(i, newValue);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean removeIf(/*f*/CharShortPredicate filter) {
+        if (filter == null)
+            throw new NullPointerException();
+        checkOpen();
+        int mc = modCount;
+        boolean changed = false;
+        if (freeKeyPresent) {
+            boolean remove = filter.test(FREE, freeKeyValue);
+            checkNotModified(mc);
+            if (remove) {
+                freeKeyPresent = false;
+                changed = true;
+            }
+        }
+        if (size == 0)
+            return changed;
+        int capacityMask = this.capacityMask;
+        // start after a free slot, keys are shifted to removed slots only from further
+        // slots in probing order, those are not visited yet
+        int firstFree = capacityMask;
+        while (key(firstFree) != FREE)
+            firstFree--;
+        for (int i = (firstFree - 1) & capacityMask; i != firstFree;
+                i = (i - 1) & capacityMask) {
+            char key;
+            if ((key = key(i)) == FREE)
+                continue;
+            boolean remove = filter.test(key, value(i));
+            checkNotModified(mc);
+            if (remove) {
+                removeAt(i);
+                mc++;
+                changed = true;
+                // check the slot again, a key could be shifted into it
+                i = (i + 1) & capacityMask;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public void clear() {
+        checkOpen();
+        freeKeyPresent = false;
+        if (size == 0)
+            return;
+        for (ByteBuffer page : keyMemory) {
+            DirectBuffers.zero(page);
+        }
+        size = 0;
+        modCount++;
+    }
+
+    @NotNull
+    @Override
+    public CharShortCursor cursor() {
+        checkOpen();
+        return new MapCursor();
+    }
+
+    @NotNull
+    @Override
+    public HashCharSet keySet() {
+        checkOpen();
+        return super.keySet();
+    }
+
+    @NotNull
+    @Override
+    public ShortCollection values() {
+        checkOpen();
+        return super.values();
+    }
+
+    @NotNull
+    @Override
+    public HashObjSet<Map.Entry<Character, Short>> entrySet() {
+        checkOpen();
+        return super.entrySet();
+    }
+
+    /**
+     * Returns the stats of the table. The entry with the free key is kept outside
+     * of the table, it isn't counted.
+     */
+    @NotNull
+    @Override
+    public HashStats stats() {
+        checkOpen();
+        int capacity = capacityMask + 1;
+        byte[] states = new byte[capacity];
+        int[] hashes = new int[capacity];
+        KeyMixer keyMixer = this.keyMixer;
+        for (int i = 0; i < capacity; i++) {
+            char key;
+            if ((key = key(i)) != FREE) {
+                states[i] = TableHashStats.FULL_SLOT;
+                hashes[i] = keyMixer.mix(key);
+            }
+        }
+        return new TableHashStats(HashAlgorithm.LINEAR_PROBING, states, hashes,
+                rehashCount, 0, 0);
+    }
+
+    @NotNull
+    @Override
+    public HashCharShortMap snapshot() {
+        checkOpen();
+        final HashCharShortMap snapshot = factory.newMutableMap(size());
+        forEach(new CharShortConsumer() {
+            @Override
+            public void accept(char key, short value) {
+                snapshot.put(key, value);
+            }
+        });
+        return snapshot;
+    }
+
+    @Override
+    public void close() {
+        if (keys == null)
+            return;
+        keys = null;
+        values = null;
+        modCount++;
+        release(keyMemory);
+        release(valueMemory);
+        keyMemory = null;
+        valueMemory = null;
+    }
+
+
+    /**
+     * Traverses the entry with the free key, then the table, like the cursor
+     * of {@code MutableLHashCharShortMapGO}: from the first free slot downwards,
+     * wrapping around the table, so a key, shifted back on removal, isn't traversed twice.
+     */
+    class MapCursor implements CharShortCursor {
+        static final int NO_ENTRY = -2;
+        static final int FREE_KEY_ENTRY = -1;
+
+        int expectedModCount = modCount;
+        boolean freeKeyNext = freeKeyPresent;
+        final int firstFree;
+        /** The slot to traverse from, -1 if the traversal is over */
+        int index;
+        /** The slot of the current entry, or {@link #FREE_KEY_ENTRY}, or {@link #NO_ENTRY} */
+        int current = NO_ENTRY;
+
+        MapCursor() {
+            if (size != 0) {
+                int firstFree = capacityMask;
+                while (OffHeapLHashCharShortMap.this.key(firstFree) != FREE)
+                    firstFree--;
+                this.firstFree = index = firstFree;
+            } else {
+                firstFree = index = -1;
+            }
+        }
+
+        @Override
+        public boolean moveNext() {
+            checkNotModified(expectedModCount);
+            if (freeKeyNext) {
+                freeKeyNext = false;
+                current = FREE_KEY_ENTRY;
+                return true;
+            }
+            int capacityMask = OffHeapLHashCharShortMap.this.capacityMask;
+            for (int i = index; i >= 0 && (i = (i - 1) & capacityMask) != firstFree;) {
+                if (OffHeapLHashCharShortMap.this.key(i) != FREE) {
+                    index = current = i;
+                    return true;
+                }
+            }
+            index = -1;
+            current = NO_ENTRY;
+            return false;
+        }
+
+        @Override
+        public void forEachForward(/*f*/CharShortConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            while (moveNext()) {
+                action.accept(key(), value());
+            }
+        }
+
+        @Override
+        public char key() {
+            checkNotModified(expectedModCount);
+            int current;
+            if ((current = this.current) == NO_ENTRY)
+                throw new IllegalStateException();
+            return current == FREE_KEY_ENTRY ? FREE : OffHeapLHashCharShortMap.this.key(current);
+        }
+
+        @Override
+        public short value() {
+            checkNotModified(expectedModCount);
+            int current;
+            if ((current = this.current) == NO_ENTRY)
+                throw new IllegalStateException();
+            return current == FREE_KEY_ENTRY ? freeKeyValue :
+                    OffHeapLHashCharShortMap.this.value(current);
+        }
+
+        @Override
+        public void setValue(short value) {
+            checkNotModified(expectedModCount);
+            int current;
+            if ((current = this.current) == NO_ENTRY)
+                throw new IllegalStateException();
+            if (current == FREE_KEY_ENTRY) {
+                freeKeyValue = value;
+            } else {
+                OffHeapLHashCharShortMap.this.setValue(current, value);
+            }
+        }
+
+        @Override
+        public void remove() {
+            checkNotModified(expectedModCount);
+            int current;
+            if ((current = this.current) == NO_ENTRY)
+                throw new IllegalStateException();
+            if (current == FREE_KEY_ENTRY) {
+                freeKeyPresent = false;
+            } else {
+                removeAt(current);
+                expectedModCount++;
+                // a key could be shifted to the removed slot, check it again in moveNext()
+                index = (current + 1) & capacityMask;
+            }
+            this.current = NO_ENTRY;
+        }
+    }
+}
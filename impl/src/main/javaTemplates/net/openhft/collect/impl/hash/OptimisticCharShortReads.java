@@ -0,0 +1,35 @@
+/* with
+ char|byte|short|int|long key
+ short|byte|char|int|long|float|double|obj value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.hash;
+
+
+/**
+ * Lookups of mutable hash maps, which tolerate modifications of the map by another thread
+ * during the call: they don't loop endlessly and don't throw, but return garbage.
+ * The caller should discard the result, unless it verifies that no modification overlapped
+ * the call, like optimistic reads of {@link StripedHashCharShortMap} do.
+ */
+interface OptimisticCharShortReads/*<>*/ {
+
+    boolean optimisticContainsKey(char key);
+
+    short optimisticGet(char key, short defaultValue);
+}
@@ -0,0 +1,562 @@
+/* with
+ char|byte|short|int|long|float|double key
+ short|byte|char|int|long|float|double|obj value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.hash;
+
+import net.openhft.collect.Equivalence;
+import net.openhft.collect.map.hash.ConcurrentHashCharShortMap;
+import net.openhft.collect.map.hash.HashCharShortMap;
+import net.openhft.collect.map.hash.HashCharShortMapFactory;
+import net.openhft.function.*;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+
+/**
+ * {@link ConcurrentHashCharShortMap} implementation, striped over ordinary hash maps
+ * (segments), each guarded by its own read-write lock.
+ *
+ * <p>The segment of a key is determined by the high bits of the key's Murmur3 hash, while
+ * segment tables index by the low bits or the remainder of the key hash, so keys are spread
+ * evenly within segments regardless of the configured
+ * {@link net.openhft.collect.KeyMixing KeyMixing}.
+ *
+ * <p>Single key reads ({@code get()}, {@code getOrDefault()} and {@code containsKey()})
+ * are optimistic: each segment has a version, which writers make odd while they hold
+ * the write lock. A read probes the segment table without a lock, with a probe bounded
+ * by the capacity, because a concurrent rehash or free value replacement could make
+ * an ordinary probe loop endless, and then checks that the version didn't change.
+ * If a writer intervened, the read is repeated under the read lock of the segment.
+ * Maps with {@code float} and {@code double} keys, and JVMs without
+ * {@code sun.misc.Unsafe.loadFence()} always read under the lock.
+ */
+final class StripedHashCharShortMap/*<>*/ implements ConcurrentHashCharShortMap/*<>*/ {
+
+    static final int MAX_SEGMENTS = 1 << 16;
+
+    /**
+     * Returns the number of segments for the given {@code concurrencyLevel}:
+     * the least power of 2, not less than it.
+     */
+    static int segments(int expectedSize, int concurrencyLevel) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException(
+                    "Expected size must be non-negative, " + expectedSize + " given");
+        }
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException(
+                    "Concurrency level must be positive, " + concurrencyLevel + " given");
+        }
+        if (concurrencyLevel >= MAX_SEGMENTS)
+            return MAX_SEGMENTS;
+        int segments = Integer.highestOneBit(concurrencyLevel);
+        return segments == concurrencyLevel ? segments : segments << 1;
+    }
+
+    /**
+     * Returns the expected size of a segment, if the whole map is expected
+     * to hold {@code expectedSize} entries.
+     */
+    static int segmentExpectedSize(int expectedSize, int segments) {
+        return (int) ((expectedSize + (long) segments - 1) / segments);
+    }
+
+    /* if !(float|double key) */
+    private static final boolean OPTIMISTIC_READS = Fences.hasLoadFence();
+    /* endif */
+
+    static final class Segment/*<>*/ extends ReentrantReadWriteLock {
+        private static final long serialVersionUID = 0L;
+
+        final HashCharShortMap/*<>*/ map;
+        /* if !(float|double key) */
+        final OptimisticCharShortReads/*<>*/ reads;
+        /** Odd while a writer holds the write lock, see {@link #lockWrite()} */
+        private volatile long version;
+        /* endif */
+
+        /* if obj value */@SuppressWarnings("unchecked")/* endif */
+        Segment(HashCharShortMap/*<>*/ map) {
+            this.map = map;
+            /* if !(float|double key) */
+            reads = (OptimisticCharShortReads/*<>*/) map;
+            /* endif */
+        }
+
+        /**
+         * Acquires the write lock. The version is bumped by the outermost acquisition only,
+         * the lock is reentrant.
+         */
+        void lockWrite() {
+            writeLock().lock();
+            /* if !(float|double key) */
+            if (getWriteHoldCount() == 1)
+                version++;
+            /* endif */
+        }
+
+        void unlockWrite() {
+            /* if !(float|double key) */
+            if (getWriteHoldCount() == 1)
+                version++;
+            /* endif */
+            writeLock().unlock();
+        }
+
+        /* if !(float|double key) */
+        /**
+         * Returns the stamp for {@link #validate(long)}, or {@code -1} if a writer holds
+         * the lock or optimistic reads are not supported.
+         */
+        long tryOptimisticRead() {
+            long version = this.version;
+            return OPTIMISTIC_READS && (version & 1L) == 0L ? version : -1L;
+        }
+
+        /**
+         * Returns {@code true} if the segment was not modified since the stamp was obtained.
+         */
+        boolean validate(long stamp) {
+            Fences.loadFence();
+            return version == stamp;
+        }
+        /* endif */
+    }
+
+    /* if obj value */@SuppressWarnings("unchecked")/* endif */
+    private static /*<>*/ Segment/*<>*/[] newSegments(int n) {
+        return new Segment[n];
+    }
+
+    private final HashCharShortMapFactory/*<super>*/ factory;
+    private final Segment/*<>*/[] segments;
+    private final int segmentShift;
+
+    StripedHashCharShortMap(HashCharShortMapFactory/*<super>*/ factory,
+            HashCharShortMap/*<>*/[] maps) {
+        this.factory = factory;
+        int n = maps.length;
+        segments = newSegments(n);
+        for (int i = 0; i < n; i++) {
+            segments[i] = new Segment/*<>*/(maps[i]);
+        }
+        segmentShift = Integer.SIZE - Integer.numberOfTrailingZeros(n);
+    }
+
+    private Segment/*<>*/ segment(char key) {
+        int hash = HashMixing.murmur3(/* if !(float|double key) */key
+                /* elif float key //Float.floatToIntBits(key)
+                // elif double key //Double.doubleToLongBits(key)// endif */);
+        // segmentShift == 32 if there is a single segment, i. e. no shift in Java
+        return segments[(hash >>> segmentShift) & (segments.length - 1)];
+    }
+
+    /* if obj value */
+    @Override
+    public Equivalence<Short> valueEquivalence() {
+        return segments[0].map.valueEquivalence();
+    }
+    /* elif !(obj value) */
+    @Override
+    public short defaultValue() {
+        return segments[0].map.defaultValue();
+    }
+    /* endif */
+
+    @Override
+    public int size() {
+        long size = 0L;
+        for (Segment/*<>*/ segment : segments) {
+            Lock lock = segment.readLock();
+            lock.lock();
+            try {
+                size += segment.map.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (Segment/*<>*/ segment : segments) {
+            Lock lock = segment.readLock();
+            lock.lock();
+            try {
+                if (!segment.map.isEmpty())
+                    return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public float loadFactor() {
+        return segments[0].map.loadFactor();
+    }
+
+    /**
+     * Returns the average load of segments.
+     */
+    @Override
+    public float currentLoad() {
+        double load = 0.0;
+        for (Segment/*<>*/ segment : segments) {
+            Lock lock = segment.readLock();
+            lock.lock();
+            try {
+                load += segment.map.currentLoad();
+            } finally {
+                lock.unlock();
+            }
+        }
+        return (float) (load / segments.length);
+    }
+
+    /**
+     * Ensures each segment could hold {@code minSize / segments} entries, so the guarantee
+     * is as strong as the keys are evenly distributed between segments.
+     */
+    @Override
+    public boolean ensureCapacity(int minSize) {
+        if (minSize < 0)
+            throw new IllegalArgumentException();
+        int segmentMinSize = segmentExpectedSize(minSize, segments.length);
+        boolean changed = false;
+        for (Segment/*<>*/ segment : segments) {
+            segment.lockWrite();
+            try {
+                changed |= segment.map.ensureCapacity(segmentMinSize);
+            } finally {
+                segment.unlockWrite();
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean shrink() {
+        boolean changed = false;
+        for (Segment/*<>*/ segment : segments) {
+            segment.lockWrite();
+            try {
+                changed |= segment.map.shrink();
+            } finally {
+                segment.unlockWrite();
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean containsKey(char key) {
+        Segment/*<>*/ segment = segment(key);
+        /* if !(float|double key) */
+        long stamp;
+        if ((stamp = segment.tryOptimisticRead()) >= 0L) {
+            boolean result = segment.reads.optimisticContainsKey(key);
+            if (segment.validate(stamp))
+                return result;
+        }
+        /* endif */
+        Lock lock = segment.readLock();
+        lock.lock();
+        try {
+            return segment.map.containsKey(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public short get(char key) {
+        Segment/*<>*/ segment = segment(key);
+        /* if !(float|double key) */
+        long stamp;
+        if ((stamp = segment.tryOptimisticRead()) >= 0L) {
+            short result = segment.reads.optimisticGet(key,
+                    /* if !(obj value) */defaultValue()/* elif obj value //null// endif */);
+            if (segment.validate(stamp))
+                return result;
+        }
+        /* endif */
+        Lock lock = segment.readLock();
+        lock.lock();
+        try {
+            return segment.map.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public short getOrDefault(char key, short defaultValue) {
+        Segment/*<>*/ segment = segment(key);
+        /* if !(float|double key) */
+        long stamp;
+        if ((stamp = segment.tryOptimisticRead()) >= 0L) {
+            short result = segment.reads.optimisticGet(key, defaultValue);
+            if (segment.validate(stamp))
+                return result;
+        }
+        /* endif */
+        Lock lock = segment.readLock();
+        lock.lock();
+        try {
+            return segment.map.getOrDefault(key, defaultValue);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public short put(char key, short value) {
+        Segment/*<>*/ segment = segment(key);
+        segment.lockWrite();
+        try {
+            return segment.map.put(key, value);
+        } finally {
+            segment.unlockWrite();
+        }
+    }
+
+    @Override
+    public short putIfAbsent(char key, short value) {
+        Segment/*<>*/ segment = segment(key);
+        segment.lockWrite();
+        try {
+            return segment.map.putIfAbsent(key, value);
+        } finally {
+            segment.unlockWrite();
+        }
+    }
+
+    @Override
+    public short compute(char key, /*f*/CharShortToShortFunction remappingFunction) {
+        Segment/*<>*/ segment = segment(key);
+        segment.lockWrite();
+        try {
+            return segment.map.compute(key, remappingFunction);
+        } finally {
+            segment.unlockWrite();
+        }
+    }
+
+    @Override
+    public short computeIfAbsent(char key, /*f*/CharToShortFunction mappingFunction) {
+        Segment/*<>*/ segment = segment(key);
+        segment.lockWrite();
+        try {
+            return segment.map.computeIfAbsent(key, mappingFunction);
+        } finally {
+            segment.unlockWrite();
+        }
+    }
+
+    @Override
+    public short computeIfPresent(char key, /*f*/CharShortToShortFunction remappingFunction) {
+        Segment/*<>*/ segment = segment(key);
+        segment.lockWrite();
+        try {
+            return segment.map.computeIfPresent(key, remappingFunction);
+        } finally {
+            segment.unlockWrite();
+        }
+    }
+
+    @Override
+    public short merge(char key, short value, /*f*/ShortBinaryOperator remappingFunction) {
+        Segment/*<>*/ segment = segment(key);
+        segment.lockWrite();
+        try {
+            return segment.map.merge(key, value, remappingFunction);
+        } finally {
+            segment.unlockWrite();
+        }
+    }
+
+    /* if !(obj value) */
+    @Override
+    public short incrementValue(char key, short increment) {
+        Segment/*<>*/ segment = segment(key);
+        segment.lockWrite();
+        try {
+            return segment.map.incrementValue(key, increment);
+        } finally {
+            segment.unlockWrite();
+        }
+    }
+
+    @Override
+    public short incrementValue(char key, short increment, short defaultValue) {
+        Segment/*<>*/ segment = segment(key);
+        segment.lockWrite();
+        try {
+            return segment.map.incrementValue(key, increment, defaultValue);
+        } finally {
+            segment.unlockWrite();
+        }
+    }
+    /* endif */
+
+    @Override
+    public short replace(char key, short value) {
+        Segment/*<>*/ segment = segment(key);
+        segment.lockWrite();
+        try {
+            return segment.map.replace(key, value);
+        } finally {
+            segment.unlockWrite();
+        }
+    }
+
+    @Override
+    public boolean replace(char key, short oldValue, short newValue) {
+        Segment/*<>*/ segment = segment(key);
+        segment.lockWrite();
+        try {
+            return segment.map.replace(key, oldValue, newValue);
+        } finally {
+            segment.unlockWrite();
+        }
+    }
+
+    @Override
+    public short remove(char key) {
+        Segment/*<>*/ segment = segment(key);
+        segment.lockWrite();
+        try {
+            return segment.map.remove(key);
+        } finally {
+            segment.unlockWrite();
+        }
+    }
+
+    @Override
+    public boolean remove(char key, /* raw */short value) {
+        Segment/*<>*/ segment = segment(key);
+        segment.lockWrite();
+        try {
+            return segment.map.remove(key, value);
+        } finally {
+            segment.unlockWrite();
+        }
+    }
+
+    @Override
+    public void forEach(/*f*/CharShortConsumer action) {
+        if (action == null)
+            throw new NullPointerException();
+        for (Segment/*<>*/ segment : segments) {
+            Lock lock = segment.readLock();
+            lock.lock();
+            try {
+                segment.map.forEach(action);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public boolean forEachWhile(/*f*/CharShortPredicate predicate) {
+        if (predicate == null)
+            throw new NullPointerException();
+        for (Segment/*<>*/ segment : segments) {
+            Lock lock = segment.readLock();
+            lock.lock();
+            try {
+                if (!segment.map.forEachWhile(predicate))
+                    return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void replaceAll(/*f*/CharShortToShortFunction function) {
+        if (function == null)
+            throw new NullPointerException();
+        for (Segment/*<>*/ segment : segments) {
+            segment.lockWrite();
+            try {
+                segment.map.replaceAll(function);
+            } finally {
+                segment.unlockWrite();
+            }
+        }
+    }
+
+    @Override
+    public boolean removeIf(/*f*/CharShortPredicate filter) {
+        if (filter == null)
+            throw new NullPointerException();
+        boolean changed = false;
+        for (Segment/*<>*/ segment : segments) {
+            segment.lockWrite();
+            try {
+                changed |= segment.map.removeIf(filter);
+            } finally {
+                segment.unlockWrite();
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public void clear() {
+        for (Segment/*<>*/ segment : segments) {
+            segment.lockWrite();
+            try {
+                segment.map.clear();
+            } finally {
+                segment.unlockWrite();
+            }
+        }
+    }
+
+    @NotNull
+    @Override
+    public HashCharShortMap/*<>*/ snapshot() {
+        HashCharShortMap/*<>*/ snapshot = factory.newMutableMap(size());
+        for (Segment/*<>*/ segment : segments) {
+            Lock lock = segment.readLock();
+            lock.lock();
+            try {
+                snapshot.putAll(segment.map);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return snapshot;
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+}
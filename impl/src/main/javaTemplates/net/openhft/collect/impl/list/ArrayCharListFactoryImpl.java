@@ -0,0 +1,101 @@
+/* with char|byte|short|int|long|float|double elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.collect.impl.list;
+
+import net.openhft.collect.CharCollection;
+import net.openhft.collect.list.CharList;
+import net.openhft.collect.list.CharListFactory;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+
+public final class ArrayCharListFactoryImpl implements CharListFactory {
+
+    private static final char[] EMPTY_ELEMENTS = {};
+
+    /**
+     * For ServiceLoader
+     */
+    public ArrayCharListFactoryImpl() {}
+
+    @Override
+    public CharList newMutableList() {
+        return new MutableArrayCharList(EMPTY_ELEMENTS, 0);
+    }
+
+    @Override
+    public CharList newMutableList(int expectedSize) {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("Negative expected size: " + expectedSize);
+        return new MutableArrayCharList(
+                expectedSize > 0 ? new char[expectedSize] : EMPTY_ELEMENTS, 0);
+    }
+
+    @Override
+    public CharList newMutableList(Iterable<Character> elements) {
+        char[] a = toArray(elements);
+        return new MutableArrayCharList(a, a.length);
+    }
+
+    @Override
+    public CharList newMutableList(char[] elements) {
+        return new MutableArrayCharList(elements.clone(), elements.length);
+    }
+
+    @Override
+    public CharList newImmutableList(Iterable<Character> elements) {
+        char[] a = toArray(elements);
+        return new ImmutableArrayCharList(a, a.length);
+    }
+
+    @Override
+    public CharList newImmutableList(char[] elements) {
+        return new ImmutableArrayCharList(elements.clone(), elements.length);
+    }
+
+    private static char[] toArray(Iterable<Character> elements) {
+        if (elements instanceof CharCollection)
+            return ((CharCollection) elements).toCharArray();
+        char[] a = elements instanceof Collection ?
+                new char[((Collection<?>) elements).size()] : EMPTY_ELEMENTS;
+        int size = 0;
+        for (Character e : elements) {
+            if (size == a.length)
+                a = Arrays.copyOf(a, Math.max(10, size + (size >> 1)));
+            a[size++] = e;
+        }
+        return size == a.length ? a : Arrays.copyOf(a, size);
+    }
+
+    @Override
+    public String toString() {
+        return "CharListFactory";
+    }
+
+    @Override
+    public int hashCode() {
+        return CharListFactory.class.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof ArrayCharListFactoryImpl;
+    }
+}
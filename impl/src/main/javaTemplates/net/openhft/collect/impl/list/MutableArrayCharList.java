@@ -0,0 +1,737 @@
+/* with
+ char|byte|short|int|long|float|double elem
+ Mutable|Immutable mutability
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.list;
+
+import net.openhft.collect.*;
+import net.openhft.collect.impl.CommonCharCollectionOps;
+import net.openhft.collect.impl.NotGenerated;
+import net.openhft.collect.list.CharList;
+import net.openhft.function.*;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+
+/**
+ * List, backed by an array of elements: the first {@code size} slots of the array are
+ * the elements of the list. Positional access, iteration and appending take constant time,
+ * insertions and removals shift the tail of the array.
+ *
+ * <p>Extends {@link AbstractList} for {@code listIterator()} and {@code subList()}, which
+ * are implemented through the positional methods of this list and fail fast
+ * by {@link #modCount}.
+ */
+final class MutableArrayCharList extends AbstractList<Character>
+        implements CharList, RandomAccess {
+
+    /* if Mutable mutability */
+    /** Capacity of the array on the first growth of an empty list. */
+    private static final int MIN_CAPACITY = 10;
+
+    /** Some VMs reserve header words in arrays. */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+    /* endif */
+
+    char[] elements;
+    int size;
+
+    MutableArrayCharList(char[] elements, int size) {
+        this.elements = elements;
+        this.size = size;
+    }
+
+    final int modCount() {
+        return modCount;
+    }
+
+    /* if Mutable mutability */
+    /**
+     * Grows the array to hold at least {@code minCapacity} elements, by half of the current
+     * capacity at least, as {@link ArrayList} does, so appending takes amortized constant time.
+     */
+    private void grow(int minCapacity) {
+        if (minCapacity < 0) // size overflow
+            throw new OutOfMemoryError();
+        int capacity = elements.length;
+        long newCapacity = Math.max(MIN_CAPACITY, capacity + (capacity >> 1));
+        newCapacity = Math.max(minCapacity, Math.min(newCapacity, MAX_CAPACITY));
+        elements = Arrays.copyOf(elements, (int) newCapacity);
+    }
+    /* endif */
+
+    @Override
+    public boolean ensureCapacity(int minSize) {
+        /* if Mutable mutability */
+        if (minSize <= elements.length)
+            return false;
+        grow(minSize);
+        return true;
+        /* elif Immutable mutability */
+        throw new UnsupportedOperationException();
+        /* endif */
+    }
+
+    @Override
+    public boolean shrink() {
+        /* if Mutable mutability */
+        if (elements.length == size)
+            return false;
+        elements = Arrays.copyOf(elements, size);
+        return true;
+        /* elif Immutable mutability */
+        throw new UnsupportedOperationException();
+        /* endif */
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+
+    private void checkIndexForAdd(int index) {
+        if (index < 0 || index > size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+
+    @Override
+    public Character get(int index) {
+        return getChar(index);
+    }
+
+    @Override
+    public char getChar(int index) {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    @Override
+    public Character set(int index, Character element) {
+        return set(index, element.charValue());
+    }
+
+    @Override
+    public char set(int index, char element) {
+        /* if Mutable mutability */
+        checkIndex(index);
+        char[] elements = this.elements;
+        char oldElement = elements[index];
+        elements[index] = element;
+        return oldElement;
+        /* elif Immutable mutability */
+        throw new UnsupportedOperationException();
+        /* endif */
+    }
+
+    @Override
+    public boolean add(Character e) {
+        return add(e.charValue());
+    }
+
+    @Override
+    public boolean add(char e) {
+        /* if Mutable mutability */
+        int size = this.size;
+        if (size == elements.length)
+            grow(size + 1);
+        elements[size] = e;
+        this.size = size + 1;
+        modCount++;
+        return true;
+        /* elif Immutable mutability */
+        throw new UnsupportedOperationException();
+        /* endif */
+    }
+
+    @Override
+    public void add(int index, Character element) {
+        add(index, element.charValue());
+    }
+
+    @Override
+    public void add(int index, char element) {
+        /* if Mutable mutability */
+        checkIndexForAdd(index);
+        int size = this.size;
+        if (size == elements.length)
+            grow(size + 1);
+        char[] elements = this.elements;
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = element;
+        this.size = size + 1;
+        modCount++;
+        /* elif Immutable mutability */
+        throw new UnsupportedOperationException();
+        /* endif */
+    }
+
+    @Override
+    public boolean addAll(@NotNull char[] elements) {
+        return addAll(elements, 0, elements.length);
+    }
+
+    @Override
+    public boolean addAll(@NotNull char[] elements, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > elements.length - length)
+            throw new IndexOutOfBoundsException("Offset: " + offset + ", length: " + length +
+                    ", array length: " + elements.length);
+        /* if Mutable mutability */
+        if (length == 0)
+            return false;
+        int size = this.size;
+        int newSize = size + length;
+        if (newSize > this.elements.length || newSize < 0)
+            grow(newSize);
+        System.arraycopy(elements, offset, this.elements, size, length);
+        this.size = newSize;
+        modCount++;
+        return true;
+        /* elif Immutable mutability */
+        throw new UnsupportedOperationException();
+        /* endif */
+    }
+
+    @Override
+    public boolean addAll(@NotNull Collection<? extends Character> c) {
+        return addAll(size, c);
+    }
+
+    @Override
+    public boolean addAll(int index, @NotNull Collection<? extends Character> c) {
+        /* if Mutable mutability */
+        checkIndexForAdd(index);
+        // the copy is taken before the insertion, c could be this list
+        char[] a;
+        if (c instanceof CharCollection) {
+            a = ((CharCollection) c).toCharArray();
+        } else {
+            a = new char[c.size()];
+            int i = 0;
+            for (Character e : c) {
+                a[i++] = e;
+            }
+        }
+        int length = a.length;
+        if (length == 0)
+            return false;
+        int size = this.size;
+        int newSize = size + length;
+        if (newSize > elements.length || newSize < 0)
+            grow(newSize);
+        char[] elements = this.elements;
+        System.arraycopy(elements, index, elements, index + length, size - index);
+        System.arraycopy(a, 0, elements, index, length);
+        this.size = newSize;
+        modCount++;
+        return true;
+        /* elif Immutable mutability */
+        throw new UnsupportedOperationException();
+        /* endif */
+    }
+
+    @Override
+    public Character remove(int index) {
+        return removeCharAt(index);
+    }
+
+    @Override
+    public char removeCharAt(int index) {
+        /* if Mutable mutability */
+        checkIndex(index);
+        char[] elements = this.elements;
+        char oldElement = elements[index];
+        int newSize = size - 1;
+        System.arraycopy(elements, index + 1, elements, index, newSize - index);
+        size = newSize;
+        modCount++;
+        return oldElement;
+        /* elif Immutable mutability */
+        throw new UnsupportedOperationException();
+        /* endif */
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return o instanceof Character && removeChar((Character) o);
+    }
+
+    @Override
+    public boolean removeChar(char v) {
+        /* if Mutable mutability */
+        int index = indexOf(v);
+        if (index < 0)
+            return false;
+        removeCharAt(index);
+        return true;
+        /* elif Immutable mutability */
+        throw new UnsupportedOperationException();
+        /* endif */
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        /* if Mutable mutability */
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex)
+            throw new IndexOutOfBoundsException(
+                    "From index: " + fromIndex + ", to index: " + toIndex + ", size: " + size);
+        if (fromIndex == toIndex)
+            return;
+        System.arraycopy(elements, toIndex, elements, fromIndex, size - toIndex);
+        size -= toIndex - fromIndex;
+        modCount++;
+        /* elif Immutable mutability */
+        throw new UnsupportedOperationException();
+        /* endif */
+    }
+
+    @Override
+    public void clear() {
+        /* if Mutable mutability */
+        size = 0;
+        modCount++;
+        /* elif Immutable mutability */
+        throw new UnsupportedOperationException();
+        /* endif */
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Character && contains(((Character) o).charValue());
+    }
+
+    @Override
+    public boolean contains(char v) {
+        return indexOf(v) >= 0;
+    }
+
+    @Override
+    public boolean containsAll(@NotNull Collection<?> c) {
+        return CommonCharCollectionOps.containsAll(this, c);
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return o instanceof Character ? indexOf(((Character) o).charValue()) : -1;
+    }
+
+    @Override
+    public int indexOf(char v) {
+        /* bits */char e = /* unwrap elem */v/**/;
+        char[] elements = this.elements;
+        for (int i = 0, end = size; i < end; i++) {
+            if (/* unwrap elem */elements[i]/**/ == e)
+                return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return o instanceof Character ? lastIndexOf(((Character) o).charValue()) : -1;
+    }
+
+    @Override
+    public int lastIndexOf(char v) {
+        /* bits */char e = /* unwrap elem */v/**/;
+        char[] elements = this.elements;
+        for (int i = size - 1; i >= 0; i--) {
+            if (/* unwrap elem */elements[i]/**/ == e)
+                return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public void sort() {
+        /* if Mutable mutability */
+        Arrays.sort(elements, 0, size);
+        modCount++;
+        /* elif Immutable mutability */
+        throw new UnsupportedOperationException();
+        /* endif */
+    }
+
+    @Override
+    public int binarySearch(char key) {
+        return Arrays.binarySearch(elements, 0, size, key);
+    }
+
+    /* if JDK8 jdk //@Override// endif */
+    public void forEach(Consumer<? super Character> action) {
+        /* template ForEach */
+    }
+
+    @Override
+    public void forEach(CharConsumer action) {
+        /* template ForEach */
+    }
+
+    @Override
+    public boolean forEachWhile(CharPredicate predicate) {
+        /* template ForEachWhile */ throw new NotGenerated(); /* endtemplate */
+    }
+
+    @NotNull
+    @Override
+    public Object[] toArray() {
+        /* template ToArray with generic version */ throw new NotGenerated(); /* endtemplate */
+    }
+
+    @SuppressWarnings("unchecked")
+    @NotNull
+    @Override
+    public <T> T[] toArray(@NotNull T[] a) {
+        /* template ToTypedArray */ throw new NotGenerated(); /* endtemplate */
+    }
+
+    @NotNull
+    @Override
+    public char[] toCharArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    @NotNull
+    @Override
+    public char[] toArray(char[] a) {
+        /* template ToPrimitiveArray */ throw new NotGenerated(); /* endtemplate */
+    }
+
+    /* if JDK8 jdk //@Override// endif */
+    public boolean removeIf(final Predicate<? super Character> filter) {
+        return removeIf(new CharPredicate() {
+            @Override
+            public boolean test(char value) {
+                return filter.test(value);
+            }
+        });
+    }
+
+    /**
+     * Compacts the retained elements to the head of the array in a single pass. If the filter
+     * throws an exception, the elements from the one being tested are kept.
+     */
+    @Override
+    public boolean removeIf(CharPredicate filter) {
+        /* if Mutable mutability */
+        int mc = modCount;
+        char[] elements = this.elements;
+        int size = this.size;
+        int newSize = 0;
+        int i = 0;
+        try {
+            for (; i < size; i++) {
+                char e = elements[i];
+                if (!filter.test(e))
+                    elements[newSize++] = e;
+            }
+        } finally {
+            if (newSize != i) {
+                // shifts the rest of the elements, if the filter has thrown an exception
+                System.arraycopy(elements, i, elements, newSize, size - i);
+                this.size = newSize + (size - i);
+            }
+        }
+        if (mc != modCount)
+            throw new ConcurrentModificationException();
+        if (newSize == size)
+            return false;
+        modCount++;
+        return true;
+        /* elif Immutable mutability */
+        throw new UnsupportedOperationException();
+        /* endif */
+    }
+
+    @Override
+    public boolean removeAll(@NotNull Collection<?> c) {
+        return removeIf(containedIn(c));
+    }
+
+    @Override
+    public boolean retainAll(@NotNull final Collection<?> c) {
+        final CharPredicate contained = containedIn(c);
+        return removeIf(new CharPredicate() {
+            @Override
+            public boolean test(char value) {
+                return !contained.test(value);
+            }
+        });
+    }
+
+    private static CharPredicate containedIn(final Collection<?> c) {
+        if (c instanceof CharCollection) {
+            final CharCollection primitive = (CharCollection) c;
+            return new CharPredicate() {
+                @Override
+                public boolean test(char value) {
+                    return primitive.contains(value);
+                }
+            };
+        } else {
+            return new CharPredicate() {
+                @Override
+                public boolean test(char value) {
+                    return c.contains(value);
+                }
+            };
+        }
+    }
+
+    @NotNull
+    @Override
+    public CharIterator iterator() {
+        return new ElementIterator();
+    }
+
+    @NotNull
+    @Override
+    public CharCursor cursor() {
+        return new ElementCursor();
+    }
+
+    @NotNull
+    @Override
+    public CharSpliterator charSpliterator() {
+        return new ElementSpliterator(modCount, 0, size);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof CharList))
+            return super.equals(o);
+        CharList list = (CharList) o;
+        int size = this.size;
+        if (list.size() != size)
+            return false;
+        char[] elements = this.elements;
+        CharCursor cur = list.cursor();
+        for (int i = 0; i < size; i++) {
+            if (!cur.moveNext() ||
+                    /* unwrap elem */elements[i]/**/ != /* unwrap elem */cur.elem()/**/) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        /* template ListHashCode */ throw new NotGenerated(); /* endtemplate */
+    }
+
+    @Override
+    public String toString() {
+        /* template ToString */ throw new NotGenerated(); /* endtemplate */
+    }
+
+
+    class ElementIterator implements CharIterator {
+        int expectedModCount = modCount;
+        int index;
+        int lastReturned = -1;
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        @Override
+        public char nextChar() {
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+            int index = this.index;
+            if (index >= size)
+                throw new NoSuchElementException();
+            this.index = index + 1;
+            return elements[lastReturned = index];
+        }
+
+        @Override
+        public Character next() {
+            return nextChar();
+        }
+
+        /* if JDK8 jdk //@Override// endif */
+        public void forEachRemaining(Consumer<? super Character> action) {
+            char[] elements = MutableArrayCharList.this.elements;
+            int index = this.index, end = size;
+            for (; index < end && expectedModCount == modCount; index++) {
+                action.accept(elements[index]);
+            }
+            if (index > this.index)
+                lastReturned = (this.index = index) - 1;
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public void forEachRemaining(CharConsumer action) {
+            char[] elements = MutableArrayCharList.this.elements;
+            int index = this.index, end = size;
+            for (; index < end && expectedModCount == modCount; index++) {
+                action.accept(elements[index]);
+            }
+            if (index > this.index)
+                lastReturned = (this.index = index) - 1;
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public void remove() {
+            /* if Mutable mutability */
+            if (lastReturned < 0)
+                throw new IllegalStateException();
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+            removeCharAt(lastReturned);
+            index = lastReturned;
+            lastReturned = -1;
+            expectedModCount = modCount;
+            /* elif Immutable mutability */
+            throw new UnsupportedOperationException();
+            /* endif */
+        }
+    }
+
+
+    class ElementCursor implements CharCursor {
+        int expectedModCount = modCount;
+        int index = -1;
+        boolean current;
+
+        @Override
+        public boolean moveNext() {
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+            if (index + 1 < size) {
+                index++;
+                return current = true;
+            }
+            index = size;
+            return current = false;
+        }
+
+        @Override
+        public void forEachForward(CharConsumer action) {
+            char[] elements = MutableArrayCharList.this.elements;
+            int index = this.index + 1, end = size;
+            for (; index < end; index++) {
+                action.accept(elements[index]);
+            }
+            this.index = end;
+            current = false;
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public char elem() {
+            if (current)
+                return elements[index];
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public void remove() {
+            /* if Mutable mutability */
+            if (!current)
+                throw new IllegalStateException();
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+            removeCharAt(index--);
+            expectedModCount = modCount;
+            current = false;
+            /* elif Immutable mutability */
+            throw new UnsupportedOperationException();
+            /* endif */
+        }
+    }
+
+
+    class ElementSpliterator implements CharSpliterator {
+        final int expectedModCount;
+        int index;
+        final int fence;
+
+        ElementSpliterator(int expectedModCount, int index, int fence) {
+            this.expectedModCount = expectedModCount;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(CharConsumer action) {
+            int index = this.index;
+            if (index < fence) {
+                this.index = index + 1;
+                action.accept(elements[index]);
+                if (expectedModCount != modCount)
+                    throw new ConcurrentModificationException();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(CharConsumer action) {
+            char[] elements = MutableArrayCharList.this.elements;
+            for (int index = this.index, fence = this.fence; index < fence; index++) {
+                action.accept(elements[index]);
+            }
+            index = fence;
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public CharSpliterator trySplit() {
+            int lo = index, mid = (lo + fence) >>> 1;
+            if (lo >= mid)
+                return null;
+            index = mid;
+            return new ElementSpliterator(expectedModCount, lo, mid);
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public long getExactSizeIfKnown() {
+            return estimateSize();
+        }
+
+        /* if JDK8 jdk */
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL;
+        }
+        /* endif */
+    }
+}
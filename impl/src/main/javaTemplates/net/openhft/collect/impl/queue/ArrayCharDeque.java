@@ -0,0 +1,789 @@
+/* with char|byte|short|int|long|float|double elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.collect.impl.queue;
+
+import net.openhft.collect.*;
+import net.openhft.collect.impl.CommonCharCollectionOps;
+import net.openhft.collect.queue.CharDeque;
+import net.openhft.function.*;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+
+/**
+ * Deque in a ring buffer: the elements occupy {@code size} slots of the array from
+ * {@code head}, wrapping around the end of the array. The length of the array is a power
+ * of 2, so the slot of the element at the position {@code i} is
+ * {@code (head + i) & (elements.length - 1)}.
+ */
+final class ArrayCharDeque extends AbstractCollection<Character> implements CharDeque {
+
+    private static final int MIN_CAPACITY = 8;
+
+    /** The length of the array is a power of 2 */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    char[] elements;
+    int head;
+    int size;
+    int modCount;
+
+    ArrayCharDeque(int expectedSize) {
+        elements = new char[capacityFor(expectedSize)];
+    }
+
+    private static int capacityFor(int size) {
+        if (size <= MIN_CAPACITY)
+            return MIN_CAPACITY;
+        if (size > MAX_CAPACITY)
+            throw new OutOfMemoryError();
+        return Integer.highestOneBit(size - 1) << 1;
+    }
+
+    private void resize(int capacity) {
+        char[] newElements = new char[capacity];
+        copyTo(newElements, 0);
+        elements = newElements;
+        head = 0;
+    }
+
+    /** Copies the elements to the array from {@code offset}, in the order of the deque. */
+    private void copyTo(char[] a, int offset) {
+        char[] elements = this.elements;
+        int firstPart = Math.min(size, elements.length - head);
+        System.arraycopy(elements, head, a, offset, firstPart);
+        System.arraycopy(elements, 0, a, offset + firstPart, size - firstPart);
+    }
+
+    private int slot(int position) {
+        return (head + position) & (elements.length - 1);
+    }
+
+    @Override
+    public boolean ensureCapacity(int minSize) {
+        if (minSize <= elements.length)
+            return false;
+        resize(capacityFor(minSize));
+        return true;
+    }
+
+    /**
+     * Reallocates the array to the least power of 2 length, holding the elements
+     * of this deque.
+     */
+    @Override
+    public boolean shrink() {
+        int capacity = capacityFor(size);
+        if (capacity == elements.length)
+            return false;
+        resize(capacity);
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        head = 0;
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public void addFirst(char e) {
+        if (size == elements.length)
+            resize(capacityFor(size + 1));
+        elements[head = (head - 1) & (elements.length - 1)] = e;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public void addLast(char e) {
+        if (size == elements.length)
+            resize(capacityFor(size + 1));
+        elements[slot(size)] = e;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public boolean offerFirst(char e) {
+        addFirst(e);
+        return true;
+    }
+
+    @Override
+    public boolean offerLast(char e) {
+        addLast(e);
+        return true;
+    }
+
+    @Override
+    public boolean add(char e) {
+        addLast(e);
+        return true;
+    }
+
+    @Override
+    public char removeFirstChar() {
+        if (size == 0)
+            throw new NoSuchElementException();
+        char e = elements[head];
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        modCount++;
+        return e;
+    }
+
+    @Override
+    public char removeLastChar() {
+        if (size == 0)
+            throw new NoSuchElementException();
+        char e = elements[slot(--size)];
+        modCount++;
+        return e;
+    }
+
+    @Override
+    public char getFirstChar() {
+        if (size == 0)
+            throw new NoSuchElementException();
+        return elements[head];
+    }
+
+    @Override
+    public char getLastChar() {
+        if (size == 0)
+            throw new NoSuchElementException();
+        return elements[slot(size - 1)];
+    }
+
+    private int indexOf(char v) {
+        /* bits */char e = /* unwrap elem */v/**/;
+        for (int i = 0; i < size; i++) {
+            if (/* unwrap elem */elements[slot(i)]/**/ == e)
+                return i;
+        }
+        return -1;
+    }
+
+    private int lastIndexOf(char v) {
+        /* bits */char e = /* unwrap elem */v/**/;
+        for (int i = size - 1; i >= 0; i--) {
+            if (/* unwrap elem */elements[slot(i)]/**/ == e)
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Removes the element at the given position, shifting the shorter part of the deque:
+     * the elements before it forward, or the elements after it backward.
+     */
+    void removeAt(int position) {
+        char[] elements = this.elements;
+        int mask = elements.length - 1;
+        if (position < size / 2) {
+            for (int i = position; i > 0; i--) {
+                elements[slot(i)] = elements[slot(i - 1)];
+            }
+            head = (head + 1) & mask;
+        } else {
+            for (int i = position + 1; i < size; i++) {
+                elements[slot(i - 1)] = elements[slot(i)];
+            }
+        }
+        size--;
+        modCount++;
+    }
+
+    @Override
+    public boolean removeFirstOccurrence(char v) {
+        int position = indexOf(v);
+        if (position < 0)
+            return false;
+        removeAt(position);
+        return true;
+    }
+
+    @Override
+    public boolean removeLastOccurrence(char v) {
+        int position = lastIndexOf(v);
+        if (position < 0)
+            return false;
+        removeAt(position);
+        return true;
+    }
+
+    @Override
+    public boolean removeChar(char v) {
+        return removeFirstOccurrence(v);
+    }
+
+    @Override
+    public boolean contains(char v) {
+        return indexOf(v) >= 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Character && contains(((Character) o).charValue());
+    }
+
+    @Override
+    public boolean containsAll(@NotNull Collection<?> c) {
+        return CommonCharCollectionOps.containsAll(this, c);
+    }
+
+    // Boxed versions
+
+    @Override
+    public void addFirst(Character e) {
+        addFirst(e.charValue());
+    }
+
+    @Override
+    public void addLast(Character e) {
+        addLast(e.charValue());
+    }
+
+    @Override
+    public boolean offerFirst(Character e) {
+        return offerFirst(e.charValue());
+    }
+
+    @Override
+    public boolean offerLast(Character e) {
+        return offerLast(e.charValue());
+    }
+
+    @Override
+    public boolean add(Character e) {
+        return add(e.charValue());
+    }
+
+    @Override
+    public boolean offer(Character e) {
+        return offerLast(e.charValue());
+    }
+
+    @Override
+    public void push(Character e) {
+        addFirst(e.charValue());
+    }
+
+    @Override
+    public Character removeFirst() {
+        return removeFirstChar();
+    }
+
+    @Override
+    public Character removeLast() {
+        return removeLastChar();
+    }
+
+    @Override
+    public Character remove() {
+        return removeFirstChar();
+    }
+
+    @Override
+    public Character pop() {
+        return removeFirstChar();
+    }
+
+    @Override
+    public Character pollFirst() {
+        return size != 0 ? removeFirstChar() : null;
+    }
+
+    @Override
+    public Character pollLast() {
+        return size != 0 ? removeLastChar() : null;
+    }
+
+    @Override
+    public Character poll() {
+        return pollFirst();
+    }
+
+    @Override
+    public Character getFirst() {
+        return getFirstChar();
+    }
+
+    @Override
+    public Character getLast() {
+        return getLastChar();
+    }
+
+    @Override
+    public Character element() {
+        return getFirstChar();
+    }
+
+    @Override
+    public Character peekFirst() {
+        return size != 0 ? getFirstChar() : null;
+    }
+
+    @Override
+    public Character peekLast() {
+        return size != 0 ? getLastChar() : null;
+    }
+
+    @Override
+    public Character peek() {
+        return peekFirst();
+    }
+
+    @Override
+    public boolean removeFirstOccurrence(Object o) {
+        return o instanceof Character && removeFirstOccurrence(((Character) o).charValue());
+    }
+
+    @Override
+    public boolean removeLastOccurrence(Object o) {
+        return o instanceof Character && removeLastOccurrence(((Character) o).charValue());
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return removeFirstOccurrence(o);
+    }
+
+    // Bulk operations
+
+    /* if JDK8 jdk //@Override// endif */
+    public void forEach(Consumer<? super Character> action) {
+        int mc = modCount;
+        for (int i = 0; i < size; i++) {
+            action.accept(elements[slot(i)]);
+        }
+        if (mc != modCount)
+            throw new ConcurrentModificationException();
+    }
+
+    @Override
+    public void forEach(CharConsumer action) {
+        int mc = modCount;
+        for (int i = 0; i < size; i++) {
+            action.accept(elements[slot(i)]);
+        }
+        if (mc != modCount)
+            throw new ConcurrentModificationException();
+    }
+
+    @Override
+    public boolean forEachWhile(CharPredicate predicate) {
+        int mc = modCount;
+        boolean terminated = false;
+        for (int i = 0; i < size; i++) {
+            if (!predicate.test(elements[slot(i)])) {
+                terminated = true;
+                break;
+            }
+        }
+        if (mc != modCount)
+            throw new ConcurrentModificationException();
+        return !terminated;
+    }
+
+    @NotNull
+    @Override
+    public char[] toCharArray() {
+        char[] a = new char[size];
+        copyTo(a, 0);
+        return a;
+    }
+
+    @NotNull
+    @Override
+    public char[] toArray(char[] a) {
+        if (a.length < size)
+            a = new char[size];
+        copyTo(a, 0);
+        if (a.length > size)
+            a[size] = /* const elem 0 */(char) 0/* endconst */;
+        return a;
+    }
+
+    /* if JDK8 jdk //@Override// endif */
+    public boolean removeIf(final Predicate<? super Character> filter) {
+        return removeIf(new CharPredicate() {
+            @Override
+            public boolean test(char value) {
+                return filter.test(value);
+            }
+        });
+    }
+
+    /**
+     * Compacts the retained elements towards the head in a single pass. If the filter
+     * throws an exception, the elements from the one being tested are kept.
+     */
+    @Override
+    public boolean removeIf(CharPredicate filter) {
+        int mc = modCount;
+        char[] elements = this.elements;
+        int size = this.size;
+        int newSize = 0;
+        int i = 0;
+        try {
+            for (; i < size; i++) {
+                char e = elements[slot(i)];
+                if (!filter.test(e))
+                    elements[slot(newSize++)] = e;
+            }
+        } finally {
+            if (newSize != i) {
+                // shifts the rest of the elements, if the filter has thrown an exception
+                for (int j = i; j < size; j++) {
+                    elements[slot(newSize + (j - i))] = elements[slot(j)];
+                }
+                this.size = newSize + (size - i);
+            }
+        }
+        if (mc != modCount)
+            throw new ConcurrentModificationException();
+        if (newSize == size)
+            return false;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(@NotNull final Collection<?> c) {
+        if (c instanceof CharCollection) {
+            final CharCollection primitive = (CharCollection) c;
+            return removeIf(new CharPredicate() {
+                @Override
+                public boolean test(char value) {
+                    return primitive.contains(value);
+                }
+            });
+        }
+        return super.removeAll(c);
+    }
+
+    @Override
+    public boolean retainAll(@NotNull final Collection<?> c) {
+        if (c instanceof CharCollection) {
+            final CharCollection primitive = (CharCollection) c;
+            return removeIf(new CharPredicate() {
+                @Override
+                public boolean test(char value) {
+                    return !primitive.contains(value);
+                }
+            });
+        }
+        return super.retainAll(c);
+    }
+
+    @Override
+    public String toString() {
+        if (size == 0)
+            return "[]";
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        for (int i = 0; i < size; i++) {
+            if (i > 0)
+                sb.append(", ");
+            sb.append(elements[slot(i)]);
+        }
+        return sb.append(']').toString();
+    }
+
+    // Traversal
+
+    @NotNull
+    @Override
+    public CharIterator iterator() {
+        return new ElementIterator();
+    }
+
+    @NotNull
+    @Override
+    public CharIterator descendingIterator() {
+        return new DescendingIterator();
+    }
+
+    @NotNull
+    @Override
+    public CharCursor cursor() {
+        return new ElementCursor();
+    }
+
+    @NotNull
+    @Override
+    public CharSpliterator charSpliterator() {
+        return new ElementSpliterator(modCount, 0, size);
+    }
+
+
+    class ElementIterator implements CharIterator {
+        int expectedModCount = modCount;
+        /** The position of the next element */
+        int position;
+        int lastReturned = -1;
+
+        @Override
+        public boolean hasNext() {
+            return position < size;
+        }
+
+        @Override
+        public char nextChar() {
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+            int position = this.position;
+            if (position >= size)
+                throw new NoSuchElementException();
+            this.position = position + 1;
+            return elements[slot(lastReturned = position)];
+        }
+
+        @Override
+        public Character next() {
+            return nextChar();
+        }
+
+        /* if JDK8 jdk //@Override// endif */
+        public void forEachRemaining(Consumer<? super Character> action) {
+            int position = this.position, size = ArrayCharDeque.this.size;
+            for (; position < size && expectedModCount == modCount; position++) {
+                action.accept(elements[slot(position)]);
+            }
+            if (position > this.position)
+                lastReturned = (this.position = position) - 1;
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public void forEachRemaining(CharConsumer action) {
+            int position = this.position, size = ArrayCharDeque.this.size;
+            for (; position < size && expectedModCount == modCount; position++) {
+                action.accept(elements[slot(position)]);
+            }
+            if (position > this.position)
+                lastReturned = (this.position = position) - 1;
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned < 0)
+                throw new IllegalStateException();
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+            removeAt(lastReturned);
+            position = lastReturned;
+            lastReturned = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+
+    class DescendingIterator implements CharIterator {
+        int expectedModCount = modCount;
+        /** The position of the next element */
+        int position = size - 1;
+        int lastReturned = -1;
+
+        @Override
+        public boolean hasNext() {
+            return position >= 0;
+        }
+
+        @Override
+        public char nextChar() {
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+            int position = this.position;
+            if (position < 0)
+                throw new NoSuchElementException();
+            this.position = position - 1;
+            return elements[slot(lastReturned = position)];
+        }
+
+        @Override
+        public Character next() {
+            return nextChar();
+        }
+
+        /* if JDK8 jdk //@Override// endif */
+        public void forEachRemaining(Consumer<? super Character> action) {
+            int position = this.position;
+            for (; position >= 0 && expectedModCount == modCount; position--) {
+                action.accept(elements[slot(position)]);
+            }
+            if (position < this.position)
+                lastReturned = (this.position = position) + 1;
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public void forEachRemaining(CharConsumer action) {
+            int position = this.position;
+            for (; position >= 0 && expectedModCount == modCount; position--) {
+                action.accept(elements[slot(position)]);
+            }
+            if (position < this.position)
+                lastReturned = (this.position = position) + 1;
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned < 0)
+                throw new IllegalStateException();
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+            // the positions of the elements before the removed one are not changed
+            removeAt(lastReturned);
+            lastReturned = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+
+    class ElementCursor implements CharCursor {
+        int expectedModCount = modCount;
+        int position = -1;
+        boolean current;
+
+        @Override
+        public boolean moveNext() {
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+            if (position + 1 < size) {
+                position++;
+                return current = true;
+            }
+            position = size;
+            return current = false;
+        }
+
+        @Override
+        public void forEachForward(CharConsumer action) {
+            int position = this.position + 1, size = ArrayCharDeque.this.size;
+            for (; position < size; position++) {
+                action.accept(elements[slot(position)]);
+            }
+            this.position = size;
+            current = false;
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public char elem() {
+            if (current)
+                return elements[slot(position)];
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public void remove() {
+            if (!current)
+                throw new IllegalStateException();
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+            removeAt(position--);
+            expectedModCount = modCount;
+            current = false;
+        }
+    }
+
+
+    class ElementSpliterator implements CharSpliterator {
+        final int expectedModCount;
+        int position;
+        final int fence;
+
+        ElementSpliterator(int expectedModCount, int position, int fence) {
+            this.expectedModCount = expectedModCount;
+            this.position = position;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(CharConsumer action) {
+            int position = this.position;
+            if (position < fence) {
+                this.position = position + 1;
+                action.accept(elements[slot(position)]);
+                if (expectedModCount != modCount)
+                    throw new ConcurrentModificationException();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(CharConsumer action) {
+            for (int position = this.position, fence = this.fence; position < fence; position++) {
+                action.accept(elements[slot(position)]);
+            }
+            position = fence;
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public CharSpliterator trySplit() {
+            int lo = position, mid = (lo + fence) >>> 1;
+            if (lo >= mid)
+                return null;
+            position = mid;
+            return new ElementSpliterator(expectedModCount, lo, mid);
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - position;
+        }
+
+        @Override
+        public long getExactSizeIfKnown() {
+            return estimateSize();
+        }
+
+        /* if JDK8 jdk */
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL;
+        }
+        /* endif */
+    }
+}
@@ -0,0 +1,82 @@
+/* with char|byte|short|int|long|float|double elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.collect.impl.queue;
+
+import net.openhft.collect.queue.CharDeque;
+import net.openhft.collect.queue.CharPriorityQueue;
+import net.openhft.collect.queue.CharQueue;
+import net.openhft.collect.queue.CharQueueFactory;
+
+
+public final class CharQueueFactoryImpl implements CharQueueFactory {
+
+    /**
+     * For ServiceLoader
+     */
+    public CharQueueFactoryImpl() {}
+
+    @Override
+    public CharDeque newMutableDeque() {
+        return new ArrayCharDeque(0);
+    }
+
+    @Override
+    public CharDeque newMutableDeque(int expectedSize) {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("Negative expected size: " + expectedSize);
+        return new ArrayCharDeque(expectedSize);
+    }
+
+    @Override
+    public CharQueue newSpscQueue(int capacity) {
+        return new SpscCharQueue(capacity);
+    }
+
+    @Override
+    public CharQueue newMpscQueue(int capacity) {
+        return new MpscCharQueue(capacity);
+    }
+
+    @Override
+    public CharPriorityQueue newPriorityQueue() {
+        return new HeapCharPriorityQueue(0);
+    }
+
+    @Override
+    public CharPriorityQueue newPriorityQueue(int expectedSize) {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("Negative expected size: " + expectedSize);
+        return new HeapCharPriorityQueue(expectedSize);
+    }
+
+    @Override
+    public String toString() {
+        return "CharQueueFactory";
+    }
+
+    @Override
+    public int hashCode() {
+        return CharQueueFactory.class.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof CharQueueFactoryImpl;
+    }
+}
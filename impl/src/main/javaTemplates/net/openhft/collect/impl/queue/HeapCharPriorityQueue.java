@@ -0,0 +1,210 @@
+/* with char|byte|short|int|long|float|double elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.queue;
+
+import net.openhft.collect.queue.CharPriorityQueue;
+import net.openhft.function.CharConsumer;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+
+/**
+ * 4-ary min-heap: the children of the node at the index {@code i} are at the indexes
+ * {@code 4 * i + 1 .. 4 * i + 4}, the parent is at {@code (i - 1) / 4}. Sifts move
+ * the nodes on the way and write the sifted element once, to the final index.
+ */
+final class HeapCharPriorityQueue implements CharPriorityQueue {
+
+    /** Each node has {@code 1 << ARITY_SHIFT} children. */
+    private static final int ARITY_SHIFT = 2;
+
+    /** Capacity of the array on the first growth of an empty queue. */
+    private static final int MIN_CAPACITY = 10;
+
+    /** Some VMs reserve header words in arrays. */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    char[] heap;
+    int size;
+
+    HeapCharPriorityQueue(int expectedSize) {
+        heap = new char[expectedSize];
+    }
+
+    private static boolean less(char a, char b) {
+        /* if !(float|double elem) */
+        return a < b;
+        /* elif float elem //
+        return Float.compare(a, b) < 0;
+        // elif double elem //
+        return Double.compare(a, b) < 0;
+        // endif */
+    }
+
+    private void grow(int minCapacity) {
+        if (minCapacity < 0) // size overflow
+            throw new OutOfMemoryError();
+        int capacity = heap.length;
+        long newCapacity = Math.max(MIN_CAPACITY, capacity + (capacity >> 1));
+        newCapacity = Math.max(minCapacity, Math.min(newCapacity, MAX_CAPACITY));
+        heap = Arrays.copyOf(heap, (int) newCapacity);
+    }
+
+    @Override
+    public boolean ensureCapacity(int minSize) {
+        if (minSize <= heap.length)
+            return false;
+        grow(minSize);
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+    }
+
+    @Override
+    public void add(char e) {
+        int size = this.size;
+        if (size == heap.length)
+            grow(size + 1);
+        siftUp(size, e);
+        this.size = size + 1;
+    }
+
+    @Override
+    public void addAll(char[] elements) {
+        int length = elements.length;
+        int size = this.size;
+        int newSize = size + length;
+        if (newSize > heap.length)
+            grow(newSize);
+        if (length <= size) {
+            // sifting up each element takes O(1) comparisons on average
+            for (char e : elements) {
+                siftUp(size++, e);
+            }
+            this.size = size;
+        } else {
+            // Floyd's heap construction, linear in the total number of elements
+            char[] heap = this.heap;
+            System.arraycopy(elements, 0, heap, size, length);
+            this.size = newSize;
+            for (int i = (newSize - 2) >> ARITY_SHIFT; i >= 0; i--) {
+                siftDown(i, heap[i]);
+            }
+        }
+    }
+
+    @Override
+    public char min() {
+        if (size == 0)
+            throw new NoSuchElementException();
+        return heap[0];
+    }
+
+    @Override
+    public char removeMin() {
+        int size = this.size;
+        if (size == 0)
+            throw new NoSuchElementException();
+        char[] heap = this.heap;
+        char min = heap[0];
+        this.size = --size;
+        if (size > 0)
+            siftDown(0, heap[size]);
+        return min;
+    }
+
+    /** Places the element to the index {@code i}, a free slot, or above it. */
+    private void siftUp(int i, char e) {
+        char[] heap = this.heap;
+        while (i > 0) {
+            int parent = (i - 1) >> ARITY_SHIFT;
+            char p = heap[parent];
+            if (!less(e, p))
+                break;
+            heap[i] = p;
+            i = parent;
+        }
+        heap[i] = e;
+    }
+
+    /** Places the element to the index {@code i}, a free slot, or below it. */
+    private void siftDown(int i, char e) {
+        char[] heap = this.heap;
+        int size = this.size;
+        int child;
+        while ((child = (i << ARITY_SHIFT) + 1) < size) {
+            char min = heap[child];
+            for (int c = child + 1, end = Math.min(child + (1 << ARITY_SHIFT), size);
+                 c < end; c++) {
+                char v = heap[c];
+                if (less(v, min)) {
+                    min = v;
+                    child = c;
+                }
+            }
+            if (!less(min, e))
+                break;
+            heap[i] = min;
+            i = child;
+        }
+        heap[i] = e;
+    }
+
+    @Override
+    public void forEach(CharConsumer action) {
+        if (action == null)
+            throw new NullPointerException();
+        char[] heap = this.heap;
+        for (int i = 0, size = this.size; i < size; i++) {
+            action.accept(heap[i]);
+        }
+    }
+
+    @Override
+    public char[] toCharArray() {
+        return Arrays.copyOf(heap, size);
+    }
+
+    @Override
+    public String toString() {
+        if (size == 0)
+            return "[]";
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        for (int i = 0; i < size; i++) {
+            if (i > 0)
+                sb.append(", ");
+            sb.append(heap[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,281 @@
+/* with
+ char|byte|short|int|long|float|double key
+ short|byte|char|int|long|float|double value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.queue;
+
+import net.openhft.collect.impl.hash.DHashCharIntMapFactoryImpl;
+import net.openhft.collect.map.hash.HashCharIntMap;
+import net.openhft.collect.map.hash.HashCharIntMapFactory;
+import net.openhft.collect.queue.CharShortIndexedPriorityQueue;
+import net.openhft.function.CharShortConsumer;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+
+/**
+ * 4-ary min-heap of ids and priorities in parallel arrays, like {@code HeapCharPriorityQueue},
+ * plus the index of ids: a double hashing map from the id to its index in the heap, which
+ * is updated for each node moved by a sift. Sifts return the final index of the sifted id,
+ * the callers update its position only if it moved.
+ */
+final class IndexedHeapCharShortPriorityQueue implements CharShortIndexedPriorityQueue {
+
+    /** Each node has {@code 1 << ARITY_SHIFT} children. */
+    private static final int ARITY_SHIFT = 2;
+
+    /** Capacity of the arrays on the first growth of an empty queue. */
+    private static final int MIN_CAPACITY = 10;
+
+    /** Some VMs reserve header words in arrays. */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    /** Absent ids are mapped to {@code -1}. */
+    private static final HashCharIntMapFactory POSITIONS_FACTORY =
+            new DHashCharIntMapFactoryImpl().withDefaultValue(-1);
+
+    char[] ids;
+    short[] priorities;
+    int size;
+    final HashCharIntMap positions;
+
+    IndexedHeapCharShortPriorityQueue(int expectedSize) {
+        ids = new char[expectedSize];
+        priorities = new short[expectedSize];
+        positions = POSITIONS_FACTORY.newMutableMap(expectedSize);
+    }
+
+    private static boolean less(short a, short b) {
+        /* if !(float|double value) */
+        return a < b;
+        /* elif float value //
+        return Float.compare(a, b) < 0;
+        // elif double value //
+        return Double.compare(a, b) < 0;
+        // endif */
+    }
+
+    private void grow(int minCapacity) {
+        if (minCapacity < 0) // size overflow
+            throw new OutOfMemoryError();
+        int capacity = ids.length;
+        long newCapacity = Math.max(MIN_CAPACITY, capacity + (capacity >> 1));
+        newCapacity = Math.max(minCapacity, Math.min(newCapacity, MAX_CAPACITY));
+        ids = Arrays.copyOf(ids, (int) newCapacity);
+        priorities = Arrays.copyOf(priorities, (int) newCapacity);
+    }
+
+    private int position(char id) {
+        int position = positions.get(id);
+        if (position < 0)
+            throw new NoSuchElementException("No id " + id + " in the queue");
+        return position;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        positions.clear();
+    }
+
+    @Override
+    public boolean contains(char id) {
+        return positions.containsKey(id);
+    }
+
+    @Override
+    public short priority(char id) {
+        return priorities[position(id)];
+    }
+
+    @Override
+    public boolean add(char id, short priority) {
+        int size = this.size;
+        if (positions.putIfAbsent(id, size) >= 0)
+            return false;
+        if (size == ids.length)
+            grow(size + 1);
+        this.size = size + 1;
+        int i = siftUp(size, id, priority);
+        if (i != size)
+            positions.put(id, i);
+        return true;
+    }
+
+    @Override
+    public boolean decreasePriority(char id, short priority) {
+        int position = position(id);
+        if (!less(priority, priorities[position]))
+            return false;
+        int i = siftUp(position, id, priority);
+        if (i != position)
+            positions.put(id, i);
+        return true;
+    }
+
+    @Override
+    public short changePriority(char id, short priority) {
+        int position = position(id);
+        short previous = priorities[position];
+        int i = less(priority, previous) ?
+                siftUp(position, id, priority) : siftDown(position, id, priority);
+        if (i != position)
+            positions.put(id, i);
+        return previous;
+    }
+
+    @Override
+    public boolean remove(char id) {
+        int position = positions.remove(id);
+        if (position < 0)
+            return false;
+        removeAt(position);
+        return true;
+    }
+
+    /** Fills the slot at the index, which id is already removed from the index of ids. */
+    private void removeAt(int position) {
+        int last = --size;
+        if (position == last)
+            return;
+        char lastId = ids[last];
+        short lastPriority = priorities[last];
+        int i = less(lastPriority, priorities[position]) ?
+                siftUp(position, lastId, lastPriority) :
+                siftDown(position, lastId, lastPriority);
+        positions.put(lastId, i);
+    }
+
+    @Override
+    public char minId() {
+        if (size == 0)
+            throw new NoSuchElementException();
+        return ids[0];
+    }
+
+    @Override
+    public short minPriority() {
+        if (size == 0)
+            throw new NoSuchElementException();
+        return priorities[0];
+    }
+
+    @Override
+    public char removeMin() {
+        if (size == 0)
+            throw new NoSuchElementException();
+        char id = ids[0];
+        positions.remove(id);
+        removeAt(0);
+        return id;
+    }
+
+    /**
+     * Places the id with the priority to the index {@code i}, a free slot, or above it.
+     *
+     * @return the final index of the id
+     */
+    private int siftUp(int i, char id, short priority) {
+        char[] ids = this.ids;
+        short[] priorities = this.priorities;
+        while (i > 0) {
+            int parent = (i - 1) >> ARITY_SHIFT;
+            short p = priorities[parent];
+            if (!less(priority, p))
+                break;
+            char parentId = ids[parent];
+            ids[i] = parentId;
+            priorities[i] = p;
+            positions.put(parentId, i);
+            i = parent;
+        }
+        ids[i] = id;
+        priorities[i] = priority;
+        return i;
+    }
+
+    /**
+     * Places the id with the priority to the index {@code i}, a free slot, or below it.
+     *
+     * @return the final index of the id
+     */
+    private int siftDown(int i, char id, short priority) {
+        char[] ids = this.ids;
+        short[] priorities = this.priorities;
+        int size = this.size;
+        int child;
+        while ((child = (i << ARITY_SHIFT) + 1) < size) {
+            short min = priorities[child];
+            for (int c = child + 1, end = Math.min(child + (1 << ARITY_SHIFT), size);
+                 c < end; c++) {
+                short p = priorities[c];
+                if (less(p, min)) {
+                    min = p;
+                    child = c;
+                }
+            }
+            if (!less(min, priority))
+                break;
+            char childId = ids[child];
+            ids[i] = childId;
+            priorities[i] = min;
+            positions.put(childId, i);
+            i = child;
+        }
+        ids[i] = id;
+        priorities[i] = priority;
+        return i;
+    }
+
+    @Override
+    public void forEach(CharShortConsumer action) {
+        if (action == null)
+            throw new NullPointerException();
+        char[] ids = this.ids;
+        short[] priorities = this.priorities;
+        for (int i = 0, size = this.size; i < size; i++) {
+            action.accept(ids[i], priorities[i]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (size == 0)
+            return "{}";
+        StringBuilder sb = new StringBuilder();
+        sb.append('{');
+        for (int i = 0; i < size; i++) {
+            if (i > 0)
+                sb.append(", ");
+            sb.append(ids[i]).append('=').append(priorities[i]);
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,63 @@
+/* with
+ char|byte|short|int|long|float|double key
+ short|byte|char|int|long|float|double value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.queue;
+
+import net.openhft.collect.HashConfig;
+import net.openhft.collect.queue.CharShortIndexedPriorityQueue;
+import net.openhft.collect.queue.CharShortIndexedPriorityQueueFactory;
+
+
+public final class IndexedHeapCharShortPriorityQueueFactoryImpl
+        implements CharShortIndexedPriorityQueueFactory {
+
+    /**
+     * For ServiceLoader
+     */
+    public IndexedHeapCharShortPriorityQueueFactoryImpl() {}
+
+    @Override
+    public CharShortIndexedPriorityQueue newIndexedPriorityQueue() {
+        return new IndexedHeapCharShortPriorityQueue(
+                HashConfig.DEFAULT.getDefaultExpectedSize());
+    }
+
+    @Override
+    public CharShortIndexedPriorityQueue newIndexedPriorityQueue(int expectedSize) {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("Negative expected size: " + expectedSize);
+        return new IndexedHeapCharShortPriorityQueue(expectedSize);
+    }
+
+    @Override
+    public String toString() {
+        return "CharShortIndexedPriorityQueueFactory";
+    }
+
+    @Override
+    public int hashCode() {
+        return CharShortIndexedPriorityQueueFactory.class.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof IndexedHeapCharShortPriorityQueueFactoryImpl;
+    }
+}
@@ -0,0 +1,160 @@
+/* with char|byte|short|int|long|float|double elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.collect.impl.queue;
+
+import net.openhft.collect.queue.CharQueue;
+import net.openhft.function.CharConsumer;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+
+/**
+ * Multi-producer, single-consumer queue: producers claim slots by compare-and-set
+ * of the tail, then write elements and mark each slot as published, the consumer takes
+ * elements in the order of the slots, up to the first one not published yet.
+ *
+ * <p>A primitive element can't signal, that it is written, so the slots have marks:
+ * the low 32 bits of the index of the element, written to the slot, plus one. Marks
+ * of the slots of the previous pass over the buffer differ by the capacity, not greater
+ * than {@code 2^30}, from the expected ones.
+ */
+final class MpscCharQueue extends QueueIndexes implements CharQueue {
+
+    private final char[] buffer;
+    private final AtomicIntegerArray published;
+
+    MpscCharQueue(int capacity) {
+        super(capacity);
+        buffer = new char[capacity()];
+        published = new AtomicIntegerArray(capacity());
+    }
+
+    @Override
+    public boolean offer(char e) {
+        long tail;
+        do {
+            tail = this.tail;
+            if (tail - headCache > mask && tail - (headCache = head) > mask)
+                return false;
+        } while (!casTail(tail, tail + 1));
+        int index = (int) tail & mask;
+        buffer[index] = e;
+        published.lazySet(index, (int) tail + 1);
+        return true;
+    }
+
+    @Override
+    public int offerAll(char[] elements) {
+        return offerAll(elements, 0, elements.length);
+    }
+
+    @Override
+    public int offerAll(char[] elements, int offset, int length) {
+        checkBounds(elements.length, offset, length);
+        if (length == 0)
+            return 0;
+        long capacity = mask + 1L;
+        long tail;
+        int n;
+        do {
+            tail = this.tail;
+            long free = capacity - (tail - headCache);
+            if (free < length)
+                free = capacity - (tail - (headCache = head));
+            if (free <= 0)
+                return 0;
+            n = (int) Math.min(free, (long) length);
+        } while (!casTail(tail, tail + n));
+        int index = (int) tail & mask;
+        int firstPart = Math.min(n, buffer.length - index);
+        System.arraycopy(elements, offset, buffer, index, firstPart);
+        System.arraycopy(elements, offset + firstPart, buffer, 0, n - firstPart);
+        AtomicIntegerArray published = this.published;
+        for (int i = 0; i < n; i++) {
+            long t = tail + i;
+            published.lazySet((int) t & mask, (int) t + 1);
+        }
+        return n;
+    }
+
+    @Override
+    public char remove() {
+        long head = this.head;
+        int index = (int) head & mask;
+        int mark = (int) head + 1;
+        if (published.get(index) != mark) {
+            if (head == tail)
+                throw new NoSuchElementException();
+            while (published.get(index) != mark) {
+                // a producer has claimed the slot, but not written the element yet
+            }
+        }
+        char e = buffer[index];
+        lazySetHead(head + 1);
+        return e;
+    }
+
+    @Override
+    public int drainTo(char[] a) {
+        return drainTo(a, 0, a.length);
+    }
+
+    @Override
+    public int drainTo(char[] a, int offset, int length) {
+        checkBounds(a.length, offset, length);
+        long head = this.head;
+        char[] buffer = this.buffer;
+        AtomicIntegerArray published = this.published;
+        int mask = this.mask;
+        int n = 0;
+        for (long h = head; n < length; h++, n++) {
+            int index = (int) h & mask;
+            if (published.get(index) != (int) h + 1)
+                break;
+            a[offset + n] = buffer[index];
+        }
+        if (n != 0)
+            lazySetHead(head + n);
+        return n;
+    }
+
+    @Override
+    public int drain(CharConsumer action) {
+        long head = this.head;
+        char[] buffer = this.buffer;
+        AtomicIntegerArray published = this.published;
+        int mask = this.mask;
+        long h = head;
+        try {
+            while (true) {
+                int index = (int) h & mask;
+                if (published.get(index) != (int) h + 1)
+                    break;
+                h++;
+                action.accept(buffer[index]);
+            }
+        } finally {
+            // the element, on which the action has thrown an exception, is taken as well
+            if (h != head)
+                lazySetHead(h);
+        }
+        return (int) (h - head);
+    }
+}
@@ -0,0 +1,131 @@
+/* with char|byte|short|int|long|float|double elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.collect.impl.queue;
+
+import net.openhft.collect.queue.CharQueue;
+import net.openhft.function.CharConsumer;
+
+import java.util.NoSuchElementException;
+
+
+/**
+ * Single-producer, single-consumer queue: a ring buffer with the tail, written only by
+ * the producer, and the head, written only by the consumer. Each side publishes its
+ * progress with an ordered (lazy) write of its index, which orders the writes to the buffer
+ * before it, and reads the index of the other side only when the cached value of it
+ * doesn't allow to proceed.
+ */
+final class SpscCharQueue extends QueueIndexes implements CharQueue {
+
+    private final char[] buffer;
+
+    SpscCharQueue(int capacity) {
+        super(capacity);
+        buffer = new char[capacity()];
+    }
+
+    @Override
+    public boolean offer(char e) {
+        long tail = this.tail;
+        if (tail - headCache > mask) {
+            if (tail - (headCache = head) > mask)
+                return false;
+        }
+        buffer[(int) tail & mask] = e;
+        lazySetTail(tail + 1);
+        return true;
+    }
+
+    @Override
+    public int offerAll(char[] elements) {
+        return offerAll(elements, 0, elements.length);
+    }
+
+    @Override
+    public int offerAll(char[] elements, int offset, int length) {
+        checkBounds(elements.length, offset, length);
+        long tail = this.tail;
+        long capacity = mask + 1L;
+        long free = capacity - (tail - headCache);
+        if (free < length)
+            free = capacity - (tail - (headCache = head));
+        int n = (int) Math.min(free, (long) length);
+        if (n == 0)
+            return 0;
+        int index = (int) tail & mask;
+        int firstPart = Math.min(n, buffer.length - index);
+        System.arraycopy(elements, offset, buffer, index, firstPart);
+        System.arraycopy(elements, offset + firstPart, buffer, 0, n - firstPart);
+        lazySetTail(tail + n);
+        return n;
+    }
+
+    @Override
+    public char remove() {
+        long head = this.head;
+        if (head >= tailCache) {
+            if (head >= (tailCache = tail))
+                throw new NoSuchElementException();
+        }
+        char e = buffer[(int) head & mask];
+        lazySetHead(head + 1);
+        return e;
+    }
+
+    @Override
+    public int drainTo(char[] a) {
+        return drainTo(a, 0, a.length);
+    }
+
+    @Override
+    public int drainTo(char[] a, int offset, int length) {
+        checkBounds(a.length, offset, length);
+        long head = this.head;
+        long available = tailCache - head;
+        if (available < length)
+            available = (tailCache = tail) - head;
+        int n = (int) Math.min(available, (long) length);
+        if (n == 0)
+            return 0;
+        int index = (int) head & mask;
+        int firstPart = Math.min(n, buffer.length - index);
+        System.arraycopy(buffer, index, a, offset, firstPart);
+        System.arraycopy(buffer, 0, a, offset + firstPart, n - firstPart);
+        lazySetHead(head + n);
+        return n;
+    }
+
+    @Override
+    public int drain(CharConsumer action) {
+        long head = this.head, end = tailCache = tail;
+        char[] buffer = this.buffer;
+        int mask = this.mask;
+        long h = head;
+        try {
+            while (h < end) {
+                action.accept(buffer[(int) (h++) & mask]);
+            }
+        } finally {
+            // the element, on which the action has thrown an exception, is taken as well
+            if (h != head)
+                lazySetHead(h);
+        }
+        return (int) (h - head);
+    }
+}
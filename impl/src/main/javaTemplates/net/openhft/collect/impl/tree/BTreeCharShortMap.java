@@ -0,0 +1,954 @@
+/* with
+ char|byte|short|int|long|float|double key
+ short|byte|char|int|long|float|double value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.tree;
+
+import net.openhft.collect.impl.Primitives;
+import net.openhft.collect.map.CharShortCursor;
+import net.openhft.collect.map.CharShortSortedMap;
+import net.openhft.function.*;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
+
+/**
+ * {@link CharShortSortedMap} implementation, a B+-tree with the entries in primitive arrays
+ * of the leaves. Leaves are linked in the order of the keys, so iteration and range scans
+ * don't return to the inner nodes.
+ *
+ * <p>Child {@code i} of an inner node holds the keys in {@code [keys[i - 1], keys[i])}.
+ * Separators are only bounds, not necessarily keys of the map: they are not updated, when
+ * the least key of a child is removed. Leaves and inner nodes, except the root, are never empty:
+ * a node with less than a quarter of the capacity is merged with a sibling, or takes entries
+ * from it, if they don't fit a single node. The root is an empty leaf, if the map is empty.
+ *
+ * <p>Range views share the {@link Tree} with the map, they are the same class with bounds.
+ */
+final class BTreeCharShortMap implements CharShortSortedMap {
+
+    /** The maximum number of entries in a leaf, keys of a leaf span several cache lines */
+    static final int LEAF_CAPACITY = 64;
+    /** The maximum number of children of an inner node */
+    static final int INNER_CAPACITY = 64;
+    static final int MIN_LEAF_SIZE = LEAF_CAPACITY / 4;
+    static final int MIN_INNER_SIZE = INNER_CAPACITY / 4;
+
+    abstract static class Node {
+        /** The number of entries of a leaf, or children of an inner node */
+        int size;
+    }
+
+    static final class Leaf extends Node {
+        final char[] keys = new char[LEAF_CAPACITY];
+        final short[] values = new short[LEAF_CAPACITY];
+        Leaf prev, next;
+    }
+
+    static final class Inner extends Node {
+        final char[] keys = new char[INNER_CAPACITY - 1];
+        final Node[] children = new Node[INNER_CAPACITY];
+    }
+
+    private static boolean less(char a, char b) {
+        /* if !(float|double key) */
+        return a < b;
+        /* elif float key //
+        return Float.compare(a, b) < 0;
+        // elif double key //
+        return Double.compare(a, b) < 0;
+        // endif */
+    }
+
+    private static boolean keyEquals(char a, char b) {
+        /* if !(float|double key) */
+        return a == b;
+        /* elif float key //
+        return Float.floatToIntBits(a) == Float.floatToIntBits(b);
+        // elif double key //
+        return Double.doubleToLongBits(a) == Double.doubleToLongBits(b);
+        // endif */
+    }
+
+    private static boolean valueEquals(short a, short b) {
+        /* if !(float|double value) */
+        return a == b;
+        /* elif float value //
+        return Float.floatToIntBits(a) == Float.floatToIntBits(b);
+        // elif double value //
+        return Double.doubleToLongBits(a) == Double.doubleToLongBits(b);
+        // endif */
+    }
+
+    /**
+     * Returns the index of the key in the leaf, or {@code -(insertion point) - 1},
+     * as {@link Arrays#binarySearch(char[], int, int, char)}.
+     */
+    static int search(Leaf leaf, char key) {
+        char[] keys = leaf.keys;
+        int lo = 0, hi = leaf.size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char midKey = keys[mid];
+            if (less(midKey, key)) {
+                lo = mid + 1;
+            } else if (less(key, midKey)) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    /** Returns the index of the least key greater than (or equal to) the given one, or leaf size */
+    static int ceilingIndex(Leaf leaf, char key, boolean inclusive) {
+        int index = search(leaf, key);
+        return index >= 0 ? (inclusive ? index : index + 1) : -index - 1;
+    }
+
+    /** Returns the index of the greatest key less than (or equal to) the given one, or -1 */
+    static int floorIndex(Leaf leaf, char key, boolean inclusive) {
+        int index = search(leaf, key);
+        return index >= 0 ? (inclusive ? index : index - 1) : -index - 2;
+    }
+
+    static int childIndex(Inner inner, char key) {
+        char[] keys = inner.keys;
+        int lo = 0, hi = inner.size - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (less(key, keys[mid])) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    static char firstKey(Node node) {
+        while (node instanceof Inner) {
+            node = ((Inner) node).children[0];
+        }
+        return ((Leaf) node).keys[0];
+    }
+
+    /** State of the tree, shared by the map and its range views */
+    static final class Tree {
+        final short defaultValue;
+        Node root;
+        Leaf first, last;
+        int size;
+        int modCount;
+
+        Tree(short defaultValue) {
+            this.defaultValue = defaultValue;
+            clear();
+        }
+
+        void clear() {
+            Leaf leaf = new Leaf();
+            root = first = last = leaf;
+            size = 0;
+            modCount++;
+        }
+
+        /**
+         * Builds the tree of the given entries bottom-up, the keys should be strictly ascending.
+         * The entries are distributed evenly among the nodes of each level, which are filled up
+         * to the capacity.
+         */
+        void load(char[] keys, short[] values) {
+            int size = keys.length;
+            if (size == 0) {
+                clear();
+                return;
+            }
+            int count = (size - 1) / LEAF_CAPACITY + 1;
+            Node[] level = new Node[count];
+            Leaf prev = null;
+            for (int i = 0, from = 0; i < count; i++) {
+                int to = (int) ((long) size * (i + 1) / count);
+                Leaf leaf = new Leaf();
+                System.arraycopy(keys, from, leaf.keys, 0, to - from);
+                System.arraycopy(values, from, leaf.values, 0, to - from);
+                leaf.size = to - from;
+                if ((leaf.prev = prev) != null) {
+                    prev.next = leaf;
+                } else {
+                    first = leaf;
+                }
+                level[i] = prev = leaf;
+                from = to;
+            }
+            last = prev;
+            while (count > 1) {
+                int parentCount = (count - 1) / INNER_CAPACITY + 1;
+                for (int i = 0, from = 0; i < parentCount; i++) {
+                    int to = (int) ((long) count * (i + 1) / parentCount);
+                    Inner inner = new Inner();
+                    for (int c = from; c < to; c++) {
+                        inner.children[c - from] = level[c];
+                        if (c > from)
+                            inner.keys[c - from - 1] = firstKey(level[c]);
+                    }
+                    inner.size = to - from;
+                    // i <= from, the nodes of the previous level are already taken
+                    level[i] = inner;
+                    from = to;
+                }
+                count = parentCount;
+            }
+            root = level[0];
+            this.size = size;
+            modCount++;
+        }
+
+        /** Returns the leaf, which holds the key, if it is present in the map */
+        Leaf leaf(char key) {
+            Node node = root;
+            while (node instanceof Inner) {
+                Inner inner = (Inner) node;
+                node = inner.children[childIndex(inner, key)];
+            }
+            return (Leaf) node;
+        }
+
+        /**
+         * Returns the leaf, which holds the least key greater than (or equal to) the given one,
+         * or {@code null} if there is no such key.
+         */
+        Leaf ceilingLeaf(char key, boolean inclusive) {
+            Leaf leaf = leaf(key);
+            return ceilingIndex(leaf, key, inclusive) < leaf.size ? leaf : leaf.next;
+        }
+
+        /**
+         * Returns the leaf, which holds the greatest key less than (or equal to) the given one,
+         * or {@code null} if there is no such key.
+         */
+        Leaf floorLeaf(char key, boolean inclusive) {
+            Leaf leaf = leaf(key);
+            return floorIndex(leaf, key, inclusive) >= 0 ? leaf : leaf.prev;
+        }
+
+        short put(char key, short value) {
+            Leaf leaf = leaf(key);
+            int index = search(leaf, key);
+            if (index >= 0) {
+                short prev = leaf.values[index];
+                leaf.values[index] = value;
+                return prev;
+            }
+            insert(leaf, -index - 1, key, value);
+            return defaultValue;
+        }
+
+        short incrementValue(char key, short increment) {
+            Leaf leaf = leaf(key);
+            int index = search(leaf, key);
+            if (index >= 0)
+                return leaf.values[index] = (short) (leaf.values[index] + increment);
+            short value = (short) (defaultValue + increment);
+            insert(leaf, -index - 1, key, value);
+            return value;
+        }
+
+        short remove(char key) {
+            Leaf leaf = leaf(key);
+            int index = search(leaf, key);
+            if (index < 0)
+                return defaultValue;
+            short value = leaf.values[index];
+            removeAt(leaf, index);
+            return value;
+        }
+
+        private void insert(Leaf leaf, int index, char key, short value) {
+            if (leaf.size < LEAF_CAPACITY) {
+                insertAt(leaf, index, key, value);
+            } else {
+                // the leaf is full, descend again, splitting the nodes on the path
+                Node sibling = insert(root, key, value);
+                if (sibling != null) {
+                    Inner root = new Inner();
+                    root.children[0] = this.root;
+                    root.children[1] = sibling;
+                    root.keys[0] = firstKey(sibling);
+                    root.size = 2;
+                    this.root = root;
+                }
+            }
+            size++;
+            modCount++;
+        }
+
+        /**
+         * Inserts the absent key into the subtree, the leaf of which is full,
+         * returns the new right sibling of the node, if the node is split, or {@code null}.
+         */
+        private Node insert(Node node, char key, short value) {
+            if (node instanceof Leaf)
+                return split((Leaf) node, key, value);
+            Inner inner = (Inner) node;
+            int index = childIndex(inner, key);
+            Node child = insert(inner.children[index], key, value);
+            if (child == null)
+                return null;
+            // the least key of the subtree is a valid separator, unlike the inner node separators
+            // dropped by the split, it is available without passing it up the recursion
+            char separator = firstKey(child);
+            int position = index + 1;
+            if (inner.size < INNER_CAPACITY) {
+                insertChild(inner, position, separator, child);
+                return null;
+            }
+            Inner right = new Inner();
+            int half = INNER_CAPACITY / 2;
+            int rightSize = INNER_CAPACITY - half;
+            System.arraycopy(inner.children, half, right.children, 0, rightSize);
+            System.arraycopy(inner.keys, half, right.keys, 0, rightSize - 1);
+            Arrays.fill(inner.children, half, INNER_CAPACITY, null);
+            inner.size = half;
+            right.size = rightSize;
+            if (position <= half) {
+                insertChild(inner, position, separator, child);
+            } else {
+                insertChild(right, position - half, separator, child);
+            }
+            return right;
+        }
+
+        private Leaf split(Leaf leaf, char key, short value) {
+            int index = -search(leaf, key) - 1;
+            Leaf right = new Leaf();
+            right.prev = leaf;
+            if ((right.next = leaf.next) != null) {
+                right.next.prev = right;
+            } else {
+                last = right;
+            }
+            leaf.next = right;
+            if (index == LEAF_CAPACITY && right.next == null) {
+                // appending to the end of the map, keep the filled leaves full
+                insertAt(right, 0, key, value);
+                return right;
+            }
+            int half = LEAF_CAPACITY / 2;
+            System.arraycopy(leaf.keys, half, right.keys, 0, LEAF_CAPACITY - half);
+            System.arraycopy(leaf.values, half, right.values, 0, LEAF_CAPACITY - half);
+            leaf.size = half;
+            right.size = LEAF_CAPACITY - half;
+            if (index <= half) {
+                insertAt(leaf, index, key, value);
+            } else {
+                insertAt(right, index - half, key, value);
+            }
+            return right;
+        }
+
+        private static void insertAt(Leaf leaf, int index, char key, short value) {
+            int size = leaf.size;
+            char[] keys = leaf.keys;
+            short[] values = leaf.values;
+            System.arraycopy(keys, index, keys, index + 1, size - index);
+            System.arraycopy(values, index, values, index + 1, size - index);
+            keys[index] = key;
+            values[index] = value;
+            leaf.size = size + 1;
+        }
+
+        private static void insertChild(Inner inner, int position, char separator, Node child) {
+            int size = inner.size;
+            System.arraycopy(inner.children, position, inner.children, position + 1,
+                    size - position);
+            System.arraycopy(inner.keys, position - 1, inner.keys, position, size - position);
+            inner.children[position] = child;
+            inner.keys[position - 1] = separator;
+            inner.size = size + 1;
+        }
+
+        /**
+         * Removes the entry at the given index of the leaf.
+         *
+         * @return {@code true} if the leaf has been merged with a sibling or took entries from it,
+         *         i. e. positions of the entries have changed
+         */
+        boolean removeAt(Leaf leaf, int index) {
+            char key = leaf.keys[index];
+            int tail = leaf.size - index - 1;
+            System.arraycopy(leaf.keys, index + 1, leaf.keys, index, tail);
+            System.arraycopy(leaf.values, index + 1, leaf.values, index, tail);
+            leaf.size--;
+            size--;
+            modCount++;
+            if (leaf.size >= MIN_LEAF_SIZE || leaf == root)
+                return false;
+            // separators are unchanged, the path to the removed key leads to the leaf
+            rebalance((Inner) root, key);
+            Node root;
+            while ((root = this.root) instanceof Inner && root.size == 1) {
+                this.root = ((Inner) root).children[0];
+            }
+            return true;
+        }
+
+        /**
+         * Merges the child of the given parent on the path to the key with a sibling,
+         * or moves entries to it from the sibling, if the child is under-filled.
+         */
+        private void rebalance(Inner parent, char key) {
+            int index = childIndex(parent, key);
+            Node child = parent.children[index];
+            if (child instanceof Inner) {
+                rebalance((Inner) child, key);
+                if (child.size >= MIN_INNER_SIZE)
+                    return;
+            } else if (child.size >= MIN_LEAF_SIZE) {
+                return;
+            }
+            // non-root inner nodes have at least two children
+            int left = index + 1 < parent.size ? index : index - 1;
+            if (child instanceof Leaf) {
+                rebalance(parent, left,
+                        (Leaf) parent.children[left], (Leaf) parent.children[left + 1]);
+            } else {
+                rebalance(parent, left,
+                        (Inner) parent.children[left], (Inner) parent.children[left + 1]);
+            }
+        }
+
+        private void rebalance(Inner parent, int position, Leaf left, Leaf right) {
+            int total = left.size + right.size;
+            if (total <= LEAF_CAPACITY) {
+                System.arraycopy(right.keys, 0, left.keys, left.size, right.size);
+                System.arraycopy(right.values, 0, left.values, left.size, right.size);
+                left.size = total;
+                if ((left.next = right.next) != null) {
+                    left.next.prev = left;
+                } else {
+                    last = left;
+                }
+                removeChild(parent, position + 1);
+                return;
+            }
+            int leftSize = total / 2;
+            if (left.size < leftSize) {
+                int move = leftSize - left.size;
+                System.arraycopy(right.keys, 0, left.keys, left.size, move);
+                System.arraycopy(right.values, 0, left.values, left.size, move);
+                System.arraycopy(right.keys, move, right.keys, 0, right.size - move);
+                System.arraycopy(right.values, move, right.values, 0, right.size - move);
+            } else {
+                int move = left.size - leftSize;
+                System.arraycopy(right.keys, 0, right.keys, move, right.size);
+                System.arraycopy(right.values, 0, right.values, move, right.size);
+                System.arraycopy(left.keys, leftSize, right.keys, 0, move);
+                System.arraycopy(left.values, leftSize, right.values, 0, move);
+            }
+            left.size = leftSize;
+            right.size = total - leftSize;
+            parent.keys[position] = right.keys[0];
+        }
+
+        private void rebalance(Inner parent, int position, Inner left, Inner right) {
+            int total = left.size + right.size;
+            char separator = parent.keys[position];
+            if (total <= INNER_CAPACITY) {
+                left.keys[left.size - 1] = separator;
+                System.arraycopy(right.keys, 0, left.keys, left.size, right.size - 1);
+                System.arraycopy(right.children, 0, left.children, left.size, right.size);
+                left.size = total;
+                removeChild(parent, position + 1);
+                return;
+            }
+            int leftSize = total / 2;
+            if (left.size < leftSize) {
+                int move = leftSize - left.size;
+                left.keys[left.size - 1] = separator;
+                System.arraycopy(right.keys, 0, left.keys, left.size, move - 1);
+                System.arraycopy(right.children, 0, left.children, left.size, move);
+                parent.keys[position] = right.keys[move - 1];
+                System.arraycopy(right.keys, move, right.keys, 0, right.size - 1 - move);
+                System.arraycopy(right.children, move, right.children, 0, right.size - move);
+                Arrays.fill(right.children, right.size - move, right.size, null);
+            } else {
+                int move = left.size - leftSize;
+                System.arraycopy(right.keys, 0, right.keys, move, right.size - 1);
+                System.arraycopy(right.children, 0, right.children, move, right.size);
+                System.arraycopy(left.keys, leftSize, right.keys, 0, move - 1);
+                System.arraycopy(left.children, leftSize, right.children, 0, move);
+                right.keys[move - 1] = separator;
+                parent.keys[position] = left.keys[leftSize - 1];
+                Arrays.fill(left.children, leftSize, left.size, null);
+            }
+            right.size = total - leftSize;
+            left.size = leftSize;
+        }
+
+        private static void removeChild(Inner inner, int position) {
+            int tail = inner.size - position - 1;
+            System.arraycopy(inner.children, position + 1, inner.children, position, tail);
+            System.arraycopy(inner.keys, position, inner.keys, position - 1, tail);
+            inner.children[--inner.size] = null;
+        }
+    }
+
+    final Tree tree;
+    /* Bounds of a range view, named as in java.util.TreeMap */
+    private final boolean fromStart, toEnd;
+    private final char lo, hi;
+    private final boolean loInclusive, hiInclusive;
+
+    BTreeCharShortMap(Tree tree) {
+        this(tree, true, /* const key 0 */(char) 0/* endconst */, true,
+                true, /* const key 0 */(char) 0/* endconst */, true);
+    }
+
+    private BTreeCharShortMap(Tree tree, boolean fromStart, char lo, boolean loInclusive,
+            boolean toEnd, char hi, boolean hiInclusive) {
+        this.tree = tree;
+        this.fromStart = fromStart;
+        this.lo = lo;
+        this.loInclusive = loInclusive;
+        this.toEnd = toEnd;
+        this.hi = hi;
+        this.hiInclusive = hiInclusive;
+    }
+
+    private boolean tooLow(char key) {
+        return !fromStart && (loInclusive ? less(key, lo) : !less(lo, key));
+    }
+
+    private boolean tooHigh(char key) {
+        return !toEnd && (hiInclusive ? less(hi, key) : !less(key, hi));
+    }
+
+    private boolean inRange(char key) {
+        return !tooLow(key) && !tooHigh(key);
+    }
+
+    /** Checks the bound of a new view, bounds of this map are considered inclusive */
+    private boolean inRange(char key, boolean inclusive) {
+        if (inclusive)
+            return inRange(key);
+        return (fromStart || !less(key, lo)) && (toEnd || !less(hi, key));
+    }
+
+    private void checkRange(char key) {
+        if (!inRange(key))
+            throw new IllegalArgumentException("Key " + key + " is out of the range of the map");
+    }
+
+    /**
+     * Returns the leaf, which holds the least key not less than the lower bound,
+     * or {@code null} if there is no such key. The key could be above the upper bound.
+     */
+    private Leaf lowestLeaf() {
+        if (fromStart)
+            return tree.size != 0 ? tree.first : null;
+        return tree.ceilingLeaf(lo, loInclusive);
+    }
+
+    private int lowestIndex(Leaf leaf) {
+        return fromStart ? 0 : ceilingIndex(leaf, lo, loInclusive);
+    }
+
+    private Leaf highestLeaf() {
+        if (toEnd)
+            return tree.size != 0 ? tree.last : null;
+        return tree.floorLeaf(hi, hiInclusive);
+    }
+
+    private int highestIndex(Leaf leaf) {
+        return toEnd ? leaf.size - 1 : floorIndex(leaf, hi, hiInclusive);
+    }
+
+    @Override
+    public short defaultValue() {
+        return tree.defaultValue;
+    }
+
+    @Override
+    public int size() {
+        if (fromStart && toEnd)
+            return tree.size;
+        int size = 0;
+        Leaf leaf = lowestLeaf();
+        if (leaf != null) {
+            int index = lowestIndex(leaf);
+            for (; leaf != null; leaf = leaf.next, index = 0) {
+                int leafSize = leaf.size;
+                if (tooHigh(leaf.keys[leafSize - 1])) {
+                    for (char[] keys = leaf.keys; index < leafSize && !tooHigh(keys[index]);
+                            index++) {
+                        size++;
+                    }
+                    break;
+                }
+                size += leafSize - index;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        if (fromStart && toEnd)
+            return tree.size == 0;
+        Leaf leaf = lowestLeaf();
+        return leaf == null || tooHigh(leaf.keys[lowestIndex(leaf)]);
+    }
+
+    @Override
+    public boolean containsKey(char key) {
+        return inRange(key) && search(tree.leaf(key), key) >= 0;
+    }
+
+    @Override
+    public short get(char key) {
+        return getOrDefault(key, tree.defaultValue);
+    }
+
+    @Override
+    public short getOrDefault(char key, short defaultValue) {
+        if (!inRange(key))
+            return defaultValue;
+        Leaf leaf = tree.leaf(key);
+        int index = search(leaf, key);
+        return index >= 0 ? leaf.values[index] : defaultValue;
+    }
+
+    @Override
+    public short put(char key, short value) {
+        checkRange(key);
+        return tree.put(key, value);
+    }
+
+    @Override
+    public short incrementValue(char key, short increment) {
+        checkRange(key);
+        return tree.incrementValue(key, increment);
+    }
+
+    @Override
+    public short remove(char key) {
+        if (!inRange(key))
+            return tree.defaultValue;
+        return tree.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        if (fromStart && toEnd) {
+            tree.clear();
+        } else {
+            for (CharShortCursor cur = cursor(); cur.moveNext();) {
+                cur.remove();
+            }
+        }
+    }
+
+    @Override
+    public void forEach(/*f*/CharShortConsumer action) {
+        int mc = tree.modCount;
+        Leaf leaf = lowestLeaf();
+        if (leaf != null) {
+            int index = lowestIndex(leaf);
+            entries:
+            for (; leaf != null; leaf = leaf.next, index = 0) {
+                char[] keys = leaf.keys;
+                short[] values = leaf.values;
+                for (int size = leaf.size; index < size; index++) {
+                    char key = keys[index];
+                    if (tooHigh(key))
+                        break entries;
+                    action.accept(key, values[index]);
+                }
+            }
+        }
+        if (mc != tree.modCount)
+            throw new ConcurrentModificationException();
+    }
+
+    @Override
+    public boolean forEachWhile(/*f*/CharShortPredicate predicate) {
+        int mc = tree.modCount;
+        boolean terminated = false;
+        Leaf leaf = lowestLeaf();
+        if (leaf != null) {
+            int index = lowestIndex(leaf);
+            entries:
+            for (; leaf != null; leaf = leaf.next, index = 0) {
+                char[] keys = leaf.keys;
+                short[] values = leaf.values;
+                for (int size = leaf.size; index < size; index++) {
+                    char key = keys[index];
+                    if (tooHigh(key))
+                        break entries;
+                    if (!predicate.test(key, values[index])) {
+                        terminated = true;
+                        break entries;
+                    }
+                }
+            }
+        }
+        if (mc != tree.modCount)
+            throw new ConcurrentModificationException();
+        return !terminated;
+    }
+
+    @NotNull
+    @Override
+    public CharShortCursor cursor() {
+        return new TreeCursor();
+    }
+
+    @Override
+    public char firstKey() {
+        Leaf leaf = lowestLeaf();
+        char key;
+        if (leaf == null || tooHigh(key = leaf.keys[lowestIndex(leaf)]))
+            throw new NoSuchElementException();
+        return key;
+    }
+
+    @Override
+    public char lastKey() {
+        Leaf leaf = highestLeaf();
+        char key;
+        if (leaf == null || tooLow(key = leaf.keys[highestIndex(leaf)]))
+            throw new NoSuchElementException();
+        return key;
+    }
+
+    @Override
+    public char lowerKey(char key) {
+        return floorKey(key, false);
+    }
+
+    @Override
+    public char floorKey(char key) {
+        return floorKey(key, true);
+    }
+
+    @Override
+    public char ceilingKey(char key) {
+        return ceilingKey(key, true);
+    }
+
+    @Override
+    public char higherKey(char key) {
+        return ceilingKey(key, false);
+    }
+
+    private char floorKey(char key, boolean inclusive) {
+        if (tooHigh(key))
+            return lastKey();
+        Leaf leaf = tree.floorLeaf(key, inclusive);
+        char floor;
+        if (leaf == null || tooLow(floor = leaf.keys[floorIndex(leaf, key, inclusive)]))
+            throw new NoSuchElementException();
+        return floor;
+    }
+
+    private char ceilingKey(char key, boolean inclusive) {
+        if (tooLow(key))
+            return firstKey();
+        Leaf leaf = tree.ceilingLeaf(key, inclusive);
+        char ceiling;
+        if (leaf == null || tooHigh(ceiling = leaf.keys[ceilingIndex(leaf, key, inclusive)]))
+            throw new NoSuchElementException();
+        return ceiling;
+    }
+
+    @NotNull
+    @Override
+    public CharShortSortedMap subMap(char fromKey, boolean fromInclusive,
+            char toKey, boolean toInclusive) {
+        if (less(toKey, fromKey))
+            throw new IllegalArgumentException("fromKey " + fromKey + " > toKey " + toKey);
+        if (!inRange(fromKey, fromInclusive))
+            throw new IllegalArgumentException("fromKey " + fromKey + " is out of range");
+        if (!inRange(toKey, toInclusive))
+            throw new IllegalArgumentException("toKey " + toKey + " is out of range");
+        return new BTreeCharShortMap(tree, false, fromKey, fromInclusive,
+                false, toKey, toInclusive);
+    }
+
+    @NotNull
+    @Override
+    public CharShortSortedMap headMap(char toKey, boolean inclusive) {
+        if (!inRange(toKey, inclusive))
+            throw new IllegalArgumentException("toKey " + toKey + " is out of range");
+        return new BTreeCharShortMap(tree, fromStart, lo, loInclusive, false, toKey, inclusive);
+    }
+
+    @NotNull
+    @Override
+    public CharShortSortedMap tailMap(char fromKey, boolean inclusive) {
+        if (!inRange(fromKey, inclusive))
+            throw new IllegalArgumentException("fromKey " + fromKey + " is out of range");
+        return new BTreeCharShortMap(tree, false, fromKey, inclusive, toEnd, hi, hiInclusive);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof CharShortSortedMap))
+            return false;
+        CharShortCursor cur = cursor();
+        CharShortCursor otherCur = ((CharShortSortedMap) o).cursor();
+        while (cur.moveNext()) {
+            if (!otherCur.moveNext() || !keyEquals(cur.key(), otherCur.key()) ||
+                    !valueEquals(cur.value(), otherCur.value())) {
+                return false;
+            }
+        }
+        return !otherCur.moveNext();
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+        for (CharShortCursor cur = cursor(); cur.moveNext();) {
+            hashCode += Primitives.hashCode(cur.key()) ^ Primitives.hashCode(cur.value());
+        }
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder().append('{');
+        for (CharShortCursor cur = cursor(); cur.moveNext();) {
+            if (sb.length() > 1)
+                sb.append(", ");
+            sb.append(cur.key()).append('=').append(cur.value());
+        }
+        return sb.append('}').toString();
+    }
+
+    class TreeCursor implements CharShortCursor {
+        int expectedModCount = tree.modCount;
+        /** {@code null}, if the cursor is after the last entry */
+        Leaf leaf;
+        int index;
+        boolean current;
+
+        TreeCursor() {
+            if ((leaf = lowestLeaf()) != null)
+                index = lowestIndex(leaf) - 1;
+        }
+
+        @Override
+        public boolean moveNext() {
+            if (expectedModCount != tree.modCount)
+                throw new ConcurrentModificationException();
+            Leaf leaf;
+            if ((leaf = this.leaf) != null) {
+                int index = this.index + 1;
+                if (index == leaf.size) {
+                    leaf = leaf.next;
+                    index = 0;
+                }
+                if (leaf != null && !tooHigh(leaf.keys[index])) {
+                    this.leaf = leaf;
+                    this.index = index;
+                    return current = true;
+                }
+                this.leaf = null;
+            }
+            return current = false;
+        }
+
+        @Override
+        public void forEachForward(/*f*/CharShortConsumer action) {
+            Leaf leaf;
+            if ((leaf = this.leaf) != null) {
+                int index = this.index + 1;
+                entries:
+                for (; leaf != null; leaf = leaf.next, index = 0) {
+                    char[] keys = leaf.keys;
+                    short[] values = leaf.values;
+                    for (int size = leaf.size; index < size; index++) {
+                        char key = keys[index];
+                        if (tooHigh(key))
+                            break entries;
+                        action.accept(key, values[index]);
+                    }
+                }
+                this.leaf = null;
+            }
+            current = false;
+            if (expectedModCount != tree.modCount)
+                throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public char key() {
+            if (current)
+                return leaf.keys[index];
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public short value() {
+            if (current)
+                return leaf.values[index];
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public void setValue(short value) {
+            if (current) {
+                if (expectedModCount == tree.modCount) {
+                    leaf.values[index] = value;
+                } else {
+                    throw new ConcurrentModificationException();
+                }
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+
+        @Override
+        public void remove() {
+            if (!current)
+                throw new IllegalStateException();
+            if (expectedModCount != tree.modCount)
+                throw new ConcurrentModificationException();
+            Tree tree = BTreeCharShortMap.this.tree;
+            char key = leaf.keys[index];
+            if (tree.removeAt(leaf, index)) {
+                // entries moved between the leaves, find the next one from the root
+                if ((leaf = tree.ceilingLeaf(key, false)) != null)
+                    index = ceilingIndex(leaf, key, false) - 1;
+            } else {
+                index--;
+            }
+            expectedModCount = tree.modCount;
+            current = false;
+        }
+    }
+}
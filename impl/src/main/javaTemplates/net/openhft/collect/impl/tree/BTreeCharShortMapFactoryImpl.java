@@ -0,0 +1,124 @@
+/* with
+ char|byte|short|int|long|float|double key
+ short|byte|char|int|long|float|double value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.impl.tree;
+
+import net.openhft.collect.impl.Primitives;
+import net.openhft.collect.map.CharShortSortedMap;
+import net.openhft.collect.map.CharShortSortedMapFactory;
+
+import java.util.Map;
+
+
+public final class BTreeCharShortMapFactoryImpl implements CharShortSortedMapFactory {
+
+    private final short defaultValue;
+
+    /**
+     * For ServiceLoader
+     */
+    public BTreeCharShortMapFactoryImpl() {
+        this(/* const value 0 */(short) 0/* endconst */);
+    }
+
+    private BTreeCharShortMapFactoryImpl(short defaultValue) {
+        this.defaultValue = defaultValue;
+    }
+
+    @Override
+    public short getDefaultValue() {
+        return defaultValue;
+    }
+
+    @Override
+    public CharShortSortedMapFactory withDefaultValue(short defaultValue) {
+        return new BTreeCharShortMapFactoryImpl(defaultValue);
+    }
+
+    @Override
+    public CharShortSortedMap newMutableMap() {
+        return new BTreeCharShortMap(new BTreeCharShortMap.Tree(defaultValue));
+    }
+
+    @Override
+    public CharShortSortedMap newMutableMap(Map<Character, Short> map) {
+        char[] keys = new char[map.size()];
+        short[] values = new short[keys.length];
+        int i = 0;
+        for (Map.Entry<Character, Short> e : map.entrySet()) {
+            keys[i] = e.getKey();
+            values[i++] = e.getValue();
+        }
+        return newMutableMap(keys, values);
+    }
+
+    @Override
+    public CharShortSortedMap newMutableMap(char[] keys, short[] values) {
+        if (keys.length != values.length)
+            throw new IllegalArgumentException("keys and values arrays must have the same size");
+        BTreeCharShortMap.Tree tree = new BTreeCharShortMap.Tree(defaultValue);
+        if (isStrictlyAscending(keys)) {
+            tree.load(keys, values);
+        } else {
+            for (int i = 0; i < keys.length; i++) {
+                tree.put(keys[i], values[i]);
+            }
+        }
+        return new BTreeCharShortMap(tree);
+    }
+
+    private static boolean isStrictlyAscending(char[] keys) {
+        for (int i = 1; i < keys.length; i++) {
+            /* if !(float|double key) */
+            if (keys[i - 1] >= keys[i])
+                return false;
+            /* elif float key //
+            if (Float.compare(keys[i - 1], keys[i]) >= 0)
+                return false;
+            // elif double key //
+            if (Double.compare(keys[i - 1], keys[i]) >= 0)
+                return false;
+            // endif */
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "CharShortSortedMapFactory[defaultValue=" + getDefaultValue() + "]";
+    }
+
+    @Override
+    public int hashCode() {
+        return 17 * 31 + Primitives.hashCode(getDefaultValue());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj instanceof CharShortSortedMapFactory) {
+            CharShortSortedMapFactory factory = (CharShortSortedMapFactory) obj;
+            return ((Short) this.getDefaultValue()).equals(factory.getDefaultValue());
+        } else {
+            return false;
+        }
+    }
+}
@@ -23,7 +23,9 @@ import java.util.List;
 public final class ObjHashConfigs {
 
     public static List<ObjHashConfig> all() {
-        return Arrays.asList(ObjHashConfig.DEFAULT);
+        return Arrays.asList(ObjHashConfig.DEFAULT,
+                ObjHashConfig.DEFAULT.withHashConfig(HashConfig.DEFAULT.withAlgorithm(
+                        HashAlgorithm.POWER_OF_TWO_DOUBLE_HASHING)));
     }
 
     private ObjHashConfigs() {}
@@ -26,11 +26,34 @@ import java.util.List;
 public final class CharHashConfigs {
 
     public static List<CharHashConfig> all() {
+        CharHashConfig powerOfTwo = CharHashConfig.DEFAULT.withHashConfig(
+                HashConfig.DEFAULT.withAlgorithm(HashAlgorithm.POWER_OF_TWO_DOUBLE_HASHING));
+        CharHashConfig linearProbing = CharHashConfig.DEFAULT.withHashConfig(
+                HashConfig.DEFAULT.withAlgorithm(HashAlgorithm.LINEAR_PROBING));
+        CharHashConfig robinHood = CharHashConfig.DEFAULT.withHashConfig(
+                HashConfig.DEFAULT.withAlgorithm(HashAlgorithm.ROBIN_HOOD_HASHING));
         return Arrays.asList(
                 CharHashConfig.DEFAULT,
                 CharHashConfig.DEFAULT.withKeysDomain(
                         /* const t 1 */(char) 1/* endconst */,
-                        /* const t max */Character.MAX_VALUE/* endconst*/));
+                        /* const t max */Character.MAX_VALUE/* endconst*/),
+                powerOfTwo,
+                powerOfTwo.withKeysDomain(
+                        /* const t 1 */(char) 1/* endconst */,
+                        /* const t max */Character.MAX_VALUE/* endconst*/),
+                linearProbing,
+                linearProbing.withKeysDomain(
+                        /* const t 1 */(char) 1/* endconst */,
+                        /* const t max */Character.MAX_VALUE/* endconst*/),
+                robinHood,
+                robinHood.withKeysDomain(
+                        /* const t 1 */(char) 1/* endconst */,
+                        /* const t max */Character.MAX_VALUE/* endconst*/),
+                CharHashConfig.DEFAULT.withHashConfig(
+                        HashConfig.DEFAULT.withKeyMixing(KeyMixing.MURMUR3)),
+                CharHashConfig.DEFAULT.withHashConfig(HashConfig.DEFAULT
+                        .withAlgorithm(HashAlgorithm.LINEAR_PROBING)
+                        .withKeyMixing(KeyMixing.NONE)));
     }
 
     private CharHashConfigs() {}
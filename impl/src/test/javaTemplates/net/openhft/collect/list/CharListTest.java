@@ -0,0 +1,329 @@
+/* with char|byte|short|int|long|float|double elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.collect.list;
+
+import junit.framework.TestCase;
+import net.openhft.collect.*;
+import net.openhft.function.*;
+
+import java.util.*;
+
+
+public class CharListTest extends TestCase {
+
+    public void testRandomOperations() {
+        Random random = new Random(0);
+        CharList list = CharLists.newMutableList();
+        List<Character> expected = new ArrayList<Character>();
+        for (int i = 0; i < 20000; i++) {
+            char v = (char) random.nextInt(50);
+            int size = expected.size();
+            switch (random.nextInt(10)) {
+                case 0:
+                case 1:
+                    assertTrue(list.add(v));
+                    expected.add(v);
+                    break;
+                case 2:
+                    int index = random.nextInt(size + 1);
+                    list.add(index, v);
+                    expected.add(index, v);
+                    break;
+                case 3:
+                    if (size > 0) {
+                        index = random.nextInt(size);
+                        assertEquals(expected.set(index, v), (Character) list.set(index, v));
+                    }
+                    break;
+                case 4:
+                    if (size > 0) {
+                        index = random.nextInt(size);
+                        assertEquals(expected.remove(index), (Character) list.removeCharAt(index));
+                    }
+                    break;
+                case 5:
+                    assertEquals(expected.remove((Character) v), list.removeChar(v));
+                    break;
+                case 6:
+                    assertEquals(expected.indexOf(v), list.indexOf(v));
+                    assertEquals(expected.lastIndexOf(v), list.lastIndexOf(v));
+                    assertEquals(expected.contains(v), list.contains(v));
+                    break;
+                case 7:
+                    char[] a = randomArray(random, random.nextInt(5));
+                    int offset = a.length > 0 ? random.nextInt(a.length) : 0;
+                    int length = a.length - offset;
+                    assertEquals(length > 0, list.addAll(a, offset, length));
+                    for (int j = offset; j < a.length; j++) {
+                        expected.add(a[j]);
+                    }
+                    break;
+                case 8:
+                    index = random.nextInt(size + 1);
+                    List<Character> c = Arrays.asList(box(randomArray(random, 3)));
+                    list.addAll(index, c);
+                    expected.addAll(index, c);
+                    break;
+                case 9:
+                    if (random.nextInt(20) == 0) {
+                        final char bound = v;
+                        list.removeIf(new CharPredicate() {
+                            @Override
+                            public boolean test(char value) {
+                                return value < bound;
+                            }
+                        });
+                        for (Iterator<Character> it = expected.iterator(); it.hasNext();) {
+                            if (it.next() < bound)
+                                it.remove();
+                        }
+                    }
+                    break;
+            }
+            assertEquals(expected.size(), list.size());
+        }
+        assertListEquals(expected, list);
+    }
+
+    public void testBulkAddSortAndBinarySearch() {
+        Random random = new Random(1);
+        char[] a = randomArray(random, 1000);
+        CharList list = CharLists.newMutableList(10);
+        assertTrue(list.addAll(a));
+        assertFalse(list.addAll(new char[0]));
+        assertTrue(Arrays.equals(a, list.toCharArray()));
+        list.sort();
+        char[] sorted = a.clone();
+        Arrays.sort(sorted);
+        assertTrue(Arrays.equals(sorted, list.toCharArray()));
+        for (int i = 0; i < 100; i++) {
+            char key = (char) random.nextInt(60);
+            int index = list.binarySearch(key);
+            if (index >= 0) {
+                assertEquals((Character) key, list.get(index));
+            } else {
+                assertEquals(Arrays.binarySearch(sorted, key), index);
+            }
+        }
+        try {
+            list.addAll(a, 999, 2);
+            fail();
+        } catch (IndexOutOfBoundsException expected) {
+            // expected
+        }
+    }
+
+    public void testCapacity() {
+        CharList list = CharLists.newMutableList();
+        assertFalse(list.shrink());
+        assertTrue(list.ensureCapacity(100));
+        assertFalse(list.ensureCapacity(50));
+        for (int i = 0; i < 100; i++) {
+            list.add((char) i);
+        }
+        assertFalse(list.ensureCapacity(100));
+        list.removeCharAt(0);
+        assertTrue(list.shrink());
+        assertFalse(list.shrink());
+        assertEquals(99, list.size());
+        assertEquals((char) 99, list.getChar(98));
+    }
+
+    public void testIteratorCursorAndSpliterator() {
+        Random random = new Random(2);
+        char[] a = randomArray(random, 100);
+        CharList list = CharLists.newMutableList(a);
+        List<Character> expected = new ArrayList<Character>(Arrays.asList(box(a)));
+
+        CharIterator it = (CharIterator) list.iterator();
+        for (int i = 0; it.hasNext(); i++) {
+            it.nextChar();
+            if (i % 3 == 0)
+                it.remove();
+        }
+        Iterator<Character> expectedIt = expected.iterator();
+        for (int i = 0; expectedIt.hasNext(); i++) {
+            expectedIt.next();
+            if (i % 3 == 0)
+                expectedIt.remove();
+        }
+        assertListEquals(expected, list);
+
+        CharCursor cur = list.cursor();
+        for (int i = 0; cur.moveNext(); i++) {
+            if (i % 2 == 0) {
+                assertEquals(expected.remove(0), (Character) cur.elem());
+                cur.remove();
+                try {
+                    cur.elem();
+                    fail();
+                } catch (IllegalStateException e) {
+                    // expected
+                }
+            } else {
+                expected.add(expected.remove(0));
+            }
+        }
+        assertListEquals(expected, list);
+
+        final List<Character> split = new ArrayList<Character>();
+        CharConsumer collector = new CharConsumer() {
+            @Override
+            public void accept(char value) {
+                split.add(value);
+            }
+        };
+        CharSpliterator s = list.charSpliterator();
+        CharSpliterator prefix = s.trySplit();
+        assertEquals(list.size(), prefix.estimateSize() + s.estimateSize());
+        assertTrue(prefix.tryAdvance(collector));
+        prefix.forEachRemaining(collector);
+        s.forEachRemaining(collector);
+        assertEquals(expected, split);
+
+        it = (CharIterator) list.iterator();
+        list.add((char) 1);
+        try {
+            it.nextChar();
+            fail();
+        } catch (ConcurrentModificationException e) {
+            // expected
+        }
+    }
+
+    public void testListViews() {
+        char[] a = randomArray(new Random(3), 50);
+        CharList list = CharLists.newMutableList(a);
+        List<Character> expected = new ArrayList<Character>(Arrays.asList(box(a)));
+        list.subList(10, 20).clear();
+        expected.subList(10, 20).clear();
+        assertListEquals(expected, list);
+        ListIterator<Character> it = list.listIterator(5);
+        ListIterator<Character> expectedIt = expected.listIterator(5);
+        while (it.hasNext()) {
+            Character e = it.next();
+            assertEquals(expectedIt.next(), e);
+            if (it.nextIndex() % 4 == 0) {
+                it.set((char) 7);
+                expectedIt.set((char) 7);
+                it.add((char) 8);
+                expectedIt.add((char) 8);
+            }
+        }
+        assertListEquals(expected, list);
+        assertTrue(list.removeAll(Arrays.asList((char) 7, (char) 8)));
+        expected.removeAll(Arrays.asList((char) 7, (char) 8));
+        assertListEquals(expected, list);
+        CharList retained = CharLists.newMutableList(list.subList(0, 10));
+        assertTrue(list.retainAll(retained));
+        expected.retainAll(new ArrayList<Character>(retained));
+        assertListEquals(expected, list);
+        assertTrue(list.containsAll(retained));
+    }
+
+    public void testImmutable() {
+        char[] a = randomArray(new Random(4), 30);
+        CharList mutable = CharLists.newMutableList(a);
+        CharList immutable = CharLists.newImmutableList(mutable);
+        assertEquals(mutable, immutable);
+        assertEquals(immutable, mutable);
+        assertEquals(mutable.hashCode(), immutable.hashCode());
+        assertEquals(mutable.toString(), immutable.toString());
+        assertEquals(mutable.indexOf(a[5]), immutable.indexOf(a[5]));
+        a[0] = (char) 100;
+        assertFalse(immutable.contains((char) 100));
+        try {
+            immutable.add((char) 1);
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        try {
+            immutable.set(0, (char) 1);
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        try {
+            immutable.iterator().remove();
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        try {
+            immutable.sort();
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    /* if float|double elem */
+    public void testFloatingPointElements() {
+        CharList list = CharLists.newMutableList();
+        list.addAll(new char[] {Character.NaN, (char) 0, (char) -0.0, (char) 1, (char) -1});
+        assertEquals(0, list.indexOf(Character.NaN));
+        assertEquals(1, list.indexOf((char) 0));
+        assertEquals(2, list.indexOf((char) -0.0));
+        assertTrue(list.contains(Character.NaN));
+        list.sort();
+        assertEquals("[-1.0, -0.0, 0.0, 1.0, NaN]", list.toString());
+        assertEquals(1, list.binarySearch((char) -0.0));
+        assertEquals(4, list.binarySearch(Character.NaN));
+        CharList other = CharLists.newImmutableList(list);
+        assertEquals(Arrays.asList((char) -1, (char) -0.0, (char) 0, (char) 1, Character.NaN),
+                other);
+    }
+    /* endif */
+
+    private static void assertListEquals(List<Character> expected, CharList list) {
+        assertEquals(expected, list);
+        assertEquals(list, expected);
+        assertEquals(expected.hashCode(), list.hashCode());
+        assertEquals(expected.toString(), list.toString());
+        assertTrue(Arrays.equals(unbox(expected), list.toCharArray()));
+        assertEquals(CharLists.newImmutableList(expected), list);
+        assertTrue(Arrays.equals(list.toCharArray(), list.toArray(new char[0])));
+        assertTrue(Arrays.equals(box(list.toCharArray()), list.toArray()));
+    }
+
+    private static char[] randomArray(Random random, int length) {
+        char[] a = new char[length];
+        for (int i = 0; i < length; i++) {
+            a[i] = (char) random.nextInt(50);
+        }
+        return a;
+    }
+
+    private static Character[] box(char[] a) {
+        Character[] boxed = new Character[a.length];
+        for (int i = 0; i < a.length; i++) {
+            boxed[i] = a[i];
+        }
+        return boxed;
+    }
+
+    private static char[] unbox(List<Character> list) {
+        char[] a = new char[list.size()];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = list.get(i);
+        }
+        return a;
+    }
+}
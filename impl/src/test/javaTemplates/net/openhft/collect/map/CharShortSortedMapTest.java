@@ -0,0 +1,401 @@
+/* with
+ char|byte|short|int|long|float|double key
+ short|byte|char|int|long|float|double value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map;
+
+import junit.framework.TestCase;
+
+import java.util.*;
+
+
+public class CharShortSortedMapTest extends TestCase {
+
+    /** Keys are taken from a small range, so that operations often hit present keys. */
+    private static final int KEY_RANGE =
+            /* if byte key */200/* elif !(byte key) //2000// endif */;
+    private static final int OPERATIONS = 50000;
+
+    public void testRandomOperations() {
+        Random random = new Random(0);
+        CharShortSortedMap map = CharShortSortedMaps.newMutableMap();
+        TreeMap<Character, Short> expected = new TreeMap<Character, Short>();
+        for (int i = 0; i < OPERATIONS; i++) {
+            char key = randomKey(random);
+            short value = (short) random.nextInt(100);
+            // more insertions at the beginning, more removals at the end
+            if (random.nextInt(OPERATIONS) > i) {
+                Short prev = expected.put(key, value);
+                assertEquals(prev != null ? prev : (Short) map.defaultValue(),
+                        (Short) map.put(key, value));
+            } else if (random.nextBoolean()) {
+                Short prev = expected.remove(key);
+                assertEquals(prev != null ? prev : (Short) map.defaultValue(),
+                        (Short) map.remove(key));
+            } else {
+                Short prev = expected.get(key);
+                short newValue = (short) ((prev != null ? prev : map.defaultValue()) + value);
+                expected.put(key, newValue);
+                assertEquals((Short) newValue, (Short) map.incrementValue(key, value));
+            }
+            if (i % 1000 == 0)
+                assertSameEntries(expected, map);
+        }
+        assertSameEntries(expected, map);
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.size());
+    }
+
+    public void testAscendingAndDescendingInsertions() {
+        CharShortSortedMap ascending = CharShortSortedMaps.newMutableMap();
+        CharShortSortedMap descending = CharShortSortedMaps.newMutableMap();
+        TreeMap<Character, Short> expected = new TreeMap<Character, Short>();
+        for (int i = 0; i < KEY_RANGE; i++) {
+            char key = (char) (i - KEY_RANGE / 2);
+            ascending.put(key, (short) i);
+            descending.put((char) (KEY_RANGE / 2 - 1 - i), (short) (KEY_RANGE - 1 - i));
+            expected.put(key, (short) i);
+        }
+        assertSameEntries(expected, ascending);
+        assertSameEntries(expected, descending);
+        assertEquals(ascending, descending);
+        for (char key : expected.keySet()) {
+            ascending.remove(key);
+        }
+        assertTrue(ascending.isEmpty());
+    }
+
+    public void testNavigation() {
+        Random random = new Random(0);
+        CharShortSortedMap map = CharShortSortedMaps.newMutableMap();
+        TreeMap<Character, Short> expected = new TreeMap<Character, Short>();
+        assertNavigation(expected, map, (char) 0);
+        for (int i = 0; i < KEY_RANGE / 4; i++) {
+            char key = randomKey(random);
+            expected.put(key, (short) i);
+            map.put(key, (short) i);
+        }
+        for (int i = 0; i < KEY_RANGE; i++) {
+            assertNavigation(expected, map, randomKey(random));
+        }
+    }
+
+    public void testViews() {
+        Random random = new Random(0);
+        CharShortSortedMap map = CharShortSortedMaps.newMutableMap();
+        TreeMap<Character, Short> expected = new TreeMap<Character, Short>();
+        for (int i = 0; i < KEY_RANGE / 2; i++) {
+            char key = randomKey(random);
+            expected.put(key, (short) i);
+            map.put(key, (short) i);
+        }
+        for (int i = 0; i < 200; i++) {
+            char from = randomKey(random), to = randomKey(random);
+            if (((Character) to).compareTo(from) < 0) {
+                char t = from;
+                from = to;
+                to = t;
+            }
+            boolean fromInclusive = random.nextBoolean(), toInclusive = random.nextBoolean();
+            NavigableMap<Character, Short> expectedView;
+            CharShortSortedMap view;
+            switch (i % 3) {
+                case 0:
+                    expectedView = expected.subMap(from, fromInclusive, to, toInclusive);
+                    view = map.subMap(from, fromInclusive, to, toInclusive);
+                    break;
+                case 1:
+                    expectedView = expected.headMap(to, toInclusive);
+                    view = map.headMap(to, toInclusive);
+                    break;
+                default:
+                    expectedView = expected.tailMap(from, fromInclusive);
+                    view = map.tailMap(from, fromInclusive);
+            }
+            assertSameEntries(expectedView, view);
+            for (int j = 0; j < 10; j++) {
+                char key = randomKey(random);
+                assertNavigation(expectedView, view, key);
+                assertEquals(expectedView.containsKey(key), view.containsKey(key));
+                boolean inRange;
+                try {
+                    expectedView.put(key, (short) j);
+                    inRange = true;
+                } catch (IllegalArgumentException e) {
+                    inRange = false;
+                }
+                try {
+                    view.put(key, (short) j);
+                    assertTrue(inRange);
+                } catch (IllegalArgumentException e) {
+                    assertFalse(inRange);
+                }
+            }
+            assertSameEntries(expectedView, view);
+            if (i % 10 == 0) {
+                expectedView.clear();
+                view.clear();
+                assertTrue(view.isEmpty());
+            }
+            assertSameEntries(expected, map);
+        }
+    }
+
+    public void testNestedViews() {
+        CharShortSortedMap map = CharShortSortedMaps.newMutableMap();
+        for (int i = 0; i < 100; i++) {
+            map.put((char) i, (short) i);
+        }
+        CharShortSortedMap view = map.subMap((char) 10, true, (char) 50, false);
+        assertEquals(40, view.size());
+        CharShortSortedMap nested = view.tailMap((char) 50, false);
+        assertTrue(nested.isEmpty());
+        nested = view.headMap((char) 20, true);
+        assertEquals(11, nested.size());
+        assertEquals((char) 20, nested.lastKey());
+        try {
+            view.subMap((char) 5, true, (char) 20, true);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+        try {
+            view.headMap((char) 50, true);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+        try {
+            map.subMap((char) 20, true, (char) 10, true);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+        assertEquals((short) 0, view.remove((char) 60));
+        assertTrue(map.containsKey((char) 60));
+    }
+
+    public void testCursor() {
+        Random random = new Random(0);
+        CharShortSortedMap map = CharShortSortedMaps.newMutableMap();
+        TreeMap<Character, Short> expected = new TreeMap<Character, Short>();
+        for (int i = 0; i < KEY_RANGE; i++) {
+            char key = randomKey(random);
+            map.put(key, (short) i);
+            expected.put(key, (short) i);
+        }
+        Iterator<Map.Entry<Character, Short>> it = expected.entrySet().iterator();
+        int i = 0;
+        for (CharShortCursor cur = map.cursor(); cur.moveNext(); i++) {
+            Map.Entry<Character, Short> e = it.next();
+            assertEquals(e.getKey(), (Character) cur.key());
+            if (i % 3 == 0) {
+                cur.remove();
+                it.remove();
+                try {
+                    cur.key();
+                    fail();
+                } catch (IllegalStateException expectedException) {
+                    // expected
+                }
+            } else {
+                cur.setValue((short) i);
+                e.setValue((short) i);
+            }
+        }
+        assertFalse(it.hasNext());
+        assertSameEntries(expected, map);
+
+        CharShortCursor cur = map.cursor();
+        assertTrue(cur.moveNext());
+        expected.remove(cur.key());
+        map.remove(cur.key());
+        try {
+            cur.moveNext();
+            fail();
+        } catch (ConcurrentModificationException e) {
+            // expected
+        }
+
+        CharShortSortedMap view = map.tailMap((char) 10, true);
+        for (cur = view.cursor(); cur.moveNext();) {
+            cur.remove();
+        }
+        assertTrue(view.isEmpty());
+        assertEquals(expected.headMap((char) 10).size(), map.size());
+    }
+
+    /* if !(byte key) */
+    public void testLargeTree() {
+        // enough entries for several levels of inner nodes
+        int size = 30000;
+        Random random = new Random(0);
+        CharShortSortedMap map = CharShortSortedMaps.newMutableMap();
+        TreeMap<Character, Short> expected = new TreeMap<Character, Short>();
+        for (int i = 0; i < size; i++) {
+            char key = (char) random.nextInt(size * 2);
+            map.put(key, (short) i);
+            expected.put(key, (short) i);
+        }
+        assertSameEntries(expected, map);
+        for (int i = 0; i < size; i++) {
+            char key = (char) random.nextInt(size * 2);
+            assertEquals(expected.remove(key) != null, map.containsKey(key));
+            map.remove(key);
+        }
+        assertSameEntries(expected, map);
+        for (char key : new ArrayList<Character>(expected.keySet())) {
+            expected.remove(key);
+            map.remove(key);
+        }
+        assertSameEntries(expected, map);
+    }
+    /* endif */
+
+    public void testBulkLoad() {
+        for (int size : new int[] {0, 1, 64, 65, KEY_RANGE / 2, KEY_RANGE}) {
+            char[] keys = new char[size];
+            short[] values = new short[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = /* if char key */(char) i
+                        /* elif !(char key) //(char) (i - size / 2)// endif */;
+                values[i] = (short) i;
+            }
+            CharShortSortedMap loaded = CharShortSortedMaps.newMutableMap(keys, values);
+            CharShortSortedMap built = CharShortSortedMaps.newMutableMap();
+            TreeMap<Character, Short> expected = new TreeMap<Character, Short>();
+            for (int i = size - 1; i >= 0; i--) {
+                built.put(keys[i], values[i]);
+                expected.put(keys[i], values[i]);
+            }
+            assertSameEntries(expected, loaded);
+            assertEquals(built, loaded);
+            assertEquals(built.hashCode(), loaded.hashCode());
+            assertEquals(built.toString(), loaded.toString());
+            assertEquals(loaded, CharShortSortedMaps.newMutableMap(expected));
+            // the loaded tree stays valid under updates
+            for (int i = 0; i < size; i += 2) {
+                loaded.remove(keys[i]);
+                expected.remove(keys[i]);
+            }
+            loaded.put((char) size, (short) 1);
+            expected.put((char) size, (short) 1);
+            assertSameEntries(expected, loaded);
+        }
+        try {
+            CharShortSortedMaps.newMutableMap(new char[1], new short[2]);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    public void testToString() {
+        CharShortSortedMap map = CharShortSortedMaps.newMutableMap();
+        assertEquals("{}", map.toString());
+        map.put((char) 2, (short) 3);
+        map.put((char) 1, (short) 2);
+        assertEquals("{" + (char) 1 + "=" + (short) 2 + ", " + (char) 2 + "=" + (short) 3 + "}",
+                map.toString());
+    }
+
+    /* if float|double key */
+    public void testFloatingPointKeysOrder() {
+        CharShortSortedMap map = CharShortSortedMaps.newMutableMap();
+        map.put(Character.NaN, (short) 1);
+        map.put((char) 0.0, (short) 2);
+        map.put((char) -0.0, (short) 3);
+        map.put(Character.NEGATIVE_INFINITY, (short) 4);
+        assertEquals(4, map.size());
+        assertEquals((Character) Character.NEGATIVE_INFINITY, (Character) map.firstKey());
+        assertEquals((Character) Character.NaN, (Character) map.lastKey());
+        assertEquals((Character) (char) -0.0, (Character) map.lowerKey((char) 0.0));
+        assertEquals((Short) (short) 1, (Short) map.get(Character.NaN));
+        assertEquals((Short) (short) 3, (Short) map.remove((char) -0.0));
+        assertTrue(map.containsKey((char) 0.0));
+    }
+    /* endif */
+
+    private static char randomKey(Random random) {
+        return (char) (random.nextInt(KEY_RANGE) - KEY_RANGE / 2);
+    }
+
+    private static void assertSameEntries(NavigableMap<Character, Short> expected,
+            CharShortSortedMap map) {
+        TreeMap<Character, Short> actual = new TreeMap<Character, Short>();
+        for (CharShortCursor cur = map.cursor(); cur.moveNext();) {
+            assertNull(actual.put(cur.key(), cur.value()));
+        }
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected.isEmpty(), map.isEmpty());
+        final List<Character> keys = new ArrayList<Character>();
+        map.forEach(new net.openhft.function.CharShortConsumer() {
+            @Override
+            public void accept(char key, short value) {
+                keys.add(key);
+            }
+        });
+        assertEquals(new ArrayList<Character>(expected.keySet()), keys);
+        for (Map.Entry<Character, Short> e : expected.entrySet()) {
+            assertTrue(map.containsKey(e.getKey()));
+            assertEquals(e.getValue(), (Short) map.get(e.getKey()));
+        }
+    }
+
+    private static void assertNavigation(NavigableMap<Character, Short> expected,
+            CharShortSortedMap map, char key) {
+        assertEquals(expected.isEmpty() ? null : expected.firstKey(), firstKey(map));
+        assertEquals(expected.isEmpty() ? null : expected.lastKey(), lastKey(map));
+        assertEquals(expected.lowerKey(key), navigate(map, key, 0));
+        assertEquals(expected.floorKey(key), navigate(map, key, 1));
+        assertEquals(expected.ceilingKey(key), navigate(map, key, 2));
+        assertEquals(expected.higherKey(key), navigate(map, key, 3));
+    }
+
+    private static Character firstKey(CharShortSortedMap map) {
+        try {
+            return map.firstKey();
+        } catch (NoSuchElementException e) {
+            return null;
+        }
+    }
+
+    private static Character lastKey(CharShortSortedMap map) {
+        try {
+            return map.lastKey();
+        } catch (NoSuchElementException e) {
+            return null;
+        }
+    }
+
+    private static Character navigate(CharShortSortedMap map, char key, int method) {
+        try {
+            switch (method) {
+                case 0: return map.lowerKey(key);
+                case 1: return map.floorKey(key);
+                case 2: return map.ceilingKey(key);
+                default: return map.higherKey(key);
+            }
+        } catch (NoSuchElementException e) {
+            return null;
+        }
+    }
+}
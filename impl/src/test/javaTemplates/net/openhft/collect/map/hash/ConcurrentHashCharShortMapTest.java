@@ -0,0 +1,150 @@
+/* with
+ char|byte|short|int|long|float|double key
+ short|byte|char|int|long value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map.hash;
+
+import junit.framework.TestCase;
+import net.openhft.function.ShortBinaryOperator;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+public class ConcurrentHashCharShortMapTest extends TestCase {
+
+    private static final int THREADS = 4;
+    private static final int KEYS = 100;
+    private static final int UPDATES_PER_KEY = 1000;
+
+    public void testSingleKeyOperations() {
+        ConcurrentHashCharShortMap map = HashCharShortMaps.newConcurrentMap(10, 4);
+        assertTrue(map.isEmpty());
+        assertEquals(map.defaultValue(), map.put((char) 1, (short) 2));
+        assertEquals((short) 2, map.putIfAbsent((char) 1, (short) 3));
+        assertEquals((short) 2, map.get((char) 1));
+        assertTrue(map.replace((char) 1, (short) 2, (short) 4));
+        assertFalse(map.remove((char) 1, (short) 2));
+        assertEquals((short) 4, map.remove((char) 1));
+        assertFalse(map.containsKey((char) 1));
+        assertEquals((short) 5, map.getOrDefault((char) 1, (short) 5));
+        assertEquals(0, map.size());
+    }
+
+    public void testConcurrentUpdatesAreAtomic() throws InterruptedException {
+        final ConcurrentHashCharShortMap map = HashCharShortMaps.newConcurrentMap(KEYS, THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            final boolean merge = t % 2 == 0;
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        throw new AssertionError(e);
+                    }
+                    for (int i = 0; i < KEYS * UPDATES_PER_KEY; i++) {
+                        char key = (char) (i % KEYS);
+                        if (merge) {
+                            map.merge(key, (short) 1, new ShortBinaryOperator() {
+                                @Override
+                                public short applyAsShort(short a, short b) {
+                                    return (short) (a + b);
+                                }
+                            });
+                        } else {
+                            map.incrementValue(key, (short) 1);
+                        }
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(KEYS, map.size());
+        HashCharShortMap snapshot = map.snapshot();
+        assertEquals(KEYS, snapshot.size());
+        for (int i = 0; i < KEYS; i++) {
+            assertEquals((short) (THREADS * UPDATES_PER_KEY), snapshot.get((char) i));
+        }
+    }
+
+    public void testReadsDuringRehashes() throws Throwable {
+        // a single small segment, so that the writer rehashes it all the time
+        final ConcurrentHashCharShortMap map = HashCharShortMaps.newConcurrentMap(1, 1);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final Thread writer = new Thread() {
+            @Override
+            public void run() {
+                for (int round = 0; round < UPDATES_PER_KEY; round++) {
+                    for (int k = 1; k <= KEYS; k++) {
+                        map.put((char) k, (short) (k + 1));
+                    }
+                    for (int k = 1; k <= KEYS; k++) {
+                        map.remove((char) k);
+                    }
+                    map.shrink();
+                }
+            }
+        };
+        Thread[] readers = new Thread[THREADS - 1];
+        for (int t = 0; t < readers.length; t++) {
+            readers[t] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        while (writer.isAlive()) {
+                            for (int k = 1; k <= KEYS; k++) {
+                                // a key is either absent, or maps to its own value
+                                short value = map.get((char) k);
+                                if (value != (short) 0)
+                                    assertEquals((short) (k + 1), value);
+                                value = map.getOrDefault((char) k, (short) -1);
+                                if (value != (short) -1)
+                                    assertEquals((short) (k + 1), value);
+                                map.containsKey((char) k);
+                            }
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            };
+        }
+        writer.start();
+        for (Thread reader : readers) {
+            reader.start();
+        }
+        writer.join();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        if (failure.get() != null)
+            throw failure.get();
+        assertTrue(map.isEmpty());
+        for (int k = 1; k <= KEYS; k++) {
+            assertFalse(map.containsKey((char) k));
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/* with
+ char|byte|short key
+ short|byte|char|int|long|float|double value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map.hash;
+
+import junit.framework.TestCase;
+import net.openhft.collect.CharHashConfig;
+import net.openhft.collect.HashStats;
+import net.openhft.collect.map.CharShortCursor;
+import net.openhft.function.*;
+
+import java.io.*;
+import java.util.Random;
+
+
+public class DirectCharShortMapTest extends TestCase {
+
+    private static final int OPERATIONS = 100000;
+
+    public void testRandomOperations() {
+        CharHashConfig[] configs = {
+                CharHashConfig.DEFAULT,
+                CharHashConfig.DEFAULT.withKeysDomain((char) 10, (char) 100),
+                // wraps around the end of the char range
+                CharHashConfig.DEFAULT.withKeysDomainComplement((char) 50, (char) 60)
+        };
+        for (CharHashConfig config : configs) {
+            HashCharShortMapFactory factory = HashCharShortMaps.getDefaultFactory()
+                    .withConfig(config).withDefaultValue((short) 3);
+            DirectCharShortMap map = factory.newDirectMap();
+            HashCharShortMap expected = factory.newMutableMap();
+            Random random = new Random(0);
+            for (int i = 0; i < OPERATIONS; i++) {
+                char key = (char) random.nextInt(200);
+                short value = (short) random.nextInt(1000);
+                int op = random.nextInt(10);
+                if (op < 6 && !inDomain(config, key)) {
+                    try {
+                        map.put(key, value);
+                        fail();
+                    } catch (IllegalArgumentException e) {
+                        // expected
+                    }
+                } else if (op < 4) {
+                    assertEquals(expected.put(key, value), map.put(key, value));
+                } else if (op < 5) {
+                    assertEquals(expected.putIfAbsent(key, value), map.putIfAbsent(key, value));
+                } else if (op < 6) {
+                    assertEquals(expected.incrementValue(key, value),
+                            map.incrementValue(key, value));
+                } else if (op < 9) {
+                    assertEquals(expected.remove(key), map.remove(key));
+                } else if (random.nextInt(100) == 0) {
+                    expected.clear();
+                    map.clear();
+                }
+                assertEquals(expected.containsKey(key), map.containsKey(key));
+                assertEquals(expected.get(key), map.get(key));
+                assertEquals(expected.getOrDefault(key, (short) 4),
+                        map.getOrDefault(key, (short) 4));
+                assertEquals(expected.size(), map.size());
+            }
+            assertEquals(expected, map.snapshot());
+            final HashCharShortMap forEach = factory.newMutableMap();
+            final int[] count = new int[1];
+            map.forEach(new CharShortConsumer() {
+                @Override
+                public void accept(char key, short value) {
+                    forEach.put(key, value);
+                }
+            });
+            assertEquals(expected, forEach);
+            assertTrue(map.forEachWhile(new CharShortPredicate() {
+                @Override
+                public boolean test(char key, short value) {
+                    return ++count[0] < Integer.MAX_VALUE;
+                }
+            }));
+            assertEquals(map.size(), count[0]);
+        }
+    }
+
+    public void testFullDomain() {
+        DirectCharShortMap map = HashCharShortMaps.newDirectMap();
+        int cardinality = 0;
+        char key = Character.MIN_VALUE;
+        do {
+            assertEquals((short) 0, map.put(key, (short) 1));
+            cardinality++;
+        } while (key++ != Character.MAX_VALUE);
+        assertEquals(cardinality, map.size());
+        assertTrue(map.containsKey(Character.MIN_VALUE));
+        assertTrue(map.containsKey(Character.MAX_VALUE));
+        assertEquals((short) 1, map.remove(Character.MAX_VALUE));
+        assertEquals(cardinality - 1, map.size());
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(Character.MIN_VALUE));
+        assertEquals((short) 0, map.get(Character.MIN_VALUE));
+    }
+
+    public void testEqualsHashCodeToString() {
+        DirectCharShortMap map = HashCharShortMaps.getDefaultFactory()
+                .withConfig(CharHashConfig.DEFAULT.withKeysDomain((char) 10, (char) 100))
+                .newDirectMap();
+        DirectCharShortMap other = HashCharShortMaps.getDefaultFactory()
+                .withDefaultValue((short) 3).newDirectMap();
+        HashCharShortMap expected = HashCharShortMaps.newMutableMap();
+        assertEquals(expected.hashCode(), map.hashCode());
+        assertEquals(expected.toString(), map.toString());
+        assertEquals(map, other);
+        Random random = new Random(0);
+        for (int i = 0; i < 50; i++) {
+            char key = (char) (10 + random.nextInt(91));
+            short value = (short) random.nextInt(1000);
+            map.put(key, value);
+            other.put(key, value);
+            expected.put(key, value);
+        }
+        assertEquals(expected, map.snapshot());
+        assertEquals(expected.hashCode(), map.hashCode());
+        assertEquals(expected.toString().length(), map.toString().length());
+        assertEquals(map, other);
+        assertEquals(other, map);
+        assertEquals(map.hashCode(), other.hashCode());
+        assertEquals(expected, map);
+        assertEquals(map, expected);
+        assertEquals(expected.keySet(), map.keySet());
+        assertEquals(map.entrySet(), expected.entrySet());
+
+        char key = expected.keySet().iterator().next();
+        short value = expected.get(key);
+        other.put(key, (short) (value + 1));
+        assertFalse(map.equals(other));
+        other.remove(key);
+        assertFalse(map.equals(other));
+        other.put(key, value);
+        assertEquals(map, other);
+
+        map.clear();
+        map.put(key, value);
+        expected.clear();
+        expected.put(key, value);
+        assertEquals(expected.toString(), map.toString());
+    }
+
+    public void testKeyOutsideDomain() {
+        DirectCharShortMap map = HashCharShortMaps.getDefaultFactory()
+                .withConfig(CharHashConfig.DEFAULT.withKeysDomain((char) 1, (char) 10))
+                .newDirectMap();
+        try {
+            map.put((char) 11, (short) 1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertFalse(map.containsKey((char) 0));
+        assertEquals((short) 0, map.remove((char) 0));
+        assertTrue(map.isEmpty());
+    }
+
+    public void testCursorAndStats() {
+        DirectCharShortMap map = HashCharShortMaps.getDefaultFactory()
+                .withConfig(CharHashConfig.DEFAULT.withKeysDomain((char) 10, (char) 109))
+                .newDirectMap();
+        assertEquals(1.0f, map.loadFactor(), 0.0f);
+        HashStats emptyStats = map.stats();
+        assertEquals(100, emptyStats.capacity());
+        assertEquals(0, emptyStats.maxProbeLength());
+        assertEquals(0, emptyStats.clusterCount());
+        HashCharShortMap expected = HashCharShortMaps.newMutableMap();
+        for (int i = 11; i < 110; i += 3) {
+            map.put((char) i, (short) i);
+            expected.put((char) i, (short) i);
+        }
+        assertEquals(0.33f, map.currentLoad(), 1e-6f);
+        assertFalse(map.ensureCapacity(1000));
+        assertFalse(map.shrink());
+
+        HashStats stats = map.stats();
+        assertEquals(100, stats.capacity());
+        assertEquals(33, stats.size());
+        assertEquals(67, stats.freeSlots());
+        assertEquals(0, stats.removedSlots());
+        assertEquals(1, stats.maxProbeLength());
+        assertEquals(33, stats.probeLengthHistogram()[1]);
+        assertEquals(1, stats.maxUnsuccessfulProbeLength());
+        assertEquals(33, stats.clusterCount());
+        assertEquals(1, stats.maxClusterSize());
+
+        int count = 0;
+        char previous = (char) 0;
+        for (CharShortCursor cur = map.cursor(); cur.moveNext(); count++) {
+            // slots are traversed from the lower bound of the domain
+            char key = cur.key();
+            assertTrue(key > previous);
+            previous = key;
+            assertEquals(expected.get(key), cur.value());
+            if (key % 2 == 0) {
+                cur.remove();
+                expected.remove(key);
+            } else {
+                cur.setValue((short) 1);
+                expected.put(key, (short) 1);
+            }
+        }
+        assertEquals(33, count);
+        assertEquals(expected, map);
+        assertEquals(expected.size(), map.stats().size());
+        CharShortCursor cur = map.cursor();
+        try {
+            cur.key();
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        while (cur.moveNext()) {
+            cur.remove();
+        }
+        assertFalse(cur.moveNext());
+        assertTrue(map.isEmpty());
+        assertEquals((short) 0, map.get((char) 13));
+    }
+
+    public void testMutableMapOfSmallDomain() throws Exception {
+        HashCharShortMap map = HashCharShortMaps.getDefaultFactory()
+                .withConfig(CharHashConfig.DEFAULT.withKeysDomain((char) 10, (char) 73))
+                .newMutableMap();
+        assertTrue(map instanceof DirectCharShortMap);
+        assertFalse(HashCharShortMaps.getDefaultFactory()
+                .withConfig(CharHashConfig.DEFAULT.withKeysDomain((char) 10, (char) 74))
+                .newMutableMap() instanceof DirectCharShortMap);
+        assertFalse(HashCharShortMaps.newMutableMap() instanceof DirectCharShortMap);
+
+        map.put((char) 10, (short) 1);
+        map.put((char) 73, (short) 2);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(map);
+        out.close();
+        ObjectInputStream in =
+                new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        Object copy = in.readObject();
+        assertTrue(copy instanceof HashCharShortMap);
+        assertEquals(map, copy);
+    }
+
+    private static boolean inDomain(CharHashConfig config, char key) {
+        char lower = config.getLowerKeyDomainBound();
+        char upper = config.getUpperKeyDomainBound();
+        return lower <= upper ? lower <= key && key <= upper : key >= lower || key <= upper;
+    }
+}
@@ -0,0 +1,94 @@
+/* with
+ char|byte|short|int|long key
+ short|byte|char|int|long value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map.hash;
+
+import junit.framework.TestCase;
+import net.openhft.collect.CharHashConfig;
+import net.openhft.collect.CharHashConfigs;
+import net.openhft.function.ShortBinaryOperator;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+
+public class HashCharShortMapBulkBuildTest extends TestCase {
+
+    private static final ShortBinaryOperator FIRST_WINS = new ShortBinaryOperator() {
+        @Override
+        public short applyAsShort(short left, short right) {
+            return left;
+        }
+    };
+
+    private static final ShortBinaryOperator SUM = new ShortBinaryOperator() {
+        @Override
+        public short applyAsShort(short left, short right) {
+            return (short) (left + right);
+        }
+    };
+
+    public void testBuildAgreesWithPuts() {
+        for (CharHashConfig config : CharHashConfigs.all()) {
+            HashCharShortMapFactory factory =
+                    HashCharShortMaps.getDefaultFactory().withConfig(config);
+            Random random = new Random(0);
+            // many duplicates, free and removed value clashes
+            char[] keys = new char[1000];
+            short[] values = new short[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = (char) random.nextInt(100);
+                values[i] = (short) random.nextInt();
+            }
+            Map<Character, Short> lastWins = new HashMap<Character, Short>();
+            Map<Character, Short> firstWins = new HashMap<Character, Short>();
+            Map<Character, Short> sum = new HashMap<Character, Short>();
+            for (int i = 0; i < keys.length; i++) {
+                char key = keys[i];
+                short value = values[i];
+                lastWins.put(key, value);
+                if (!firstWins.containsKey(key))
+                    firstWins.put(key, value);
+                Short prev = sum.get(key);
+                sum.put(key, prev != null ? (short) (prev + value) : value);
+            }
+            assertEquals(lastWins, factory.newMutableMap(keys, values));
+            assertEquals(lastWins, factory.newImmutableMap(keys, values));
+            assertEquals(firstWins, factory.newMutableMap(keys, values, FIRST_WINS));
+            assertEquals(sum, factory.newMutableMap(keys, values, SUM));
+            assertEquals(sum, factory.newImmutableMap(keys, values, SUM));
+
+            HashCharShortMap map = factory.newMutableMap(keys, values, SUM);
+            map.put((char) 100, (short) 1);
+            sum.put((char) 100, (short) 1);
+            assertEquals(sum, map);
+        }
+    }
+
+    public void testDifferentLengthsThrow() {
+        try {
+            HashCharShortMaps.newMutableMap(new char[2], new short[1], SUM);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+}
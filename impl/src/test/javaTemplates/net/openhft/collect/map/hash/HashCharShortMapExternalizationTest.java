@@ -0,0 +1,138 @@
+/* with
+ char|byte|short|int|long key
+ short|byte|char|int|long value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map.hash;
+
+import junit.framework.TestCase;
+
+import java.io.*;
+import java.lang.reflect.Constructor;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Random;
+
+
+public class HashCharShortMapExternalizationTest extends TestCase {
+
+    public void testMutableMap() throws Exception {
+        HashCharShortMap map = HashCharShortMaps.newMutableMap();
+        fill(map);
+        // leave removed slots in the table
+        Random random = new Random(1);
+        for (int i = 0; i < 20; i++) {
+            map.remove((char) random.nextInt());
+        }
+        HashCharShortMap copy = checkRoundTrip(map);
+        copy.put((char) 42, (short) 42);
+        assertEquals((short) 42, copy.get((char) 42));
+    }
+
+    public void testImmutableMap() throws Exception {
+        HashCharShortMap map = HashCharShortMaps.getDefaultFactory()
+                .newImmutableMap(fill(HashCharShortMaps.newMutableMap()));
+        checkRoundTrip(map);
+    }
+
+    public void testMapWithCustomDefaultValue() throws Exception {
+        HashCharShortMap map = HashCharShortMaps.getDefaultFactory()
+                .withDefaultValue((short) 7).newMutableMap();
+        fill(map);
+        HashCharShortMap copy = checkRoundTrip(map);
+        assertEquals((short) 7, copy.defaultValue());
+    }
+
+    private static HashCharShortMap fill(HashCharShortMap map) {
+        Random random = new Random(0);
+        for (int i = 0; i < 100; i++) {
+            map.put((char) random.nextInt(), (short) random.nextInt());
+        }
+        return map;
+    }
+
+    private static HashCharShortMap checkRoundTrip(HashCharShortMap map)
+            throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(map);
+        out.close();
+        ObjectInputStream in =
+                new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        HashCharShortMap copy = (HashCharShortMap) in.readObject();
+        in.close();
+
+        assertEquals(map.getClass(), copy.getClass());
+        assertEquals(map, copy);
+        assertEquals(map.loadFactor(), copy.loadFactor());
+        assertEquals(map.currentLoad(), copy.currentLoad());
+        // the table is restored as is, so the iteration order is the same
+        assertEquals(new ArrayList<Character>(map.keySet()),
+                new ArrayList<Character>(copy.keySet()));
+        return copy;
+    }
+
+    public void testValuesLengthMismatchThrows() throws Exception {
+        HashCharShortMap map = fill(HashCharShortMaps.newMutableMap());
+        // no removed slots, so the load is size / capacity
+        int capacity = Math.round(map.size() / map.currentLoad());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataObjectOutput out = new DataObjectOutput(bytes);
+        ((Externalizable) map).writeExternal(out);
+        out.close();
+        byte[] data = bytes.toByteArray();
+        // the values array is written the last
+        int valuesLengthOffset = data.length - capacity * (Short.SIZE / 8) - 4;
+        assertEquals(capacity, ByteBuffer.wrap(data).getInt(valuesLengthOffset));
+        for (int length : new int[] {capacity - 1, capacity + 1}) {
+            ByteBuffer.wrap(data).putInt(valuesLengthOffset, length);
+            Constructor<?> constructor = map.getClass().getDeclaredConstructor();
+            constructor.setAccessible(true);
+            Externalizable copy = (Externalizable) constructor.newInstance();
+            try {
+                copy.readExternal(new DataObjectInput(new ByteArrayInputStream(data)));
+                fail();
+            } catch (InvalidObjectException expected) {
+                // expected
+            }
+        }
+    }
+
+    /** Externalizes objects to plain bytes, without the serialization stream framing */
+    private static class DataObjectOutput extends DataOutputStream implements ObjectOutput {
+        DataObjectOutput(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void writeObject(Object obj) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class DataObjectInput extends DataInputStream implements ObjectInput {
+        DataObjectInput(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public Object readObject() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
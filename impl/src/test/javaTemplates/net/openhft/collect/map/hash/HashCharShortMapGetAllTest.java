@@ -0,0 +1,76 @@
+/* with
+ char|byte|short|int|long key
+ short|byte|char|int|long value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map.hash;
+
+import junit.framework.TestCase;
+import net.openhft.collect.CharHashConfig;
+import net.openhft.collect.CharHashConfigs;
+
+import java.util.Random;
+
+
+public class HashCharShortMapGetAllTest extends TestCase {
+
+    public void testGetAllAgreesWithGet() {
+        for (CharHashConfig config : CharHashConfigs.all()) {
+            HashCharShortMapFactory factory =
+                    HashCharShortMaps.getDefaultFactory().withConfig(config);
+            HashCharShortMap map = factory.withDefaultValue((short) 7).newMutableMap();
+            Random random = new Random(0);
+            for (int i = 0; i < 100; i++) {
+                map.put((char) random.nextInt(), (short) random.nextInt());
+            }
+            // leave removed slots in the table
+            for (int i = 0; i < 20; i++) {
+                map.remove((char) random.nextInt());
+            }
+            char[] keys = new char[1000];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = (char) random.nextInt();
+            }
+            checkGetAll(map, keys);
+            checkGetAll(factory.newImmutableMap(map), keys);
+        }
+    }
+
+    private static void checkGetAll(HashCharShortMap map, char[] keys) {
+        // a longer array, the tail must stay untouched
+        short[] values = new short[keys.length + 1];
+        map.getAll(keys, values);
+        boolean[] contained = new boolean[keys.length];
+        map.keySet().containsAll(keys, contained);
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(map.get(keys[i]), values[i]);
+            assertEquals(map.containsKey(keys[i]), contained[i]);
+        }
+        assertEquals((short) 0, values[keys.length]);
+    }
+
+    public void testShorterValuesArrayThrows() {
+        HashCharShortMap map = HashCharShortMaps.newMutableMap();
+        try {
+            map.getAll(new char[2], new short[1]);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+}
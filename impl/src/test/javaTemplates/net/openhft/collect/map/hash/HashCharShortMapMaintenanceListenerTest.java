@@ -0,0 +1,125 @@
+/* with
+ char|byte|short|int|long key
+ short|byte|char|int|long value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map.hash;
+
+import junit.framework.TestCase;
+import net.openhft.collect.*;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+
+public class HashCharShortMapMaintenanceListenerTest extends TestCase {
+
+    /** Narrow keys are taken from a part of their domain. */
+    private static final int SIZE =
+            /* if byte key */100/* elif !(byte key) //10000// endif */;
+
+    public void testRehashes() {
+        for (CharHashConfig config : CharHashConfigs.all()) {
+            HashMaintenanceCounters counters = new HashMaintenanceCounters();
+            HashCharShortMapFactory factory = factory(config, counters, 0.0f);
+            HashCharShortMap map = factory.newMutableMap();
+            for (int i = 1; i < SIZE; i++) {
+                map.put((char) i, (short) i);
+            }
+            assertTrue(counters.getGrowthRehashCount() > 0);
+            assertEquals(counters.getRehashCount(), counters.getGrowthRehashCount());
+            assertEquals(map.stats().rehashCount(), counters.getRehashCount());
+            assertEquals(map.stats().capacity(), counters.getMaxCapacity());
+            assertTrue(counters.getMovedEntryCount() > 0);
+            assertTrue(counters.getRehashNanos() >= counters.getMaxRehashNanos());
+
+            counters.reset();
+            map.ensureCapacity(SIZE * 4);
+            assertEquals(1, counters.getEnsureCapacityRehashCount());
+            assertEquals(map.size(), counters.getMovedEntryCount());
+            map.shrink();
+            assertEquals(1, counters.getShrinkRehashCount());
+            assertEquals(2, counters.getRehashCount());
+
+            // the copy, created by the factory, has the listener too
+            counters.reset();
+            factory.newMutableMap(map).ensureCapacity(SIZE * 4);
+            assertEquals(1, counters.getEnsureCapacityRehashCount());
+        }
+    }
+
+    public void testMinLoadShrink() {
+        for (CharHashConfig config : CharHashConfigs.all()) {
+            HashMaintenanceCounters counters = new HashMaintenanceCounters();
+            HashCharShortMap map = factory(config, counters, 0.1f).newMutableMap(SIZE);
+            for (int i = 0; i < SIZE; i++) {
+                map.put((char) i, (short) i);
+            }
+            counters.reset();
+            for (int i = SIZE / 10; i < SIZE; i++) {
+                map.remove((char) i);
+            }
+            assertTrue(counters.getMinLoadShrinkRehashCount() > 0);
+            assertEquals(counters.getRehashCount(), counters.getMinLoadShrinkRehashCount());
+        }
+    }
+
+    public void testFreeValueChange() {
+        HashMaintenanceCounters counters = new HashMaintenanceCounters();
+        // 0 is the free value, if the keys domain excludes it
+        CharHashConfig config = CharHashConfig.DEFAULT.withKeysDomain(
+                /* const key 1 */(char) 1/* endconst */,
+                /* const key max */Character.MAX_VALUE/* endconst */);
+        HashCharShortMap map = factory(config, counters, 0.0f).newMutableMap();
+        map.put((char) 1, (short) 1);
+        assertEquals(0, counters.getFreeValueChangeCount());
+        map.put((char) 0, (short) 0);
+        assertEquals(1, counters.getFreeValueChangeCount());
+        assertEquals(0, counters.getRemovedValueChangeCount());
+        assertTrue(counters.getValueChangeNanos() >= 0);
+    }
+
+    public void testJmxRegistration() throws Exception {
+        HashMaintenanceCounters counters = new HashMaintenanceCounters();
+        ObjectName name = counters.register(getClass().getSimpleName());
+        try {
+            HashCharShortMap map = factory(CharHashConfig.DEFAULT, counters, 0.0f)
+                    .newMutableMap();
+            for (int i = 0; i < SIZE; i++) {
+                map.put((char) i, (short) i);
+            }
+            assertEquals(counters.getRehashCount(), ManagementFactory.getPlatformMBeanServer()
+                    .getAttribute(name, "RehashCount"));
+            try {
+                counters.register(getClass().getSimpleName());
+                fail();
+            } catch (IllegalStateException expected) {
+                // expected
+            }
+        } finally {
+            HashMaintenanceCounters.unregister(name);
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+    private static HashCharShortMapFactory factory(CharHashConfig config,
+            HashMaintenanceListener listener, float minLoad) {
+        return HashCharShortMaps.getDefaultFactory().withConfig(config.withHashConfig(
+                config.getHashConfig().withMaintenanceListener(listener).withMinLoad(minLoad)));
+    }
+}
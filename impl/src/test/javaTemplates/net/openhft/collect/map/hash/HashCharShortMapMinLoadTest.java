@@ -0,0 +1,146 @@
+/* with
+ char|byte|short|int|long key
+ short|byte|char|int|long value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map.hash;
+
+import junit.framework.TestCase;
+import net.openhft.collect.CharHashConfig;
+import net.openhft.collect.CharHashConfigs;
+import net.openhft.collect.HashConfig;
+import net.openhft.collect.impl.hash.Hash;
+import net.openhft.function.CharShortPredicate;
+
+import java.util.Iterator;
+
+
+public class HashCharShortMapMinLoadTest extends TestCase {
+
+    /** Narrow keys are taken from a part of their domain. */
+    private static final int SIZE =
+            /* if byte key */100/* elif !(byte key) //10000// endif */;
+
+    private static final float MIN_LOAD = 0.1f;
+
+    public void testRemoveShrinks() {
+        for (CharHashConfig config : CharHashConfigs.all()) {
+            HashCharShortMap map = newMap(config, MIN_LOAD);
+            int capacity = capacity(map);
+            for (int i = SIZE / 10; i < SIZE; i++) {
+                map.remove((char) i);
+            }
+            assertTrue(capacity(map) < capacity / 2);
+            assertContents(map, SIZE / 10);
+        }
+    }
+
+    public void testRemoveIfShrinks() {
+        for (CharHashConfig config : CharHashConfigs.all()) {
+            HashCharShortMap map = newMap(config, MIN_LOAD);
+            int capacity = capacity(map);
+            assertTrue(map.removeIf(new CharShortPredicate() {
+                @Override
+                public boolean test(char key, short value) {
+                    return key >= (char) (SIZE / 10);
+                }
+            }));
+            assertTrue(capacity(map) < capacity / 2);
+            assertContents(map, SIZE / 10);
+        }
+    }
+
+    public void testShrinkHysteresis() {
+        for (CharHashConfig config : CharHashConfigs.all()) {
+            HashCharShortMap map = newMap(config, MIN_LOAD);
+            int size = SIZE;
+            int capacity = capacity(map);
+            while (capacity(map) == capacity) {
+                map.remove((char) --size);
+            }
+            // the map neither grows back nor shrinks again on the following
+            // insertions and removals of a few keys
+            capacity = capacity(map);
+            for (int i = 0; i < SIZE; i++) {
+                map.put((char) size, (short) size);
+                map.remove((char) size);
+                assertEquals(capacity, capacity(map));
+            }
+            assertContents(map, size);
+        }
+    }
+
+    public void testNoShrinkByDefaultAndByIterator() {
+        for (CharHashConfig config : CharHashConfigs.all()) {
+            HashCharShortMap map = newMap(config, 0.0f);
+            int capacity = capacity(map);
+            for (int i = SIZE / 10; i < SIZE; i++) {
+                map.remove((char) i);
+            }
+            assertEquals(capacity, capacity(map));
+
+            map = newMap(config, MIN_LOAD);
+            capacity = capacity(map);
+            for (Iterator<Character> it = map.keySet().iterator(); it.hasNext();) {
+                if (it.next() >= (char) (SIZE / 10))
+                    it.remove();
+            }
+            assertEquals(capacity, capacity(map));
+            assertContents(map, SIZE / 10);
+        }
+    }
+
+    public void testMinLoadRange() {
+        HashConfig config = HashConfig.DEFAULT.withMinLoad(MIN_LOAD);
+        assertEquals(MIN_LOAD, config.getMinLoad());
+        assertFalse(config.equals(HashConfig.DEFAULT));
+        try {
+            HashConfig.DEFAULT.withMinLoad(HashConfig.DEFAULT.getLoadFactor() / 2);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+        try {
+            config.withLoadFactor(MIN_LOAD * 2);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    private static HashCharShortMap newMap(CharHashConfig config, float minLoad) {
+        config = config.withHashConfig(config.getHashConfig().withMinLoad(minLoad));
+        HashCharShortMap map = HashCharShortMaps.getDefaultFactory().withConfig(config)
+                .newMutableMap();
+        for (int i = 0; i < SIZE; i++) {
+            map.put((char) i, (short) i);
+        }
+        return map;
+    }
+
+    private static int capacity(HashCharShortMap map) {
+        return ((Hash) map).capacity();
+    }
+
+    private static void assertContents(HashCharShortMap map, int size) {
+        assertEquals(size, map.size());
+        for (int i = 0; i < size; i++) {
+            assertEquals((short) i, map.get((char) i));
+        }
+    }
+}
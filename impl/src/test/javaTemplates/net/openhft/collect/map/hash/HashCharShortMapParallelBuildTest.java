@@ -0,0 +1,114 @@
+/* with
+ char|byte|short|int|long key
+ short|byte|char|int|long value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map.hash;
+
+import junit.framework.TestCase;
+import net.openhft.collect.CharHashConfig;
+import net.openhft.collect.CharHashConfigs;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+
+public class HashCharShortMapParallelBuildTest extends TestCase {
+
+    /** Enough to be inserted in parallel, in several rounds. */
+    private static final int SIZE = 300000;
+
+    private ForkJoinPool pool;
+
+    @Override
+    protected void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @Override
+    protected void tearDown() {
+        pool.shutdown();
+    }
+
+    public void testParallelBuildAgreesWithSequential() {
+        Random random = new Random(0);
+        char[] keys = new char[SIZE];
+        short[] values = new short[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            // duplicates, and for narrow keys free value clashes
+            keys[i] = (char) random.nextInt(
+                    /* if byte|char|short key */100/* elif !(byte|char|short key) //SIZE// endif */);
+            values[i] = (short) random.nextInt();
+        }
+        Map<Character, Short> lastWins = new HashMap<Character, Short>();
+        for (int i = 0; i < SIZE; i++) {
+            lastWins.put(keys[i], values[i]);
+        }
+        for (CharHashConfig config : CharHashConfigs.all()) {
+            HashCharShortMapFactory factory =
+                    HashCharShortMaps.getDefaultFactory().withConfig(config);
+            assertTrue(factory instanceof ParallelHashCharShortMapFactory);
+            HashCharShortMap map =
+                    ParallelHashCharShortMaps.newImmutableMap(factory, keys, values, pool);
+            assertEquals(lastWins, map);
+            assertEquals(factory.newImmutableMap(keys, values).currentLoad(),
+                    map.currentLoad());
+        }
+    }
+
+    public void testSameIterationOrderAsSequential() {
+        Random random = new Random(1);
+        char[] keys = new char[SIZE];
+        short[] values = new short[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            keys[i] = (char) random.nextInt(
+                    // all byte values overflow a mutable hash
+                    /* if byte key */200/* elif !(byte key) //Integer.MAX_VALUE// endif */);
+            values[i] = (short) random.nextInt();
+        }
+        // the initial free value, inserted after all other keys in parallel
+        keys[10] = (char) 0;
+        for (CharHashConfig config : CharHashConfigs.all()) {
+            HashCharShortMapFactory factory =
+                    HashCharShortMaps.getDefaultFactory().withConfig(config);
+            HashCharShortMap map =
+                    ParallelHashCharShortMaps.newImmutableMap(factory, keys, values, pool);
+            assertEquals(factory.newImmutableMap(keys, values).toString(), map.toString());
+        }
+    }
+
+    public void testSmallArrays() {
+        char[] keys = {(char) 1, (char) 2, (char) 1};
+        short[] values = {(short) 1, (short) 2, (short) 3};
+        HashCharShortMap map = ParallelHashCharShortMaps.newImmutableMap(keys, values, pool);
+        assertEquals(2, map.size());
+        assertEquals((short) 3, map.get((char) 1));
+        assertEquals((short) 2, map.get((char) 2));
+    }
+
+    public void testDifferentLengthsThrow() {
+        try {
+            ParallelHashCharShortMaps.newImmutableMap(new char[2], new short[1], pool);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/* with
+ char|byte|short|int|long key
+ short|byte|char|int|long value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map.hash;
+
+import junit.framework.TestCase;
+import net.openhft.collect.CharHashConfig;
+import net.openhft.collect.CharHashConfigs;
+import net.openhft.collect.set.hash.ParallelHashCharSet;
+import net.openhft.function.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+public class HashCharShortMapParallelOpsTest extends TestCase {
+
+    /** Enough for the table to be traversed in parallel, for wide keys. */
+    private static final int SIZE = 100000;
+
+    /** Narrow keys are taken from a part of their domain. */
+    private static final int KEYS =
+            /* if byte key */100/* elif char|short key //30000// elif int|long key //SIZE * 10// endif */;
+
+    private ForkJoinPool pool;
+
+    @Override
+    protected void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @Override
+    protected void tearDown() {
+        pool.shutdown();
+    }
+
+    private static final CharShortToShortFunction DECAY = new CharShortToShortFunction() {
+        @Override
+        public short applyAsShort(char key, short value) {
+            return (short) (value / 2);
+        }
+    };
+
+    private static final CharShortPredicate ODD_VALUE = new CharShortPredicate() {
+        @Override
+        public boolean test(char key, short value) {
+            return (value & 1) != 0;
+        }
+    };
+
+    private static final CharPredicate ODD_KEY = new CharPredicate() {
+        @Override
+        public boolean test(char key) {
+            return (key & 1) != 0;
+        }
+    };
+
+    public void testParallelReplaceAll() {
+        for (CharHashConfig config : CharHashConfigs.all()) {
+            ParallelHashCharShortMap map = newMap(config);
+            HashCharShortMap expected = HashCharShortMaps.newMutableMap(map);
+            expected.replaceAll(DECAY);
+            map.parallelReplaceAll(DECAY, pool);
+            assertEquals(expected, map);
+        }
+    }
+
+    public void testParallelRemoveIf() {
+        for (CharHashConfig config : CharHashConfigs.all()) {
+            ParallelHashCharShortMap map = newMap(config);
+            HashCharShortMap expected = HashCharShortMaps.newMutableMap(map);
+            assertEquals(expected.removeIf(ODD_VALUE), map.parallelRemoveIf(ODD_VALUE, pool));
+            assertEquals(expected.size(), map.size());
+            assertEquals(expected, map);
+            assertFalse(map.parallelRemoveIf(ODD_VALUE, pool));
+            // the map remains usable after bulk removal
+            map.put((char) 1, (short) 1);
+            assertEquals((short) 1, map.get((char) 1));
+        }
+    }
+
+    /**
+     * The slots removed before the filter throws stay removed, the size should account
+     * for them.
+     */
+    public void testParallelRemoveIfThrowingFilter() {
+        for (CharHashConfig config : CharHashConfigs.all()) {
+            ParallelHashCharShortMap map = newMap(config);
+            int size = map.size();
+            try {
+                map.parallelRemoveIf(throwingAfter(ODD_VALUE, size / 2), pool);
+                fail();
+            } catch (IllegalStateException expected) {
+                // expected
+            }
+            assertTrue(map.size() < size);
+            assertConsistent(map);
+
+            map = newMap(config);
+            size = map.size();
+            final CharShortPredicate throwing = throwingAfter(ODD_VALUE, size / 2);
+            try {
+                keySet(map).parallelRemoveIf(new CharPredicate() {
+                    @Override
+                    public boolean test(char key) {
+                        return throwing.test(key, (short) key);
+                    }
+                }, pool);
+                fail();
+            } catch (IllegalStateException expected) {
+                // expected
+            }
+            assertTrue(map.size() < size);
+            assertConsistent(map);
+        }
+    }
+
+    public void testKeySetParallelRemoveIf() {
+        for (CharHashConfig config : CharHashConfigs.all()) {
+            ParallelHashCharShortMap map = newMap(config);
+            HashCharShortMap expected = HashCharShortMaps.newMutableMap(map);
+            expected.keySet().removeIf(ODD_KEY);
+            keySet(map).parallelRemoveIf(ODD_KEY, pool);
+            assertEquals(expected, map);
+        }
+    }
+
+    public void testParallelForEach() {
+        for (CharHashConfig config : CharHashConfigs.all()) {
+            ParallelHashCharShortMap map = newMap(config);
+            final AtomicLong count = new AtomicLong(), sum = new AtomicLong();
+            map.parallelForEach(new CharShortConsumer() {
+                @Override
+                public void accept(char key, short value) {
+                    count.incrementAndGet();
+                    sum.addAndGet(key + value);
+                }
+            }, pool);
+            final long[] expected = new long[2];
+            map.forEach(new CharShortConsumer() {
+                @Override
+                public void accept(char key, short value) {
+                    expected[0]++;
+                    expected[1] += key + value;
+                }
+            });
+            assertEquals(expected[0], count.get());
+            assertEquals(expected[1], sum.get());
+
+            final AtomicLong keyCount = new AtomicLong();
+            keySet(map).parallelForEach(new CharConsumer() {
+                @Override
+                public void accept(char key) {
+                    keyCount.incrementAndGet();
+                }
+            }, pool);
+            assertEquals(map.size(), keyCount.get());
+        }
+    }
+
+    public void testParallelForEachWhile() {
+        for (CharHashConfig config : CharHashConfigs.all()) {
+            ParallelHashCharShortMap map = newMap(config);
+            assertTrue(map.parallelForEachWhile(new CharShortPredicate() {
+                @Override
+                public boolean test(char key, short value) {
+                    return true;
+                }
+            }, pool));
+            final char someKey = map.keySet().iterator().next();
+            assertFalse(map.parallelForEachWhile(new CharShortPredicate() {
+                @Override
+                public boolean test(char key, short value) {
+                    return key != someKey;
+                }
+            }, pool));
+            assertFalse(keySet(map).parallelForEachWhile(new CharPredicate() {
+                @Override
+                public boolean test(char key) {
+                    return key != someKey;
+                }
+            }, pool));
+        }
+    }
+
+    public void testImmutableMapParallelReplaceAllThrows() {
+        ParallelHashCharShortMap map = (ParallelHashCharShortMap)
+                HashCharShortMaps.newImmutableMap(newMap(CharHashConfig.DEFAULT));
+        try {
+            map.parallelReplaceAll(DECAY, pool);
+            fail();
+        } catch (UnsupportedOperationException expected) {
+            // expected
+        }
+    }
+
+    private static CharShortPredicate throwingAfter(
+            final CharShortPredicate filter, final int calls) {
+        final AtomicInteger count = new AtomicInteger();
+        return new CharShortPredicate() {
+            @Override
+            public boolean test(char key, short value) {
+                if (count.incrementAndGet() > calls)
+                    throw new IllegalStateException();
+                return filter.test(key, value);
+            }
+        };
+    }
+
+    private static void assertConsistent(HashCharShortMap map) {
+        final int[] entries = new int[1];
+        map.forEach(new CharShortConsumer() {
+            @Override
+            public void accept(char key, short value) {
+                entries[0]++;
+            }
+        });
+        assertEquals(entries[0], map.size());
+        HashCharShortMap copy = HashCharShortMaps.newMutableMap(map);
+        assertEquals(copy, map);
+        // removed slots are counted, so insertions and rehashes work as usual
+        int keys = Math.min(KEYS, SIZE / 10);
+        for (int i = 0; i < keys; i++) {
+            map.put((char) i, (short) i);
+        }
+        for (int i = 0; i < keys; i++) {
+            assertEquals((short) i, map.get((char) i));
+        }
+        assertTrue(map.size() >= keys);
+    }
+
+    private static ParallelHashCharSet keySet(HashCharShortMap map) {
+        return (ParallelHashCharSet) map.keySet();
+    }
+
+    private static ParallelHashCharShortMap newMap(CharHashConfig config) {
+        ParallelHashCharShortMap map = (ParallelHashCharShortMap)
+                HashCharShortMaps.getDefaultFactory().withConfig(config).newMutableMap();
+        Random random = new Random(0);
+        for (int i = 0; i < SIZE; i++) {
+            map.put((char) random.nextInt(KEYS), (short) random.nextInt());
+        }
+        // leave removed slots in the table
+        for (int i = 0; i < KEYS / 10; i++) {
+            map.remove((char) random.nextInt(KEYS));
+        }
+        return map;
+    }
+}
@@ -0,0 +1,192 @@
+/* with
+ char|byte|short|int|long key
+ short|byte|char|int|long value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map.hash;
+
+import junit.framework.TestCase;
+import net.openhft.collect.*;
+import net.openhft.collect.set.hash.HashCharSet;
+import net.openhft.collect.set.hash.HashCharSets;
+
+import java.io.*;
+import java.util.Random;
+
+
+public class HashCharShortMapPerfectHashingTest extends TestCase {
+
+    /** Narrow keys are taken from a part of their domain. */
+    private static final int SIZE =
+            /* if byte key */200/* elif !(byte key) //10000// endif */;
+
+    public void testLookups() {
+        for (CharHashConfig config : CharHashConfigs.all()) {
+            HashCharShortMap source = randomMap(SIZE, new Random(0));
+            HashCharShortMap map = factory(config).newImmutableMap(source);
+            assertEquals(source.size(), map.size());
+            assertEquals(map.size(), map.stats().capacity());
+            assertEquals(1.0f, map.loadFactor());
+            assertEquals(0, map.stats().freeSlots());
+            assertEquals(1, map.stats().maxProbeLength());
+            assertEquals(source, map);
+            assertEquals(map, source);
+            assertEquals(source.hashCode(), map.hashCode());
+            for (char key : source.keySet()) {
+                assertTrue(map.containsKey(key));
+                assertEquals(source.get(key), map.get(key));
+            }
+            Random random = new Random(1);
+            for (int i = 0; i < SIZE; i++) {
+                char key = (char) random.nextInt();
+                assertEquals(source.containsKey(key), map.containsKey(key));
+                assertEquals(source.get(key), map.get(key));
+            }
+            try {
+                map.put((char) 1, (short) 1);
+                fail();
+            } catch (UnsupportedOperationException expected) {
+                // expected
+            }
+        }
+    }
+
+    public void testSmallAndEmptyMaps() {
+        HashCharShortMapFactory factory = factory(CharHashConfig.DEFAULT);
+        assertTrue(factory.newImmutableMap(HashCharShortMaps.newMutableMap()).isEmpty());
+        HashCharShortMap map = factory.newImmutableMapOf((char) 3, (short) 4);
+        assertEquals(1, map.stats().capacity());
+        assertEquals((short) 4, map.get((char) 3));
+        assertFalse(map.containsKey((char) 4));
+    }
+
+    public void testMapWithRemovals() {
+        HashCharShortMap source = HashCharShortMaps.newMutableMap();
+        source.put((char) 1, (short) 1);
+        source.put((char) 2, (short) 2);
+        source.remove((char) 1);
+        HashCharShortMap map = factory(CharHashConfig.DEFAULT).newImmutableMap(source);
+        assertEquals(1, map.stats().capacity());
+        assertEquals(source, map);
+        assertEquals(source.toString(), map.toString());
+
+        source = randomMap(SIZE, new Random(0));
+        HashCharSet removed = HashCharSets.newMutableSet();
+        for (char key : source.keySet().toCharArray()) {
+            if ((key & 1) == 0) {
+                source.remove(key);
+                removed.add(key);
+            }
+        }
+        HashCharShortMap plain = HashCharShortMaps.newImmutableMap(source);
+        assertEquals(source, plain);
+        assertEquals(source.size(), plain.keySet().toCharArray().length);
+        for (CharHashConfig config : CharHashConfigs.all()) {
+            map = factory(config).newImmutableMap(source);
+            assertEquals(source.size(), map.stats().capacity());
+            assertEquals(source, map);
+            for (char key : removed) {
+                assertFalse(map.containsKey(key));
+            }
+        }
+        HashCharSet set = HashCharSets.getDefaultFactory()
+                .withConfig(CharHashConfig.DEFAULT.withHashConfig(
+                        HashConfig.DEFAULT.withPerfectHashing(true)))
+                .newImmutableSet(source.keySet());
+        assertEquals(source.size(), set.stats().capacity());
+        assertEquals(source.keySet(), set);
+    }
+
+    public void testCustomDefaultValue() {
+        HashCharShortMap map = factory(CharHashConfig.DEFAULT).withDefaultValue((short) 7)
+                .newImmutableMap(randomMap(SIZE, new Random(0)));
+        assertEquals(map.size(), map.stats().capacity());
+        char absent = (char) 0;
+        while (map.containsKey(absent)) absent++;
+        assertEquals((short) 7, map.get(absent));
+    }
+
+    public void testMutableCopy() {
+        HashCharShortMap map = factory(CharHashConfig.DEFAULT)
+                .newImmutableMap(randomMap(SIZE, new Random(0)));
+        HashCharShortMap copy = HashCharShortMaps.newMutableMap(map);
+        assertEquals(map, copy);
+        assertTrue(copy.stats().freeSlots() > 0);
+        char absent = (char) 0;
+        while (map.containsKey(absent)) absent++;
+        copy.put(absent, (short) 1);
+        assertEquals((short) 1, copy.get(absent));
+    }
+
+    public void testSet() {
+        HashCharShortMap source = randomMap(SIZE, new Random(0));
+        HashCharSet set = HashCharSets.getDefaultFactory()
+                .withConfig(CharHashConfig.DEFAULT.withHashConfig(
+                        HashConfig.DEFAULT.withPerfectHashing(true)))
+                .newImmutableSet(source.keySet());
+        assertEquals(set.size(), set.stats().capacity());
+        assertEquals(source.keySet(), set);
+        Random random = new Random(1);
+        for (int i = 0; i < SIZE; i++) {
+            char key = (char) random.nextInt();
+            assertEquals(source.containsKey(key), set.contains(key));
+        }
+    }
+
+    public void testSameLayoutInEveryBuild() {
+        HashCharShortMap source = randomMap(SIZE, new Random(0));
+        HashCharShortMapFactory factory = factory(CharHashConfig.DEFAULT);
+        HashCharShortMap map = factory.newImmutableMap(source);
+        // the function is seeded deterministically, so is the iteration order
+        assertEquals(map.toString(), factory.newImmutableMap(source).toString());
+        assertEquals(map.toString(),
+                factory.newImmutableMap(HashCharShortMaps.newMutableMap(map)).toString());
+    }
+
+    public void testExternalization() throws Exception {
+        HashCharShortMap map = factory(CharHashConfig.DEFAULT)
+                .newImmutableMap(randomMap(SIZE, new Random(0)));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(map);
+        out.close();
+        ObjectInputStream in =
+                new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        HashCharShortMap copy = (HashCharShortMap) in.readObject();
+        in.close();
+        assertEquals(map, copy);
+        assertEquals(map.toString(), copy.toString());
+        assertEquals(copy.size(), copy.stats().capacity());
+        for (char key : map.keySet()) {
+            assertEquals(map.get(key), copy.get(key));
+        }
+    }
+
+    private static HashCharShortMap randomMap(int size, Random random) {
+        HashCharShortMap map = HashCharShortMaps.newMutableMap();
+        while (map.size() < size) {
+            map.put((char) random.nextInt(), (short) random.nextInt());
+        }
+        return map;
+    }
+
+    private static HashCharShortMapFactory factory(CharHashConfig config) {
+        return HashCharShortMaps.getDefaultFactory().withConfig(config.withHashConfig(
+                config.getHashConfig().withPerfectHashing(true)));
+    }
+}
@@ -0,0 +1,154 @@
+/* with
+ char|byte|short|int|long key
+ short|byte|char|int|long value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map.hash;
+
+import junit.framework.TestCase;
+import net.openhft.collect.CharSpliterator;
+import net.openhft.collect.ObjSpliterator;
+import net.openhft.collect.ShortSpliterator;
+import net.openhft.function.CharConsumer;
+import net.openhft.function.Consumer;
+import net.openhft.function.ShortConsumer;
+
+import java.util.*;
+
+
+public class HashCharShortMapSpliteratorTest extends TestCase {
+
+    public void testKeySpliteratorSplitsAllKeys() {
+        HashCharShortMap map = newMapWithRemovedSlots();
+        CharSpliterator root = map.keySet().charSpliterator();
+        assertEquals(map.size(), root.getExactSizeIfKnown());
+        List<CharSpliterator> parts = new ArrayList<CharSpliterator>();
+        parts.add(root);
+        for (int i = 0; i < parts.size() && parts.size() < 16; i++) {
+            CharSpliterator part = parts.get(i).trySplit();
+            if (part != null) {
+                parts.add(part);
+                assertEquals(-1, part.getExactSizeIfKnown());
+            }
+        }
+        assertTrue(parts.size() > 1);
+        final List<Character> keys = new ArrayList<Character>();
+        CharConsumer collect = new CharConsumer() {
+            @Override
+            public void accept(char key) {
+                keys.add(key);
+            }
+        };
+        for (CharSpliterator part : parts) {
+            // mix single steps and bulk traversal
+            part.tryAdvance(collect);
+            part.forEachRemaining(collect);
+            assertFalse(part.tryAdvance(collect));
+            assertEquals(0, part.estimateSize());
+        }
+        assertEquals(map.size(), keys.size());
+        assertEquals(map.keySet(), new HashSet<Character>(keys));
+    }
+
+    public void testValueSpliterator() {
+        HashCharShortMap map = newMapWithRemovedSlots();
+        ShortSpliterator first = map.values().shortSpliterator();
+        ShortSpliterator second = first.trySplit();
+        final List<Short> values = new ArrayList<Short>();
+        ShortConsumer collect = new ShortConsumer() {
+            @Override
+            public void accept(short value) {
+                values.add(value);
+            }
+        };
+        first.forEachRemaining(collect);
+        second.forEachRemaining(collect);
+        List<Short> expected = new ArrayList<Short>(map.values());
+        Collections.sort(expected);
+        Collections.sort(values);
+        assertEquals(expected, values);
+    }
+
+    public void testEntrySpliterator() {
+        HashCharShortMap map = newMapWithRemovedSlots();
+        ObjSpliterator<Map.Entry<Character, Short>> first = map.entrySet().objSpliterator();
+        ObjSpliterator<Map.Entry<Character, Short>> second = first.trySplit();
+        final Map<Character, Short> entries = new HashMap<Character, Short>();
+        Consumer<Map.Entry<Character, Short>> collect =
+                new Consumer<Map.Entry<Character, Short>>() {
+            @Override
+            public void accept(Map.Entry<Character, Short> e) {
+                assertNull(entries.put(e.getKey(), e.getValue()));
+            }
+        };
+        first.forEachRemaining(collect);
+        second.forEachRemaining(collect);
+        assertEquals(map, entries);
+    }
+
+    public void testModificationDuringTraversalThrows() {
+        final HashCharShortMap map = newMapWithRemovedSlots();
+        try {
+            map.keySet().charSpliterator().forEachRemaining(new CharConsumer() {
+                @Override
+                public void accept(char key) {
+                    map.remove(key);
+                }
+            });
+            fail();
+        } catch (ConcurrentModificationException expected) {
+            // expected
+        }
+    }
+
+    /* if JDK8 jdk */
+    public void testJdkSpliteratorsBackStreams() {
+        HashCharShortMap map = newMapWithRemovedSlots();
+        Spliterator<Character> keys = map.keySet().spliterator();
+        assertTrue(keys.hasCharacteristics(
+                Spliterator.SIZED | Spliterator.DISTINCT | Spliterator.NONNULL));
+        assertEquals(map.size(), keys.getExactSizeIfKnown());
+        assertEquals(map.keySet(), java.util.stream.StreamSupport.stream(keys, true)
+                .collect(java.util.stream.Collectors.toSet()));
+
+        Spliterator<Short> values = map.values().spliterator();
+        assertFalse(values.hasCharacteristics(Spliterator.DISTINCT));
+        List<Short> expectedValues = new ArrayList<Short>(map.values());
+        List<Short> streamedValues = java.util.stream.StreamSupport.stream(values, true)
+                .collect(java.util.stream.Collectors.toList());
+        Collections.sort(expectedValues);
+        Collections.sort(streamedValues);
+        assertEquals(expectedValues, streamedValues);
+
+        assertEquals(map, map.entrySet().parallelStream().collect(
+                java.util.stream.Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+    }
+    /* endif */
+
+    private static HashCharShortMap newMapWithRemovedSlots() {
+        HashCharShortMap map = HashCharShortMaps.newMutableMap();
+        Random random = new Random(0);
+        for (int i = 0; i < 100; i++) {
+            map.put((char) random.nextInt(), (short) random.nextInt());
+        }
+        for (int i = 0; i < 20; i++) {
+            map.remove((char) random.nextInt());
+        }
+        return map;
+    }
+}
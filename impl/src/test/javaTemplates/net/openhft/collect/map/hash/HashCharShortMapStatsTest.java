@@ -0,0 +1,143 @@
+/* with
+ char|byte|short|int|long key
+ short|byte|char|int|long value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map.hash;
+
+import junit.framework.TestCase;
+import net.openhft.collect.*;
+import net.openhft.collect.impl.hash.Hash;
+
+import java.util.Random;
+
+
+public class HashCharShortMapStatsTest extends TestCase {
+
+    /** Narrow keys are taken from a part of their domain. */
+    private static final int SIZE =
+            /* if byte key */100/* elif !(byte key) //10000// endif */;
+
+    public void testStatsMatchTable() {
+        for (CharHashConfig config : CharHashConfigs.all()) {
+            HashCharShortMap map = HashCharShortMaps.getDefaultFactory().withConfig(config)
+                    .newMutableMap();
+            Random random = new Random(0);
+            for (int i = 0; i < SIZE; i++) {
+                map.put((char) random.nextInt(), (short) i);
+            }
+            for (int i = 0; i < SIZE / 4; i++) {
+                map.remove((char) random.nextInt());
+                map.remove(map.keySet().iterator().next());
+            }
+            HashStats stats = map.stats();
+            Hash hash = (Hash) map;
+            assertEquals(hash.capacity(), stats.capacity());
+            assertEquals(map.size(), stats.size());
+            assertEquals(hash.freeSlots(), stats.freeSlots());
+            assertEquals(hash.removedSlots(), stats.removedSlots());
+            assertEquals(((double) stats.removedSlots()) / stats.capacity(),
+                    stats.removedRatio());
+
+            int[] histogram = stats.probeLengthHistogram();
+            assertEquals(stats.maxProbeLength() + 1, histogram.length);
+            assertEquals(0, histogram[0]);
+            assertTrue(histogram[histogram.length - 1] > 0);
+            long keys = 0L, probeLengthSum = 0L;
+            for (int probeLength = 0; probeLength < histogram.length; probeLength++) {
+                keys += histogram[probeLength];
+                probeLengthSum += (long) probeLength * histogram[probeLength];
+            }
+            assertEquals(map.size(), keys);
+            assertEquals(((double) probeLengthSum) / keys, stats.meanProbeLength(), 1e-9);
+
+            assertTrue(stats.meanUnsuccessfulProbeLength() >= 1.0);
+            assertTrue(stats.maxUnsuccessfulProbeLength() >= stats.meanUnsuccessfulProbeLength());
+            assertTrue(stats.clusterCount() > 0);
+            assertEquals(stats.capacity() - stats.freeSlots(),
+                    stats.clusterCount() * stats.meanClusterSize(), 1e-6);
+            assertTrue(stats.maxClusterSize() >= stats.meanClusterSize());
+
+            HashStats keySetStats = map.keySet().stats();
+            assertEquals(stats.size(), keySetStats.size());
+            assertEquals(stats.maxProbeLength(), keySetStats.maxProbeLength());
+            assertEquals(stats.size(), map.entrySet().stats().size());
+        }
+    }
+
+    public void testProbeLengthsOfKeysInHomeSlots() {
+        for (HashAlgorithm algorithm : HashAlgorithm.values()) {
+            // unmixed keys 0..size-1 take their home slots
+            int size = 50;
+            HashCharShortMap map = HashCharShortMaps.getDefaultFactory()
+                    .withConfig(CharHashConfig.DEFAULT.withHashConfig(HashConfig.DEFAULT
+                            .withAlgorithm(algorithm).withKeyMixing(KeyMixing.NONE)))
+                    .newMutableMap(size);
+            for (int i = 0; i < size; i++) {
+                map.put((char) i, (short) i);
+            }
+            HashStats stats = map.stats();
+            int capacity = stats.capacity();
+            assertEquals(size, stats.probeLengthHistogram()[1]);
+            assertEquals(1, stats.maxProbeLength());
+            assertEquals(1.0, stats.meanProbeLength());
+            assertEquals(1, stats.clusterCount());
+            assertEquals(size, stats.maxClusterSize());
+            if (algorithm == HashAlgorithm.LINEAR_PROBING) {
+                // a lookup from the slot i reads the slots i, i - 1, ..., 0 and the last slot
+                assertEquals(size + 1, stats.maxUnsuccessfulProbeLength());
+                double sum = capacity - size + (size + 3) * size / 2.0;
+                assertEquals(sum / capacity, stats.meanUnsuccessfulProbeLength(), 1e-9);
+            } else if (algorithm == HashAlgorithm.ROBIN_HOOD_HASHING) {
+                // a lookup stops on the second slot, the key in it is in its home slot
+                assertEquals(2, stats.maxUnsuccessfulProbeLength());
+                assertEquals(((double) (capacity + size)) / capacity,
+                        stats.meanUnsuccessfulProbeLength(), 1e-9);
+            }
+        }
+    }
+
+    public void testCounters() {
+        for (CharHashConfig config : CharHashConfigs.all()) {
+            HashCharShortMapFactory factory =
+                    HashCharShortMaps.getDefaultFactory().withConfig(config);
+            HashCharShortMap map = factory.newMutableMap();
+            assertEquals(0, map.stats().rehashCount());
+            for (int i = 1; i < SIZE; i++) {
+                map.put((char) i, (short) i);
+            }
+            assertTrue(map.stats().rehashCount() > 0);
+            assertEquals(0, factory.newMutableMap(map).stats().rehashCount());
+            HashStats immutableStats = factory.newImmutableMap(map).stats();
+            assertEquals(map.size(), immutableStats.size());
+            assertEquals(0, immutableStats.removedSlots());
+            assertEquals(0, immutableStats.rehashCount());
+        }
+        // 0 is the free value, if the keys domain excludes it
+        HashCharShortMap map = HashCharShortMaps.getDefaultFactory()
+                .withConfig(CharHashConfig.DEFAULT.withKeysDomain(
+                        /* const key 1 */(char) 1/* endconst */,
+                        /* const key max */Character.MAX_VALUE/* endconst */))
+                .newMutableMap();
+        map.put((char) 1, (short) 1);
+        assertEquals(0, map.stats().freeValueChangeCount());
+        map.put((char) 0, (short) 0);
+        assertEquals(1, map.stats().freeValueChangeCount());
+        assertEquals(0, map.stats().removedValueChangeCount());
+    }
+}
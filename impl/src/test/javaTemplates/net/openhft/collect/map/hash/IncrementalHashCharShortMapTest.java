@@ -0,0 +1,277 @@
+/* with
+ char|byte|short|int|long key
+ short|byte|char|int|long value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map.hash;
+
+import junit.framework.TestCase;
+import net.openhft.collect.CharHashConfig;
+import net.openhft.collect.CharHashConfigs;
+import net.openhft.collect.CharSpliterator;
+import net.openhft.collect.HashMaintenanceCounters;
+import net.openhft.collect.map.CharShortCursor;
+import net.openhft.function.*;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+
+public class IncrementalHashCharShortMapTest extends TestCase {
+
+    private static final int OPERATIONS = 100000;
+
+    /** Narrow keys are taken from a part of their domain. */
+    private static final int KEYS =
+            /* if byte key */100/* elif char|short key //30000// elif int|long key //OPERATIONS// endif */;
+
+    public void testRandomOperations() {
+        for (CharHashConfig config : CharHashConfigs.all()) {
+            HashCharShortMapFactory factory =
+                    HashCharShortMaps.getDefaultFactory().withConfig(config);
+            IncrementalHashCharShortMap map = factory.newIncrementalMap();
+            HashCharShortMap expected = factory.newMutableMap();
+            boolean rehashed = false;
+            Random random = new Random(0);
+            for (int i = 0; i < OPERATIONS; i++) {
+                char key = (char) random.nextInt(KEYS);
+                short value = (short) random.nextInt();
+                int op = random.nextInt(10);
+                if (op < 5) {
+                    assertEquals(expected.put(key, value), map.put(key, value));
+                } else if (op < 6) {
+                    assertEquals(expected.putIfAbsent(key, value), map.putIfAbsent(key, value));
+                } else if (op < 7) {
+                    assertEquals(expected.incrementValue(key, value),
+                            map.incrementValue(key, value));
+                } else if (op < 9) {
+                    assertEquals(expected.remove(key), map.remove(key));
+                } else {
+                    assertEquals(expected.containsKey(key), map.containsKey(key));
+                }
+                assertEquals(expected.get(key), map.get(key));
+                assertEquals(expected.size(), map.size());
+                rehashed |= map.isRehashing();
+            }
+            assertTrue(rehashed);
+            assertEquals(expected, map.snapshot());
+            map.finishRehash();
+            assertFalse(map.isRehashing());
+            assertEquals(expected, map.snapshot());
+        }
+    }
+
+    public void testLookupsConsultBothTables() {
+        IncrementalHashCharShortMap map = HashCharShortMaps.newIncrementalMap();
+        int size = 0;
+        while (!map.isRehashing()) {
+            map.put((char) size, (short) size);
+            size++;
+        }
+        final long[] sums = new long[2];
+        map.forEach(new CharShortConsumer() {
+            @Override
+            public void accept(char key, short value) {
+                sums[0]++;
+                sums[1] += key;
+            }
+        });
+        assertEquals(size, sums[0]);
+        assertEquals((long) size * (size - 1) / 2, sums[1]);
+        for (int i = 0; i < size; i++) {
+            assertEquals((short) i, map.get((char) i));
+        }
+        assertFalse(map.forEachWhile(new CharShortPredicate() {
+            @Override
+            public boolean test(char key, short value) {
+                return key != (char) 0;
+            }
+        }));
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.isRehashing());
+        assertFalse(map.containsKey((char) 0));
+    }
+
+    public void testMapOperationsWhileRehashing() {
+        HashCharShortMapFactory factory = HashCharShortMaps.getDefaultFactory();
+        IncrementalHashCharShortMap map = factory.newIncrementalMap();
+        HashCharShortMap expected = factory.newMutableMap();
+        int size = 0;
+        while (!map.isRehashing()) {
+            map.put((char) size, (short) size);
+            expected.put((char) size, (short) size);
+            size++;
+        }
+        assertEquals(expected, map);
+        assertEquals(map, expected);
+        assertEquals(expected.hashCode(), map.hashCode());
+        assertEquals(expected.toString().length(), map.toString().length());
+        assertEquals(expected.keySet(), map.keySet());
+        assertEquals(map.keySet(), expected.keySet());
+        assertEquals(expected.entrySet(), map.entrySet());
+        assertEquals(expected.values().size(), map.values().toShortArray().length);
+
+        // the cursor traverses both tables and doesn't advance the migration
+        int count = 0;
+        for (CharShortCursor cur = map.cursor(); cur.moveNext(); count++) {
+            assertEquals(expected.get(cur.key()), cur.value());
+            short value = (short) (cur.value() + 1);
+            cur.setValue(value);
+            expected.put(cur.key(), value);
+        }
+        assertEquals(size, count);
+        assertTrue(map.isRehashing());
+        assertEquals(expected, map);
+
+        CharSpliterator spliterator = map.keySet().charSpliterator();
+        CharSpliterator prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+        assertEquals(size, prefix.estimateSize() + spliterator.estimateSize());
+
+        /*f*/CharShortToShortFunction remapping = new /*f*/CharShortToShortFunction() {
+            @Override
+            public short applyAsShort(char key, short value) {
+                return (short) (key + value);
+            }
+        };
+        /*f*/CharToShortFunction mapping = new /*f*/CharToShortFunction() {
+            @Override
+            public short applyAsShort(char key) {
+                return (short) (key * 3);
+            }
+        };
+        /*f*/ShortBinaryOperator merging = new /*f*/ShortBinaryOperator() {
+            @Override
+            public short applyAsShort(short left, short right) {
+                return (short) (left - right);
+            }
+        };
+        Random random = new Random(0);
+        for (int i = 0; i < size; i++) {
+            char key = (char) random.nextInt(size * 2);
+            short value = (short) random.nextInt(1000);
+            switch (random.nextInt(7)) {
+                case 0:
+                    assertEquals(expected.compute(key, remapping), map.compute(key, remapping));
+                    break;
+                case 1:
+                    assertEquals(expected.computeIfAbsent(key, mapping),
+                            map.computeIfAbsent(key, mapping));
+                    break;
+                case 2:
+                    assertEquals(expected.computeIfPresent(key, remapping),
+                            map.computeIfPresent(key, remapping));
+                    break;
+                case 3:
+                    assertEquals(expected.merge(key, value, merging),
+                            map.merge(key, value, merging));
+                    break;
+                case 4:
+                    assertEquals(expected.replace(key, value), map.replace(key, value));
+                    break;
+                case 5:
+                    short oldValue = expected.get(key);
+                    assertEquals(expected.replace(key, oldValue, value),
+                            map.replace(key, oldValue, value));
+                    break;
+                default:
+                    assertEquals(expected.remove(key, value), map.remove(key, value));
+            }
+            assertEquals(expected.get(key), map.get(key));
+            assertEquals(expected.size(), map.size());
+        }
+        assertEquals(expected, map);
+
+        // removals through the views
+        CharPredicate filter = new CharPredicate() {
+            @Override
+            public boolean test(char key) {
+                return key % 3 == 0;
+            }
+        };
+        assertEquals(expected.keySet().removeIf(filter), map.keySet().removeIf(filter));
+        Iterator<Map.Entry<Character, Short>> it = map.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Character, Short> e = it.next();
+            if (e.getKey() % 2 == 0) {
+                it.remove();
+                expected.remove(e.getKey());
+            } else {
+                e.setValue((short) (e.getValue() + 1));
+                expected.put(e.getKey(), e.getValue());
+            }
+        }
+        assertEquals(expected, map);
+        assertEquals(expected.keySet(), map.keySet());
+
+        map.finishRehash();
+        assertTrue(map.ensureCapacity(map.size() * 4));
+        // ensureCapacity() starts the migration, but doesn't move the entries at once
+        assertTrue(map.isRehashing());
+        assertEquals(expected, map);
+        assertFalse(map.ensureCapacity(map.size() * 2));
+        assertTrue(map.shrink());
+        assertFalse(map.isRehashing());
+        assertEquals(expected, map);
+    }
+
+    public void testMinLoadShrinkIsIncremental() {
+        for (CharHashConfig config : CharHashConfigs.all()) {
+            HashMaintenanceCounters counters = new HashMaintenanceCounters();
+            HashCharShortMapFactory factory = HashCharShortMaps.getDefaultFactory()
+                    .withConfig(config.withHashConfig(config.getHashConfig()
+                            .withMaintenanceListener(counters).withMinLoad(0.1f)));
+            IncrementalHashCharShortMap map = factory.newIncrementalMap();
+            for (int i = 0; i < KEYS; i++) {
+                map.put((char) i, (short) i);
+            }
+            map.finishRehash();
+            int filledCapacity = map.snapshot().stats().capacity();
+            counters.reset();
+            boolean shrinking = false;
+            for (int i = KEYS / 10; i < KEYS; i++) {
+                assertEquals((short) i, map.remove((char) i));
+                assertEquals(KEYS - (i - KEYS / 10) - 1, map.size());
+                shrinking |= map.isRehashing();
+            }
+            // the entries are moved by the migration, a few per removal, no removal
+            // rebuilds a table at once
+            assertEquals(0, counters.getRehashCount());
+            assertEquals(0, counters.getMovedEntryCount());
+            assertTrue(shrinking);
+            map.finishRehash();
+            HashCharShortMap snapshot = map.snapshot();
+            assertTrue(snapshot.stats().capacity() < filledCapacity);
+            assertEquals(KEYS / 10, snapshot.size());
+            for (int i = 0; i < KEYS / 10; i++) {
+                assertEquals((short) i, map.get((char) i));
+            }
+        }
+    }
+
+    public void testDefaultValue() {
+        IncrementalHashCharShortMap map = HashCharShortMaps.getDefaultFactory()
+                .withDefaultValue((short) 1).newIncrementalMap(0);
+        assertEquals((short) 1, map.defaultValue());
+        assertEquals((short) 1, map.get((char) 0));
+        assertEquals((short) 1, map.remove((char) 0));
+        assertEquals((short) 2, map.getOrDefault((char) 0, (short) 2));
+    }
+}
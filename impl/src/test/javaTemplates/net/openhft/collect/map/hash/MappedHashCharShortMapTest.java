@@ -0,0 +1,196 @@
+/* with
+ char|byte|short|int|long key
+ short|byte|char|int|long value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map.hash;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+
+public class MappedHashCharShortMapTest extends TestCase {
+
+    private File file;
+
+    @Override
+    protected void setUp() throws IOException {
+        file = File.createTempFile("MappedHashCharShortMapTest", ".map");
+    }
+
+    @Override
+    protected void tearDown() {
+        file.delete();
+    }
+
+    public void testWriteAndOpenHashMap() throws IOException {
+        HashCharShortMap map = HashCharShortMaps.newMutableMap();
+        fill(map);
+        checkWriteAndOpen(map);
+    }
+
+    public void testWriteAndOpenOtherMap() throws IOException {
+        Map<Character, Short> map = new HashMap<Character, Short>();
+        fill(map);
+        checkWriteAndOpen(map);
+    }
+
+    private static void fill(Map<Character, Short> map) {
+        Random random = new Random(0);
+        for (int i = 0; i < 100; i++) {
+            map.put((char) random.nextInt(), (short) random.nextInt());
+        }
+        map.put((char) 0, (short) 1);
+    }
+
+    private void checkWriteAndOpen(Map<Character, Short> map) throws IOException {
+        MappedHashCharShortMap written = HashCharShortMaps.newMappedMap(file, map);
+        try {
+            checkEntries(map, written);
+        } finally {
+            written.close();
+        }
+        MappedHashCharShortMap opened = HashCharShortMaps.openMappedMap(file);
+        try {
+            checkEntries(map, opened);
+            assertEquals(map.size(), opened.snapshot().size());
+        } finally {
+            opened.close();
+        }
+    }
+
+    private static void checkEntries(Map<Character, Short> expected,
+            MappedHashCharShortMap map) {
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Character, Short> e : expected.entrySet()) {
+            assertTrue(map.containsKey(e.getKey()));
+            assertEquals((short) e.getValue(), map.get(e.getKey()));
+        }
+    }
+
+    public void testOpenNotMapFileThrows() throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(new byte[100]);
+        } finally {
+            out.close();
+        }
+        try {
+            HashCharShortMaps.openMappedMap(file);
+            fail();
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+
+    public void testOpenCorruptedHeaderThrows() throws IOException {
+        // not a power of 2, larger than the file, the size of the file
+        for (int capacity : new int[] {100, 1 << 20, 1 << 30}) {
+            writeSmallMap();
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            try {
+                ByteBuffer buffer = ByteBuffer.allocate(4).order(ByteOrder.nativeOrder());
+                buffer.putInt(0, capacity);
+                // capacity offset in the header
+                raf.getChannel().write(buffer, 16L);
+            } finally {
+                raf.close();
+            }
+            checkOpenThrows();
+        }
+    }
+
+    public void testOpenInvalidLoadFactorThrows() throws IOException {
+        for (float loadFactor : new float[] {0.0f, 1.0f, Float.NaN}) {
+            writeSmallMap();
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            try {
+                ByteBuffer buffer = ByteBuffer.allocate(4).order(ByteOrder.nativeOrder());
+                buffer.putFloat(0, loadFactor);
+                // load factor offset in the header
+                raf.getChannel().write(buffer, 12L);
+            } finally {
+                raf.close();
+            }
+            checkOpenThrows();
+        }
+    }
+
+    public void testLookupInTableWithoutFreeSlotsThrows() throws IOException {
+        writeSmallMap();
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(4).order(ByteOrder.nativeOrder());
+            // capacity offset in the header
+            raf.getChannel().read(buffer, 16L);
+            int capacity = buffer.getInt(0);
+            byte[] keys = new byte[capacity * (Character.SIZE / 8)];
+            // every key is (char) 0x0101..., no slot is free
+            Arrays.fill(keys, (byte) 1);
+            // keys follow the 64-byte header
+            raf.getChannel().write(ByteBuffer.wrap(keys), 64L);
+        } finally {
+            raf.close();
+        }
+        MappedHashCharShortMap map = HashCharShortMaps.openMappedMap(file);
+        try {
+            map.containsKey((char) 2);
+            fail();
+        } catch (IllegalStateException expected) {
+            // expected
+        } finally {
+            map.close();
+        }
+    }
+
+    public void testOpenFileOfWrongSizeThrows() throws IOException {
+        writeSmallMap();
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(raf.length() + 8L);
+        } finally {
+            raf.close();
+        }
+        checkOpenThrows();
+    }
+
+    private void writeSmallMap() throws IOException {
+        Map<Character, Short> map = new HashMap<Character, Short>();
+        map.put((char) 1, (short) 1);
+        HashCharShortMaps.newMappedMap(file, map).close();
+    }
+
+    private void checkOpenThrows() {
+        try {
+            HashCharShortMaps.openMappedMap(file).close();
+            fail();
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,313 @@
+/* with
+ char|byte|short|int|long key
+ short|byte|char|int|long value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.map.hash;
+
+import junit.framework.TestCase;
+import net.openhft.collect.HashStats;
+import net.openhft.collect.map.CharShortCursor;
+import net.openhft.function.CharShortConsumer;
+import net.openhft.function.CharShortPredicate;
+import net.openhft.function.CharShortToShortFunction;
+
+import java.util.*;
+
+
+public class OffHeapHashCharShortMapTest extends TestCase {
+
+    public void testOperationsAgreeWithHashMap() {
+        OffHeapHashCharShortMap map = HashCharShortMaps.newOffHeapMap(0);
+        Map<Character, Short> expected = new HashMap<Character, Short>();
+        Random random = new Random(0);
+        try {
+            for (int i = 0; i < 100000; i++) {
+                // small key range, to hit present keys and the zero key often
+                char key = (char) random.nextInt(1000);
+                short value = (short) random.nextInt();
+                switch (random.nextInt(4)) {
+                    case 0:
+                    case 1:
+                        Short prev = expected.put(key, value);
+                        assertEquals(prev != null ? prev : map.defaultValue(),
+                                map.put(key, value));
+                        break;
+                    case 2:
+                        Short removed = expected.remove(key);
+                        assertEquals(removed != null ? removed : map.defaultValue(),
+                                map.remove(key));
+                        break;
+                    case 3:
+                        assertEquals(expected.containsKey(key), map.containsKey(key));
+                        break;
+                }
+            }
+            assertSameEntries(expected, map);
+
+            assertTrue(map.removeIf(new CharShortPredicate() {
+                @Override
+                public boolean test(char key, short value) {
+                    return value % 2 == 0;
+                }
+            }));
+            for (Character key : expected.keySet().toArray(new Character[0])) {
+                if (expected.get(key) % 2 == 0)
+                    expected.remove(key);
+            }
+            assertSameEntries(expected, map);
+
+            map.shrink();
+            assertSameEntries(expected, map);
+            map.clear();
+            assertTrue(map.isEmpty());
+            assertFalse(map.containsKey((char) 0));
+        } finally {
+            map.close();
+        }
+    }
+
+    private static void assertSameEntries(Map<Character, Short> expected,
+            OffHeapHashCharShortMap map) {
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Character, Short> e : expected.entrySet()) {
+            char key = e.getKey();
+            assertTrue(map.containsKey(key));
+            assertEquals((short) e.getValue(), map.get(key));
+        }
+    }
+
+    public void testSnapshot() {
+        OffHeapHashCharShortMap map = HashCharShortMaps.newOffHeapMap();
+        try {
+            map.put((char) 0, (short) 1);
+            map.put((char) 1, (short) 2);
+            HashCharShortMap snapshot = map.snapshot();
+            assertEquals(2, snapshot.size());
+            assertEquals((short) 1, snapshot.get((char) 0));
+            assertEquals((short) 2, snapshot.get((char) 1));
+        } finally {
+            map.close();
+        }
+    }
+
+    public void testClosedMapThrows() {
+        OffHeapHashCharShortMap map = HashCharShortMaps.newOffHeapMap();
+        map.put((char) 1, (short) 1);
+        map.close();
+        map.close();
+        try {
+            map.get((char) 1);
+            fail();
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+    }
+
+    public void testMapOperations() {
+        OffHeapHashCharShortMap map = HashCharShortMaps.newOffHeapMap(0);
+        try {
+            HashCharShortMap expected = HashCharShortMaps.newMutableMap();
+            for (int i = 0; i < 100; i++) {
+                map.put((char) i, (short) i);
+                expected.put((char) i, (short) i);
+            }
+            assertEquals(expected, map);
+            assertEquals(map, expected);
+            assertEquals(expected.hashCode(), map.hashCode());
+            assertEquals(expected.toString().length(), map.toString().length());
+            assertEquals(expected.keySet(), map.keySet());
+            assertEquals(map.entrySet(), expected.entrySet());
+            assertEquals(expected.size(), map.values().toShortArray().length);
+
+            HashStats stats = map.stats();
+            // the entry with the zero key is kept outside of the table
+            assertEquals(map.size() - 1, stats.size());
+            assertEquals(0, stats.removedSlots());
+            assertTrue(stats.rehashCount() > 0);
+
+            int count = 0;
+            for (CharShortCursor cur = map.cursor(); cur.moveNext(); count++) {
+                char key = cur.key();
+                assertEquals(expected.get(key), cur.value());
+                if (key % 3 == 0) {
+                    cur.remove();
+                    expected.remove(key);
+                } else {
+                    cur.setValue((short) (key + 1));
+                    expected.put(key, (short) (key + 1));
+                }
+            }
+            assertEquals(100, count);
+            assertEquals(expected, map);
+
+            for (Iterator<Map.Entry<Character, Short>> it = map.entrySet().iterator();
+                    it.hasNext();) {
+                Map.Entry<Character, Short> e = it.next();
+                if (e.getKey() % 2 == 0) {
+                    it.remove();
+                    expected.remove(e.getKey());
+                }
+            }
+            assertEquals(expected, map);
+            assertEquals(expected.size(), map.stats().size());
+        } finally {
+            map.close();
+        }
+    }
+
+    public void testClosedMapViewsThrow() {
+        final OffHeapHashCharShortMap map = HashCharShortMaps.newOffHeapMap();
+        map.put((char) 1, (short) 1);
+        final Set<Character> keySet = map.keySet();
+        final Collection<Short> values = map.values();
+        final Set<Map.Entry<Character, Short>> entrySet = map.entrySet();
+        final CharShortCursor cursor = map.cursor();
+        final Iterator<Character> iterator = keySet.iterator();
+        map.close();
+        List<Runnable> operations = new ArrayList<Runnable>();
+        operations.add(new Runnable() {
+            @Override
+            public void run() {
+                keySet.size();
+            }
+        });
+        operations.add(new Runnable() {
+            @Override
+            public void run() {
+                values.contains((short) 1);
+            }
+        });
+        operations.add(new Runnable() {
+            @Override
+            public void run() {
+                entrySet.toArray();
+            }
+        });
+        operations.add(new Runnable() {
+            @Override
+            public void run() {
+                cursor.moveNext();
+            }
+        });
+        operations.add(new Runnable() {
+            @Override
+            public void run() {
+                iterator.next();
+                iterator.remove();
+            }
+        });
+        operations.add(new Runnable() {
+            @Override
+            public void run() {
+                map.values();
+            }
+        });
+        operations.add(new Runnable() {
+            @Override
+            public void run() {
+                map.size();
+            }
+        });
+        operations.add(new Runnable() {
+            @Override
+            public void run() {
+                map.toString();
+            }
+        });
+        for (Runnable operation : operations) {
+            try {
+                operation.run();
+                fail();
+            } catch (IllegalStateException expected) {
+                // expected
+            }
+        }
+    }
+
+    /**
+     * forEach(), forEachWhile() and replaceAll() shouldn't access the buffers, released
+     * by a rehash or close in the callback.
+     */
+    public void testModificationInCallbackThrows() {
+        for (int method = 0; method < 3; method++) {
+            for (final boolean close : new boolean[] {false, true}) {
+                final OffHeapHashCharShortMap map = HashCharShortMaps.newOffHeapMap(0);
+                for (int i = 1; i <= 4; i++) {
+                    map.put((char) i, (short) i);
+                }
+                try {
+                    callBack(map, method, new Runnable() {
+                        @Override
+                        public void run() {
+                            if (close) {
+                                map.close();
+                            } else {
+                                // enough to rehash
+                                for (int i = 5; i < 100; i++) {
+                                    map.put((char) i, (short) i);
+                                }
+                            }
+                        }
+                    });
+                    fail();
+                } catch (IllegalStateException e) {
+                    assertTrue(close);
+                } catch (ConcurrentModificationException e) {
+                    assertFalse(close);
+                } finally {
+                    map.close();
+                }
+            }
+        }
+    }
+
+    private static void callBack(OffHeapHashCharShortMap map, int method,
+            final Runnable callback) {
+        switch (method) {
+            case 0:
+                map.forEach(new CharShortConsumer() {
+                    @Override
+                    public void accept(char key, short value) {
+                        callback.run();
+                    }
+                });
+                break;
+            case 1:
+                map.forEachWhile(new CharShortPredicate() {
+                    @Override
+                    public boolean test(char key, short value) {
+                        callback.run();
+                        return true;
+                    }
+                });
+                break;
+            case 2:
+                map.replaceAll(new CharShortToShortFunction() {
+                    @Override
+                    public short applyAsShort(char key, short value) {
+                        callback.run();
+                        return value;
+                    }
+                });
+                break;
+            default:
+                throw new AssertionError();
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/* with char|byte|short|int|long|float|double elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.queue;
+
+import junit.framework.TestCase;
+import net.openhft.collect.*;
+import net.openhft.function.*;
+
+import java.util.*;
+
+
+public class CharDequeTest extends TestCase {
+
+    public void testRandomOperations() {
+        Random random = new Random(0);
+        CharDeque deque = CharQueues.newMutableDeque();
+        Deque<Character> expected = new ArrayDeque<Character>();
+        for (int i = 0; i < 50000; i++) {
+            char v = (char) random.nextInt(50);
+            switch (random.nextInt(12)) {
+                case 0:
+                case 1:
+                    deque.addFirst(v);
+                    expected.addFirst(v);
+                    break;
+                case 2:
+                case 3:
+                    assertTrue(deque.offerLast(v));
+                    expected.addLast(v);
+                    break;
+                case 4:
+                    if (!expected.isEmpty()) {
+                        assertEquals(expected.getFirst(), (Character) deque.getFirstChar());
+                        assertEquals(expected.removeFirst(), (Character) deque.removeFirstChar());
+                    }
+                    break;
+                case 5:
+                    if (!expected.isEmpty()) {
+                        assertEquals(expected.getLast(), (Character) deque.getLastChar());
+                        assertEquals(expected.removeLast(), (Character) deque.removeLastChar());
+                    }
+                    break;
+                case 6:
+                    assertEquals(expected.pollFirst(), deque.pollFirst());
+                    assertEquals(expected.peekLast(), deque.peekLast());
+                    break;
+                case 7:
+                    assertEquals(expected.removeFirstOccurrence(v),
+                            deque.removeFirstOccurrence(v));
+                    break;
+                case 8:
+                    assertEquals(expected.removeLastOccurrence(v),
+                            deque.removeLastOccurrence(v));
+                    break;
+                case 9:
+                    assertEquals(expected.contains(v), deque.contains(v));
+                    break;
+                case 10:
+                    if (random.nextInt(10) == 0) {
+                        final char bound = v;
+                        deque.removeIf(new CharPredicate() {
+                            @Override
+                            public boolean test(char value) {
+                                return value < bound;
+                            }
+                        });
+                        for (Iterator<Character> it = expected.iterator(); it.hasNext();) {
+                            if (it.next() < bound)
+                                it.remove();
+                        }
+                    }
+                    break;
+                case 11:
+                    if (random.nextInt(100) == 0)
+                        deque.shrink();
+                    break;
+            }
+            assertEquals(expected.size(), deque.size());
+        }
+        assertDequeEquals(expected, deque);
+    }
+
+    public void testEmpty() {
+        CharDeque deque = CharQueues.newMutableDeque(100);
+        assertTrue(deque.isEmpty());
+        assertNull(deque.pollFirst());
+        assertNull(deque.peekLast());
+        try {
+            deque.removeFirstChar();
+            fail();
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+        try {
+            deque.getLastChar();
+            fail();
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+        assertEquals("[]", deque.toString());
+        assertFalse(deque.iterator().hasNext());
+        assertFalse(deque.cursor().moveNext());
+    }
+
+    public void testIteratorsAndCursor() {
+        Random random = new Random(1);
+        CharDeque deque = CharQueues.newMutableDeque();
+        Deque<Character> expected = new ArrayDeque<Character>();
+        // wrap the elements around the end of the array
+        for (int i = 0; i < 100; i++) {
+            char v = (char) random.nextInt(50);
+            deque.addFirst(v);
+            expected.addFirst(v);
+        }
+
+        CharIterator it = deque.iterator();
+        Iterator<Character> expectedIt = expected.iterator();
+        for (int i = 0; it.hasNext(); i++) {
+            assertEquals(expectedIt.next(), (Character) it.nextChar());
+            if (i % 3 == 0) {
+                it.remove();
+                expectedIt.remove();
+            }
+        }
+        assertDequeEquals(expected, deque);
+
+        it = deque.descendingIterator();
+        expectedIt = expected.descendingIterator();
+        for (int i = 0; it.hasNext(); i++) {
+            assertEquals(expectedIt.next(), (Character) it.nextChar());
+            if (i % 4 == 0) {
+                it.remove();
+                expectedIt.remove();
+            }
+        }
+        assertDequeEquals(expected, deque);
+
+        CharCursor cur = deque.cursor();
+        expectedIt = expected.iterator();
+        for (int i = 0; cur.moveNext(); i++) {
+            assertEquals(expectedIt.next(), (Character) cur.elem());
+            if (i % 2 == 0) {
+                cur.remove();
+                expectedIt.remove();
+            }
+        }
+        assertDequeEquals(expected, deque);
+
+        final List<Character> split = new ArrayList<Character>();
+        CharConsumer collector = new CharConsumer() {
+            @Override
+            public void accept(char value) {
+                split.add(value);
+            }
+        };
+        CharSpliterator s = deque.charSpliterator();
+        CharSpliterator prefix = s.trySplit();
+        assertTrue(prefix.tryAdvance(collector));
+        prefix.forEachRemaining(collector);
+        s.forEachRemaining(collector);
+        assertEquals(new ArrayList<Character>(expected), split);
+
+        it = deque.iterator();
+        deque.addLast((char) 1);
+        try {
+            it.nextChar();
+            fail();
+        } catch (ConcurrentModificationException e) {
+            // expected
+        }
+    }
+
+    public void testCapacity() {
+        CharDeque deque = CharQueues.newMutableDeque();
+        assertTrue(deque.ensureCapacity(100));
+        assertFalse(deque.ensureCapacity(100));
+        for (int i = 0; i < 100; i++) {
+            deque.addFirst((char) i);
+        }
+        for (int i = 0; i < 90; i++) {
+            deque.removeLastChar();
+        }
+        assertTrue(deque.shrink());
+        assertFalse(deque.shrink());
+        assertEquals((char) 99, deque.getFirstChar());
+        assertEquals((char) 90, deque.getLastChar());
+    }
+
+    /* if float|double elem */
+    public void testFloatingPointElements() {
+        CharDeque deque = CharQueues.newMutableDeque();
+        deque.addLast(Character.NaN);
+        deque.addLast((char) 0);
+        assertTrue(deque.contains(Character.NaN));
+        assertFalse(deque.contains((char) -0.0));
+        assertFalse(deque.removeFirstOccurrence((char) -0.0));
+        assertTrue(deque.removeLastOccurrence(Character.NaN));
+        assertEquals("[0.0]", deque.toString());
+    }
+    /* endif */
+
+    private static void assertDequeEquals(Deque<Character> expected, CharDeque deque) {
+        assertEquals(expected.size(), deque.size());
+        assertEquals(new ArrayList<Character>(expected), new ArrayList<Character>(deque));
+        assertEquals(expected.toString(), deque.toString());
+        char[] a = deque.toCharArray();
+        assertTrue(Arrays.equals(a, deque.toArray(new char[0])));
+        int i = 0;
+        for (Character e : expected) {
+            assertEquals(e, (Character) a[i++]);
+        }
+    }
+}
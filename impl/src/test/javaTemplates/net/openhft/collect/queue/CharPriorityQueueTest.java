@@ -0,0 +1,125 @@
+/* with char|byte|short|int|long|float|double elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.queue;
+
+import junit.framework.TestCase;
+import net.openhft.function.CharConsumer;
+
+import java.util.*;
+
+
+public class CharPriorityQueueTest extends TestCase {
+
+    public void testRandomOperations() {
+        Random random = new Random(0);
+        CharPriorityQueue queue = CharQueues.newPriorityQueue();
+        PriorityQueue<Character> expected = new PriorityQueue<Character>();
+        for (int i = 0; i < 100000; i++) {
+            int op = random.nextInt(10);
+            if (op < 4) {
+                char e = (char) random.nextInt(1000);
+                queue.add(e);
+                expected.add(e);
+            } else if (op < 9) {
+                if (!expected.isEmpty()) {
+                    assertEquals(expected.peek(), (Character) queue.min());
+                    assertEquals(expected.poll(), (Character) queue.removeMin());
+                }
+            } else {
+                char[] elements = new char[random.nextInt(2) == 0 ?
+                        random.nextInt(5) : random.nextInt(Math.min(2 * queue.size() + 1, 20))];
+                for (int j = 0; j < elements.length; j++) {
+                    elements[j] = (char) random.nextInt(1000);
+                    expected.add(elements[j]);
+                }
+                queue.addAll(elements);
+            }
+            assertEquals(expected.size(), queue.size());
+        }
+        char[] elements = queue.toCharArray();
+        Arrays.sort(elements);
+        final List<Character> forEach = new ArrayList<Character>();
+        queue.forEach(new CharConsumer() {
+            @Override
+            public void accept(char value) {
+                forEach.add(value);
+            }
+        });
+        Collections.sort(forEach);
+        for (int i = 0; !expected.isEmpty(); i++) {
+            assertEquals(expected.peek(), (Character) elements[i]);
+            assertEquals(expected.peek(), forEach.get(i));
+            assertEquals(expected.poll(), (Character) queue.removeMin());
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    public void testHeapSort() {
+        Random random = new Random(1);
+        for (int size : new int[] {0, 1, 2, 4, 5, 17, 1000}) {
+            char[] elements = new char[size];
+            for (int i = 0; i < size; i++) {
+                elements[i] = (char) random.nextInt();
+            }
+            CharPriorityQueue queue = CharQueues.newPriorityQueue(size);
+            queue.addAll(elements);
+            Arrays.sort(elements);
+            for (char e : elements) {
+                assertEquals(e, queue.removeMin());
+            }
+            assertTrue(queue.isEmpty());
+        }
+    }
+
+    public void testEmpty() {
+        CharPriorityQueue queue = CharQueues.newPriorityQueue();
+        queue.add((char) 1);
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        assertEquals("[]", queue.toString());
+        try {
+            queue.min();
+            fail();
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+        try {
+            queue.removeMin();
+            fail();
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+        try {
+            CharQueues.newPriorityQueue(-1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /* if float|double elem */
+    public void testFloatingPointOrder() {
+        CharPriorityQueue queue = CharQueues.newPriorityQueue();
+        queue.addAll(new char[] {Character.NaN, (char) 0, (char) -0.0, (char) -1});
+        assertEquals((char) -1, queue.removeMin());
+        assertEquals(0, Character.compare((char) -0.0, queue.removeMin()));
+        assertEquals(0, Character.compare((char) 0, queue.removeMin()));
+        assertTrue(Character.isNaN(queue.removeMin()));
+    }
+    /* endif */
+}
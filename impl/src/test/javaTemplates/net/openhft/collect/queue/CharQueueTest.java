@@ -0,0 +1,246 @@
+/* with char|byte|short|int|long|float|double elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.queue;
+
+import junit.framework.TestCase;
+import net.openhft.function.CharConsumer;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+public class CharQueueTest extends TestCase {
+
+    /** Narrow elements wrap around, transferred sequences are compared modulo the domain. */
+    private static final int COUNT = 200000;
+
+    public void testCapacity() {
+        assertEquals(1, CharQueues.newSpscQueue(1).capacity());
+        assertEquals(128, CharQueues.newSpscQueue(100).capacity());
+        assertEquals(128, CharQueues.newMpscQueue(128).capacity());
+        for (int capacity : new int[] {0, -1, (1 << 30) + 1}) {
+            try {
+                CharQueues.newSpscQueue(capacity);
+                fail();
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            try {
+                CharQueues.newMpscQueue(capacity);
+                fail();
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    public void testSingleThreaded() {
+        for (CharQueue queue : new CharQueue[] {
+                CharQueues.newSpscQueue(8), CharQueues.newMpscQueue(8)}) {
+            assertTrue(queue.isEmpty());
+            try {
+                queue.remove();
+                fail();
+            } catch (NoSuchElementException e) {
+                // expected
+            }
+            char[] a = new char[12];
+            for (int i = 0; i < a.length; i++) {
+                a[i] = (char) i;
+            }
+            assertTrue(queue.offer((char) 100));
+            assertEquals(7, queue.offerAll(a));
+            assertFalse(queue.offer((char) 101));
+            assertEquals(0, queue.offerAll(a, 2, 3));
+            assertEquals(8, queue.size());
+            assertEquals((char) 100, queue.remove());
+            char[] b = new char[5];
+            assertEquals(3, queue.drainTo(b, 2, 3));
+            assertEquals((char) 0, b[2]);
+            assertEquals((char) 2, b[4]);
+            assertEquals(4, queue.offerAll(a, 7, 5));
+            final int[] drained = {0};
+            assertEquals(8, queue.drain(new CharConsumer() {
+                @Override
+                public void accept(char value) {
+                    drained[0]++;
+                }
+            }));
+            assertEquals(8, drained[0]);
+            assertTrue(queue.isEmpty());
+            assertEquals(0, queue.drainTo(b));
+            try {
+                queue.offerAll(a, 10, 3);
+                fail();
+            } catch (IndexOutOfBoundsException e) {
+                // expected
+            }
+            try {
+                queue.drainTo(b, -1, 1);
+                fail();
+            } catch (IndexOutOfBoundsException e) {
+                // expected
+            }
+        }
+    }
+
+    public void testSpscTransfer() throws InterruptedException {
+        final CharQueue queue = CharQueues.newSpscQueue(1024);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                char[] batch = new char[100];
+                int i = 0;
+                while (i < COUNT) {
+                    if (i % 3 == 0) {
+                        if (queue.offer((char) i)) {
+                            i++;
+                        } else {
+                            Thread.yield();
+                        }
+                    } else {
+                        int n = Math.min(batch.length, COUNT - i);
+                        for (int j = 0; j < n; j++) {
+                            batch[j] = (char) (i + j);
+                        }
+                        i += queue.offerAll(batch, 0, n);
+                    }
+                }
+            }
+        });
+        producer.setDaemon(true);
+        producer.setUncaughtExceptionHandler(handler(failure));
+        producer.start();
+
+        final int[] received = {0};
+        CharConsumer check = new CharConsumer() {
+            @Override
+            public void accept(char value) {
+                assertEquals((char) received[0]++, value);
+            }
+        };
+        char[] batch = new char[77];
+        for (int round = 0; received[0] < COUNT; round++) {
+            switch (round % 3) {
+                case 0:
+                    if (!queue.isEmpty()) {
+                        check.accept(queue.remove());
+                    } else {
+                        Thread.yield();
+                    }
+                    break;
+                case 1:
+                    int n = queue.drainTo(batch);
+                    for (int j = 0; j < n; j++) {
+                        check.accept(batch[j]);
+                    }
+                    break;
+                case 2:
+                    queue.drain(check);
+                    break;
+            }
+        }
+        producer.join();
+        assertNull(failure.get());
+        assertTrue(queue.isEmpty());
+    }
+
+    public void testMpscTransfer() throws InterruptedException {
+        final int producers = 4;
+        final int perProducer = COUNT / producers;
+        final CharQueue queue = CharQueues.newMpscQueue(256);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            threads[p] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    char[] batch = new char[10];
+                    int i = 0;
+                    while (i < perProducer) {
+                        if (i % 2 == 0) {
+                            if (queue.offer((char) (i * producers + producer))) {
+                                i++;
+                            } else {
+                                Thread.yield();
+                            }
+                        } else {
+                            int n = Math.min(batch.length, perProducer - i);
+                            for (int j = 0; j < n; j++) {
+                                batch[j] = (char) ((i + j) * producers + producer);
+                            }
+                            i += queue.offerAll(batch, 0, n);
+                        }
+                    }
+                }
+            });
+            threads[p].setDaemon(true);
+            threads[p].setUncaughtExceptionHandler(handler(failure));
+            threads[p].start();
+        }
+
+        final int[] received = new int[producers];
+        CharConsumer check = new CharConsumer() {
+            @Override
+            public void accept(char value) {
+                /* if !(float|double elem) */
+                int producer = ((int) value) & (producers - 1);
+                /* elif float|double elem //
+                int producer = ((int) value) % producers;
+                // endif */
+                assertEquals((char) (received[producer]++ * producers + producer), value);
+            }
+        };
+        char[] batch = new char[50];
+        int total = 0;
+        for (int round = 0; total < COUNT; round++) {
+            if (round % 2 == 0) {
+                int n = queue.drainTo(batch);
+                for (int j = 0; j < n; j++) {
+                    check.accept(batch[j]);
+                }
+                total += n;
+            } else {
+                int n = queue.drain(check);
+                if (n == 0)
+                    Thread.yield();
+                total += n;
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(failure.get());
+        for (int count : received) {
+            assertEquals(perProducer, count);
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    private static Thread.UncaughtExceptionHandler handler(
+            final AtomicReference<Throwable> failure) {
+        return new Thread.UncaughtExceptionHandler() {
+            @Override
+            public void uncaughtException(Thread t, Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        };
+    }
+}
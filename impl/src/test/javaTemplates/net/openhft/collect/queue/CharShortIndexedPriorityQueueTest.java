@@ -0,0 +1,139 @@
+/* with
+ char|byte|short|int|long|float|double key
+ short|byte|char|int|long|float|double value
+*/
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.queue;
+
+import junit.framework.TestCase;
+import net.openhft.function.CharShortConsumer;
+
+import java.util.*;
+
+
+public class CharShortIndexedPriorityQueueTest extends TestCase {
+
+    public void testRandomOperations() {
+        Random random = new Random(0);
+        CharShortIndexedPriorityQueue queue =
+                CharShortIndexedPriorityQueues.newIndexedPriorityQueue();
+        Map<Character, Short> expected = new HashMap<Character, Short>();
+        for (int i = 0; i < 50000; i++) {
+            char id = (char) random.nextInt(300);
+            short priority = (short) random.nextInt(100);
+            Short current = expected.get(id);
+            assertEquals(current != null, queue.contains(id));
+            switch (random.nextInt(6)) {
+                case 0:
+                case 1:
+                    assertEquals(current == null, queue.add(id, priority));
+                    if (current == null)
+                        expected.put(id, priority);
+                    break;
+                case 2:
+                    if (current != null) {
+                        boolean decrease = ((Short) priority).compareTo(current) < 0;
+                        assertEquals(decrease, queue.decreasePriority(id, priority));
+                        if (decrease)
+                            expected.put(id, priority);
+                    }
+                    break;
+                case 3:
+                    if (current != null) {
+                        assertEquals(current, (Short) queue.changePriority(id, priority));
+                        expected.put(id, priority);
+                    }
+                    break;
+                case 4:
+                    assertEquals(expected.remove(id) != null, queue.remove(id));
+                    break;
+                case 5:
+                    if (!expected.isEmpty()) {
+                        short min = queue.minPriority();
+                        char minId = queue.removeMin();
+                        assertEquals((Short) min, expected.remove(minId));
+                    }
+                    break;
+            }
+            assertEquals(expected.size(), queue.size());
+            if (!expected.isEmpty()) {
+                assertEquals(Collections.min(expected.values()), (Short) queue.minPriority());
+                assertEquals(expected.get(queue.minId()), (Short) queue.minPriority());
+            }
+        }
+        final Map<Character, Short> forEach = new HashMap<Character, Short>();
+        queue.forEach(new CharShortConsumer() {
+            @Override
+            public void accept(char id, short priority) {
+                forEach.put(id, priority);
+            }
+        });
+        assertEquals(expected, forEach);
+        for (Map.Entry<Character, Short> e : expected.entrySet()) {
+            assertEquals(e.getValue(), (Short) queue.priority(e.getKey()));
+        }
+    }
+
+    public void testDecreasePriority() {
+        CharShortIndexedPriorityQueue queue =
+                CharShortIndexedPriorityQueues.newIndexedPriorityQueue(100);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(queue.add((char) i, (short) (i + 20)));
+        }
+        assertFalse(queue.add((char) 50, (short) 0));
+        assertFalse(queue.decreasePriority((char) 50, (short) 100));
+        assertTrue(queue.decreasePriority((char) 50, (short) 10));
+        assertEquals((char) 50, queue.minId());
+        assertEquals((short) 10, queue.priority((char) 50));
+        assertEquals((short) 10, queue.changePriority((char) 50, (short) 110));
+        assertEquals((char) 0, queue.removeMin());
+        assertEquals((char) 1, queue.removeMin());
+        assertFalse(queue.contains((char) 0));
+        assertTrue(queue.add((char) 0, (short) 1));
+        assertEquals((char) 0, queue.minId());
+    }
+
+    public void testEmpty() {
+        CharShortIndexedPriorityQueue queue =
+                CharShortIndexedPriorityQueues.newIndexedPriorityQueue();
+        queue.add((char) 1, (short) 1);
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        assertFalse(queue.contains((char) 1));
+        assertFalse(queue.remove((char) 1));
+        assertEquals("{}", queue.toString());
+        try {
+            queue.removeMin();
+            fail();
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+        try {
+            queue.priority((char) 1);
+            fail();
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+        try {
+            queue.decreasePriority((char) 1, (short) 0);
+            fail();
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+    }
+}
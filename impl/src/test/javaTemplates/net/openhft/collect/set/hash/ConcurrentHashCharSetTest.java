@@ -0,0 +1,284 @@
+/* with char|byte|short|int|long elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.set.hash;
+
+import junit.framework.TestCase;
+import net.openhft.function.CharConsumer;
+
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+public class ConcurrentHashCharSetTest extends TestCase {
+
+    private static final int THREADS = 4;
+    private static final int ELEMENTS = /* if !(byte elem) */10000/* elif byte elem //256// endif */;
+    private static final int INSERTED = ELEMENTS / 2;
+
+    public void testSingleElementOperations() {
+        ConcurrentHashCharSet set = HashCharSets.newConcurrentSet();
+        assertTrue(set.isEmpty());
+        assertTrue(set.add((char) 1));
+        assertFalse(set.add((char) 1));
+        assertTrue(set.contains((char) 1));
+        assertTrue(set.removeChar((char) 1));
+        assertFalse(set.removeChar((char) 1));
+        assertFalse(set.contains((char) 1));
+        assertTrue(set.add((char) 1));
+        assertEquals(1, set.size());
+        /* if int|long elem */
+        char min = Character.MIN_VALUE;
+        assertTrue(set.add(min));
+        assertFalse(set.add(min));
+        assertTrue(set.contains(min));
+        assertEquals(2, set.snapshot().size());
+        assertTrue(set.removeChar(min));
+        assertFalse(set.contains(min));
+        char nextToMin = (char) (Character.MIN_VALUE + 1);
+        assertTrue(set.add(nextToMin));
+        assertTrue(set.contains(nextToMin));
+        assertEquals(2, set.snapshot().size());
+        assertTrue(set.removeChar(nextToMin));
+        /* endif */
+        set.clear();
+        assertTrue(set.isEmpty());
+    }
+
+    /**
+     * All threads add the same elements, then remove the same half of them, so each add
+     * and remove competes with other threads, adds also compete with resizes.
+     */
+    public void testConcurrentAddsAndRemovesAcrossResize() throws InterruptedException {
+        final ConcurrentHashCharSet set = HashCharSets.newConcurrentSet(0);
+        final CountDownLatch start = new CountDownLatch(1);
+        final CyclicBarrier added = new CyclicBarrier(THREADS);
+        final AtomicInteger addedCount = new AtomicInteger();
+        final AtomicInteger removedCount = new AtomicInteger();
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        throw new AssertionError(e);
+                    }
+                    for (int i = 0; i < ELEMENTS; i++) {
+                        if (set.add((char) i))
+                            addedCount.incrementAndGet();
+                    }
+                    try {
+                        added.await();
+                    } catch (InterruptedException e) {
+                        throw new AssertionError(e);
+                    } catch (BrokenBarrierException e) {
+                        throw new AssertionError(e);
+                    }
+                    for (int i = 0; i < ELEMENTS; i++) {
+                        if (removed(i) && set.removeChar((char) i))
+                            removedCount.incrementAndGet();
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(ELEMENTS, addedCount.get());
+        int expectedRemoved = 0;
+        for (int i = 0; i < ELEMENTS; i++) {
+            assertEquals(!removed(i), set.contains((char) i));
+            if (removed(i))
+                expectedRemoved++;
+        }
+        assertEquals(expectedRemoved, removedCount.get());
+        assertEquals(ELEMENTS - expectedRemoved, set.size());
+        HashCharSet snapshot = set.snapshot();
+        assertEquals(ELEMENTS - expectedRemoved, snapshot.size());
+    }
+
+    public void testIterationAcrossResize() {
+        final ConcurrentHashCharSet set = HashCharSets.newConcurrentSet(0);
+        for (int i = 0; i < ELEMENTS; i++) {
+            set.add((char) i);
+        }
+        final int[] visits = new int[ELEMENTS];
+        set.forEach(new CharConsumer() {
+            @Override
+            public void accept(char e) {
+                // the first visit resizes the set, the rest are visited across the resize
+                set.ensureCapacity(ELEMENTS * 4);
+                visits[/* if !(byte elem) */(int) e/* elif byte elem //e & 0xFF// endif */]++;
+            }
+        });
+        for (int i = 0; i < ELEMENTS; i++) {
+            assertEquals(1, visits[i]);
+        }
+    }
+
+    /**
+     * Threads add overlapping ranges of elements, while another thread takes snapshots,
+     * which should contain all elements added before the snapshot is started,
+     * even if they are added to the next table of a resize in progress. Adds a half
+     * of the elements, mutable sets of {@code byte} elements couldn't hold all of them.
+     */
+    public void testConcurrentInsertsDuringResize() throws InterruptedException {
+        final ConcurrentHashCharSet set = HashCharSets.newConcurrentSet(0);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger addedCount = new AtomicInteger();
+        final AtomicIntegerArray progress = new AtomicIntegerArray(THREADS);
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicReference<String> failure = new AtomicReference<String>();
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        throw new AssertionError(e);
+                    }
+                    for (int i = 0; i < INSERTED; i++) {
+                        if (set.add((char) element(thread, i)))
+                            addedCount.incrementAndGet();
+                        progress.set(thread, i + 1);
+                        if ((i & 15) == 0)
+                            Thread.yield();
+                    }
+                }
+            };
+            threads[t].setDaemon(true);
+            threads[t].start();
+        }
+        Thread reader = new Thread() {
+            @Override
+            public void run() {
+                while (!done.get() && failure.get() == null) {
+                    int[] added = new int[THREADS];
+                    for (int t = 0; t < THREADS; t++) {
+                        added[t] = progress.get(t);
+                    }
+                    HashCharSet snapshot = set.snapshot();
+                    for (int t = 0; t < THREADS; t++) {
+                        for (int i = 0; i < added[t]; i++) {
+                            if (!snapshot.contains((char) element(t, i))) {
+                                failure.set("missed " + element(t, i));
+                                return;
+                            }
+                        }
+                    }
+                    Thread.yield();
+                }
+            }
+        };
+        reader.setDaemon(true);
+        reader.start();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        done.set(true);
+        reader.join();
+        assertNull(failure.get());
+        assertEquals(INSERTED, addedCount.get());
+        assertEquals(INSERTED, set.size());
+        assertEquals(INSERTED, set.snapshot().size());
+        for (int i = 0; i < INSERTED; i++) {
+            assertTrue(set.contains((char) i));
+        }
+    }
+
+    /**
+     * Threads remove elements, while another thread resizes the set back and forth, so
+     * removes meet frozen slots and complete their moves. After that the old tables should
+     * be retired: a resize in progress forbids to start another one.
+     */
+    public void testRemovesDuringResizes() throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            final ConcurrentHashCharSet set = HashCharSets.newConcurrentSet(0);
+            for (int i = 0; i < ELEMENTS; i++) {
+                set.add((char) i);
+            }
+            final CountDownLatch start = new CountDownLatch(1);
+            final AtomicBoolean done = new AtomicBoolean();
+            Thread resizer = new Thread() {
+                @Override
+                public void run() {
+                    while (!done.get()) {
+                        set.ensureCapacity(ELEMENTS * 2);
+                        set.shrink();
+                        Thread.yield();
+                    }
+                }
+            };
+            resizer.setDaemon(true);
+            resizer.start();
+            Thread[] threads = new Thread[THREADS];
+            for (int t = 0; t < THREADS; t++) {
+                final int thread = t;
+                threads[t] = new Thread() {
+                    @Override
+                    public void run() {
+                        try {
+                            start.await();
+                        } catch (InterruptedException e) {
+                            throw new AssertionError(e);
+                        }
+                        for (int i = thread; i < ELEMENTS; i += THREADS) {
+                            if (!set.removeChar((char) i))
+                                throw new AssertionError("not removed " + i);
+                            if ((i & 15) == 0)
+                                Thread.yield();
+                        }
+                    }
+                };
+                threads[t].start();
+            }
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            done.set(true);
+            resizer.join();
+            assertTrue(set.isEmpty());
+            assertTrue(set.snapshot().isEmpty());
+            assertTrue(set.ensureCapacity(ELEMENTS * 16));
+            assertTrue(set.add((char) 1));
+            assertTrue(set.contains((char) 1));
+        }
+    }
+
+    /** Threads start from different offsets, each thread adds all elements */
+    private static int element(int thread, int i) {
+        return (i + thread * (INSERTED / THREADS)) % INSERTED;
+    }
+
+    private static boolean removed(int i) {
+        return i % 4 < 2;
+    }
+}
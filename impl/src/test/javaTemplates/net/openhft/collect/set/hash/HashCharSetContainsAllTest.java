@@ -0,0 +1,67 @@
+/* with char|byte|short|int|long elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.set.hash;
+
+import junit.framework.TestCase;
+import net.openhft.collect.CharHashConfig;
+import net.openhft.collect.CharHashConfigs;
+
+import java.util.Random;
+
+
+public class HashCharSetContainsAllTest extends TestCase {
+
+    public void testContainsAllAgreesWithContains() {
+        for (CharHashConfig config : CharHashConfigs.all()) {
+            HashCharSetFactory factory = HashCharSets.getDefaultFactory().withConfig(config);
+            HashCharSet set = factory.newMutableSet();
+            Random random = new Random(0);
+            for (int i = 0; i < 100; i++) {
+                set.add((char) random.nextInt());
+            }
+            // leave removed slots in the table
+            for (int i = 0; i < 20; i++) {
+                set.removeChar((char) random.nextInt());
+            }
+            char[] elements = new char[1000];
+            for (int i = 0; i < elements.length; i++) {
+                elements[i] = (char) random.nextInt();
+            }
+            checkContainsAll(set, elements);
+            checkContainsAll(factory.newImmutableSet(set), elements);
+        }
+    }
+
+    private static void checkContainsAll(HashCharSet set, char[] elements) {
+        boolean[] results = new boolean[elements.length];
+        set.containsAll(elements, results);
+        for (int i = 0; i < elements.length; i++) {
+            assertEquals(set.contains(elements[i]), results[i]);
+        }
+    }
+
+    public void testShorterResultsArrayThrows() {
+        HashCharSet set = HashCharSets.newMutableSet();
+        try {
+            set.containsAll(new char[2], new boolean[1]);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/* with char|byte|short|int|long elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.set.hash;
+
+import junit.framework.TestCase;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Random;
+
+
+public class HashCharSetExternalizationTest extends TestCase {
+
+    public void testMutableSet() throws Exception {
+        HashCharSet set = fill(HashCharSets.newMutableSet());
+        // leave removed slots in the table
+        Random random = new Random(1);
+        for (int i = 0; i < 20; i++) {
+            set.removeChar((char) random.nextInt());
+        }
+        HashCharSet copy = checkRoundTrip(set);
+        assertTrue(copy.add((char) 42));
+        assertTrue(copy.contains((char) 42));
+    }
+
+    public void testImmutableSet() throws Exception {
+        checkRoundTrip(HashCharSets.getDefaultFactory()
+                .newImmutableSet(fill(HashCharSets.newMutableSet())));
+    }
+
+    private static HashCharSet fill(HashCharSet set) {
+        Random random = new Random(0);
+        for (int i = 0; i < 100; i++) {
+            set.add((char) random.nextInt());
+        }
+        return set;
+    }
+
+    private static HashCharSet checkRoundTrip(HashCharSet set)
+            throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(set);
+        out.close();
+        ObjectInputStream in =
+                new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        HashCharSet copy = (HashCharSet) in.readObject();
+        in.close();
+
+        assertEquals(set.getClass(), copy.getClass());
+        assertEquals(set, copy);
+        assertEquals(set.currentLoad(), copy.currentLoad());
+        // the table is restored as is, so the iteration order is the same
+        assertEquals(new ArrayList<Character>(set), new ArrayList<Character>(copy));
+        return copy;
+    }
+}
@@ -0,0 +1,83 @@
+/* with char|byte|short|int|long elem */
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.collect.set.hash;
+
+import junit.framework.TestCase;
+import net.openhft.collect.CharHashConfig;
+import net.openhft.collect.CharHashConfigs;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+
+public class HashCharSetParallelBuildTest extends TestCase {
+
+    /** Enough to be inserted in parallel, in several rounds. */
+    private static final int SIZE = 300000;
+
+    private ForkJoinPool pool;
+
+    @Override
+    protected void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @Override
+    protected void tearDown() {
+        pool.shutdown();
+    }
+
+    public void testParallelBuildAgreesWithSequential() {
+        Random random = new Random(0);
+        char[] elements = new char[SIZE];
+        Set<Character> expected = new HashSet<Character>();
+        for (int i = 0; i < SIZE; i++) {
+            // duplicates, and for narrow elements free value clashes
+            elements[i] = (char) random.nextInt(
+                    /* if byte|char|short elem */100/* elif !(byte|char|short elem) //SIZE// endif */);
+            expected.add(elements[i]);
+        }
+        for (CharHashConfig config : CharHashConfigs.all()) {
+            HashCharSetFactory factory = HashCharSets.getDefaultFactory().withConfig(config);
+            assertTrue(factory instanceof ParallelHashCharSetFactory);
+            HashCharSet set = ParallelHashCharSets.newImmutableSet(factory, elements, pool);
+            assertTrue(set instanceof ParallelHashCharSet);
+            assertEquals(expected, set);
+            assertEquals(factory.newImmutableSet(elements).currentLoad(), set.currentLoad());
+        }
+    }
+
+    public void testSameIterationOrderAsSequential() {
+        Random random = new Random(1);
+        char[] elements = new char[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            elements[i] = (char) random.nextInt(
+                    // all byte values overflow a mutable hash
+                    /* if byte elem */200/* elif !(byte elem) //Integer.MAX_VALUE// endif */);
+        }
+        // the initial free value, inserted after all other elements in parallel
+        elements[10] = (char) 0;
+        for (CharHashConfig config : CharHashConfigs.all()) {
+            HashCharSetFactory factory = HashCharSets.getDefaultFactory().withConfig(config);
+            HashCharSet set = ParallelHashCharSets.newImmutableSet(factory, elements, pool);
+            assertEquals(factory.newImmutableSet(elements).toString(), set.toString());
+        }
+    }
+}